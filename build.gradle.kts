@@ -21,6 +21,9 @@ plugins {
 
     // Building "fat" JARs
     id("com.github.johnrengelman.shadow") version "7.1.2"
+
+    // Microbenchmarks, in their own "jmh" source set
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 java {
@@ -43,6 +46,19 @@ spotless {
     }
 }
 
+jmh {
+    jmhVersion.set("1.35")
+
+    // Track allocations per operation next to the throughput
+    profilers.add("gc")
+
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+
+    // Run a subset of benchmarks with -PjmhIncludes=<regex>
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
 dependencies {
     // Immutable collections
     implementation("com.google.guava:guava:31.1-jre")
@@ -74,7 +90,7 @@ dependencies {
 
     // Unit testing
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.0")
-    testCompileOnly("org.junit.jupiter:junit-jupiter-params:5.9.0")
+    testImplementation("org.junit.jupiter:junit-jupiter-params:5.9.0")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.0")
 
     // Mocking
@@ -86,6 +102,22 @@ dependencies {
     testImplementation("org.assertj:assertj-core:3.23.1")
 }
 
+// Magic numbers of the sliding pieces, searched once here instead of every time the engine starts
+val generateMagics by tasks.registering(JavaExec::class) {
+    val outputDir = layout.buildDirectory.dir("generated/resources/magics")
+
+    classpath = sourceSets.main.get().output.classesDirs + configurations.runtimeClasspath.get()
+    mainClass.set("cl.vmardones.chess.engine.board.MagicGenerator")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(outputDir.get().file("magics/sliders.bin").asFile.path)
+    })
+    outputs.dir(outputDir)
+}
+
+sourceSets.main {
+    resources.srcDir(generateMagics)
+}
+
 tasks {
     compileJava {
         dependsOn(spotlessApply)
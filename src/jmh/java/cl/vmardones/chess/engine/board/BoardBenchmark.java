@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.player.Alliance;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Benchmarks of move generation and board construction, on the standard perft positions. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BoardBenchmark {
+
+  @Param({"STARTPOS", "KIWIPETE", "POSITION_4"})
+  private PerftReference reference;
+
+  private final BoardService boardService = new BoardService();
+  private Board board;
+
+  @Setup
+  public void setUp() {
+    board = Fen.parse(reference.getFen()).toBoard();
+  }
+
+  @Benchmark
+  public Collection<Move> calculatePseudoLegals() {
+    return boardService.calculateLegals(board, board.getWhitePieces());
+  }
+
+  @Benchmark
+  public Collection<Move> calculateLegals() {
+    return boardService.calculateLegals(board, Alliance.WHITE);
+  }
+
+  @Benchmark
+  public Board nextTurnBoard() {
+    return board.nextTurnBuilder().build();
+  }
+}
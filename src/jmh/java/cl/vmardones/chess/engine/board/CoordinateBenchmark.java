@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of coordinate lookups. Relative coordinates are looked up for every knight jump from
+ * every coordinate, so about a third of them fall outside of the board, like during move
+ * generation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CoordinateBenchmark {
+
+  private static final int[][] KNIGHT_JUMPS = {
+    {-1, 2}, {1, 2}, {-2, 1}, {2, 1}, {-1, -2}, {1, -2}, {-2, -1}, {2, -1}
+  };
+
+  private final Coordinate[] coordinates = new Coordinate[Board.MAX_TILES];
+  private final String[] algebraic = new String[Board.MAX_TILES];
+
+  @Setup
+  public void setUp() {
+    for (var i = 0; i < Board.MAX_TILES; i++) {
+      coordinates[i] = Coordinate.of(i);
+      algebraic[i] = coordinates[i].toString();
+    }
+  }
+
+  @Benchmark
+  public void relativeCoordinates(final Blackhole blackhole) {
+    for (var coordinate : coordinates) {
+      for (var jump : KNIGHT_JUMPS) {
+        blackhole.consume(coordinate.to(jump[0], jump[1]));
+      }
+    }
+  }
+
+  @Benchmark
+  public void algebraicNotation(final Blackhole blackhole) {
+    for (var text : algebraic) {
+      blackhole.consume(Coordinate.of(text));
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of reading and writing FEN, on an EPD file of positions taken from random games. The
+ * throughput is reported per position, not per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FenBenchmark {
+
+  private static final int POSITIONS = 10_000;
+  private static final int MAX_PLIES = 100;
+  private static final long SEED = 20_220_101;
+
+  private final StringBuilder builder = new StringBuilder();
+  private Position[] positions;
+  private String[] lines;
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    positions = createPositions();
+    lines = new String[POSITIONS];
+
+    for (var i = 0; i < POSITIONS; i++) {
+      lines[i] = toEpd(positions[i], i);
+    }
+
+    file = Files.createTempFile("positions", ".epd");
+    Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /* Every line is already in memory, so only the parser is measured */
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public void parse(final Blackhole blackhole) {
+    for (var line : lines) {
+      blackhole.consume(Fen.parse(line));
+    }
+  }
+
+  /* The way an EPD test suite is loaded, reading and decoding the file line by line */
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public void parseFile(final Blackhole blackhole) throws IOException {
+    try (final var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+        blackhole.consume(Fen.parse(line));
+      }
+    }
+  }
+
+  /* The builder is reused, so writing allocates nothing */
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public void write(final Blackhole blackhole) {
+    for (var position : positions) {
+      builder.setLength(0);
+      blackhole.consume(Fen.write(position, builder).length());
+    }
+  }
+
+  private static Position[] createPositions() {
+    final var random = new Random(SEED);
+    final var moves = new MoveList();
+    final var created = new Position[POSITIONS];
+
+    for (var i = 0; i < POSITIONS; i++) {
+      final var position = Fen.parse(Fen.STANDARD);
+      final var plies = random.nextInt(MAX_PLIES);
+
+      for (var ply = 0; ply < plies; ply++) {
+        MoveGenerator.generateLegals(position, moves);
+
+        if (moves.isEmpty()) {
+          break;
+        }
+
+        position.makeMove(moves.get(random.nextInt(moves.size())));
+      }
+
+      created[i] = position;
+    }
+
+    return created;
+  }
+
+  /* EPD has no clocks, but can have operations after the fields */
+  private static String toEpd(final Position position, final int id) {
+    final var fen = Fen.toString(position);
+    final var fields = fen.substring(0, fen.lastIndexOf(' ', fen.lastIndexOf(' ') - 1));
+
+    return fields + " hmvc " + position.getHalfmoveClock() + "; id \"random." + id + "\";";
+  }
+}
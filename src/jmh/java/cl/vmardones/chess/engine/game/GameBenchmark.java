@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.game;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.BoardService;
+import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.player.Alliance;
+import cl.vmardones.chess.engine.player.BlackPlayer;
+import cl.vmardones.chess.engine.player.WhitePlayer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Benchmarks of turn creation, which calculates the legal moves of both players. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GameBenchmark {
+
+  /* The Opera Game (Morphy vs. Duke Karl and Count Isouard, 1858), which ends in checkmate */
+  private static final String[] OPERA_GAME = {
+    "e2e4", "e7e5", "g1f3", "d7d6", "d2d4", "c8g4", "d4e5", "g4f3", "d1f3", "d6e5", "f1c4",
+    "g8f6", "f3b3", "d8e7", "b1c3", "c7c6", "c1g5", "b7b5", "c3b5", "c6b5", "c4b5", "b8d7",
+    "e1c1", "a8d8", "d1d7", "d8d7", "h1d1", "e7e6", "b5d7", "f6d7", "b3b8", "d7b8", "d1d8"
+  };
+
+  private final BoardService boardService = new BoardService();
+  private final Coordinate[][] replayMoves = new Coordinate[OPERA_GAME.length][];
+  private Board board;
+
+  @Setup
+  public void setUp() {
+    board = Fen.parse(PerftReference.KIWIPETE.getFen()).toBoard();
+
+    for (var i = 0; i < OPERA_GAME.length; i++) {
+      replayMoves[i] =
+          new Coordinate[] {
+            Coordinate.of(OPERA_GAME[i].substring(0, 2)), Coordinate.of(OPERA_GAME[i].substring(2))
+          };
+    }
+  }
+
+  /* Creating a game creates the first turn */
+  @Benchmark
+  public Game createFirstTurn() {
+    return new Game();
+  }
+
+  /* The same work Game does for every turn, on a middlegame board */
+  @Benchmark
+  public Turn createPlayers() {
+    final var whitePlayer =
+        new WhitePlayer(
+            board, board.getWhiteKing(), boardService.calculateLegals(board, Alliance.WHITE));
+    final var blackPlayer =
+        new BlackPlayer(
+            board, board.getBlackKing(), () -> boardService.calculateLegals(board, Alliance.BLACK));
+
+    return new Turn(board, Alliance.WHITE, whitePlayer, blackPlayer);
+  }
+
+  @Benchmark
+  public Game replayGame() {
+    final var game = new Game();
+
+    for (var coordinates : replayMoves) {
+      final var move =
+          Move.MoveFactory.create(
+                  game.getCurrentPlayer().getLegals(), coordinates[0], coordinates[1])
+              .orElseThrow();
+
+      if (!game.performMove(move).getMoveStatus().isDone()) {
+        throw new IllegalStateException("Illegal move in replay: " + move);
+      }
+
+      game.createNextTurn(move);
+    }
+
+    return game;
+  }
+}
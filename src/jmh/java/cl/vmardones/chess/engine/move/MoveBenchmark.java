@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import cl.vmardones.chess.engine.board.BoardService;
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.player.Alliance;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks of executing every legal move of a position, which creates a new board per move. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MoveBenchmark {
+
+  @Param({"STARTPOS", "KIWIPETE"})
+  private PerftReference reference;
+
+  private Move[] moves;
+
+  @Setup
+  public void setUp() {
+    final var board = Fen.parse(reference.getFen()).toBoard();
+    moves = new BoardService().calculateLegals(board, Alliance.WHITE).toArray(Move[]::new);
+  }
+
+  @Benchmark
+  public void executeLegals(final Blackhole blackhole) {
+    for (var move : moves) {
+      blackhole.consume(move.execute());
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks of writing and reading every legal move of a position in SAN. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SanBenchmark {
+
+  @Param({"STARTPOS", "KIWIPETE"})
+  private PerftReference reference;
+
+  private final MoveList legals = new MoveList();
+  private final StringBuilder builder = new StringBuilder();
+  private Position position;
+  private int[] moves;
+  private String[] sans;
+
+  @Setup
+  public void setUp() {
+    position = Fen.parse(reference.getFen());
+    MoveGenerator.generateLegals(position, legals);
+    moves = new int[legals.size()];
+    sans = new String[legals.size()];
+
+    for (var i = 0; i < moves.length; i++) {
+      moves[i] = legals.get(i);
+    }
+
+    for (var i = 0; i < moves.length; i++) {
+      sans[i] = San.toString(position, moves[i]);
+    }
+  }
+
+  @Benchmark
+  public void writeLegals(final Blackhole blackhole) {
+    for (var move : moves) {
+      builder.setLength(0);
+      blackhole.consume(San.write(position, move, legals, builder).length());
+    }
+  }
+
+  @Benchmark
+  public void parseLegals(final Blackhole blackhole) {
+    for (var san : sans) {
+      blackhole.consume(San.parse(position, san, legals));
+    }
+  }
+}
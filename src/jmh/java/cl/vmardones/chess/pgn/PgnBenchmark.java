@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.San;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of reading a big PGN file, made of random games that look like an online database
+ * export: a dozen tags per game, and clock comments after the moves of half of the games. Besides
+ * the files read per second, the bytes and games read per second are reported as counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PgnBenchmark {
+
+  private static final int GAMES = 20_000;
+  private static final int MAX_PLIES = 160;
+  private static final int LINE_LENGTH = 80;
+  private static final long SEED = 20_220_101;
+  private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2"};
+
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    final var random = new Random(SEED);
+    file = Files.createTempFile("games", ".pgn");
+
+    try (final var writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      for (var i = 0; i < GAMES; i++) {
+        writeGame(writer, random, i);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public void read(final Counters counters, final Blackhole blackhole) throws IOException {
+    try (final var reader = PgnReader.open(file)) {
+      for (var game = reader.next(); game.isPresent(); game = reader.next()) {
+        blackhole.consume(game.get());
+      }
+
+      counters.games += reader.getGamesRead();
+      counters.bytes += reader.getBytesRead();
+    }
+  }
+
+  /** Games and bytes read, reported per second. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+
+    public long games;
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      games = 0;
+      bytes = 0;
+    }
+  }
+
+  private static void writeGame(final Writer writer, final Random random, final int id)
+      throws IOException {
+    final var result = RESULTS[random.nextInt(RESULTS.length)];
+
+    writer.write("[Event \"Rated Blitz game\"]\n");
+    writer.write("[Site \"https://example.org/" + id + "\"]\n");
+    writer.write("[Date \"2022.01.01\"]\n");
+    writer.write("[Round \"-\"]\n");
+    writer.write("[White \"player" + random.nextInt(GAMES) + "\"]\n");
+    writer.write("[Black \"player" + random.nextInt(GAMES) + "\"]\n");
+    writer.write("[Result \"" + result + "\"]\n");
+    writer.write("[WhiteElo \"" + (1000 + random.nextInt(1500)) + "\"]\n");
+    writer.write("[BlackElo \"" + (1000 + random.nextInt(1500)) + "\"]\n");
+    writer.write("[TimeControl \"180+0\"]\n");
+    writer.write("[ECO \"A00\"]\n");
+    writer.write("[Termination \"Normal\"]\n\n");
+
+    final var position = Fen.parse(Fen.STANDARD);
+    final var moves = new MoveList();
+    final var clocks = random.nextBoolean();
+    final var plies = random.nextInt(MAX_PLIES);
+    final var line = new StringBuilder();
+    final var text = new StringBuilder();
+
+    for (var ply = 0; ply < plies; ply++) {
+      MoveGenerator.generateLegals(position, moves);
+
+      if (moves.isEmpty()) {
+        break;
+      }
+
+      final var move = moves.get(random.nextInt(moves.size()));
+      text.setLength(0);
+
+      if (ply % 2 == 0) {
+        text.append(ply / 2 + 1).append(". ");
+      }
+
+      San.write(position, move, moves, text);
+
+      if (clocks) {
+        text.append(" { [%clk 0:0").append(2 - ply / 60).append(':');
+        text.append(10 + random.nextInt(50)).append("] }");
+      }
+
+      if (line.length() + text.length() >= LINE_LENGTH) {
+        writer.write(line.append('\n').toString());
+        line.setLength(0);
+      } else if (line.length() > 0) {
+        line.append(' ');
+      }
+
+      line.append(text);
+      position.makeMove(move);
+    }
+
+    writer.write(line.append(' ').append(result).append("\n\n").toString());
+  }
+}
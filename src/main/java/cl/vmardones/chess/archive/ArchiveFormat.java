@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.archive;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import java.nio.file.Path;
+import java.util.Map;
+import lombok.Generated;
+
+/**
+ * The layout of game archives, shared by their writer and reader. All numbers are big endian.
+ *
+ * <p>The archive starts with a header: the magic number, the format version as a short, a reserved
+ * short and the amount of games as a long. Then come the games, one after the other:
+ *
+ * <ul>
+ *   <li>The hash of the game, as a long.
+ *   <li>The result, as a byte: 0 for *, 1 for 1-0, 2 for 0-1 and 3 for 1/2-1/2.
+ *   <li>The amount of tags, as an unsigned short, and every tag as its name and value. Texts are
+ *       written as their length in bytes, as an unsigned short, and their UTF-8 bytes.
+ *   <li>The amount of plies, as an unsigned short, and a byte per ply.
+ * </ul>
+ *
+ * <p>A ply is stored as the index of the move among the legal moves of its position, sorted by
+ * source, destination and promotion. A position has at most 218 legal moves, so the index always
+ * fits in a byte. The order doesn't depend on the move generator, so archives stay readable when
+ * the generator changes.
+ *
+ * <p>The index file has the same header, with its own magic number, followed by the offset of
+ * every game in the archive, as a long. It's next to the archive, with the same name followed by
+ * .idx.
+ */
+final class ArchiveFormat {
+
+  static final int MAGIC = 0x43484741; // CHGA
+  static final int INDEX_MAGIC = 0x43484749; // CHGI
+  static final short VERSION = 1;
+  static final int HEADER_SIZE = 16;
+  static final int COUNT_OFFSET = 8;
+
+  static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"};
+
+  static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+
+  @Generated
+  private ArchiveFormat() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  static Path indexOf(final Path archive) {
+    return archive.resolveSibling(archive.getFileName() + ".idx");
+  }
+
+  static int resultCode(final String result) {
+    for (var i = 0; i < RESULTS.length; i++) {
+      if (RESULTS[i].equals(result)) {
+        return i;
+      }
+    }
+
+    return 0;
+  }
+
+  static Position startingPosition(final Map<String, String> tags) {
+    return Fen.parse(tags.getOrDefault("FEN", Fen.STANDARD));
+  }
+
+  /**
+   * Finds the index of a move among the sorted legal moves of a position.
+   *
+   * @throws IllegalArgumentException If the move isn't legal
+   */
+  static int encode(final Position position, final int move, final MoveList legals) {
+    MoveGenerator.generateLegals(position, legals);
+
+    final var key = key(move);
+    var index = 0;
+    var found = false;
+
+    for (var i = 0; i < legals.size(); i++) {
+      final var other = key(legals.get(i));
+      found |= other == key;
+
+      if (other < key) {
+        index++;
+      }
+    }
+
+    if (!found) {
+      throw new IllegalArgumentException("Illegal move " + PackedMove.toString(move));
+    }
+
+    return index;
+  }
+
+  /**
+   * Finds the move of a position with an index among its sorted legal moves.
+   *
+   * @param keys Where the legal moves are sorted, with room for any amount of legal moves
+   * @throws InvalidArchiveException If there is no legal move with that index
+   */
+  static int decode(
+      final Position position, final int index, final MoveList legals, final int[] keys) {
+    MoveGenerator.generateLegals(position, legals);
+
+    if (index >= legals.size()) {
+      throw new InvalidArchiveException(
+          "Move " + index + " of " + legals.size() + " legal moves at ply " + position.getPly());
+    }
+
+    // Insertion sort, since the generator already gives most moves in order. Every key keeps the
+    // index of its move in the list in its lowest bits
+    for (var i = 0; i < legals.size(); i++) {
+      final var key = key(legals.get(i)) << Byte.SIZE | i;
+      var j = i;
+
+      for (; j > 0 && keys[j - 1] > key; j--) {
+        keys[j] = keys[j - 1];
+      }
+
+      keys[j] = key;
+    }
+
+    return legals.get(keys[index] & 0xFF);
+  }
+
+  /* Orders moves by source, destination and promotion, the only parts that tell them apart */
+  private static int key(final int move) {
+    final var promotion = PackedMove.promotion(move);
+
+    return PackedMove.source(move) << 9
+        | PackedMove.destination(move) << 3
+        | (promotion == null ? 0 : promotion.ordinal() + 1);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.archive;
+
+import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of an archive written by {@link ArchiveWriter}, finding them by id through the
+ * index file.
+ *
+ * <p>Both files are mapped into memory, so games are read from the page cache without copying
+ * them. The reader only uses absolute reads, so many threads can use it at once. Files are mapped
+ * whole, which limits archives to 2 GB.
+ */
+public final class ArchiveReader {
+
+  private final ByteBuffer archive;
+  private final ByteBuffer index;
+  private final int size;
+
+  private ArchiveReader(final ByteBuffer archive, final ByteBuffer index) {
+    this.archive = archive;
+    this.index = index;
+
+    final var games = archive.getLong(ArchiveFormat.COUNT_OFFSET);
+
+    if (games != index.getLong(ArchiveFormat.COUNT_OFFSET)
+        || games * Long.BYTES != index.capacity() - ArchiveFormat.HEADER_SIZE) {
+      throw new InvalidArchiveException("The index doesn't match the archive");
+    }
+
+    size = (int) games;
+  }
+
+  /**
+   * Opens an archive and its index file.
+   *
+   * @param path The path of the archive
+   * @return The reader of the archive
+   * @throws IOException If the files can't be read
+   * @throws InvalidArchiveException If the files aren't an archive and its index, or weren't closed
+   *     after writing them
+   */
+  public static ArchiveReader open(@NotNull final Path path) throws IOException {
+    final var archive = map(path, ArchiveFormat.MAGIC);
+    final var index = map(ArchiveFormat.indexOf(path), ArchiveFormat.INDEX_MAGIC);
+
+    return new ArchiveReader(archive, index);
+  }
+
+  /**
+   * Obtains the amount of games of the archive.
+   *
+   * @return The amount of games
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Obtains a game of the archive.
+   *
+   * @param id The id of the game, from zero to the amount of games minus one
+   * @return The game
+   * @throws IndexOutOfBoundsException If there is no game with that id
+   */
+  public ArchivedGame get(final int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("No game with id " + id);
+    }
+
+    final var offset = index.getLong(ArchiveFormat.HEADER_SIZE + id * Long.BYTES);
+
+    return new ArchivedGame(archive, (int) offset);
+  }
+
+  private static ByteBuffer map(final Path path, final int magic) throws IOException {
+    try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < ArchiveFormat.HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+        throw new InvalidArchiveException("Wrong size of " + path + ": " + channel.size());
+      }
+
+      // The mapping stays valid after closing the channel
+      final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (buffer.getInt(0) != magic) {
+        throw new InvalidArchiveException("Not an archive: " + path);
+      }
+
+      if (buffer.getShort(Integer.BYTES) != ArchiveFormat.VERSION) {
+        throw new InvalidArchiveException("Unknown version of " + path);
+      }
+
+      return buffer;
+    }
+  }
+}
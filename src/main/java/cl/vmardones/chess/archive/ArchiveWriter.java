@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.archive;
+
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.pgn.ImportedGame;
+import jakarta.validation.constraints.NotNull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Writes imported games to an archive and its index file. Games get consecutive ids, starting from
+ * zero, in the order they are written.
+ *
+ * <p>The writer can be given to {@link cl.vmardones.chess.pgn.PgnImporter} as its consumer of
+ * games: games are encoded by the calling thread, and only appending them to the files is
+ * synchronized. With many import threads, the order of the games is not the order of the PGN file.
+ */
+public final class ArchiveWriter implements Consumer<ImportedGame>, Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel archive;
+  private final FileChannel index;
+  private final ByteBuffer archiveBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final ByteBuffer indexBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private long offset = ArchiveFormat.HEADER_SIZE;
+  private long games;
+
+  private ArchiveWriter(final FileChannel archive, final FileChannel index) {
+    this.archive = archive;
+    this.index = index;
+  }
+
+  /**
+   * Creates an archive and its index file, replacing them if they exist.
+   *
+   * @param path The path of the archive
+   * @return The writer of the archive
+   * @throws IOException If the files can't be created
+   */
+  public static ArchiveWriter create(@NotNull final Path path) throws IOException {
+    final var archive = open(path);
+
+    try {
+      final var writer = new ArchiveWriter(archive, open(ArchiveFormat.indexOf(path)));
+      writer.writeHeaders();
+
+      return writer;
+    } catch (final IOException e) {
+      archive.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Writes a game to the archive.
+   *
+   * @param game A game returned by the PGN import
+   * @throws IllegalArgumentException If a tag is longer than 65535 bytes, the game is longer than
+   *     65535 plies, or one of its moves is illegal
+   * @throws UncheckedIOException If the files can't be written
+   */
+  @Override
+  public void accept(@NotNull final ImportedGame game) {
+    final var record = encode(game);
+
+    try {
+      append(record);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Obtains the amount of games written so far.
+   *
+   * @return The amount of games
+   */
+  public synchronized long getGamesWritten() {
+    return games;
+  }
+
+  /**
+   * Writes the pending games and the amount of games to both files, and closes them.
+   *
+   * @throws IOException If the files can't be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    try (archive;
+        index) {
+      flush(archive, archiveBuffer);
+      flush(index, indexBuffer);
+
+      final var count = ByteBuffer.allocate(Long.BYTES).putLong(0, games);
+      archive.write(count, ArchiveFormat.COUNT_OFFSET);
+      index.write(count.rewind(), ArchiveFormat.COUNT_OFFSET);
+    }
+  }
+
+  private synchronized void append(final ByteBuffer record) throws IOException {
+    if (record.remaining() > archiveBuffer.remaining()) {
+      flush(archive, archiveBuffer);
+    }
+
+    if (record.remaining() > archiveBuffer.remaining()) {
+      while (record.hasRemaining()) {
+        archive.write(record);
+      }
+    } else {
+      archiveBuffer.put(record);
+    }
+
+    if (indexBuffer.remaining() < Long.BYTES) {
+      flush(index, indexBuffer);
+    }
+
+    indexBuffer.putLong(offset);
+    offset += record.capacity();
+    games++;
+  }
+
+  private void writeHeaders() {
+    writeHeader(archiveBuffer, ArchiveFormat.MAGIC);
+    writeHeader(indexBuffer, ArchiveFormat.INDEX_MAGIC);
+  }
+
+  private static void writeHeader(final ByteBuffer buffer, final int magic) {
+    // The amount of games is written when the writer is closed
+    buffer.putInt(magic).putShort(ArchiveFormat.VERSION).putShort((short) 0).putLong(0);
+  }
+
+  private static FileChannel open(final Path path) throws IOException {
+    return FileChannel.open(
+        path,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE);
+  }
+
+  private static void flush(final FileChannel channel, final ByteBuffer buffer)
+      throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+
+  private static ByteBuffer encode(final ImportedGame game) {
+    final var tags = game.game().tags();
+    final var moves = game.moves();
+
+    if (tags.size() > ArchiveFormat.MAX_UNSIGNED_SHORT
+        || moves.length > ArchiveFormat.MAX_UNSIGNED_SHORT) {
+      throw new IllegalArgumentException("Game too long at byte " + game.game().offset());
+    }
+
+    final var texts = new byte[tags.size() * 2][];
+    var size = Long.BYTES + Byte.BYTES + Short.BYTES * 2 + moves.length;
+    var i = 0;
+
+    for (var tag : tags.entrySet()) {
+      texts[i++] = encode(tag.getKey());
+      texts[i++] = encode(tag.getValue());
+    }
+
+    for (var text : texts) {
+      size += Short.BYTES + text.length;
+    }
+
+    final var record = ByteBuffer.allocate(size);
+    record.putLong(game.hash());
+    record.put((byte) ArchiveFormat.resultCode(game.game().result()));
+    record.putShort((short) tags.size());
+
+    for (var text : texts) {
+      record.putShort((short) text.length).put(text);
+    }
+
+    record.putShort((short) moves.length);
+
+    final var position = ArchiveFormat.startingPosition(tags);
+    final var legals = new MoveList();
+
+    for (var move : moves) {
+      record.put((byte) ArchiveFormat.encode(position, move, legals));
+      position.makeMove(move);
+    }
+
+    return record.flip();
+  }
+
+  private static byte[] encode(final String text) {
+    final var bytes = text.getBytes(StandardCharsets.UTF_8);
+
+    if (bytes.length > ArchiveFormat.MAX_UNSIGNED_SHORT) {
+      throw new IllegalArgumentException("Tag with " + bytes.length + " bytes");
+    }
+
+    return bytes;
+  }
+}
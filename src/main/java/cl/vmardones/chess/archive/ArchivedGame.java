@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.archive;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import jakarta.validation.constraints.NotNull;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A game of an archive. It's a view of the mapped archive: tags are decoded when asked for, and
+ * moves are decoded while the game is replayed.
+ */
+public final class ArchivedGame {
+
+  private final ByteBuffer archive;
+  private final int offset;
+  private final int pliesOffset;
+
+  ArchivedGame(final ByteBuffer archive, final int offset) {
+    this.archive = archive;
+    this.offset = offset;
+
+    final var tags = Short.toUnsignedInt(archive.getShort(offset + Long.BYTES + Byte.BYTES));
+    var next = offset + Long.BYTES + Byte.BYTES + Short.BYTES;
+
+    for (var i = 0; i < tags * 2; i++) {
+      next += Short.BYTES + Short.toUnsignedInt(archive.getShort(next));
+    }
+
+    pliesOffset = next;
+  }
+
+  /**
+   * Obtains the hash of the starting position and the move sequence, as calculated by the PGN
+   * import.
+   *
+   * @return The hash of the game
+   */
+  public long hash() {
+    return archive.getLong(offset);
+  }
+
+  /**
+   * Obtains the game termination marker.
+   *
+   * @return 1-0, 0-1, 1/2-1/2 or *
+   */
+  public String result() {
+    final var code = archive.get(offset + Long.BYTES);
+
+    if (code < 0 || code >= ArchiveFormat.RESULTS.length) {
+      throw new InvalidArchiveException("Unknown result at byte " + offset);
+    }
+
+    return ArchiveFormat.RESULTS[code];
+  }
+
+  /**
+   * Decodes the tag pairs of the game.
+   *
+   * @return The tags, in the order of the PGN file
+   */
+  public Map<String, String> tags() {
+    final var tags = new LinkedHashMap<String, String>();
+    final var count = Short.toUnsignedInt(archive.getShort(offset + Long.BYTES + Byte.BYTES));
+    var next = offset + Long.BYTES + Byte.BYTES + Short.BYTES;
+
+    for (var i = 0; i < count; i++) {
+      final var name = text(next);
+      next += Short.BYTES + Short.toUnsignedInt(archive.getShort(next));
+      tags.put(name, text(next));
+      next += Short.BYTES + Short.toUnsignedInt(archive.getShort(next));
+    }
+
+    return tags;
+  }
+
+  /**
+   * Obtains the amount of moves of the game.
+   *
+   * @return The amount of plies
+   */
+  public int plies() {
+    return Short.toUnsignedInt(archive.getShort(pliesOffset));
+  }
+
+  /**
+   * Decodes the moves of the game, replaying them on a position.
+   *
+   * @return The packed moves
+   * @throws InvalidArchiveException If a move isn't legal
+   */
+  public int[] moves() {
+    final var moves = new int[plies()];
+    final var position = ArchiveFormat.startingPosition(tags());
+    final var legals = new MoveList();
+    final var keys = new int[MoveList.DEFAULT_CAPACITY];
+
+    for (var ply = 0; ply < moves.length; ply++) {
+      moves[ply] = ArchiveFormat.decode(position, index(ply), legals, keys);
+      position.makeMove(moves[ply]);
+    }
+
+    return moves;
+  }
+
+  /**
+   * Replays the game on the board model, from its starting position.
+   *
+   * <p>Every board is exported from the position where the moves are decoded, instead of executing
+   * the move on the previous board, since the board model doesn't support promotions yet and its
+   * en passant captures keep the captured pawn.
+   *
+   * @param visitor What to do with every move, and the board it's made on
+   * @return The board after the last move
+   * @throws InvalidArchiveException If a move isn't legal
+   */
+  public Board replay(@NotNull final BiConsumer<Board, Move> visitor) {
+    final var position = ArchiveFormat.startingPosition(tags());
+    final var legals = new MoveList();
+    final var keys = new int[MoveList.DEFAULT_CAPACITY];
+    var board = position.toBoard();
+
+    for (var ply = 0; ply < plies(); ply++) {
+      final var packed = ArchiveFormat.decode(position, index(ply), legals, keys);
+      visitor.accept(board, PackedMove.toMove(packed, board));
+      position.makeMove(packed);
+      board = position.toBoard();
+    }
+
+    return board;
+  }
+
+  private int index(final int ply) {
+    return Byte.toUnsignedInt(archive.get(pliesOffset + Short.BYTES + ply));
+  }
+
+  private String text(final int at) {
+    final var length = Short.toUnsignedInt(archive.getShort(at));
+
+    return StandardCharsets.UTF_8.decode(archive.slice(at + Short.BYTES, length)).toString();
+  }
+}
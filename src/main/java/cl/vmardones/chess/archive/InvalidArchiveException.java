@@ -0,0 +1,19 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.archive;
+
+/** An exception that is thrown when a game archive or its index file are corrupt. */
+public class InvalidArchiveException extends RuntimeException {
+
+  /**
+   * Constructs a new invalid archive exception with the specified message.
+   *
+   * @param message The detail message, specifying the cause of the exception being thrown
+   */
+  public InvalidArchiveException(final String message) {
+    super(message);
+  }
+}
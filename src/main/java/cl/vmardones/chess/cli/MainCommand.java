@@ -14,6 +14,7 @@ import picocli.CommandLine.Option;
 @Command(
     name = "chess-game",
     mixinStandardHelpOptions = true,
+    subcommands = {PerftCommand.class, SearchCommand.class, UciCommand.class, PgnCommand.class},
     versionProvider = MainCommand.ChessVersionProvider.class)
 public class MainCommand implements Runnable {
 
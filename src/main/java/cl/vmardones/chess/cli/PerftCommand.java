@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.cli;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.perft.Perft;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.perft.PerftTable;
+import java.util.concurrent.Callable;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(
+    name = "perft",
+    mixinStandardHelpOptions = true,
+    description = "Count the leaf nodes of the legal move tree, without opening the GUI.",
+    exitCodeListHeading = "Exit codes:%n",
+    exitCodeList = {"0:Successful count", "1:A count of the suite doesn't match its reference"})
+public class PerftCommand implements Callable<Integer> {
+
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  @Parameters(index = "0", description = "Depth to count, in plies.")
+  private int depth;
+
+  @Option(
+      names = {"-f", "--fen"},
+      description = "Position to count, in FEN. The standard position is used by default.")
+  private String fen = Fen.STANDARD;
+
+  @Option(
+      names = {"--divide"},
+      description = "Show the count of every root move.")
+  private boolean divide;
+
+  @Option(
+      names = {"-t", "--threads"},
+      description = "Threads that count root moves in parallel.")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  @Option(
+      names = {"-H", "--hash"},
+      description = "Size of the node count hash table in MB, or 0 to disable it.")
+  private int hashSize;
+
+  @Option(
+      names = {"-s", "--suite"},
+      description = "Check the standard reference positions up to the depth, instead of a FEN.")
+  private boolean suite;
+
+  @Override
+  public Integer call() {
+    final var perft = new Perft(threads, hashSize > 0 ? new PerftTable(hashSize) : null);
+
+    try {
+      if (suite) {
+        return runSuite(perft) == 0 ? 0 : 1;
+      }
+
+      runSingle(perft);
+      return 0;
+    } finally {
+      perft.close();
+    }
+  }
+
+  private void runSingle(final Perft perft) {
+    final var position = Fen.parse(fen);
+    final var start = System.nanoTime();
+    var nodes = 0L;
+
+    if (divide) {
+      for (var division : perft.divide(position, depth)) {
+        System.out.println(division);
+        nodes += division.nodes();
+      }
+
+      System.out.println();
+    } else {
+      nodes = perft.count(position, depth);
+    }
+
+    report(depth, nodes, System.nanoTime() - start);
+  }
+
+  /* Returns the amount of counts that don't match */
+  private int runSuite(final Perft perft) {
+    var failures = 0;
+
+    for (var reference : PerftReference.values()) {
+      final var position = Fen.parse(reference.getFen());
+      final var maxDepth = Math.min(depth, reference.getMaxDepth());
+
+      System.out.println(reference + " (" + reference.getFen() + ")");
+
+      for (var currentDepth = 1; currentDepth <= maxDepth; currentDepth++) {
+        final var start = System.nanoTime();
+        final var nodes = perft.count(position, currentDepth);
+        final var expected = reference.getNodes(currentDepth);
+
+        report(currentDepth, nodes, System.nanoTime() - start);
+
+        if (nodes != expected) {
+          System.out.printf("  MISMATCH: expected %d nodes%n", expected);
+          failures++;
+        }
+      }
+    }
+
+    System.out.println(failures == 0 ? "All counts match" : failures + " counts don't match");
+
+    return failures;
+  }
+
+  private static void report(final int depth, final long nodes, final long nanos) {
+    final var seconds = nanos / NANOS_PER_SECOND;
+
+    System.out.printf(
+        "  depth %d: %d nodes in %.3f s (%.0f nodes/s)%n",
+        depth, nodes, seconds, nodes / Math.max(seconds, 1 / NANOS_PER_SECOND));
+  }
+}
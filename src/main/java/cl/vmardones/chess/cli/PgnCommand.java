@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.cli;
+
+import cl.vmardones.chess.archive.ArchiveWriter;
+import cl.vmardones.chess.pgn.PgnGame;
+import cl.vmardones.chess.pgn.PgnImporter;
+import cl.vmardones.chess.pgn.PgnReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(
+    name = "pgn",
+    mixinStandardHelpOptions = true,
+    description =
+        "Read the games of a PGN file and measure how fast they are read, without opening the"
+            + " GUI.")
+public class PgnCommand implements Runnable {
+
+  @Parameters(index = "0", description = "PGN file to read.")
+  private Path file;
+
+  @Option(
+      names = {"-l", "--list"},
+      description = "Print the players, result and length of every game.")
+  private boolean list;
+
+  @Option(
+      names = {"-v", "--validate"},
+      description =
+          "Replay every game, reporting illegal and ambiguous moves, and count duplicated games.")
+  private boolean validate;
+
+  @Option(
+      names = {"-t", "--threads"},
+      description = "Threads that replay games in parallel, when validating.")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  @Option(
+      names = {"-o", "--output"},
+      description = "Validate the games, and write the imported ones to a binary archive.")
+  private Path output;
+
+  @Override
+  public void run() {
+    try {
+      if (validate || output != null) {
+        runImport();
+      } else {
+        System.out.println("Read " + PgnReader.read(file, this::print));
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void runImport() throws IOException {
+    final var importer = new PgnImporter(threads);
+
+    try (final var archive = output == null ? null : ArchiveWriter.create(output)) {
+      final var stats =
+          importer.importFile(
+              file,
+              game -> {
+                print(game.game());
+
+                if (archive != null) {
+                  archive.accept(game);
+                }
+              },
+              System.out::println);
+
+      System.out.println("Read " + stats);
+
+      if (archive != null) {
+        System.out.println("Wrote " + archive.getGamesWritten() + " games to " + output);
+      }
+    } finally {
+      importer.close();
+    }
+  }
+
+  private void print(final PgnGame game) {
+    if (list) {
+      System.out.printf(
+          "%s - %s %s (%d moves)%n",
+          game.tag("White"), game.tag("Black"), game.result(), game.moves().size());
+    }
+  }
+}
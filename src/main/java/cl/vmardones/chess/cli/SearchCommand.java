@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.cli;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.search.ParallelSearch;
+import cl.vmardones.chess.engine.search.Search;
+import cl.vmardones.chess.engine.search.SearchFeatures;
+import cl.vmardones.chess.engine.search.SearchLimits;
+import cl.vmardones.chess.engine.search.TimeManager;
+import cl.vmardones.chess.engine.search.TranspositionTable;
+import java.time.Duration;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(
+    name = "search",
+    mixinStandardHelpOptions = true,
+    description = "Search the best move of a position, without opening the GUI.")
+public class SearchCommand implements Runnable {
+
+  private static final int DEFAULT_DEPTH = 6;
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  @Option(
+      names = {"-f", "--fen"},
+      description = "Position to search, in FEN. The standard position is used by default.")
+  private String fen = Fen.STANDARD;
+
+  @Option(
+      names = {"--depth"},
+      description =
+          "Maximum depth to search, in plies. If no limit is set, the search stops at depth "
+              + DEFAULT_DEPTH
+              + ".")
+  private Integer depth;
+
+  @Option(
+      names = {"-n", "--nodes"},
+      description = "Maximum amount of nodes to visit.")
+  private long nodes = Long.MAX_VALUE;
+
+  @Option(
+      names = {"-t", "--time"},
+      description = "Maximum time to search, in milliseconds.")
+  private long time;
+
+  @Option(
+      names = {"--clock"},
+      description =
+          "Time left on the clock, in milliseconds. The search spends the share of it that a time"
+              + " manager gives to this move.")
+  private long clock;
+
+  @Option(
+      names = {"--increment"},
+      description = "Time added to the clock after every move, in milliseconds.")
+  private long increment;
+
+  @Option(
+      names = {"--moves-to-go"},
+      description =
+          "Moves until the next time control. By default, the clock never gets more time.")
+  private int movesToGo;
+
+  @Option(
+      names = {"-H", "--hash"},
+      description = "Size of the transposition table in MB.")
+  private int hashSize = 16;
+
+  @Option(
+      names = {"--pawn-hash"},
+      description = "Size of the pawn table of each thread in MB.")
+  private int pawnHashSize = Search.DEFAULT_PAWN_HASH_SIZE;
+
+  @Option(
+      names = {"--threads"},
+      description = "Threads that search in parallel, sharing the transposition table.")
+  private int threads = 1;
+
+  @Option(
+      names = {"--scaling"},
+      description =
+          "Search the position to the same limits with 1, 2, 4... threads, up to --threads, and"
+              + " compare their time and speed.")
+  private boolean scaling;
+
+  @Option(
+      names = {"--no-null-move"},
+      description = "Disable null-move pruning.")
+  private boolean noNullMove;
+
+  @Option(
+      names = {"--no-lmr"},
+      description = "Disable late move reductions.")
+  private boolean noLateMoveReductions;
+
+  @Option(
+      names = {"--no-futility"},
+      description = "Disable reverse futility and futility pruning.")
+  private boolean noFutility;
+
+  @Option(
+      names = {"--no-aspiration"},
+      description = "Disable aspiration windows.")
+  private boolean noAspirationWindows;
+
+  @Option(
+      names = {"--bench"},
+      description =
+          "Search the standard reference positions to the same limits, instead of a FEN, and"
+              + " report the nodes and time of each one, and the hit rate of the pawn table.")
+  private boolean bench;
+
+  @Override
+  public void run() {
+    if (scaling) {
+      runScaling();
+    } else if (bench) {
+      runBench();
+    } else {
+      runSingle();
+    }
+  }
+
+  private void runSingle() {
+    final var search = new ParallelSearch(threads, new TranspositionTable(hashSize), pawnHashSize);
+    search.setFeatures(createFeatures());
+
+    try {
+      final var position = Fen.parse(fen);
+      final var result =
+          clock > 0
+              ? search.search(position, createLimits(), createTimeManager(), System.out::println)
+              : search.search(position, createLimits(), System.out::println);
+      System.out.println("bestmove " + PackedMove.toString(result.bestMove()));
+    } finally {
+      search.close();
+    }
+  }
+
+  /* Every run starts with an empty table, so earlier runs don't help later ones */
+  private void runScaling() {
+    final var table = new TranspositionTable(hashSize);
+    var baseline = 0L;
+
+    for (var count = 1; count <= threads; count = nextThreadCount(count)) {
+      final var search = new ParallelSearch(count, table, pawnHashSize);
+      search.setFeatures(createFeatures());
+      table.clear();
+
+      try {
+        final var result = search.search(Fen.parse(fen), createLimits());
+        final var seconds = result.nanos() / NANOS_PER_SECOND;
+
+        if (count == 1) {
+          baseline = result.nanos();
+        }
+
+        System.out.printf(
+            "  threads %d: depth %d in %.3f s, %d nodes (%d nodes/s), speedup %.2f, bestmove %s%n",
+            count,
+            result.depth(),
+            seconds,
+            result.nodes(),
+            result.nodesPerSecond(),
+            (double) baseline / Math.max(result.nanos(), 1),
+            PackedMove.toString(result.bestMove()));
+      } finally {
+        search.close();
+      }
+    }
+  }
+
+  /* Every position starts with an empty table, so the node counts are reproducible */
+  private void runBench() {
+    final var table = new TranspositionTable(hashSize);
+    final var search = new ParallelSearch(threads, table, pawnHashSize);
+    search.setFeatures(createFeatures());
+    var totalNodes = 0L;
+    var totalNanos = 0L;
+
+    try {
+      for (var reference : PerftReference.values()) {
+        table.clear();
+
+        final var result = search.search(Fen.parse(reference.getFen()), createLimits());
+
+        System.out.printf(
+            "  %s: depth %d, %d nodes in %.3f s, bestmove %s%n",
+            reference,
+            result.depth(),
+            result.nodes(),
+            result.nanos() / NANOS_PER_SECOND,
+            PackedMove.toString(result.bestMove()));
+
+        totalNodes += result.nodes();
+        totalNanos += result.nanos();
+      }
+    } finally {
+      search.close();
+    }
+
+    final var seconds = totalNanos / NANOS_PER_SECOND;
+    final var pawnTable = search.getPawnTable();
+
+    System.out.printf(
+        "Total: %d nodes in %.3f s (%.0f nodes/s)%n",
+        totalNodes, seconds, totalNodes / Math.max(seconds, 1 / NANOS_PER_SECOND));
+    System.out.printf(
+        "Pawn table: %d entries, %d probes, %.1f%% hits%n",
+        pawnTable.getSize(), pawnTable.getProbes(), pawnTable.getHitRate() * 100);
+  }
+
+  private SearchLimits createLimits() {
+    final var unlimited = time <= 0 && clock <= 0 && nodes == Long.MAX_VALUE;
+    final var maxDepth = depth != null ? depth : unlimited ? DEFAULT_DEPTH : Search.MAX_DEPTH;
+
+    final var limits = SearchLimits.depth(maxDepth).withNodes(nodes);
+
+    return time > 0 ? limits.withTime(Duration.ofMillis(time)) : limits;
+  }
+
+  private TimeManager createTimeManager() {
+    final var timeManager =
+        new TimeManager(Duration.ofMillis(clock), Duration.ofMillis(increment), movesToGo);
+
+    System.out.printf(
+        "Soft limit %d ms, hard limit %d ms%n",
+        timeManager.getSoftLimit().toMillis(), timeManager.getHardLimit().toMillis());
+
+    return timeManager;
+  }
+
+  private SearchFeatures createFeatures() {
+    return SearchFeatures.all()
+        .withNullMove(!noNullMove)
+        .withLateMoveReductions(!noLateMoveReductions)
+        .withFutility(!noFutility)
+        .withAspirationWindows(!noAspirationWindows);
+  }
+
+  /* Doubles the threads, ending with exactly the requested amount */
+  private int nextThreadCount(final int count) {
+    return count < threads && count * 2 > threads ? threads : count * 2;
+  }
+}
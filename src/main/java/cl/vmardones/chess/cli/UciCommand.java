@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.cli;
+
+import cl.vmardones.chess.uci.UciEngine;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import picocli.CommandLine.Command;
+
+@Command(
+    name = "uci",
+    mixinStandardHelpOptions = true,
+    description =
+        "Speak the Universal Chess Interface over the standard input and output, without opening"
+            + " the GUI.")
+public class UciCommand implements Runnable {
+
+  @Override
+  public void run() {
+    /* Every answer must reach the GUI right away, so the output is flushed on every line */
+    final var output = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+
+    new UciEngine(new InputStreamReader(System.in, StandardCharsets.UTF_8), output).run();
+  }
+}
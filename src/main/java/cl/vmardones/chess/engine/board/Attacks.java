@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Attack bitboards of every piece type. Jumping pieces and pawns use precalculated tables, while
+ * sliding pieces look up their {@link Magics} tables with the occupied coordinates.
+ *
+ * <p>To check if a coordinate is attacked, the attacks are calculated outward from the coordinate
+ * itself: for example, a coordinate is attacked by a knight if a knight stands on one of the
+ * coordinates a knight could jump to from there.
+ */
+public final class Attacks {
+
+  private static final int[][] WHITE_PAWN_STEPS = {{-1, 1}, {1, 1}};
+  private static final int[][] BLACK_PAWN_STEPS = {{-1, -1}, {1, -1}};
+
+  private static final long[] KNIGHT_ATTACKS = new long[Board.MAX_TILES];
+  private static final long[] KING_ATTACKS = new long[Board.MAX_TILES];
+  private static final long[][] PAWN_ATTACKS = new long[2][Board.MAX_TILES];
+
+  static {
+    for (var square = 0; square < Board.MAX_TILES; square++) {
+      KNIGHT_ATTACKS[square] = toBitboard(Geometry.knightTargets(square));
+      KING_ATTACKS[square] = toBitboard(Geometry.kingTargets(square));
+      PAWN_ATTACKS[Alliance.WHITE.ordinal()][square] = stepAttacks(square, WHITE_PAWN_STEPS);
+      PAWN_ATTACKS[Alliance.BLACK.ordinal()][square] = stepAttacks(square, BLACK_PAWN_STEPS);
+    }
+  }
+
+  @Generated
+  private Attacks() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /* Attacks of a single piece */
+
+  public static long knight(final int square) {
+    return KNIGHT_ATTACKS[square];
+  }
+
+  public static long king(final int square) {
+    return KING_ATTACKS[square];
+  }
+
+  public static long pawn(@NotNull final Alliance alliance, final int square) {
+    return PAWN_ATTACKS[alliance.ordinal()][square];
+  }
+
+  public static long bishop(final int square, final long occupied) {
+    return Magics.BISHOP.attacks(square, occupied);
+  }
+
+  public static long rook(final int square, final long occupied) {
+    return Magics.ROOK.attacks(square, occupied);
+  }
+
+  public static long queen(final int square, final long occupied) {
+    return bishop(square, occupied) | rook(square, occupied);
+  }
+
+  /**
+   * Calculates the attacks of any piece, except pawns, which attack differently depending on their
+   * alliance.
+   *
+   * @param pieceType The type of the piece
+   * @param square The coordinate index of the piece
+   * @param occupied The occupied coordinates, which block sliding pieces
+   * @return The attacked coordinates
+   */
+  public static long of(
+      @NotNull final Piece.PieceType pieceType, final int square, final long occupied) {
+    return switch (pieceType) {
+      case KNIGHT -> knight(square);
+      case BISHOP -> bishop(square, occupied);
+      case ROOK -> rook(square, occupied);
+      case QUEEN -> queen(square, occupied);
+      case KING -> king(square);
+      case PAWN -> throw new IllegalArgumentException("Pawn attacks depend on the alliance");
+    };
+  }
+
+  /* Attacks of a whole side */
+
+  /**
+   * Finds the pieces of an alliance that attack a coordinate.
+   *
+   * @param placement The pieces on the board
+   * @param square The coordinate index
+   * @param attacker The alliance of the attacking pieces
+   * @param occupied The coordinates that block sliding pieces, which may differ from the placement
+   *     to test a position that hasn't been reached yet
+   * @return The coordinates of the attacking pieces
+   */
+  public static long attackers(
+      @NotNull final PiecePlacement placement,
+      final int square,
+      @NotNull final Alliance attacker,
+      final long occupied) {
+    final var queens = placement.getBitboard(attacker, Piece.PieceType.QUEEN);
+
+    return knight(square) & placement.getBitboard(attacker, Piece.PieceType.KNIGHT)
+        | pawn(attacker.getOpposite(), square)
+            & placement.getBitboard(attacker, Piece.PieceType.PAWN)
+        | king(square) & placement.getBitboard(attacker, Piece.PieceType.KING)
+        | bishop(square, occupied)
+            & (placement.getBitboard(attacker, Piece.PieceType.BISHOP) | queens)
+        | rook(square, occupied) & (placement.getBitboard(attacker, Piece.PieceType.ROOK) | queens);
+  }
+
+  static boolean isAttacked(
+      final PiecePlacement placement, final int square, final Alliance attacker) {
+    final var occupied = placement.getOccupancy();
+    final var queens = placement.getBitboard(attacker, Piece.PieceType.QUEEN);
+
+    return (knight(square) & placement.getBitboard(attacker, Piece.PieceType.KNIGHT)) != 0
+        || (pawn(attacker.getOpposite(), square)
+                & placement.getBitboard(attacker, Piece.PieceType.PAWN))
+            != 0
+        || (king(square) & placement.getBitboard(attacker, Piece.PieceType.KING)) != 0
+        || (bishop(square, occupied)
+                & (placement.getBitboard(attacker, Piece.PieceType.BISHOP) | queens))
+            != 0
+        || (rook(square, occupied)
+                & (placement.getBitboard(attacker, Piece.PieceType.ROOK) | queens))
+            != 0;
+  }
+
+  static long of(final PiecePlacement placement, final Alliance attacker) {
+    final var occupied = placement.getOccupancy();
+
+    var attacks = Bitboard.EMPTY;
+
+    for (var type : Piece.PieceType.values()) {
+      for (var pieces = placement.getBitboard(attacker, type);
+          pieces != 0;
+          pieces = Bitboard.withoutFirst(pieces)) {
+        final var square = Bitboard.first(pieces);
+        attacks |=
+            type == Piece.PieceType.PAWN ? pawn(attacker, square) : of(type, square, occupied);
+      }
+    }
+
+    return attacks;
+  }
+
+  /* Table creation */
+
+  private static long toBitboard(final int[] squares) {
+    var bitboard = Bitboard.EMPTY;
+
+    for (var square : squares) {
+      bitboard |= Bitboard.of(square);
+    }
+
+    return bitboard;
+  }
+
+  private static long stepAttacks(final int square, final int[][] steps) {
+    var attacks = Bitboard.EMPTY;
+
+    for (var step : steps) {
+      final var destination = Geometry.step(square, step[0], step[1]);
+
+      if (destination != Position.NO_SQUARE) {
+        attacks |= Bitboard.of(destination);
+      }
+    }
+
+    return attacks;
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Helpers for bitboards, which are 64-bit sets of coordinates. Each bit represents one coordinate,
+ * using the same index as {@link Coordinate#index()}, so the least significant bit is a8 and the
+ * most significant bit is h1.
+ */
+public final class Bitboard {
+
+  public static final long EMPTY = 0L;
+
+  @Generated
+  private Bitboard() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  public static long of(@NotNull final Coordinate coordinate) {
+    return of(coordinate.index());
+  }
+
+  public static long of(final int index) {
+    return 1L << index;
+  }
+
+  public static boolean contains(final long bitboard, final int index) {
+    return (bitboard & of(index)) != 0;
+  }
+
+  public static int count(final long bitboard) {
+    return Long.bitCount(bitboard);
+  }
+
+  /**
+   * Obtains the index of the first coordinate in the set, in ascending index order.
+   *
+   * @param bitboard A non-empty bitboard
+   * @return The index of the first coordinate
+   */
+  public static int first(final long bitboard) {
+    return Long.numberOfTrailingZeros(bitboard);
+  }
+
+  /**
+   * Removes the first coordinate of the set. Used with {@link #first(long)} to iterate a bitboard
+   * without allocating anything.
+   *
+   * @param bitboard A bitboard
+   * @return The same bitboard, without its first coordinate
+   */
+  public static long withoutFirst(final long bitboard) {
+    return bitboard & (bitboard - 1);
+  }
+}
@@ -8,83 +8,261 @@ package cl.vmardones.chess.engine.board;
 import cl.vmardones.chess.engine.piece.King;
 import cl.vmardones.chess.engine.piece.Pawn;
 import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.PieceCode;
 import cl.vmardones.chess.engine.player.Alliance;
 import com.google.common.collect.ImmutableList;
 import jakarta.validation.constraints.NotNull;
 import java.util.*;
-import java.util.stream.IntStream;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
-/** The game board, made of 8x8 tiles. */
+/**
+ * The game board, made of 8x8 tiles. Internally, the board is stored as one bitboard per piece type
+ * and alliance, plus an array with the piece on each coordinate. Tiles and piece collections are
+ * views over that data.
+ *
+ * <p>Every board also has a Zobrist key, which identifies the position (pieces, move maker,
+ * castling rights and en passant pawn) and is used for equality checks. The key is updated
+ * incrementally by the builder, while pieces are added or removed.
+ */
 @Slf4j
 @ToString
-public class Board {
+public class Board implements PiecePlacement {
   public static final int SIDE_LENGTH = 8;
   public static final int MIN_TILES = 0;
   public static final int MAX_TILES = SIDE_LENGTH * SIDE_LENGTH;
 
-  private final List<Tile> tiles;
+  @ToString.Exclude private final Piece[] squares;
+
+  @ToString.Exclude private final long[] bitboards;
+
+  @ToString.Exclude private final long whiteOccupancy;
 
-  @Getter private final Collection<Piece> whitePieces;
+  @ToString.Exclude private final long blackOccupancy;
+
+  @ToString.Exclude private Collection<Piece> whitePieces;
 
   @Getter private final King whiteKing;
 
-  @Getter private final Collection<Piece> blackPieces;
+  @ToString.Exclude private Collection<Piece> blackPieces;
 
   @Getter private final King blackKing;
 
   @Getter private final Pawn enPassantPawn;
 
+  @Getter private final Alliance moveMaker;
+
+  @Getter private final int castlingRights;
+
+  @ToString.Exclude private final long placementKey;
+
+  private final long zobristKey;
+
   private Board(final BoardBuilder builder) {
-    tiles = createTiles(builder);
-    log.debug("Current gameboard: {}", tiles);
+    squares = builder.squares.clone();
+    bitboards = builder.bitboards.clone();
+    whiteOccupancy = calculateOccupancy(bitboards, Alliance.WHITE);
+    blackOccupancy = calculateOccupancy(bitboards, Alliance.BLACK);
 
     whiteKing = builder.whiteKing;
-    log.debug("White king: {}", whiteKing);
-    whitePieces = calculateActivePieces(tiles, Alliance.WHITE);
-    log.debug("White pieces: {}", whitePieces);
-
     blackKing = builder.blackKing;
-    log.debug("Black king: {}", blackKing);
-    blackPieces = calculateActivePieces(tiles, Alliance.BLACK);
-    log.debug("Black pieces: {}", blackPieces);
-
     enPassantPawn = builder.enPassantPawn;
-    log.debug("En passant pawn: {}", enPassantPawn);
+    moveMaker = builder.moveMaker;
+    castlingRights = CastlingRights.of(this);
+    placementKey = builder.placementKey;
+    zobristKey = calculateZobristKey();
+
+    if (log.isDebugEnabled()) {
+      checkZobristKey();
+      log.debug("Current gameboard: {}", this);
+    }
   }
 
-  private List<Tile> createTiles(final BoardBuilder builder) {
-    return IntStream.range(MIN_TILES, MAX_TILES)
-        .mapToObj(Coordinate::of)
-        .map(coordinate -> Tile.create(coordinate, builder.boardConfig.get(coordinate)))
-        .collect(ImmutableList.toImmutableList());
+  private long calculateZobristKey() {
+    final var enPassantIndex =
+        enPassantPawn == null ? Position.NO_SQUARE : enPassantPawn.getPosition().index();
+
+    return placementKey
+        ^ Zobrist.moveMaker(moveMaker)
+        ^ Zobrist.castlingRights(castlingRights)
+        ^ Zobrist.enPassant(enPassantIndex);
+  }
+
+  private void checkZobristKey() {
+    final var expected = Zobrist.calculate(this);
+
+    if (zobristKey != expected) {
+      throw new IllegalStateException(
+          "Incremental Zobrist key %x doesn't match the expected key %x"
+              .formatted(zobristKey, expected));
+    }
+  }
+
+  private static long calculateOccupancy(final long[] bitboards, final Alliance alliance) {
+    final var first = PieceCode.of(alliance, Piece.PieceType.PAWN);
+
+    var occupancy = Bitboard.EMPTY;
+
+    for (var code = first; code < first + PieceCode.TYPES; code++) {
+      occupancy |= bitboards[code];
+    }
+
+    return occupancy;
   }
 
-  private Collection<Piece> calculateActivePieces(
-      final List<Tile> gameBoard, final Alliance alliance) {
-    return gameBoard.stream()
-        .map(Tile::getPiece)
-        .flatMap(Optional::stream)
-        .filter(piece -> piece.getAlliance() == alliance)
-        .collect(ImmutableList.toImmutableList());
+  private Collection<Piece> calculateActivePieces(final long occupancy) {
+    final var pieces = ImmutableList.<Piece>builderWithExpectedSize(Bitboard.count(occupancy));
+
+    for (var remaining = occupancy; remaining != 0; remaining = Bitboard.withoutFirst(remaining)) {
+      pieces.add(squares[Bitboard.first(remaining)]);
+    }
+
+    return pieces.build();
   }
 
   /* Methods for checking the board */
 
   public Tile getTile(@NotNull final Coordinate coordinate) {
-    return tiles.get(coordinate.index());
+    return Tile.create(coordinate, squares[coordinate.index()]);
   }
 
   public boolean contains(
       @NotNull final Coordinate coordinate, @NotNull final Piece.PieceType pieceType) {
-    final var piece = getTile(coordinate).getPiece();
+    final var bitboard =
+        bitboards[PieceCode.of(Alliance.WHITE, pieceType)]
+            | bitboards[PieceCode.of(Alliance.BLACK, pieceType)];
 
-    return piece.isPresent() && piece.get().getPieceType() == pieceType;
+    return Bitboard.contains(bitboard, coordinate.index());
   }
 
   public boolean containsNothing(@NotNull final Coordinate coordinate) {
-    return getTile(coordinate).getPiece().isEmpty();
+    return !Bitboard.contains(getOccupancy(), coordinate.index());
+  }
+
+  /**
+   * Obtains the white pieces on the board, ordered by their coordinate's index.
+   *
+   * @return The white pieces
+   */
+  public Collection<Piece> getWhitePieces() {
+    if (whitePieces == null) {
+      whitePieces = calculateActivePieces(whiteOccupancy);
+    }
+
+    return whitePieces;
+  }
+
+  /**
+   * Obtains the black pieces on the board, ordered by their coordinate's index.
+   *
+   * @return The black pieces
+   */
+  public Collection<Piece> getBlackPieces() {
+    if (blackPieces == null) {
+      blackPieces = calculateActivePieces(blackOccupancy);
+    }
+
+    return blackPieces;
+  }
+
+  /**
+   * Obtains the Zobrist key of this board. Boards with the same pieces, move maker, castling rights
+   * and en passant pawn have the same key.
+   *
+   * @return The 64-bit Zobrist key
+   */
+  public long zobristKey() {
+    return zobristKey;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (!(other instanceof Board board)) {
+      return false;
+    }
+
+    return zobristKey == board.zobristKey
+        && moveMaker == board.moveMaker
+        && castlingRights == board.castlingRights
+        && Objects.equals(enPassantIndex(), board.enPassantIndex())
+        && Arrays.equals(bitboards, board.bitboards);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(zobristKey);
+  }
+
+  private Integer enPassantIndex() {
+    return enPassantPawn == null ? null : enPassantPawn.getPosition().index();
+  }
+
+  /* Bitboard access */
+
+  /**
+   * Obtains the set of coordinates that contain a specific kind of piece.
+   *
+   * @param alliance The alliance of the pieces
+   * @param pieceType The type of the pieces
+   * @return The bitboard of the pieces
+   */
+  @Override
+  public long getBitboard(
+      @NotNull final Alliance alliance, @NotNull final Piece.PieceType pieceType) {
+    return bitboards[PieceCode.of(alliance, pieceType)];
+  }
+
+  /**
+   * Obtains the set of coordinates that contain a piece of the specified alliance.
+   *
+   * @param alliance The alliance of the pieces
+   * @return The occupancy bitboard of the alliance
+   */
+  public long getOccupancy(@NotNull final Alliance alliance) {
+    return switch (alliance) {
+      case WHITE -> whiteOccupancy;
+      case BLACK -> blackOccupancy;
+    };
+  }
+
+  /**
+   * Obtains the set of coordinates that contain any piece.
+   *
+   * @return The occupancy bitboard of the whole board
+   */
+  @Override
+  public long getOccupancy() {
+    return whiteOccupancy | blackOccupancy;
+  }
+
+  /* Attacks */
+
+  /**
+   * Checks if a coordinate is attacked by any piece of an alliance. The attacks are calculated
+   * outward from the coordinate, so no moves need to be generated.
+   *
+   * @param coordinate The coordinate to check
+   * @param attacker The alliance of the attacking pieces
+   * @return True if the coordinate is attacked
+   */
+  public boolean isSquareAttacked(
+      @NotNull final Coordinate coordinate, @NotNull final Alliance attacker) {
+    return Attacks.isAttacked(this, coordinate.index(), attacker);
+  }
+
+  /**
+   * Calculates every coordinate attacked by an alliance, including coordinates occupied by its own
+   * pieces.
+   *
+   * @param attacker The alliance of the attacking pieces
+   * @return The attack bitboard
+   */
+  public long getAttacks(@NotNull final Alliance attacker) {
+    return Attacks.of(this, attacker);
   }
 
   /* Board builders */
@@ -103,7 +281,8 @@ public class Board {
   /**
    * A special builder intended to be used when players make a move. This can only be used after the
    * board has been initialized at least once. It keeps the current state of the board and lets you
-   * specify only the differences from the previous turn.
+   * specify only the differences from the previous turn. The move maker of the new board is the
+   * opponent of this board's move maker.
    *
    * @return The next turn builder
    */
@@ -111,29 +290,59 @@ public class Board {
     return new BoardBuilder(this);
   }
 
-  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
   public static class BoardBuilder {
 
-    private final Map<Coordinate, Piece> boardConfig = new HashMap<>();
+    private final Piece[] squares;
+    private final long[] bitboards;
     private final King whiteKing;
     private final King blackKing;
     private Pawn enPassantPawn;
+    private Alliance moveMaker;
+    private long placementKey;
+
+    private BoardBuilder(final King whiteKing, final King blackKing) {
+      squares = new Piece[MAX_TILES];
+      bitboards = new long[PieceCode.COUNT];
+      this.whiteKing = whiteKing;
+      this.blackKing = blackKing;
+      moveMaker = Alliance.WHITE;
+    }
 
     private BoardBuilder(final Board board) {
+      squares = board.squares.clone();
+      bitboards = board.bitboards.clone();
       whiteKing = board.whiteKing;
       blackKing = board.blackKing;
-
-      board.getWhitePieces().forEach(this::piece);
-      board.getBlackPieces().forEach(this::piece);
+      moveMaker = board.moveMaker.getOpposite();
+      placementKey = board.placementKey;
     }
 
     public BoardBuilder piece(final Piece piece) {
-      boardConfig.put(piece.getPosition(), piece);
+      final var index = piece.getPosition().index();
+
+      if (squares[index] != null) {
+        final var code = PieceCode.of(squares[index]);
+        bitboards[code] &= ~Bitboard.of(index);
+        placementKey ^= Zobrist.piece(code, index);
+      }
+
+      final var code = PieceCode.of(piece);
+      squares[index] = piece;
+      bitboards[code] |= Bitboard.of(index);
+      placementKey ^= Zobrist.piece(code, index);
       return this;
     }
 
     public BoardBuilder withoutPiece(final Piece piece) {
-      boardConfig.remove(piece.getPosition(), piece);
+      final var index = piece.getPosition().index();
+
+      if (piece.equals(squares[index])) {
+        final var code = PieceCode.of(piece);
+        squares[index] = null;
+        bitboards[code] &= ~Bitboard.of(index);
+        placementKey ^= Zobrist.piece(code, index);
+      }
+
       return this;
     }
 
@@ -142,6 +351,11 @@ public class Board {
       return this;
     }
 
+    public BoardBuilder moveMaker(final Alliance alliance) {
+      this.moveMaker = alliance;
+      return this;
+    }
+
     public Board build() {
       return new Board(this);
     }
@@ -9,6 +9,9 @@ import static cl.vmardones.chess.engine.board.Board.MAX_TILES;
 import static cl.vmardones.chess.engine.board.Board.MIN_TILES;
 
 import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
 import cl.vmardones.chess.engine.piece.*;
 import cl.vmardones.chess.engine.player.Alliance;
 import com.google.common.collect.ImmutableList;
@@ -24,45 +27,20 @@ public class BoardService {
    *
    * @return The standard chessboard
    */
-  // TODO: Parse a text file to create the board
   public Board createStandardBoard() {
+    return createBoard(Fen.STANDARD);
+  }
 
-    final var whiteKing = new King(Coordinate.of("e1"), Alliance.WHITE);
-    final var blackKing = new King(Coordinate.of("e8"), Alliance.BLACK);
-
-    final var builder = Board.builder(whiteKing, blackKing);
-
-    builder
-        .piece(new Rook(Coordinate.of("a8"), Alliance.BLACK))
-        .piece(new Knight(Coordinate.of("b8"), Alliance.BLACK))
-        .piece(new Bishop(Coordinate.of("c8"), Alliance.BLACK))
-        .piece(new Queen(Coordinate.of("d8"), Alliance.BLACK))
-        .piece(blackKing)
-        .piece(new Bishop(Coordinate.of("f8"), Alliance.BLACK))
-        .piece(new Knight(Coordinate.of("g8"), Alliance.BLACK))
-        .piece(new Rook(Coordinate.of("h8"), Alliance.BLACK));
-
-    IntStream.range(8, 16)
-        .mapToObj(Coordinate::of)
-        .map(coordinate -> new Pawn(coordinate, Alliance.BLACK))
-        .forEach(builder::piece);
-
-    IntStream.range(48, 56)
-        .mapToObj(Coordinate::of)
-        .map(coordinate -> new Pawn(coordinate, Alliance.WHITE))
-        .forEach(builder::piece);
-
-    builder
-        .piece(new Rook(Coordinate.of("a1"), Alliance.WHITE))
-        .piece(new Knight(Coordinate.of("b1"), Alliance.WHITE))
-        .piece(new Bishop(Coordinate.of("c1"), Alliance.WHITE))
-        .piece(new Queen(Coordinate.of("d1"), Alliance.WHITE))
-        .piece(whiteKing)
-        .piece(new Bishop(Coordinate.of("f1"), Alliance.WHITE))
-        .piece(new Knight(Coordinate.of("g1"), Alliance.WHITE))
-        .piece(new Rook(Coordinate.of("h1"), Alliance.WHITE));
-
-    return builder.build();
+  /**
+   * Creates a chessboard from a position in FEN, with its move maker, castling rights and en
+   * passant pawn.
+   *
+   * @param fen The position, in FEN
+   * @return The chessboard
+   * @throws InvalidFenException If the text isn't a valid FEN position
+   */
+  public Board createBoard(@NotNull final CharSequence fen) {
+    return Fen.parse(fen).toBoard();
   }
 
   public String prettyPrint(@NotNull final Board board) {
@@ -80,6 +58,13 @@ public class BoardService {
     return (coordinate.index() + 1) % Board.SIDE_LENGTH == 0 ? "%s  \n" : "%s  ";
   }
 
+  /**
+   * Calculates the moves of some pieces, without checking if they leave their king in check.
+   *
+   * @param board The current board
+   * @param pieces The pieces to move
+   * @return The pseudo-legal moves of the pieces
+   */
   public Collection<Move> calculateLegals(
       @NotNull final Board board, @NotNull final Collection<Piece> pieces) {
     return pieces.stream()
@@ -87,4 +72,30 @@ public class BoardService {
         .flatMap(Collection::stream)
         .collect(ImmutableList.toImmutableList());
   }
+
+  /**
+   * Calculates the strictly legal moves of an alliance, including castles. Pawns reaching the last
+   * rank only get a queen promotion, like in the rest of the board model.
+   *
+   * @param board The current board
+   * @param alliance The alliance that moves
+   * @return The legal moves
+   */
+  public Collection<Move> calculateLegals(
+      @NotNull final Board board, @NotNull final Alliance alliance) {
+    final var moves = new MoveList();
+    MoveGenerator.generateLegals(Position.of(board, alliance), moves);
+
+    final var legals = ImmutableList.<Move>builderWithExpectedSize(moves.size());
+
+    for (var i = 0; i < moves.size(); i++) {
+      final var move = moves.get(i);
+
+      if (!PackedMove.isPromotion(move) || PackedMove.promotion(move) == Piece.PieceType.QUEEN) {
+        legals.add(PackedMove.toMove(move, board));
+      }
+    }
+
+    return legals.build();
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Castling rights, stored as a set of flags. A right is kept while the king and the matching rook
+ * haven't moved from their initial coordinates.
+ */
+public final class CastlingRights {
+
+  public static final int NONE = 0;
+  public static final int WHITE_KING_SIDE = 1;
+  public static final int WHITE_QUEEN_SIDE = 2;
+  public static final int BLACK_KING_SIDE = 4;
+  public static final int BLACK_QUEEN_SIDE = 8;
+  public static final int ALL = 15;
+
+  @Generated
+  private CastlingRights() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  public static int kingSide(@NotNull final Alliance alliance) {
+    return alliance == Alliance.WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+  }
+
+  public static int queenSide(@NotNull final Alliance alliance) {
+    return alliance == Alliance.WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+  }
+
+  /**
+   * Calculates the castling rights of a board, based on which kings and rooks haven't moved yet.
+   *
+   * @param board The board to check
+   * @return The castling rights
+   */
+  public static int of(@NotNull final Board board) {
+    var rights = NONE;
+
+    if (isUnmoved(board, "e1", Alliance.WHITE, Piece.PieceType.KING)) {
+      rights |= isUnmoved(board, "h1", Alliance.WHITE, Piece.PieceType.ROOK) ? WHITE_KING_SIDE : 0;
+      rights |= isUnmoved(board, "a1", Alliance.WHITE, Piece.PieceType.ROOK) ? WHITE_QUEEN_SIDE : 0;
+    }
+
+    if (isUnmoved(board, "e8", Alliance.BLACK, Piece.PieceType.KING)) {
+      rights |= isUnmoved(board, "h8", Alliance.BLACK, Piece.PieceType.ROOK) ? BLACK_KING_SIDE : 0;
+      rights |= isUnmoved(board, "a8", Alliance.BLACK, Piece.PieceType.ROOK) ? BLACK_QUEEN_SIDE : 0;
+    }
+
+    return rights;
+  }
+
+  private static boolean isUnmoved(
+      final Board board,
+      final String coordinate,
+      final Alliance alliance,
+      final Piece.PieceType pieceType) {
+    final var piece = board.getTile(Coordinate.of(coordinate)).getPiece();
+
+    return piece.isPresent()
+        && piece.get().getPieceType() == pieceType
+        && piece.get().getAlliance() == alliance
+        && piece.get().isFirstMove();
+  }
+}
@@ -10,7 +10,6 @@ import com.google.common.collect.ImmutableList;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.IntStream;
@@ -27,6 +26,10 @@ public final class Coordinate {
 
   private static final List<Coordinate> COORDINATES_CACHE = createAllPossibleCoordinates();
 
+  /* Relative coordinates are looked up very often, so their optionals are cached too */
+  private static final List<Optional<Coordinate>> OPTIONALS_CACHE =
+      COORDINATES_CACHE.stream().map(Optional::of).collect(ImmutableList.toImmutableList());
+
   private static List<Coordinate> createAllPossibleCoordinates() {
     return IntStream.range(Board.MIN_TILES, Board.MAX_TILES)
         .mapToObj(Coordinate::new)
@@ -49,8 +52,13 @@ public final class Coordinate {
    *
    * @param index The array index of the coordinate
    * @return The created coordinate
+   * @throws InvalidCoordinateException If the index isn't inside the chessboard
    */
   public static Coordinate of(final int index) {
+    if (index < Board.MIN_TILES || index >= Board.MAX_TILES) {
+      throw new InvalidCoordinateException("Index outside of the chessboard: " + index);
+    }
+
     return COORDINATES_CACHE.get(index);
   }
 
@@ -64,16 +72,18 @@ public final class Coordinate {
    * @throws InvalidCoordinateException If the coordinate isn't inside the chessboard
    */
   public static Coordinate of(@NotNull @MatchesPattern(ALGEBRAIC_PATTERN) final String algebraic) {
-    return COORDINATES_CACHE.get(calculateIndex(algebraic));
-  }
+    if (algebraic.length() != 2) {
+      throw new InvalidCoordinateException("Invalid algebraic coordinate: " + algebraic);
+    }
 
-  private static int calculateIndex(final String algebraicCoordinate) {
-    final var column = Column.indexOf(algebraicCoordinate.charAt(0));
-    final var rank =
-        Board.SIDE_LENGTH
-            * (Board.SIDE_LENGTH - Integer.parseInt("" + algebraicCoordinate.charAt(1)));
+    final var column = algebraic.charAt(0) - 'a';
+    final var rank = algebraic.charAt(1) - '0';
 
-    return column + rank;
+    if (column < 0 || column >= Board.SIDE_LENGTH || rank < 1 || rank > Board.SIDE_LENGTH) {
+      throw new InvalidCoordinateException("Invalid algebraic coordinate: " + algebraic);
+    }
+
+    return COORDINATES_CACHE.get((Board.SIDE_LENGTH - rank) * Board.SIDE_LENGTH + column);
   }
 
   /* Getters and comparations */
@@ -95,7 +105,7 @@ public final class Coordinate {
    * @return The coordinate's column
    */
   public char getColumn() {
-    return Column.getByIndex(getColumnIndex());
+    return (char) ('a' + getColumnIndex());
   }
 
   /**
@@ -181,27 +191,13 @@ public final class Coordinate {
    * @return Coordinate at the relative position, if it is inside the board
    */
   public Optional<Coordinate> to(final int x, final int y) {
-    try {
-      final var destination =
-          COORDINATES_CACHE.get(index + horizontalClamp(x) - y * Board.SIDE_LENGTH);
+    final var destination = Geometry.step(index, x, y);
 
-      if (illegalJump(x, destination)) {
-        return Optional.empty();
-      }
-
-      return Optional.of(destination);
-    } catch (final IndexOutOfBoundsException e) {
+    if (destination == Position.NO_SQUARE) {
       return Optional.empty();
     }
-  }
 
-  private boolean illegalJump(final int x, final Coordinate destination) {
-    return x < 0 && destination.getColumnIndex() > getColumnIndex()
-        || x > 0 && destination.getColumnIndex() < getColumnIndex();
-  }
-
-  private int horizontalClamp(final int x) {
-    return x % Board.SIDE_LENGTH;
+    return OPTIONALS_CACHE.get(destination);
   }
 
   /**
@@ -243,30 +239,4 @@ public final class Coordinate {
   public Optional<Coordinate> right(final int spaces) {
     return to(spaces, 0);
   }
-
-  private enum Column {
-    A,
-    B,
-    C,
-    D,
-    E,
-    F,
-    G,
-    H;
-
-    private static final List<Character> names =
-        Arrays.stream(values()).map(Column::getName).toList();
-
-    private static char getByIndex(final int index) {
-      return values()[index].getName();
-    }
-
-    private static int indexOf(final Character name) {
-      return names.indexOf(name);
-    }
-
-    private char getName() {
-      return name().toLowerCase().charAt(0);
-    }
-  }
 }
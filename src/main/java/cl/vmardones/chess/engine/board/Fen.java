@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.PieceCode;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN), like {@value #STANDARD}. The text
+ * is read one character at a time, straight into a {@link Position}, without splitting it or using
+ * regular expressions. The clocks are optional and anything after them (like EPD operations) is
+ * ignored, so EPD lines can be read too. Positions are written by appending to a builder, which can
+ * be reused for many positions.
+ */
+public final class Fen {
+
+  /** The FEN of the standard starting position. */
+  public static final String STANDARD = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  /* The longest FEN, with both clocks of up to 4 digits */
+  private static final int MAX_LENGTH = 92;
+
+  @Generated
+  private Fen() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /**
+   * Reads a position from a FEN text. Castling rights whose king or rook isn't on its initial
+   * coordinate are ignored.
+   *
+   * @param fen The FEN text
+   * @return A new position
+   * @throws InvalidFenException If the text isn't a valid FEN position
+   */
+  public static Position parse(@NotNull final CharSequence fen) {
+    final var position = new Position();
+    final var length = fen.length();
+
+    var i = 0;
+    var square = 0;
+    var column = 0;
+
+    for (; i < length && fen.charAt(i) != ' '; i++) {
+      final var symbol = fen.charAt(i);
+
+      if (symbol == '/') {
+        if (column != Board.SIDE_LENGTH) {
+          throw invalid(fen, "incomplete rank");
+        }
+
+        column = 0;
+        continue;
+      }
+
+      if (symbol >= '1' && symbol <= '8') {
+        column += symbol - '0';
+        square += symbol - '0';
+      } else {
+        final var code = PieceCode.of(symbol);
+
+        if (code == PieceCode.NONE) {
+          throw invalid(fen, "unknown piece " + symbol);
+        }
+
+        if (column >= Board.SIDE_LENGTH || square >= Board.MAX_TILES) {
+          throw invalid(fen, "too many pieces in a rank");
+        }
+
+        position.putPiece(code, square);
+        column++;
+        square++;
+      }
+
+      if (column > Board.SIDE_LENGTH) {
+        throw invalid(fen, "rank is too long");
+      }
+    }
+
+    if (square != Board.MAX_TILES) {
+      throw invalid(fen, "the board doesn't have 64 coordinates");
+    }
+
+    for (var alliance : Alliance.values()) {
+      if (Bitboard.count(position.getBitboard(alliance, Piece.PieceType.KING)) != 1) {
+        throw invalid(fen, "each side needs exactly one king");
+      }
+    }
+
+    i = skipSpace(fen, i);
+
+    if (i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+      throw invalid(fen, "the side to move must be w or b");
+    }
+
+    final var moveMaker = fen.charAt(i++) == 'w' ? Alliance.WHITE : Alliance.BLACK;
+
+    i = skipSpace(fen, i);
+
+    var castlingRights = CastlingRights.NONE;
+
+    if (i < length && fen.charAt(i) == '-') {
+      i++;
+    } else {
+      for (; i < length && fen.charAt(i) != ' '; i++) {
+        castlingRights |=
+            switch (fen.charAt(i)) {
+              case 'K' -> CastlingRights.WHITE_KING_SIDE;
+              case 'Q' -> CastlingRights.WHITE_QUEEN_SIDE;
+              case 'k' -> CastlingRights.BLACK_KING_SIDE;
+              case 'q' -> CastlingRights.BLACK_QUEEN_SIDE;
+              default -> throw invalid(fen, "unknown castling right " + fen.charAt(i));
+            };
+      }
+    }
+
+    i = skipSpace(fen, i);
+
+    var enPassantTarget = Position.NO_SQUARE;
+
+    if (i < length && fen.charAt(i) == '-') {
+      i++;
+    } else {
+      enPassantTarget = readEnPassantTarget(fen, i, moveMaker);
+      i += 2;
+    }
+
+    var halfmoveClock = 0;
+    var fullmoveNumber = 0;
+
+    if (i < length) {
+      i = skipSpace(fen, i);
+
+      final var clockStart = i;
+
+      for (; i < length && isDigit(fen.charAt(i)); i++) {
+        halfmoveClock = halfmoveClock * 10 + fen.charAt(i) - '0';
+      }
+
+      /* The fullmove number only follows a halfmove clock, otherwise it's an EPD operation */
+      if (i > clockStart && i < length && fen.charAt(i) == ' ') {
+        for (i++; i < length && isDigit(fen.charAt(i)); i++) {
+          fullmoveNumber = fullmoveNumber * 10 + fen.charAt(i) - '0';
+        }
+      }
+    }
+
+    position.setState(
+        moveMaker,
+        castlingRights & availableCastlingRights(position),
+        enPassantTarget,
+        halfmoveClock,
+        Math.max(fullmoveNumber, 1));
+
+    return position;
+  }
+
+  /**
+   * Writes a position in FEN, including both clocks.
+   *
+   * @param position The position
+   * @return The FEN text
+   */
+  public static String toString(@NotNull final Position position) {
+    return write(position, new StringBuilder(MAX_LENGTH)).toString();
+  }
+
+  /**
+   * Writes a position in FEN at the end of a builder, without allocating anything else.
+   *
+   * @param position The position
+   * @param builder Where the text is appended
+   * @return The same builder
+   */
+  public static StringBuilder write(
+      @NotNull final Position position, @NotNull final StringBuilder builder) {
+    for (var row = 0; row < Board.SIDE_LENGTH; row++) {
+      if (row > 0) {
+        builder.append('/');
+      }
+
+      var empty = 0;
+
+      for (var column = 0; column < Board.SIDE_LENGTH; column++) {
+        final var code = position.getPieceCode(row * Board.SIDE_LENGTH + column);
+
+        if (code == PieceCode.NONE) {
+          empty++;
+          continue;
+        }
+
+        if (empty > 0) {
+          builder.append((char) ('0' + empty));
+          empty = 0;
+        }
+
+        builder.append(PieceCode.toSymbol(code));
+      }
+
+      if (empty > 0) {
+        builder.append((char) ('0' + empty));
+      }
+    }
+
+    builder.append(position.getMoveMaker() == Alliance.WHITE ? " w " : " b ");
+
+    final var castlingRights = position.getCastlingRights();
+
+    if (castlingRights == CastlingRights.NONE) {
+      builder.append('-');
+    } else {
+      appendIf(builder, castlingRights, CastlingRights.WHITE_KING_SIDE, 'K');
+      appendIf(builder, castlingRights, CastlingRights.WHITE_QUEEN_SIDE, 'Q');
+      appendIf(builder, castlingRights, CastlingRights.BLACK_KING_SIDE, 'k');
+      appendIf(builder, castlingRights, CastlingRights.BLACK_QUEEN_SIDE, 'q');
+    }
+
+    final var enPassantTarget = position.getEnPassantTarget();
+
+    if (enPassantTarget == Position.NO_SQUARE) {
+      builder.append(" -");
+    } else {
+      builder
+          .append(' ')
+          .append((char) ('a' + enPassantTarget % Board.SIDE_LENGTH))
+          .append((char) ('0' + Board.SIDE_LENGTH - enPassantTarget / Board.SIDE_LENGTH));
+    }
+
+    return builder
+        .append(' ')
+        .append(position.getHalfmoveClock())
+        .append(' ')
+        .append(position.getFullmoveNumber());
+  }
+
+  private static void appendIf(
+      final StringBuilder builder, final int rights, final int right, final char symbol) {
+    if ((rights & right) != 0) {
+      builder.append(symbol);
+    }
+  }
+
+  private static boolean isDigit(final char symbol) {
+    return symbol >= '0' && symbol <= '9';
+  }
+
+  private static int skipSpace(final CharSequence fen, final int index) {
+    if (index >= fen.length() || fen.charAt(index) != ' ') {
+      throw invalid(fen, "missing field");
+    }
+
+    var i = index;
+
+    while (i < fen.length() && fen.charAt(i) == ' ') {
+      i++;
+    }
+
+    return i;
+  }
+
+  private static int readEnPassantTarget(
+      final CharSequence fen, final int index, final Alliance moveMaker) {
+    if (index + 1 >= fen.length()) {
+      throw invalid(fen, "incomplete en passant target");
+    }
+
+    final var column = fen.charAt(index) - 'a';
+    final var rank = fen.charAt(index + 1) - '0';
+    final var expectedRank = moveMaker == Alliance.WHITE ? 6 : 3;
+
+    if (column < 0 || column >= Board.SIDE_LENGTH || rank != expectedRank) {
+      throw invalid(fen, "invalid en passant target");
+    }
+
+    return (Board.SIDE_LENGTH - rank) * Board.SIDE_LENGTH + column;
+  }
+
+  /* Castling is only possible if the king and the rook are still on their initial coordinates */
+  private static int availableCastlingRights(final Position position) {
+    var rights = CastlingRights.NONE;
+
+    for (var alliance : Alliance.values()) {
+      final var backRank = alliance == Alliance.WHITE ? Board.MAX_TILES - Board.SIDE_LENGTH : 0;
+      final var rooks = position.getBitboard(alliance, Piece.PieceType.ROOK);
+
+      if (!Bitboard.contains(position.getBitboard(alliance, Piece.PieceType.KING), backRank + 4)) {
+        continue;
+      }
+
+      if (Bitboard.contains(rooks, backRank + Board.SIDE_LENGTH - 1)) {
+        rights |= CastlingRights.kingSide(alliance);
+      }
+
+      if (Bitboard.contains(rooks, backRank)) {
+        rights |= CastlingRights.queenSide(alliance);
+      }
+    }
+
+    return rights;
+  }
+
+  private static InvalidFenException invalid(final CharSequence fen, final String reason) {
+    return new InvalidFenException("Invalid FEN (" + reason + "): " + fen);
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import lombok.Generated;
+
+/**
+ * Precalculated relations between the coordinates of the board, indexed by coordinate index. Every
+ * table is built once, when the class is loaded, so looking up a relative coordinate never needs
+ * bound checks, exceptions or optionals at runtime.
+ *
+ * <p>The returned arrays are shared by every caller, and must not be modified.
+ */
+public final class Geometry {
+
+  /** The largest movement in a single axis that stays inside the board. */
+  private static final int MAX_STEP = Board.SIDE_LENGTH - 1;
+
+  private static final int STEP_SIDE = 2 * MAX_STEP + 1;
+
+  private static final int[][] KNIGHT_STEPS = {
+    {-1, 2}, {1, 2}, {-2, 1}, {2, 1}, {-1, -2}, {1, -2}, {-2, -1}, {2, -1}
+  };
+  private static final int[][] KING_STEPS = {
+    {-1, 1}, {0, 1}, {1, 1}, {-1, 0}, {1, 0}, {-1, -1}, {0, -1}, {1, -1}
+  };
+
+  private static final int[][] STEPS = new int[Board.MAX_TILES][STEP_SIDE * STEP_SIDE];
+  private static final int[][] KNIGHT_TARGETS = new int[Board.MAX_TILES][];
+  private static final int[][] KING_TARGETS = new int[Board.MAX_TILES][];
+  private static final int[][][] RAYS = new int[KING_STEPS.length + 1][Board.MAX_TILES][];
+  private static final long[][] LINES = new long[Board.MAX_TILES][Board.MAX_TILES];
+  private static final long[][] BETWEEN = new long[Board.MAX_TILES][Board.MAX_TILES];
+  private static final byte[][] DISTANCES = new byte[Board.MAX_TILES][Board.MAX_TILES];
+  private static final byte[][] MANHATTAN_DISTANCES = new byte[Board.MAX_TILES][Board.MAX_TILES];
+
+  static {
+    for (var square = 0; square < Board.MAX_TILES; square++) {
+      for (var y = -MAX_STEP; y <= MAX_STEP; y++) {
+        for (var x = -MAX_STEP; x <= MAX_STEP; x++) {
+          STEPS[square][stepIndex(x, y)] = calculateStep(square, x, y);
+        }
+      }
+    }
+
+    for (var square = 0; square < Board.MAX_TILES; square++) {
+      KNIGHT_TARGETS[square] = createTargets(square, KNIGHT_STEPS);
+      KING_TARGETS[square] = createTargets(square, KING_STEPS);
+      RAYS[directionIndex(0, 0)][square] = new int[0];
+
+      for (var direction : KING_STEPS) {
+        createRay(square, direction[0], direction[1]);
+      }
+
+      for (var other = 0; other < Board.MAX_TILES; other++) {
+        final var columns = Math.abs(square % Board.SIDE_LENGTH - other % Board.SIDE_LENGTH);
+        final var rows = Math.abs(square / Board.SIDE_LENGTH - other / Board.SIDE_LENGTH);
+
+        DISTANCES[square][other] = (byte) Math.max(columns, rows);
+        MANHATTAN_DISTANCES[square][other] = (byte) (columns + rows);
+      }
+    }
+  }
+
+  @Generated
+  private Geometry() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /* Relative coordinates */
+
+  /**
+   * Obtains the coordinate at a relative position.
+   *
+   * @param square The coordinate index where the movement starts
+   * @param x X axis movement, positive goes right
+   * @param y Y axis movement, positive goes up
+   * @return The coordinate index at the relative position, or {@link Position#NO_SQUARE} if it's
+   *     outside the board
+   */
+  public static int step(final int square, final int x, final int y) {
+    if (x < -MAX_STEP || x > MAX_STEP || y < -MAX_STEP || y > MAX_STEP) {
+      return Position.NO_SQUARE;
+    }
+
+    return STEPS[square][stepIndex(x, y)];
+  }
+
+  /**
+   * Obtains the coordinates a knight can jump to.
+   *
+   * @param square The coordinate index of the knight
+   * @return The coordinate indexes of the destinations
+   */
+  public static int[] knightTargets(final int square) {
+    return KNIGHT_TARGETS[square];
+  }
+
+  /**
+   * Obtains the coordinates next to a coordinate, where a king can step to.
+   *
+   * @param square The coordinate index of the king
+   * @return The coordinate indexes of the destinations
+   */
+  public static int[] kingTargets(final int square) {
+    return KING_TARGETS[square];
+  }
+
+  /**
+   * Obtains the coordinates in a direction, from the nearest to the edge of the board. Sliding
+   * pieces walk them until they find an occupied coordinate.
+   *
+   * @param square The coordinate index where the ray starts, which isn't part of it
+   * @param x X axis direction: -1, 0 or 1
+   * @param y Y axis direction: -1, 0 or 1
+   * @return The coordinate indexes of the ray
+   */
+  public static int[] ray(final int square, final int x, final int y) {
+    return RAYS[directionIndex(x, y)][square];
+  }
+
+  /* Lines between coordinates */
+
+  /**
+   * Obtains the coordinates strictly between two coordinates that share a row, column or diagonal.
+   *
+   * @param first The first coordinate index
+   * @param second The second coordinate index
+   * @return The coordinates between them, or an empty bitboard if they aren't aligned
+   */
+  public static long between(final int first, final int second) {
+    return BETWEEN[first][second];
+  }
+
+  /**
+   * Obtains the whole row, column or diagonal that goes through two coordinates, from one edge of
+   * the board to the other.
+   *
+   * @param first The first coordinate index
+   * @param second The second coordinate index
+   * @return The line through both coordinates, or an empty bitboard if they aren't aligned
+   */
+  public static long line(final int first, final int second) {
+    return LINES[first][second];
+  }
+
+  /* Distances */
+
+  /**
+   * Obtains the amount of king steps between two coordinates, which is the largest of the column
+   * and row distances.
+   *
+   * @param first The first coordinate index
+   * @param second The second coordinate index
+   * @return The distance, between 0 and 7
+   */
+  public static int distance(final int first, final int second) {
+    return DISTANCES[first][second];
+  }
+
+  /**
+   * Obtains the amount of rook steps of length one between two coordinates, which is the sum of the
+   * column and row distances.
+   *
+   * @param first The first coordinate index
+   * @param second The second coordinate index
+   * @return The distance, between 0 and 14
+   */
+  public static int manhattanDistance(final int first, final int second) {
+    return MANHATTAN_DISTANCES[first][second];
+  }
+
+  /* Table creation */
+
+  private static int stepIndex(final int x, final int y) {
+    return (y + MAX_STEP) * STEP_SIDE + x + MAX_STEP;
+  }
+
+  private static int directionIndex(final int x, final int y) {
+    return (y + 1) * 3 + x + 1;
+  }
+
+  private static int calculateStep(final int square, final int x, final int y) {
+    final var column = square % Board.SIDE_LENGTH + x;
+    final var row = square / Board.SIDE_LENGTH - y;
+
+    if (column < 0 || column >= Board.SIDE_LENGTH || row < 0 || row >= Board.SIDE_LENGTH) {
+      return Position.NO_SQUARE;
+    }
+
+    return row * Board.SIDE_LENGTH + column;
+  }
+
+  private static int[] createTargets(final int square, final int[][] steps) {
+    var count = 0;
+    final var targets = new int[steps.length];
+
+    for (var step : steps) {
+      final var destination = STEPS[square][stepIndex(step[0], step[1])];
+
+      if (destination != Position.NO_SQUARE) {
+        targets[count++] = destination;
+      }
+    }
+
+    final var result = new int[count];
+    System.arraycopy(targets, 0, result, 0, count);
+
+    return result;
+  }
+
+  private static void createRay(final int square, final int x, final int y) {
+    var length = 0;
+
+    while (length < MAX_STEP
+        && STEPS[square][stepIndex(x * (length + 1), y * (length + 1))] != Position.NO_SQUARE) {
+      length++;
+    }
+
+    final var ray = new int[length];
+    var between = Bitboard.EMPTY;
+
+    for (var i = 0; i < length; i++) {
+      ray[i] = STEPS[square][stepIndex(x * (i + 1), y * (i + 1))];
+      BETWEEN[square][ray[i]] = between;
+      between |= Bitboard.of(ray[i]);
+    }
+
+    RAYS[directionIndex(x, y)][square] = ray;
+
+    /* The whole line is both rays plus the coordinate itself, so it's finished by the second ray */
+    final var backwards = RAYS[directionIndex(-x, -y)][square];
+
+    if (backwards == null) {
+      return;
+    }
+
+    var line = between | Bitboard.of(square);
+
+    for (var coordinate : backwards) {
+      line |= Bitboard.of(coordinate);
+    }
+
+    for (var coordinate : ray) {
+      LINES[square][coordinate] = line;
+    }
+
+    for (var coordinate : backwards) {
+      LINES[square][coordinate] = line;
+    }
+  }
+}
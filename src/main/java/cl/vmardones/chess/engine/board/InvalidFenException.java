@@ -0,0 +1,19 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+/** An exception that is thrown when a text can't be read as a FEN position. */
+public class InvalidFenException extends RuntimeException {
+
+  /**
+   * Constructs a new invalid FEN exception with the specified message.
+   *
+   * @param message The detail message, specifying the cause of the exception being thrown
+   */
+  public InvalidFenException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.Generated;
+
+/**
+ * Searches the magic numbers of {@link Magics} and writes them to a file, which the build ships as
+ * a resource. Run by the generateMagics Gradle task, with the path of the file as the only
+ * argument.
+ */
+public final class MagicGenerator {
+
+  @Generated
+  private MagicGenerator() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  public static void main(final String[] args) throws IOException {
+    final var file = Path.of(args[0]);
+    Files.createDirectories(file.toAbsolutePath().getParent());
+
+    try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      for (var magic : Magics.getMagicNumbers()) {
+        output.writeLong(magic);
+      }
+    }
+  }
+}
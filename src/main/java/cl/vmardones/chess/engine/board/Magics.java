@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Magic bitboard attack tables of a sliding piece. The attacks of a slider only depend on the
+ * pieces inside its relevant mask: its rays, without the edges of the board. Multiplying those
+ * pieces by a magic number gathers them in the top bits of the product, which index a table with
+ * the precalculated attacks of every combination. An attack set is then a mask, a multiplication, a
+ * shift and a lookup.
+ *
+ * <p>The magic numbers are found by a random search, which is done once at build time by {@link
+ * MagicGenerator} and shipped as the {@value #RESOURCE} resource. If the resource is missing or
+ * doesn't fit a table, the magic numbers are searched again when the class is loaded.
+ */
+@Slf4j
+final class Magics {
+
+  static final String RESOURCE = "magics/sliders.bin";
+
+  private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
+  private static final int[][] BISHOP_DIRECTIONS = {{-1, 1}, {1, 1}, {-1, -1}, {1, -1}};
+
+  /* A fixed seed keeps the generated resource reproducible */
+  private static final long SEED = 0x5EEDL;
+  private static final long TOP_BYTE = 0xFF00_0000_0000_0000L;
+  private static final int MIN_TOP_BITS = 6;
+
+  static final Magics ROOK;
+  static final Magics BISHOP;
+
+  static {
+    final var stored = load();
+    ROOK = new Magics(ROOK_DIRECTIONS, Arrays.copyOfRange(stored, 0, Board.MAX_TILES));
+    BISHOP =
+        new Magics(
+            BISHOP_DIRECTIONS, Arrays.copyOfRange(stored, Board.MAX_TILES, 2 * Board.MAX_TILES));
+  }
+
+  private final int[][] directions;
+  private final long[] masks = new long[Board.MAX_TILES];
+  private final long[] magics = new long[Board.MAX_TILES];
+  private final int[] shifts = new int[Board.MAX_TILES];
+  private final int[] offsets = new int[Board.MAX_TILES];
+  private final long[] attacks;
+
+  private Magics(final int[][] directions, final long[] stored) {
+    this.directions = directions;
+
+    var size = 0;
+
+    for (var square = 0; square < Board.MAX_TILES; square++) {
+      masks[square] = relevantMask(square);
+      shifts[square] = Long.SIZE - Bitboard.count(masks[square]);
+      offsets[square] = size;
+      size += 1 << Bitboard.count(masks[square]);
+    }
+
+    attacks = new long[size];
+
+    final var random = new SplittableRandom(SEED);
+
+    for (var square = 0; square < Board.MAX_TILES; square++) {
+      if (!fill(square, stored[square])) {
+        fill(square, search(square, random));
+      }
+    }
+  }
+
+  /**
+   * Looks up the attacks of this slider.
+   *
+   * @param square The coordinate index of the slider
+   * @param occupied The occupied coordinates, which block the slider
+   * @return The attacked coordinates, including the blockers
+   */
+  long attacks(final int square, final long occupied) {
+    final var index = (int) (((occupied & masks[square]) * magics[square]) >>> shifts[square]);
+
+    return attacks[offsets[square] + index];
+  }
+
+  /**
+   * Obtains the magic numbers of the rooks, followed by the ones of the bishops, in the format of
+   * the {@value #RESOURCE} resource.
+   *
+   * @return The magic numbers, one per coordinate and slider
+   */
+  static long[] getMagicNumbers() {
+    final var numbers = Arrays.copyOf(ROOK.magics, 2 * Board.MAX_TILES);
+    System.arraycopy(BISHOP.magics, 0, numbers, Board.MAX_TILES, Board.MAX_TILES);
+
+    return numbers;
+  }
+
+  /* Table creation */
+
+  private static long[] load() {
+    final var stored = new long[2 * Board.MAX_TILES];
+
+    try (var input = Magics.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+      if (input == null) {
+        log.info("Magic numbers not found, they will be searched now");
+        return stored;
+      }
+
+      final var data = new DataInputStream(new BufferedInputStream(input));
+
+      for (var i = 0; i < stored.length; i++) {
+        stored[i] = data.readLong();
+      }
+    } catch (final IOException e) {
+      log.warn("Could not read the magic numbers, they will be searched now", e);
+      Arrays.fill(stored, 0);
+    }
+
+    return stored;
+  }
+
+  private long relevantMask(final int square) {
+    var mask = Bitboard.EMPTY;
+
+    for (var direction : directions) {
+      final var ray = Geometry.ray(square, direction[0], direction[1]);
+
+      /* The last coordinate of a ray is attacked whether it's occupied or not */
+      for (var i = 0; i < ray.length - 1; i++) {
+        mask |= Bitboard.of(ray[i]);
+      }
+    }
+
+    return mask;
+  }
+
+  private long slidingAttacks(final int square, final long occupied) {
+    var result = Bitboard.EMPTY;
+
+    for (var direction : directions) {
+      for (var current : Geometry.ray(square, direction[0], direction[1])) {
+        result |= Bitboard.of(current);
+
+        if (Bitboard.contains(occupied, current)) {
+          break;
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /* Fills the table of a coordinate, unless the magic number maps two different attacks together */
+  private boolean fill(final int square, final long magic) {
+    if (magic == 0) {
+      return false;
+    }
+
+    final var start = offsets[square];
+    final var end = start + (1 << (Long.SIZE - shifts[square]));
+
+    Arrays.fill(attacks, start, end, Bitboard.EMPTY);
+
+    var subset = Bitboard.EMPTY;
+
+    do {
+      final var index = start + (int) ((subset * magic) >>> shifts[square]);
+      final var expected = slidingAttacks(square, subset);
+
+      /* Sliders always attack something, so an empty entry is an unused one */
+      if (attacks[index] == Bitboard.EMPTY) {
+        attacks[index] = expected;
+      } else if (attacks[index] != expected) {
+        return false;
+      }
+
+      subset = (subset - masks[square]) & masks[square];
+    } while (subset != Bitboard.EMPTY);
+
+    magics[square] = magic;
+
+    return true;
+  }
+
+  private long search(final int square, final SplittableRandom random) {
+    final var mask = masks[square];
+    final var size = 1 << Bitboard.count(mask);
+    final var subsets = new long[size];
+    final var expected = new long[size];
+
+    var subset = Bitboard.EMPTY;
+
+    for (var i = 0; i < size; i++) {
+      subsets[i] = subset;
+      expected[i] = slidingAttacks(square, subset);
+      subset = (subset - mask) & mask;
+    }
+
+    final var used = new long[size];
+    final var attempts = new int[size];
+
+    for (var attempt = 1; ; attempt++) {
+      /* Sparse numbers are much more likely to be magic */
+      final var magic = random.nextLong() & random.nextLong() & random.nextLong();
+
+      if (Bitboard.count((mask * magic) & TOP_BYTE) < MIN_TOP_BITS) {
+        continue;
+      }
+
+      var collision = false;
+
+      for (var i = 0; i < size && !collision; i++) {
+        final var index = (int) ((subsets[i] * magic) >>> shifts[square]);
+
+        if (attempts[index] != attempt) {
+          attempts[index] = attempt;
+          used[index] = expected[i];
+        } else if (used[index] != expected[i]) {
+          collision = true;
+        }
+      }
+
+      if (!collision) {
+        return magic;
+      }
+    }
+  }
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+
+/** Anything that stores where pieces are as bitboards, like boards and positions. */
+public interface PiecePlacement {
+
+  long getBitboard(@NotNull Alliance alliance, @NotNull Piece.PieceType pieceType);
+
+  long getOccupancy();
+}
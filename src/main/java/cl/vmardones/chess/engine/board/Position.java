@@ -0,0 +1,615 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.piece.King;
+import cl.vmardones.chess.engine.piece.Pawn;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.PieceCode;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import java.util.Arrays;
+
+/**
+ * A mutable chess position, intended for searches and game replays. Instead of creating a new board
+ * for every move, moves are made and unmade in place. Every made move pushes a small undo record to
+ * a stack (the packed move, plus the castling rights, en passant target and halfmove clock before
+ * the move), which is enough to restore the previous state, so walking through a game doesn't
+ * allocate anything per ply. An immutable {@link Board} can be exported at any time.
+ *
+ * <p>The position keeps the same Zobrist key as a board, updated while pieces are put and removed.
+ * Keys before each made move are kept too, so they are restored on unmake. The pawn key, the sums
+ * of the {@link PieceSquareTables} and the game phase are updated the same way, so evaluating a
+ * position doesn't need to visit its pieces.
+ */
+public final class Position implements PiecePlacement {
+
+  public static final int NO_SQUARE = -1;
+
+  private static final int WHITE_KING_SQUARE = Coordinate.of("e1").index();
+  private static final int BLACK_KING_SQUARE = Coordinate.of("e8").index();
+  private static final int[] CASTLING_MASKS = createCastlingMasks();
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final long[] bitboards = new long[PieceCode.COUNT];
+  private final long[] occupancies = new long[Alliance.values().length];
+  private final int[] squares = new int[Board.MAX_TILES];
+
+  private Alliance moveMaker;
+  private int castlingRights;
+  private int enPassantTarget = NO_SQUARE;
+  private int halfmoveClock;
+  private int initialFullmoveNumber = 1;
+  private long zobristKey;
+  private long pawnKey;
+  private int middlegameScore;
+  private int endgameScore;
+  private int phase;
+
+  private long[] undoStack = new long[INITIAL_CAPACITY];
+  private long[] keyStack = new long[INITIAL_CAPACITY];
+  private int ply;
+
+  Position() {
+    Arrays.fill(squares, PieceCode.NONE);
+  }
+
+  private static int[] createCastlingMasks() {
+    final var masks = new int[Board.MAX_TILES];
+    Arrays.fill(masks, CastlingRights.ALL);
+
+    masks[WHITE_KING_SQUARE] &= ~(CastlingRights.WHITE_KING_SIDE | CastlingRights.WHITE_QUEEN_SIDE);
+    masks[Coordinate.of("h1").index()] &= ~CastlingRights.WHITE_KING_SIDE;
+    masks[Coordinate.of("a1").index()] &= ~CastlingRights.WHITE_QUEEN_SIDE;
+    masks[BLACK_KING_SQUARE] &= ~(CastlingRights.BLACK_KING_SIDE | CastlingRights.BLACK_QUEEN_SIDE);
+    masks[Coordinate.of("h8").index()] &= ~CastlingRights.BLACK_KING_SIDE;
+    masks[Coordinate.of("a8").index()] &= ~CastlingRights.BLACK_QUEEN_SIDE;
+
+    return masks;
+  }
+
+  /* Conversion from and to boards */
+
+  /**
+   * Creates a mutable position from a board. Castling rights are taken from kings and rooks that
+   * are on their initial coordinates and haven't moved yet.
+   *
+   * @param board The board to copy
+   * @return A new position, with the same state as the board
+   */
+  public static Position of(@NotNull final Board board) {
+    return of(board, board.getMoveMaker());
+  }
+
+  /**
+   * Creates a mutable position from a board, with a specific move maker. If the move maker isn't
+   * the board's move maker, no en passant capture is possible.
+   *
+   * @param board The board to copy
+   * @param moveMaker The alliance that makes the next move
+   * @return A new position, with the same pieces and castling rights as the board
+   */
+  public static Position of(@NotNull final Board board, @NotNull final Alliance moveMaker) {
+    final var position = new Position();
+
+    board.getWhitePieces().forEach(position::addPiece);
+    board.getBlackPieces().forEach(position::addPiece);
+
+    position.moveMaker = moveMaker;
+    position.castlingRights = board.getCastlingRights();
+
+    final var enPassantPawn = board.getEnPassantPawn();
+
+    if (enPassantPawn != null && moveMaker == board.getMoveMaker()) {
+      position.enPassantTarget =
+          enPassantPawn.getPosition().index()
+              + Board.SIDE_LENGTH * enPassantPawn.getAlliance().getDirection();
+    }
+
+    position.zobristKey ^=
+        Zobrist.moveMaker(position.moveMaker)
+            ^ Zobrist.castlingRights(position.castlingRights)
+            ^ Zobrist.enPassant(position.enPassantTarget);
+
+    return position;
+  }
+
+  /* Used by readers that fill an empty position, after every piece was put */
+  void setState(
+      final Alliance moveMaker,
+      final int castlingRights,
+      final int enPassantTarget,
+      final int halfmoveClock,
+      final int fullmoveNumber) {
+    this.moveMaker = moveMaker;
+    this.castlingRights = castlingRights;
+    this.enPassantTarget = enPassantTarget;
+    this.halfmoveClock = halfmoveClock;
+    initialFullmoveNumber = fullmoveNumber;
+
+    zobristKey ^=
+        Zobrist.moveMaker(moveMaker)
+            ^ Zobrist.castlingRights(castlingRights)
+            ^ Zobrist.enPassant(enPassantTarget);
+  }
+
+  private void addPiece(final Piece piece) {
+    putPiece(PieceCode.of(piece), piece.getPosition().index());
+  }
+
+  /**
+   * Exports the current state as an immutable board. Kings and rooks are marked as unmoved only if
+   * the matching castling right is still available, and pawns only if they are on their initial
+   * rank.
+   *
+   * @return A board snapshot of this position
+   */
+  public Board toBoard() {
+    final var whiteKing =
+        (King) createPiece(Bitboard.first(getBitboard(Alliance.WHITE, Piece.PieceType.KING)));
+    final var blackKing =
+        (King) createPiece(Bitboard.first(getBitboard(Alliance.BLACK, Piece.PieceType.KING)));
+
+    final var builder = Board.builder(whiteKing, blackKing).moveMaker(moveMaker);
+
+    for (var occupied = getOccupancy(); occupied != 0; occupied = Bitboard.withoutFirst(occupied)) {
+      final var index = Bitboard.first(occupied);
+
+      switch (PieceCode.type(squares[index])) {
+        case KING -> builder.piece(
+            PieceCode.alliance(squares[index]) == Alliance.WHITE ? whiteKing : blackKing);
+        default -> builder.piece(createPiece(index));
+      }
+    }
+
+    if (enPassantTarget != NO_SQUARE) {
+      final var pawnIndex = enPassantTarget + Board.SIDE_LENGTH * moveMaker.getDirection();
+      builder.enPassantPawn((Pawn) createPiece(pawnIndex));
+    }
+
+    return builder.build();
+  }
+
+  private Piece createPiece(final int index) {
+    final var code = squares[index];
+    final var coordinate = Coordinate.of(index);
+
+    final var firstMove =
+        switch (PieceCode.type(code)) {
+          case PAWN -> coordinate.getRank() == (PieceCode.alliance(code) == Alliance.WHITE ? 2 : 7);
+          case KING, ROOK -> (castlingRights & (CASTLING_MASKS[index] ^ CastlingRights.ALL)) != 0;
+          default -> false;
+        };
+
+    return PieceCode.toPiece(code, coordinate, firstMove);
+  }
+
+  /**
+   * Creates an independent copy of this position, for example to search it in another thread. The
+   * copy keeps the moves made so far, so they can be unmade and repetitions are still detected.
+   *
+   * @return The copy
+   */
+  public Position copy() {
+    final var copy = new Position();
+
+    System.arraycopy(bitboards, 0, copy.bitboards, 0, bitboards.length);
+    System.arraycopy(occupancies, 0, copy.occupancies, 0, occupancies.length);
+    System.arraycopy(squares, 0, copy.squares, 0, squares.length);
+    copy.moveMaker = moveMaker;
+    copy.castlingRights = castlingRights;
+    copy.enPassantTarget = enPassantTarget;
+    copy.halfmoveClock = halfmoveClock;
+    copy.initialFullmoveNumber = initialFullmoveNumber;
+    copy.zobristKey = zobristKey;
+    copy.pawnKey = pawnKey;
+    copy.middlegameScore = middlegameScore;
+    copy.endgameScore = endgameScore;
+    copy.phase = phase;
+    copy.undoStack = undoStack.clone();
+    copy.keyStack = keyStack.clone();
+    copy.ply = ply;
+
+    return copy;
+  }
+
+  /* Making and unmaking moves */
+
+  /**
+   * Makes a move from the old board model.
+   *
+   * @param move The move to make
+   */
+  public void makeMove(@NotNull final Move move) {
+    makeMove(PackedMove.of(move));
+  }
+
+  /**
+   * Makes a move, going from one coordinate to another. Pawns reaching the last rank are promoted
+   * to queens. The move isn't validated, it must be at least pseudo-legal.
+   *
+   * @param source The coordinate of the piece to move
+   * @param destination The coordinate the piece moves to
+   * @throws IllegalArgumentException If the move maker has no piece on the source coordinate
+   */
+  public void makeMove(@NotNull final Coordinate source, @NotNull final Coordinate destination) {
+    makeMove(createMove(source.index(), destination.index(), Piece.PieceType.QUEEN));
+  }
+
+  /**
+   * Packs a move that goes from one coordinate to another. The kind of move (capture, castle, en
+   * passant, etc.) is deduced from the position.
+   *
+   * @param source The index of the piece to move
+   * @param destination The index the piece moves to
+   * @param promotion The piece type a pawn becomes if it gets to the last rank
+   * @return The packed move
+   * @throws IllegalArgumentException If the move maker has no piece on the source coordinate
+   */
+  public int createMove(
+      final int source, final int destination, @NotNull final Piece.PieceType promotion) {
+    final var piece = squares[source];
+
+    if (piece == PieceCode.NONE || PieceCode.alliance(piece) != moveMaker) {
+      throw new IllegalArgumentException("No piece to move at " + Coordinate.of(source));
+    }
+
+    final var pieceType = PieceCode.type(piece);
+    final var captured = squares[destination];
+    final var capturedType = captured == PieceCode.NONE ? null : PieceCode.type(captured);
+    final var distance = destination - source;
+
+    if (pieceType == Piece.PieceType.PAWN) {
+      if (destination < Board.SIDE_LENGTH || destination >= Board.MAX_TILES - Board.SIDE_LENGTH) {
+        return PackedMove.promotion(source, destination, promotion, capturedType);
+      }
+
+      if (Math.abs(distance) == 2 * Board.SIDE_LENGTH) {
+        return PackedMove.of(source, destination, PackedMove.DOUBLE_PUSH, pieceType, null);
+      }
+
+      if (destination == enPassantTarget) {
+        return PackedMove.of(
+            source, destination, PackedMove.EN_PASSANT, pieceType, Piece.PieceType.PAWN);
+      }
+    }
+
+    if (pieceType == Piece.PieceType.KING && Math.abs(distance) == 2) {
+      final var flags = distance > 0 ? PackedMove.KING_CASTLE : PackedMove.QUEEN_CASTLE;
+      return PackedMove.of(source, destination, flags, pieceType, null);
+    }
+
+    final var flags = capturedType == null ? PackedMove.QUIET : PackedMove.CAPTURE;
+    return PackedMove.of(source, destination, flags, pieceType, capturedType);
+  }
+
+  /**
+   * Makes a packed move. The move isn't validated, it must be at least pseudo-legal.
+   *
+   * @param move The packed move
+   */
+  public void makeMove(final int move) {
+    final var source = PackedMove.source(move);
+    final var destination = PackedMove.destination(move);
+    final var flags = PackedMove.flags(move);
+    final var piece = squares[source];
+
+    pushUndo(move);
+
+    if (flags == PackedMove.EN_PASSANT) {
+      removePiece(enPassantCaptureSquare(destination));
+    } else if (PackedMove.isCapture(move)) {
+      removePiece(destination);
+    }
+
+    removePiece(source);
+    putPiece(
+        PackedMove.isPromotion(move) ? PieceCode.of(moveMaker, PackedMove.promotion(move)) : piece,
+        destination);
+
+    if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+      moveCastlingRook(flags, destination, false);
+    }
+
+    zobristKey ^= Zobrist.castlingRights(castlingRights) ^ Zobrist.enPassant(enPassantTarget);
+
+    castlingRights &= CASTLING_MASKS[source] & CASTLING_MASKS[destination];
+    enPassantTarget = flags == PackedMove.DOUBLE_PUSH ? (source + destination) / 2 : NO_SQUARE;
+    halfmoveClock =
+        PackedMove.isCapture(move) || PackedMove.pieceType(move) == Piece.PieceType.PAWN
+            ? 0
+            : halfmoveClock + 1;
+    moveMaker = moveMaker.getOpposite();
+
+    zobristKey ^=
+        Zobrist.castlingRights(castlingRights)
+            ^ Zobrist.enPassant(enPassantTarget)
+            ^ Zobrist.moveMaker(Alliance.BLACK);
+  }
+
+  /**
+   * Passes the turn to the other alliance without moving anything, for null-move pruning. The
+   * position is no longer legal if the move maker was in check. It's undone by {@link
+   * #unmakeMove()}, like any other move.
+   */
+  public void makeNullMove() {
+    pushUndo(PackedMove.NONE);
+
+    zobristKey ^= Zobrist.enPassant(enPassantTarget) ^ Zobrist.moveMaker(Alliance.BLACK);
+
+    enPassantTarget = NO_SQUARE;
+    halfmoveClock++;
+    moveMaker = moveMaker.getOpposite();
+  }
+
+  private void moveCastlingRook(final int flags, final int kingDestination, final boolean undo) {
+    final var cornerSquare =
+        flags == PackedMove.KING_CASTLE ? kingDestination + 1 : kingDestination - 2;
+    final var rookSquare =
+        flags == PackedMove.KING_CASTLE ? kingDestination - 1 : kingDestination + 1;
+
+    final var from = undo ? rookSquare : cornerSquare;
+    final var to = undo ? cornerSquare : rookSquare;
+
+    putPiece(squares[from], to);
+    removePiece(from);
+  }
+
+  private int enPassantCaptureSquare(final int destination) {
+    return destination + Board.SIDE_LENGTH * moveMaker.getDirection();
+  }
+
+  /**
+   * Unmakes the last move, restoring the position to its exact previous state.
+   *
+   * @throws IllegalStateException If there are no moves to unmake
+   */
+  public void unmakeMove() {
+    if (ply == 0) {
+      throw new IllegalStateException("There are no moves to unmake");
+    }
+
+    final var undo = undoStack[--ply];
+    final var move = (int) undo;
+    final var source = PackedMove.source(move);
+    final var destination = PackedMove.destination(move);
+    final var flags = PackedMove.flags(move);
+
+    moveMaker = moveMaker.getOpposite();
+    castlingRights = (int) (undo >>> 32 & 0xF);
+    enPassantTarget = (int) (undo >>> 36 & 0x7F) - 1;
+    halfmoveClock = (int) (undo >>> 43 & 0xFFFF);
+
+    if (move == PackedMove.NONE) {
+      zobristKey = keyStack[ply];
+      return;
+    }
+
+    if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+      moveCastlingRook(flags, destination, true);
+    }
+
+    removePiece(destination);
+    putPiece(PieceCode.of(moveMaker, PackedMove.pieceType(move)), source);
+
+    if (PackedMove.isCapture(move)) {
+      final var captured = PieceCode.of(moveMaker.getOpposite(), PackedMove.capturedType(move));
+      putPiece(
+          captured,
+          flags == PackedMove.EN_PASSANT ? enPassantCaptureSquare(destination) : destination);
+    }
+
+    zobristKey = keyStack[ply];
+  }
+
+  /**
+   * Obtains the last move that was made and can still be unmade.
+   *
+   * @return The packed move, or {@link PackedMove#NONE} if there are no moves to unmake or the last
+   *     move was a null move
+   */
+  public int getLastMove() {
+    return ply == 0 ? PackedMove.NONE : (int) undoStack[ply - 1];
+  }
+
+  private void pushUndo(final int move) {
+    if (ply == undoStack.length) {
+      undoStack = Arrays.copyOf(undoStack, ply * 2);
+      keyStack = Arrays.copyOf(keyStack, ply * 2);
+    }
+
+    keyStack[ply] = zobristKey;
+    undoStack[ply++] =
+        Integer.toUnsignedLong(move)
+            | (long) castlingRights << 32
+            | (long) (enPassantTarget + 1) << 36
+            | (long) Math.min(halfmoveClock, 0xFFFF) << 43;
+  }
+
+  /* Piece placement */
+
+  void putPiece(final int code, final int index) {
+    final var bit = Bitboard.of(index);
+
+    squares[index] = code;
+    bitboards[code] |= bit;
+    occupancies[PieceCode.alliance(code).ordinal()] |= bit;
+    zobristKey ^= Zobrist.piece(code, index);
+    pawnKey ^= Zobrist.pawn(code, index);
+    middlegameScore += PieceSquareTables.middlegame(code, index);
+    endgameScore += PieceSquareTables.endgame(code, index);
+    phase += PieceSquareTables.phase(code);
+  }
+
+  private void removePiece(final int index) {
+    final var code = squares[index];
+    final var bit = ~Bitboard.of(index);
+
+    squares[index] = PieceCode.NONE;
+    bitboards[code] &= bit;
+    occupancies[PieceCode.alliance(code).ordinal()] &= bit;
+    zobristKey ^= Zobrist.piece(code, index);
+    pawnKey ^= Zobrist.pawn(code, index);
+    middlegameScore -= PieceSquareTables.middlegame(code, index);
+    endgameScore -= PieceSquareTables.endgame(code, index);
+    phase -= PieceSquareTables.phase(code);
+  }
+
+  /* Getters */
+
+  /**
+   * Obtains the code of the piece on a coordinate.
+   *
+   * @param index The index of the coordinate
+   * @return The piece code, or {@link PieceCode#NONE} if the coordinate is empty
+   */
+  public int getPieceCode(final int index) {
+    return squares[index];
+  }
+
+  @Override
+  public long getBitboard(
+      @NotNull final Alliance alliance, @NotNull final Piece.PieceType pieceType) {
+    return bitboards[PieceCode.of(alliance, pieceType)];
+  }
+
+  public long getOccupancy(@NotNull final Alliance alliance) {
+    return occupancies[alliance.ordinal()];
+  }
+
+  @Override
+  public long getOccupancy() {
+    return occupancies[0] | occupancies[1];
+  }
+
+  /**
+   * Checks if a coordinate is attacked by any piece of an alliance.
+   *
+   * @param index The index of the coordinate
+   * @param attacker The alliance of the attacking pieces
+   * @return True if the coordinate is attacked
+   */
+  public boolean isSquareAttacked(final int index, @NotNull final Alliance attacker) {
+    return Attacks.isAttacked(this, index, attacker);
+  }
+
+  /**
+   * Calculates every coordinate attacked by an alliance.
+   *
+   * @param attacker The alliance of the attacking pieces
+   * @return The attack bitboard
+   */
+  public long getAttacks(@NotNull final Alliance attacker) {
+    return Attacks.of(this, attacker);
+  }
+
+  public Alliance getMoveMaker() {
+    return moveMaker;
+  }
+
+  public int getCastlingRights() {
+    return castlingRights;
+  }
+
+  /**
+   * Obtains the Zobrist key of this position, which is the same key a {@link Board} with the same
+   * state has.
+   *
+   * @return The 64-bit Zobrist key
+   */
+  public long getZobristKey() {
+    return zobristKey;
+  }
+
+  /**
+   * Obtains the Zobrist key the position had before a made move, used to detect repetitions.
+   *
+   * @param ply The ply, from zero to {@link #getPly()} (exclusive)
+   * @return The Zobrist key before the move made on that ply
+   */
+  public long getZobristKey(final int ply) {
+    return keyStack[ply];
+  }
+
+  /**
+   * Obtains the pawn key of this position, the part of the Zobrist key that only includes pawns.
+   *
+   * @return The 64-bit pawn key
+   */
+  public long getPawnKey() {
+    return pawnKey;
+  }
+
+  /**
+   * Obtains the sum of the middlegame {@link PieceSquareTables} values of every piece.
+   *
+   * @return The middlegame score, positive if white is better
+   */
+  public int getMiddlegameScore() {
+    return middlegameScore;
+  }
+
+  /**
+   * Obtains the sum of the endgame {@link PieceSquareTables} values of every piece.
+   *
+   * @return The endgame score, positive if white is better
+   */
+  public int getEndgameScore() {
+    return endgameScore;
+  }
+
+  /**
+   * Obtains the game phase, the sum of the phase weights of every piece.
+   *
+   * @return The phase, {@link PieceSquareTables#MAX_PHASE} in the initial position
+   */
+  public int getPhase() {
+    return phase;
+  }
+
+  /**
+   * Obtains the coordinate where an en passant capture can be made, which is the coordinate a pawn
+   * skipped with its last jump.
+   *
+   * @return The index of the coordinate, or {@link #NO_SQUARE} if there isn't one
+   */
+  public int getEnPassantTarget() {
+    return enPassantTarget;
+  }
+
+  /**
+   * Obtains the amount of moves made since the last capture or pawn move, used by the 50-move rule.
+   *
+   * @return The halfmove clock
+   */
+  public int getHalfmoveClock() {
+    return halfmoveClock;
+  }
+
+  /**
+   * Obtains the number of the current full move, which starts at 1 and grows after every move of
+   * black. It isn't stored, but counted from the moves made since the position was created.
+   *
+   * @return The fullmove number
+   */
+  public int getFullmoveNumber() {
+    final var startedWithBlack = (moveMaker == Alliance.BLACK) != ((ply & 1) == 1);
+
+    return initialFullmoveNumber + (ply + (startedWithBlack ? 1 : 0)) / 2;
+  }
+
+  /**
+   * Obtains the amount of moves that can be unmade.
+   *
+   * @return The amount of made moves
+   */
+  public int getPly() {
+    return ply;
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.PieceCode;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import java.util.SplittableRandom;
+import lombok.Generated;
+
+/**
+ * Zobrist hashing, which identifies a position with a 64-bit key. The key is the XOR of random
+ * numbers for every piece on every coordinate, the move maker, the castling rights and the en
+ * passant column. Since XOR is its own inverse, the key can be updated incrementally when a piece
+ * is added or removed, instead of being calculated from scratch.
+ *
+ * <p>The pawn key is a sub-key that only includes the pawns, so positions with the same pawn
+ * structure share it. It identifies the pawn structure for caches of pawn evaluation terms.
+ */
+public final class Zobrist {
+
+  /* A fixed seed, so keys are the same on every run */
+  private static final long SEED = 0x7EA1C4E55L;
+
+  private static final long[][] PIECE_KEYS = new long[PieceCode.COUNT][Board.MAX_TILES];
+  private static final long[][] PAWN_KEYS = new long[PieceCode.COUNT][Board.MAX_TILES];
+  private static final long[] CASTLING_KEYS = new long[CastlingRights.ALL + 1];
+  private static final long[] EN_PASSANT_KEYS = new long[Board.SIDE_LENGTH];
+  private static final long BLACK_MOVE_MAKER_KEY;
+
+  static {
+    final var random = new SplittableRandom(SEED);
+
+    for (var keys : PIECE_KEYS) {
+      for (var i = 0; i < keys.length; i++) {
+        keys[i] = random.nextLong();
+      }
+    }
+
+    for (var i = 1; i < CASTLING_KEYS.length; i++) {
+      CASTLING_KEYS[i] = random.nextLong();
+    }
+
+    for (var i = 0; i < EN_PASSANT_KEYS.length; i++) {
+      EN_PASSANT_KEYS[i] = random.nextLong();
+    }
+
+    BLACK_MOVE_MAKER_KEY = random.nextLong();
+
+    /* Other pieces keep empty keys, so they don't change the pawn key */
+    for (var alliance : Alliance.values()) {
+      final var code = PieceCode.of(alliance, Piece.PieceType.PAWN);
+      PAWN_KEYS[code] = PIECE_KEYS[code];
+    }
+  }
+
+  @Generated
+  private Zobrist() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  public static long piece(final int code, final int index) {
+    return PIECE_KEYS[code][index];
+  }
+
+  /**
+   * Obtains the key of a piece for the pawn key.
+   *
+   * @param code The piece code
+   * @param index The index of the coordinate of the piece
+   * @return The same key as {@link #piece(int, int)} for pawns, and zero for any other piece
+   */
+  public static long pawn(final int code, final int index) {
+    return PAWN_KEYS[code][index];
+  }
+
+  public static long castlingRights(final int rights) {
+    return CASTLING_KEYS[rights];
+  }
+
+  /**
+   * Obtains the key of an en passant target.
+   *
+   * @param index The index of the en passant target, or {@link Position#NO_SQUARE} if there isn't
+   *     one
+   * @return The key of the target's column
+   */
+  public static long enPassant(final int index) {
+    return index == Position.NO_SQUARE ? 0 : EN_PASSANT_KEYS[index % Board.SIDE_LENGTH];
+  }
+
+  public static long moveMaker(@NotNull final Alliance alliance) {
+    return alliance == Alliance.BLACK ? BLACK_MOVE_MAKER_KEY : 0;
+  }
+
+  /**
+   * Calculates the key of a board from scratch, without using its incremental key.
+   *
+   * @param board The board
+   * @return The Zobrist key
+   */
+  public static long calculate(@NotNull final Board board) {
+    var key = 0L;
+
+    for (var alliance : Alliance.values()) {
+      for (var occupied = board.getOccupancy(alliance);
+          occupied != 0;
+          occupied = Bitboard.withoutFirst(occupied)) {
+        final var index = Bitboard.first(occupied);
+        final var piece = board.getTile(Coordinate.of(index)).getPiece().orElseThrow();
+        key ^= piece(PieceCode.of(piece), index);
+      }
+    }
+
+    final var enPassantPawn = board.getEnPassantPawn();
+
+    if (enPassantPawn != null) {
+      key ^= enPassant(enPassantPawn.getPosition().index());
+    }
+
+    return key ^ castlingRights(CastlingRights.of(board)) ^ moveMaker(board.getMoveMaker());
+  }
+
+  /**
+   * Calculates the key of a position from scratch, without using its incremental key.
+   *
+   * @param position The position
+   * @return The Zobrist key
+   */
+  public static long calculate(@NotNull final Position position) {
+    var key = 0L;
+
+    for (var occupied = position.getOccupancy();
+        occupied != 0;
+        occupied = Bitboard.withoutFirst(occupied)) {
+      final var index = Bitboard.first(occupied);
+      key ^= piece(position.getPieceCode(index), index);
+    }
+
+    return key
+        ^ enPassant(position.getEnPassantTarget())
+        ^ castlingRights(position.getCastlingRights())
+        ^ moveMaker(position.getMoveMaker());
+  }
+
+  /**
+   * Calculates the pawn key of a position from scratch, without using its incremental pawn key.
+   *
+   * @param position The position
+   * @return The pawn key
+   */
+  public static long calculatePawns(@NotNull final Position position) {
+    var key = 0L;
+
+    for (var alliance : Alliance.values()) {
+      for (var pawns = position.getBitboard(alliance, Piece.PieceType.PAWN);
+          pawns != 0;
+          pawns = Bitboard.withoutFirst(pawns)) {
+        key ^= pawn(PieceCode.of(alliance, Piece.PieceType.PAWN), Bitboard.first(pawns));
+      }
+    }
+
+    return key;
+  }
+}
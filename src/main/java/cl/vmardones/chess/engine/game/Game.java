@@ -41,15 +41,20 @@ public class Game {
     return createTurn(boardService.createStandardBoard(), Alliance.WHITE);
   }
 
+  /* Only the legals of the move maker are calculated, the opponent's only if someone asks */
   private Turn createTurn(final Board board, final Alliance nextMoveMaker) {
-    final var whiteLegals = calculateWhiteLegals(board);
-    log.debug("White legals: {}", whiteLegals);
-    final var blackLegals = calculateBlackLegals(board);
-    log.debug("Black legals: {}", blackLegals);
+    final var legals = boardService.calculateLegals(board, nextMoveMaker);
+    log.debug("{} legals: {}", nextMoveMaker, legals);
 
-    final var whitePlayer = new WhitePlayer(board, board.getWhiteKing(), whiteLegals, blackLegals);
+    final var whitePlayer =
+        nextMoveMaker == Alliance.WHITE
+            ? new WhitePlayer(board, board.getWhiteKing(), legals)
+            : new WhitePlayer(board, board.getWhiteKing(), () -> calculateWhiteLegals(board));
     log.debug("White player: {}", whitePlayer);
-    final var blackPlayer = new BlackPlayer(board, board.getBlackKing(), blackLegals, whiteLegals);
+    final var blackPlayer =
+        nextMoveMaker == Alliance.BLACK
+            ? new BlackPlayer(board, board.getBlackKing(), legals)
+            : new BlackPlayer(board, board.getBlackKing(), () -> calculateBlackLegals(board));
     log.debug("Black player: {}", blackPlayer);
 
     final var turn = new Turn(board, nextMoveMaker, whitePlayer, blackPlayer);
@@ -59,11 +64,11 @@ public class Game {
   }
 
   private Collection<Move> calculateWhiteLegals(final Board board) {
-    return boardService.calculateLegals(board, board.getWhitePieces());
+    return boardService.calculateLegals(board, Alliance.WHITE);
   }
 
   private Collection<Move> calculateBlackLegals(final Board board) {
-    return boardService.calculateLegals(board, board.getBlackPieces());
+    return boardService.calculateLegals(board, Alliance.BLACK);
   }
 
   public Turn createNextTurn(@NotNull final Move move) {
@@ -96,6 +101,6 @@ public class Game {
   }
 
   public MoveTransition performMove(@NotNull final Move move) {
-    return getCurrentPlayer().makeMove(getCurrentPlayer(), move);
+    return getCurrentPlayer().makeMove(move);
   }
 }
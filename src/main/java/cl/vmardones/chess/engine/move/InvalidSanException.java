@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+/**
+ * An exception that is thrown when a text in SAN can't be read, or doesn't match exactly one legal
+ * move.
+ */
+public class InvalidSanException extends RuntimeException {
+
+  /**
+   * Constructs a new invalid SAN exception with the specified message.
+   *
+   * @param message The detail message, specifying the cause of the exception being thrown
+   */
+  public InvalidSanException(final String message) {
+    super(message);
+  }
+}
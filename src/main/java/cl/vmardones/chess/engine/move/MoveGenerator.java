@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import cl.vmardones.chess.engine.board.Attacks;
+import cl.vmardones.chess.engine.board.Bitboard;
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.CastlingRights;
+import cl.vmardones.chess.engine.board.Geometry;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.PieceCode;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Generates packed moves for a {@link Position}, writing them into a reusable {@link MoveList}.
+ *
+ * <p>Pseudo-legal moves may leave the king in check, so they must be verified after being made.
+ * Legal moves are generated by finding the pieces that give check and the pieces pinned to the king
+ * before generating anything: when in double check only the king can move, when in single check
+ * pieces can only capture the checker or block it, and pinned pieces can only move along their pin.
+ */
+public final class MoveGenerator {
+
+  private static final long ALL = ~Bitboard.EMPTY;
+
+  private static final Piece.PieceType[] PROMOTIONS = {
+    Piece.PieceType.QUEEN, Piece.PieceType.ROOK, Piece.PieceType.BISHOP, Piece.PieceType.KNIGHT
+  };
+
+  private static final Piece.PieceType[] NON_PAWN_PIECES = {
+    Piece.PieceType.KNIGHT, Piece.PieceType.BISHOP, Piece.PieceType.ROOK, Piece.PieceType.QUEEN
+  };
+
+  @Generated
+  private MoveGenerator() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /**
+   * Generates every pseudo-legal move of the move maker. The list is cleared first.
+   *
+   * @param position The current position
+   * @param moves The list where moves are written
+   */
+  public static void generatePseudoLegals(
+      @NotNull final Position position, @NotNull final MoveList moves) {
+    moves.clear();
+
+    final var king = findKing(position);
+
+    generatePawnMoves(position, moves, ALL, Bitboard.EMPTY, king, false);
+    generatePieceMoves(position, moves, ALL, Bitboard.EMPTY, king);
+    generateKingMoves(position, moves, king, false);
+    generateCastles(position, moves, king, false);
+  }
+
+  /**
+   * Generates every legal move of the move maker. The list is cleared first.
+   *
+   * @param position The current position
+   * @param moves The list where moves are written
+   */
+  public static void generateLegals(
+      @NotNull final Position position, @NotNull final MoveList moves) {
+    moves.clear();
+
+    final var king = findKing(position);
+    final var checkers =
+        Attacks.attackers(
+            position, king, position.getMoveMaker().getOpposite(), position.getOccupancy());
+
+    generateKingMoves(position, moves, king, true);
+
+    if (Bitboard.count(checkers) > 1) {
+      return;
+    }
+
+    final var targets =
+        checkers == Bitboard.EMPTY
+            ? ALL
+            : checkers | Geometry.between(king, Bitboard.first(checkers));
+    final var pinned = calculatePinned(position, king);
+
+    generatePawnMoves(position, moves, targets, pinned, king, true);
+    generatePieceMoves(position, moves, targets, pinned, king);
+
+    if (checkers == Bitboard.EMPTY) {
+      generateCastles(position, moves, king, true);
+    }
+  }
+
+  /**
+   * Checks if the move maker's king is in check.
+   *
+   * @param position The current position
+   * @return True if the move maker is in check
+   */
+  public static boolean isInCheck(@NotNull final Position position) {
+    return position.isSquareAttacked(findKing(position), position.getMoveMaker().getOpposite());
+  }
+
+  /**
+   * Checks if the king of the side that just moved was left in check, which means the last move was
+   * illegal.
+   *
+   * @param position The position after making a move
+   * @return True if the previous move maker's king can be captured
+   */
+  public static boolean leftKingInCheck(@NotNull final Position position) {
+    final var alliance = position.getMoveMaker().getOpposite();
+    final var king = Bitboard.first(position.getBitboard(alliance, Piece.PieceType.KING));
+
+    return position.isSquareAttacked(king, position.getMoveMaker());
+  }
+
+  private static int findKing(final Position position) {
+    return Bitboard.first(position.getBitboard(position.getMoveMaker(), Piece.PieceType.KING));
+  }
+
+  /* The pieces that are the only blocker between their king and an enemy slider */
+  private static long calculatePinned(final Position position, final int king) {
+    final var alliance = position.getMoveMaker();
+    final var enemy = alliance.getOpposite();
+    final var occupied = position.getOccupancy();
+    final var queens = position.getBitboard(enemy, Piece.PieceType.QUEEN);
+
+    final var snipers =
+        Attacks.rook(king, Bitboard.EMPTY)
+                & (position.getBitboard(enemy, Piece.PieceType.ROOK) | queens)
+            | Attacks.bishop(king, Bitboard.EMPTY)
+                & (position.getBitboard(enemy, Piece.PieceType.BISHOP) | queens);
+
+    var pinned = Bitboard.EMPTY;
+
+    for (var remaining = snipers; remaining != 0; remaining = Bitboard.withoutFirst(remaining)) {
+      final var blockers = Geometry.between(king, Bitboard.first(remaining)) & occupied;
+
+      if (Bitboard.count(blockers) == 1) {
+        pinned |= blockers & position.getOccupancy(alliance);
+      }
+    }
+
+    return pinned;
+  }
+
+  private static long pinLine(final long pinned, final int king, final int source) {
+    return Bitboard.contains(pinned, source) ? Geometry.line(king, source) : ALL;
+  }
+
+  private static void generatePieceMoves(
+      final Position position,
+      final MoveList moves,
+      final long targets,
+      final long pinned,
+      final int king) {
+    final var alliance = position.getMoveMaker();
+    final var allowed = targets & ~position.getOccupancy(alliance);
+    final var occupied = position.getOccupancy();
+
+    for (var type : NON_PAWN_PIECES) {
+      for (var pieces = position.getBitboard(alliance, type);
+          pieces != 0;
+          pieces = Bitboard.withoutFirst(pieces)) {
+        final var source = Bitboard.first(pieces);
+        final var destinations = Attacks.of(type, source, occupied) & allowed;
+
+        addMoves(position, moves, source, type, destinations & pinLine(pinned, king, source));
+      }
+    }
+  }
+
+  private static void generateKingMoves(
+      final Position position, final MoveList moves, final int king, final boolean legal) {
+    final var alliance = position.getMoveMaker();
+
+    var destinations = Attacks.king(king) & ~position.getOccupancy(alliance);
+
+    if (legal) {
+      /* The king is removed, so it can't hide from a slider behind itself */
+      final var occupied = position.getOccupancy() & ~Bitboard.of(king);
+
+      for (var remaining = destinations;
+          remaining != 0;
+          remaining = Bitboard.withoutFirst(remaining)) {
+        final var destination = Bitboard.first(remaining);
+
+        if (Attacks.attackers(position, destination, alliance.getOpposite(), occupied) != 0) {
+          destinations &= ~Bitboard.of(destination);
+        }
+      }
+    }
+
+    addMoves(position, moves, king, Piece.PieceType.KING, destinations);
+  }
+
+  private static void addMoves(
+      final Position position,
+      final MoveList moves,
+      final int source,
+      final Piece.PieceType type,
+      final long targets) {
+    for (var remaining = targets; remaining != 0; remaining = Bitboard.withoutFirst(remaining)) {
+      final var destination = Bitboard.first(remaining);
+      final var captured = position.getPieceCode(destination);
+
+      if (captured == PieceCode.NONE) {
+        moves.add(PackedMove.of(source, destination, PackedMove.QUIET, type, null));
+      } else {
+        moves.add(
+            PackedMove.of(source, destination, PackedMove.CAPTURE, type, PieceCode.type(captured)));
+      }
+    }
+  }
+
+  private static void generatePawnMoves(
+      final Position position,
+      final MoveList moves,
+      final long targets,
+      final long pinned,
+      final int king,
+      final boolean legal) {
+    final var alliance = position.getMoveMaker();
+    final var forward = -Board.SIDE_LENGTH * alliance.getDirection();
+    final var startRow = alliance == Alliance.WHITE ? 6 : 1;
+    final var enemies = position.getOccupancy(alliance.getOpposite());
+    final var occupied = position.getOccupancy();
+    final var enPassantTarget = position.getEnPassantTarget();
+
+    for (var pawns = position.getBitboard(alliance, Piece.PieceType.PAWN);
+        pawns != 0;
+        pawns = Bitboard.withoutFirst(pawns)) {
+      final var source = Bitboard.first(pawns);
+      final var allowed = targets & pinLine(pinned, king, source);
+      final var push = source + forward;
+
+      if (!Bitboard.contains(occupied, push)) {
+        if (Bitboard.contains(allowed, push)) {
+          addPawnMove(moves, source, push, null);
+        }
+
+        final var jump = push + forward;
+
+        if (source / Board.SIDE_LENGTH == startRow
+            && !Bitboard.contains(occupied, jump)
+            && Bitboard.contains(allowed, jump)) {
+          moves.add(
+              PackedMove.of(source, jump, PackedMove.DOUBLE_PUSH, Piece.PieceType.PAWN, null));
+        }
+      }
+
+      for (var destinations = Attacks.pawn(alliance, source);
+          destinations != 0;
+          destinations = Bitboard.withoutFirst(destinations)) {
+        final var destination = Bitboard.first(destinations);
+
+        if (Bitboard.contains(enemies & allowed, destination)) {
+          addPawnMove(
+              moves, source, destination, PieceCode.type(position.getPieceCode(destination)));
+        } else if (destination == enPassantTarget
+            && (!legal || isLegalEnPassant(position, source, destination, king))) {
+          moves.add(
+              PackedMove.of(
+                  source,
+                  destination,
+                  PackedMove.EN_PASSANT,
+                  Piece.PieceType.PAWN,
+                  Piece.PieceType.PAWN));
+        }
+      }
+    }
+  }
+
+  /*
+   * En passant removes two pieces from the same row, which can expose the king in ways that pin
+   * detection doesn't see, so the king is checked against the occupancy after the capture
+   */
+  private static boolean isLegalEnPassant(
+      final Position position, final int source, final int destination, final int king) {
+    final var alliance = position.getMoveMaker();
+    final var captured = destination + Board.SIDE_LENGTH * alliance.getDirection();
+    final var occupied =
+        position.getOccupancy() & ~Bitboard.of(source) & ~Bitboard.of(captured)
+            | Bitboard.of(destination);
+
+    return (Attacks.attackers(position, king, alliance.getOpposite(), occupied)
+            & ~Bitboard.of(captured))
+        == 0;
+  }
+
+  private static void addPawnMove(
+      final MoveList moves,
+      final int source,
+      final int destination,
+      final Piece.PieceType capturedType) {
+    if (destination < Board.SIDE_LENGTH || destination >= Board.MAX_TILES - Board.SIDE_LENGTH) {
+      for (var promotion : PROMOTIONS) {
+        moves.add(PackedMove.promotion(source, destination, promotion, capturedType));
+      }
+    } else {
+      final var flags = capturedType == null ? PackedMove.QUIET : PackedMove.CAPTURE;
+      moves.add(PackedMove.of(source, destination, flags, Piece.PieceType.PAWN, capturedType));
+    }
+  }
+
+  private static void generateCastles(
+      final Position position, final MoveList moves, final int king, final boolean legal) {
+    final var alliance = position.getMoveMaker();
+    final var rights = position.getCastlingRights();
+    final var kingSide = CastlingRights.kingSide(alliance);
+    final var queenSide = CastlingRights.queenSide(alliance);
+
+    if ((rights & (kingSide | queenSide)) == 0) {
+      return;
+    }
+
+    final var occupied = position.getOccupancy();
+    final var enemy = alliance.getOpposite();
+
+    /* Legal generation already knows the king isn't in check */
+    if (!legal && position.isSquareAttacked(king, enemy)) {
+      return;
+    }
+
+    if ((rights & kingSide) != 0
+        && (occupied & (Bitboard.of(king + 1) | Bitboard.of(king + 2))) == 0
+        && !position.isSquareAttacked(king + 1, enemy)
+        && (!legal || !position.isSquareAttacked(king + 2, enemy))) {
+      moves.add(PackedMove.of(king, king + 2, PackedMove.KING_CASTLE, Piece.PieceType.KING, null));
+    }
+
+    if ((rights & queenSide) != 0
+        && (occupied & (Bitboard.of(king - 1) | Bitboard.of(king - 2) | Bitboard.of(king - 3))) == 0
+        && !position.isSquareAttacked(king - 1, enemy)
+        && (!legal || !position.isSquareAttacked(king - 2, enemy))) {
+      moves.add(PackedMove.of(king, king - 2, PackedMove.QUEEN_CASTLE, Piece.PieceType.KING, null));
+    }
+  }
+}
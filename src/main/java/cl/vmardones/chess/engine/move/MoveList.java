@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of packed moves, backed by an int array. A search or a perft run keeps one list
+ * per ply and clears it before generating moves again, so no collection is allocated per node.
+ */
+public final class MoveList {
+
+  /** The maximum amount of legal moves in any chess position is 218. */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private int[] moves;
+  private int size;
+
+  public MoveList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public MoveList(final int capacity) {
+    moves = new int[capacity];
+  }
+
+  /**
+   * Creates one list per ply, for searches that go up to a maximum depth.
+   *
+   * @param plies The amount of plies
+   * @return An array of empty lists
+   */
+  public static MoveList[] perPly(final int plies) {
+    final var lists = new MoveList[plies];
+
+    for (var i = 0; i < plies; i++) {
+      lists[i] = new MoveList();
+    }
+
+    return lists;
+  }
+
+  public void add(final int move) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, size * 2);
+    }
+
+    moves[size++] = move;
+  }
+
+  public int get(final int index) {
+    return moves[index];
+  }
+
+  public void set(final int index, final int move) {
+    moves[index] = move;
+  }
+
+  /**
+   * Swaps two moves, used when sorting moves in place.
+   *
+   * @param first The index of the first move
+   * @param second The index of the second move
+   */
+  public void swap(final int first, final int second) {
+    final var move = moves[first];
+    moves[first] = moves[second];
+    moves[second] = move;
+  }
+
+  public boolean contains(final int move) {
+    for (var i = 0; i < size; i++) {
+      if (moves[i] == move) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Removes a move by replacing it with the last one. The order of the list isn't kept.
+   *
+   * @param index The index of the move to remove
+   */
+  public void removeAt(final int index) {
+    moves[index] = moves[--size];
+  }
+
+  @Override
+  public String toString() {
+    final var builder = new StringBuilder("[");
+
+    for (var i = 0; i < size; i++) {
+      builder.append(i == 0 ? "" : ", ").append(PackedMove.toString(moves[i]));
+    }
+
+    return builder.append(']').toString();
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.piece.Pawn;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.Rook;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * A compact move representation, packed in a single int. Unlike {@link Move}, a packed move doesn't
+ * reference any board or piece, so it can be stored in primitive arrays and generated without
+ * allocating anything. The bits are used like this:
+ *
+ * <ul>
+ *   <li>0-5: source coordinate index
+ *   <li>6-11: destination coordinate index
+ *   <li>12-15: flags, see the constants of this class
+ *   <li>16-18: piece type a pawn is promoted to
+ *   <li>19-21: type of the moved piece
+ *   <li>22-24: type of the captured piece, plus one (zero means no capture)
+ * </ul>
+ */
+public final class PackedMove {
+
+  /** A value that is never a valid move. */
+  public static final int NONE = 0;
+
+  /* Flags */
+
+  public static final int QUIET = 0;
+  public static final int DOUBLE_PUSH = 1;
+  public static final int KING_CASTLE = 2;
+  public static final int QUEEN_CASTLE = 3;
+  public static final int CAPTURE = 4;
+  public static final int EN_PASSANT = 5;
+  public static final int PROMOTION = 8;
+  public static final int PROMOTION_CAPTURE = PROMOTION | CAPTURE;
+
+  private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+  @Generated
+  private PackedMove() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /**
+   * Packs a move that isn't a promotion.
+   *
+   * @param source The source index
+   * @param destination The destination index
+   * @param flags The move flags
+   * @param pieceType The type of the moved piece
+   * @param capturedType The type of the captured piece, or null if nothing is captured
+   * @return The packed move
+   */
+  public static int of(
+      final int source,
+      final int destination,
+      final int flags,
+      @NotNull final Piece.PieceType pieceType,
+      final Piece.PieceType capturedType) {
+    return source
+        | destination << 6
+        | flags << 12
+        | pieceType.ordinal() << 19
+        | (capturedType == null ? 0 : capturedType.ordinal() + 1) << 22;
+  }
+
+  /**
+   * Packs a pawn promotion.
+   *
+   * @param source The source index
+   * @param destination The destination index
+   * @param promotion The piece type the pawn becomes
+   * @param capturedType The type of the captured piece, or null if nothing is captured
+   * @return The packed move
+   */
+  public static int promotion(
+      final int source,
+      final int destination,
+      @NotNull final Piece.PieceType promotion,
+      final Piece.PieceType capturedType) {
+    final var flags = capturedType == null ? PROMOTION : PROMOTION_CAPTURE;
+
+    return of(source, destination, flags, Piece.PieceType.PAWN, capturedType)
+        | promotion.ordinal() << 16;
+  }
+
+  /* Decoding */
+
+  public static int source(final int move) {
+    return move & 0x3F;
+  }
+
+  public static int destination(final int move) {
+    return move >>> 6 & 0x3F;
+  }
+
+  public static int flags(final int move) {
+    return move >>> 12 & 0xF;
+  }
+
+  public static Piece.PieceType pieceType(final int move) {
+    return PIECE_TYPES[move >>> 19 & 0x7];
+  }
+
+  /**
+   * Obtains the piece type a pawn is promoted to.
+   *
+   * @param move The packed move
+   * @return The promotion type, or null if the move isn't a promotion
+   */
+  public static Piece.PieceType promotion(final int move) {
+    return isPromotion(move) ? PIECE_TYPES[move >>> 16 & 0x7] : null;
+  }
+
+  /**
+   * Obtains the type of the captured piece.
+   *
+   * @param move The packed move
+   * @return The captured type, or null if the move isn't a capture
+   */
+  public static Piece.PieceType capturedType(final int move) {
+    final var captured = move >>> 22 & 0x7;
+
+    return captured == 0 ? null : PIECE_TYPES[captured - 1];
+  }
+
+  public static boolean isCapture(final int move) {
+    return (flags(move) & CAPTURE) != 0;
+  }
+
+  public static boolean isPromotion(final int move) {
+    return (flags(move) & PROMOTION) != 0;
+  }
+
+  public static boolean isCastle(final int move) {
+    final var flags = flags(move);
+
+    return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+  }
+
+  /**
+   * Converts a packed move to UCI's long algebraic notation, like e2e4 or e7e8q.
+   *
+   * @param move The packed move
+   * @return The move in long algebraic notation
+   */
+  public static String toString(final int move) {
+    if (move == NONE) {
+      return "0000";
+    }
+
+    final var text = Coordinate.of(source(move)).toString() + Coordinate.of(destination(move));
+
+    return isPromotion(move) ? text + promotion(move).getPieceName().toLowerCase() : text;
+  }
+
+  /* Adapters for the board model */
+
+  /**
+   * Packs a move from the board model. Moves of pawns that reach the last rank are packed as queen
+   * promotions.
+   *
+   * @param move The move to pack
+   * @return The packed move
+   */
+  public static int of(@NotNull final Move move) {
+    final var source = move.getSource().index();
+    final var destination = move.getDestination().index();
+    final var pieceType = move.getPiece().getPieceType();
+    final var capturedType = move.isCapturing() ? move.getCapturedPiece().getPieceType() : null;
+
+    if (pieceType == Piece.PieceType.PAWN && isLastRank(destination)) {
+      return promotion(source, destination, Piece.PieceType.QUEEN, capturedType);
+    }
+
+    final int flags;
+
+    if (move instanceof KingSideCastleMove) {
+      flags = KING_CASTLE;
+    } else if (move instanceof QueenSideCastleMove) {
+      flags = QUEEN_CASTLE;
+    } else if (move instanceof EnPassantMove) {
+      flags = EN_PASSANT;
+    } else if (move instanceof PawnJump) {
+      flags = DOUBLE_PUSH;
+    } else if (move.isCapturing()) {
+      flags = CAPTURE;
+    } else {
+      flags = QUIET;
+    }
+
+    return of(source, destination, flags, pieceType, capturedType);
+  }
+
+  /**
+   * Unpacks a move, creating the matching move class of the board model. The board model doesn't
+   * support promotions yet, so promotions become plain pawn moves or pawn captures.
+   *
+   * @param move The packed move
+   * @param board The board where the move is made
+   * @return The unpacked move
+   */
+  public static Move toMove(final int move, @NotNull final Board board) {
+    final var source = Coordinate.of(source(move));
+    final var destination = Coordinate.of(destination(move));
+    final var piece = board.getTile(source).getPiece().orElseThrow();
+
+    return switch (flags(move) & ~PROMOTION) {
+      case DOUBLE_PUSH -> new PawnJump(board, (Pawn) piece, destination);
+      case KING_CASTLE -> new KingSideCastleMove(
+          board, piece, destination, rookAt(board, source, 3), Coordinate.of(source(move) + 1));
+      case QUEEN_CASTLE -> new QueenSideCastleMove(
+          board, piece, destination, rookAt(board, source, -4), Coordinate.of(source(move) - 1));
+      case EN_PASSANT -> new EnPassantMove(
+          board, (Pawn) piece, destination, board.getEnPassantPawn());
+      case CAPTURE -> {
+        final var captured = board.getTile(destination).getPiece().orElseThrow();
+
+        if (piece instanceof Pawn pawn) {
+          yield new PawnCaptureMove(board, pawn, destination, captured);
+        }
+
+        yield new CaptureMove(board, piece, destination, captured);
+      }
+      default -> piece instanceof Pawn pawn
+          ? new PawnMove(board, pawn, destination)
+          : new MajorMove(board, piece, destination);
+    };
+  }
+
+  private static Rook rookAt(final Board board, final Coordinate kingPosition, final int offset) {
+    return (Rook) board.getTile(kingPosition.right(offset).orElseThrow()).getPiece().orElseThrow();
+  }
+
+  private static boolean isLastRank(final int index) {
+    return index < Board.SIDE_LENGTH || index >= Board.MAX_TILES - Board.SIDE_LENGTH;
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.PieceCode;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Reads and writes moves in Standard Algebraic Notation (SAN), the notation of PGN files, like Nf3,
+ * exd5, Rae1, O-O or e8=Q+.
+ *
+ * <p>When reading, a move is resolved against the legal moves of the position, keeping only those
+ * of the same piece type, destination, promotion and disambiguation squares. Capture marks, check
+ * marks and annotations (! and ?) are accepted but not verified, since they don't change which
+ * move is meant. Castling can be written with letters or zeros.
+ *
+ * <p>When writing, the source file or rank is only added when another piece of the same type can
+ * reach the destination, preferring the file, as the PGN standard requires. The check and mate
+ * suffixes are found by making the move on the position: a check is a single attack lookup, and
+ * the legal moves of the opponent are only generated when it's in check.
+ */
+public final class San {
+
+  private static final int FILES = 8;
+
+  @Generated
+  private San() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /**
+   * Finds the legal move that a text in SAN refers to.
+   *
+   * @param position The position where the move is made
+   * @param san The move in SAN
+   * @param legals A list where the legal moves of the position are generated
+   * @return The packed move
+   * @throws InvalidSanException If the text isn't SAN, or matches no legal move or many of them
+   */
+  public static int parse(
+      @NotNull final Position position,
+      @NotNull final CharSequence san,
+      @NotNull final MoveList legals) {
+    var end = san.length();
+
+    while (end > 0 && isSuffix(san.charAt(end - 1))) {
+      end--;
+    }
+
+    MoveGenerator.generateLegals(position, legals);
+
+    final var castle = castleFlags(san, end);
+
+    if (castle != PackedMove.QUIET) {
+      return find(san, legals, castle);
+    }
+
+    var start = 0;
+    var type = Piece.PieceType.PAWN;
+
+    if (end > 0 && Character.isUpperCase(san.charAt(0))) {
+      type = pieceType(san, san.charAt(0));
+      start = 1;
+    }
+
+    Piece.PieceType promotion = null;
+
+    if (type == Piece.PieceType.PAWN && end > start && Character.isUpperCase(san.charAt(end - 1))) {
+      promotion = pieceType(san, san.charAt(end - 1));
+      end -= end > 1 && san.charAt(end - 2) == '=' ? 2 : 1;
+    }
+
+    if (end - start < 2) {
+      throw invalid(san);
+    }
+
+    final var destination = square(san, end - 2);
+    var file = -1;
+    var rank = -1;
+
+    for (var i = start; i < end - 2; i++) {
+      final var next = san.charAt(i);
+
+      if (isFile(next)) {
+        file = next - 'a';
+      } else if (isRank(next)) {
+        rank = '8' - next;
+      } else if (next != 'x' && next != ':' && next != '-') {
+        throw invalid(san);
+      }
+    }
+
+    var found = PackedMove.NONE;
+
+    for (var i = 0; i < legals.size(); i++) {
+      final var move = legals.get(i);
+      final var source = PackedMove.source(move);
+
+      if (PackedMove.destination(move) == destination
+          && PackedMove.pieceType(move) == type
+          && PackedMove.promotion(move) == promotion
+          && !PackedMove.isCastle(move)
+          && (file < 0 || source % FILES == file)
+          && (rank < 0 || source / FILES == rank)) {
+        if (found != PackedMove.NONE) {
+          throw new InvalidSanException("Ambiguous move " + san);
+        }
+
+        found = move;
+      }
+    }
+
+    if (found == PackedMove.NONE) {
+      throw new InvalidSanException("Illegal move " + san);
+    }
+
+    return found;
+  }
+
+  /**
+   * Writes a move in SAN.
+   *
+   * @param position The position where the move is made, which is restored before returning
+   * @param move The packed move. Only its source, destination and promotion are used
+   * @param legals A list where the legal moves of the position are generated
+   * @param builder Where the move is appended
+   * @return The same builder
+   * @throws IllegalArgumentException If the move isn't legal
+   */
+  public static StringBuilder write(
+      @NotNull final Position position,
+      final int move,
+      @NotNull final MoveList legals,
+      @NotNull final StringBuilder builder) {
+    MoveGenerator.generateLegals(position, legals);
+
+    final var legal = findLegal(move, legals);
+    final var source = PackedMove.source(legal);
+    final var type = PackedMove.pieceType(legal);
+
+    if (PackedMove.isCastle(legal)) {
+      builder.append(PackedMove.flags(legal) == PackedMove.KING_CASTLE ? "O-O" : "O-O-O");
+    } else if (type == Piece.PieceType.PAWN) {
+      if (PackedMove.isCapture(legal)) {
+        builder.append(file(source)).append('x');
+      }
+
+      appendSquare(builder, PackedMove.destination(legal));
+
+      if (PackedMove.isPromotion(legal)) {
+        builder.append('=').append(symbol(PackedMove.promotion(legal)));
+      }
+    } else {
+      builder.append(symbol(type));
+      appendDisambiguation(builder, legal, legals);
+
+      if (PackedMove.isCapture(legal)) {
+        builder.append('x');
+      }
+
+      appendSquare(builder, PackedMove.destination(legal));
+    }
+
+    position.makeMove(legal);
+
+    if (MoveGenerator.isInCheck(position)) {
+      MoveGenerator.generateLegals(position, legals);
+      builder.append(legals.isEmpty() ? '#' : '+');
+    }
+
+    position.unmakeMove();
+
+    return builder;
+  }
+
+  /**
+   * Writes a move in SAN.
+   *
+   * @param position The position where the move is made, which is restored before returning
+   * @param move The packed move
+   * @return The move in SAN
+   * @throws IllegalArgumentException If the move isn't legal
+   */
+  public static String toString(@NotNull final Position position, final int move) {
+    return write(position, move, new MoveList(), new StringBuilder()).toString();
+  }
+
+  private static int findLegal(final int move, final MoveList legals) {
+    for (var i = 0; i < legals.size(); i++) {
+      final var legal = legals.get(i);
+
+      if (PackedMove.source(legal) == PackedMove.source(move)
+          && PackedMove.destination(legal) == PackedMove.destination(move)
+          && PackedMove.promotion(legal) == PackedMove.promotion(move)) {
+        return legal;
+      }
+    }
+
+    throw new IllegalArgumentException("Illegal move " + PackedMove.toString(move));
+  }
+
+  /* The source file if it tells the move apart from others, else the rank, else both */
+  private static void appendDisambiguation(
+      final StringBuilder builder, final int move, final MoveList legals) {
+    final var source = PackedMove.source(move);
+    var ambiguous = false;
+    var sameFile = false;
+    var sameRank = false;
+
+    for (var i = 0; i < legals.size(); i++) {
+      final var other = legals.get(i);
+      final var otherSource = PackedMove.source(other);
+
+      if (otherSource != source
+          && PackedMove.destination(other) == PackedMove.destination(move)
+          && PackedMove.pieceType(other) == PackedMove.pieceType(move)) {
+        ambiguous = true;
+        sameFile |= otherSource % FILES == source % FILES;
+        sameRank |= otherSource / FILES == source / FILES;
+      }
+    }
+
+    if (ambiguous && (!sameFile || sameRank)) {
+      builder.append(file(source));
+    }
+
+    if (ambiguous && sameFile) {
+      builder.append(rank(source));
+    }
+  }
+
+  private static void appendSquare(final StringBuilder builder, final int index) {
+    builder.append(file(index)).append(rank(index));
+  }
+
+  private static char file(final int index) {
+    return (char) ('a' + index % FILES);
+  }
+
+  private static char rank(final int index) {
+    return (char) ('8' - index / FILES);
+  }
+
+  private static char symbol(final Piece.PieceType type) {
+    return PieceCode.toSymbol(PieceCode.of(Alliance.WHITE, type));
+  }
+
+  /* O-O and O-O-O, also written with zeros. Returns QUIET for any other move */
+  private static int castleFlags(final CharSequence san, final int end) {
+    if (end != 3 && end != 5) {
+      return PackedMove.QUIET;
+    }
+
+    final var letter = san.charAt(0);
+
+    if (letter != 'O' && letter != '0') {
+      return PackedMove.QUIET;
+    }
+
+    for (var i = 1; i < end; i++) {
+      if (san.charAt(i) != (i % 2 == 0 ? letter : '-')) {
+        return PackedMove.QUIET;
+      }
+    }
+
+    return end == 3 ? PackedMove.KING_CASTLE : PackedMove.QUEEN_CASTLE;
+  }
+
+  private static int find(final CharSequence san, final MoveList legals, final int flags) {
+    for (var i = 0; i < legals.size(); i++) {
+      if (PackedMove.flags(legals.get(i)) == flags) {
+        return legals.get(i);
+      }
+    }
+
+    throw new InvalidSanException("Illegal move " + san);
+  }
+
+  private static Piece.PieceType pieceType(final CharSequence san, final char symbol) {
+    final var code = PieceCode.of(symbol);
+
+    if (code == PieceCode.NONE) {
+      throw invalid(san);
+    }
+
+    return PieceCode.type(code);
+  }
+
+  private static int square(final CharSequence san, final int index) {
+    final var file = san.charAt(index);
+    final var rank = san.charAt(index + 1);
+
+    if (!isFile(file) || !isRank(rank)) {
+      throw invalid(san);
+    }
+
+    return ('8' - rank) * FILES + file - 'a';
+  }
+
+  private static boolean isFile(final char symbol) {
+    return symbol >= 'a' && symbol <= 'h';
+  }
+
+  private static boolean isRank(final char symbol) {
+    return symbol >= '1' && symbol <= '8';
+  }
+
+  private static boolean isSuffix(final char symbol) {
+    return symbol == '+' || symbol == '#' || symbol == '!' || symbol == '?';
+  }
+
+  private static InvalidSanException invalid(final CharSequence san) {
+    return new InvalidSanException("Invalid SAN " + san);
+  }
+}
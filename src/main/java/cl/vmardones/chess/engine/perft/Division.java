@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.perft;
+
+import cl.vmardones.chess.engine.move.PackedMove;
+
+/**
+ * The amount of leaf nodes below one of the root moves, used to find which move a faulty move
+ * generator gets wrong.
+ *
+ * @param move The packed root move
+ * @param nodes The leaf nodes below the move
+ */
+public record Division(int move, long nodes) {
+
+  @Override
+  public String toString() {
+    return PackedMove.toString(move) + ": " + nodes;
+  }
+}
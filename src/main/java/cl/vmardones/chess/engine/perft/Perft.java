@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.perft;
+
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import jakarta.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a position, up to a fixed depth. The counts of
+ * well known positions are published, so comparing against them verifies the move generator, and
+ * timing them measures its speed.
+ *
+ * <p>Every root move is counted as a separate task of a {@link ForkJoinPool}, on its own copy of
+ * the position. Below the root, moves are made and unmade in place, and the last ply isn't made at
+ * all: the amount of legal moves is already the amount of leaf nodes. A {@link PerftTable} can be
+ * shared by every task to skip transpositions.
+ */
+public final class Perft {
+
+  private final ForkJoinPool pool;
+  private final PerftTable table;
+
+  /**
+   * Creates a perft counter.
+   *
+   * @param threads The amount of threads that count root moves in parallel
+   * @param table The table where counts are cached, or null to count every subtree
+   */
+  public Perft(final int threads, final PerftTable table) {
+    pool = new ForkJoinPool(threads);
+    this.table = table;
+  }
+
+  /**
+   * Counts the leaf nodes below a position.
+   *
+   * @param position The root position, which isn't modified
+   * @param depth The depth to count, in plies
+   * @return The amount of leaf nodes
+   */
+  public long count(@NotNull final Position position, final int depth) {
+    if (depth <= 0) {
+      return 1;
+    }
+
+    return divide(position, depth).stream().mapToLong(Division::nodes).sum();
+  }
+
+  /**
+   * Counts the leaf nodes below each legal move of a position.
+   *
+   * @param position The root position, which isn't modified
+   * @param depth The depth to count, in plies
+   * @return The count of every root move, in generation order
+   */
+  public List<Division> divide(@NotNull final Position position, final int depth) {
+    final var moves = new MoveList();
+    MoveGenerator.generateLegals(position, moves);
+
+    final var tasks = new ArrayList<RootMoveTask>(moves.size());
+
+    for (var i = 0; i < moves.size(); i++) {
+      final var task = new RootMoveTask(position.copy(), moves.get(i), depth - 1, table);
+      tasks.add(task);
+      pool.execute(task);
+    }
+
+    final var divisions = new ArrayList<Division>(tasks.size());
+
+    for (var task : tasks) {
+      divisions.add(new Division(task.move, task.join()));
+    }
+
+    return divisions;
+  }
+
+  /**
+   * Counts the leaf nodes below a position on the current thread.
+   *
+   * @param position The position, which is restored before returning
+   * @param depth The depth to count, in plies
+   * @param lists One move list per ply, at least as many as the depth
+   * @param table The table where counts are cached, or null to count every subtree
+   * @return The amount of leaf nodes
+   */
+  public static long count(
+      @NotNull final Position position,
+      final int depth,
+      @NotNull final MoveList[] lists,
+      final PerftTable table) {
+    if (depth <= 0) {
+      return 1;
+    }
+
+    final var moves = lists[depth - 1];
+    MoveGenerator.generateLegals(position, moves);
+
+    if (depth == 1) {
+      return moves.size();
+    }
+
+    final var key = position.getZobristKey();
+
+    if (table != null) {
+      final var stored = table.probe(key, depth);
+
+      if (stored >= 0) {
+        return stored;
+      }
+    }
+
+    var nodes = 0L;
+
+    for (var i = 0; i < moves.size(); i++) {
+      position.makeMove(moves.get(i));
+      nodes += count(position, depth - 1, lists, table);
+      position.unmakeMove();
+    }
+
+    if (table != null) {
+      table.store(key, depth, nodes);
+    }
+
+    return nodes;
+  }
+
+  /** Shuts down the threads of this counter. */
+  public void close() {
+    pool.shutdown();
+  }
+
+  private static final class RootMoveTask extends RecursiveTask<Long> {
+
+    private final Position position;
+    private final int move;
+    private final int depth;
+    private final PerftTable table;
+
+    private RootMoveTask(
+        final Position position, final int move, final int depth, final PerftTable table) {
+      this.position = position;
+      this.move = move;
+      this.depth = depth;
+      this.table = table;
+    }
+
+    @Override
+    protected Long compute() {
+      position.makeMove(move);
+      return count(position, depth, MoveList.perPly(Math.max(depth, 1)), table);
+    }
+  }
+}
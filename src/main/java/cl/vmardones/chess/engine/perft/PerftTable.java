@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.perft;
+
+/**
+ * A hash table that stores how many leaf nodes are below a position, searched up to a depth. The
+ * same position is reached many times through different move orders, so the table avoids counting
+ * those subtrees again.
+ *
+ * <p>Each entry is made of two longs: the node count packed with the depth, and the Zobrist key
+ * XORed with that data. Threads share the table without any locking: if two threads write the same
+ * entry at once and its words get mixed up, the XOR check fails and the entry is simply treated as
+ * missing.
+ */
+public final class PerftTable {
+
+  private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+  private static final int DEPTH_BITS = 8;
+  private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+  private final long[] entries;
+  private final int mask;
+
+  /**
+   * Creates an empty table. The amount of entries is rounded down to a power of two.
+   *
+   * @param megabytes The size of the table, in megabytes
+   */
+  public PerftTable(final int megabytes) {
+    if (megabytes <= 0) {
+      throw new IllegalArgumentException("The table needs at least 1 MB");
+    }
+
+    final var size = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+    final var entryCount = (int) Math.min(size, 1 << 30);
+
+    entries = new long[2 * entryCount];
+    mask = entryCount - 1;
+  }
+
+  /**
+   * Looks for the node count of a position.
+   *
+   * @param key The Zobrist key of the position
+   * @param depth The depth of the count
+   * @return The node count, or -1 if it isn't stored
+   */
+  public long probe(final long key, final int depth) {
+    final var index = 2 * ((int) key & mask);
+    final var check = entries[index];
+    final var data = entries[index + 1];
+
+    if ((check ^ data) != key || (data & DEPTH_MASK) != depth) {
+      return -1;
+    }
+
+    return data >>> DEPTH_BITS;
+  }
+
+  /**
+   * Stores the node count of a position, replacing whatever was in its entry.
+   *
+   * @param key The Zobrist key of the position
+   * @param depth The depth of the count
+   * @param nodes The node count
+   */
+  public void store(final long key, final int depth, final long nodes) {
+    final var index = 2 * ((int) key & mask);
+    final var data = nodes << DEPTH_BITS | depth & DEPTH_MASK;
+
+    entries[index] = key ^ data;
+    entries[index + 1] = data;
+  }
+
+  /**
+   * Obtains the amount of entries of the table.
+   *
+   * @return The capacity
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+}
@@ -7,10 +7,12 @@ package cl.vmardones.chess.engine.piece;
 
 import cl.vmardones.chess.engine.board.Board;
 import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Geometry;
+import cl.vmardones.chess.engine.board.Position;
 import com.google.common.collect.ImmutableList;
 import jakarta.validation.constraints.NotNull;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Optional;
 
 /**
  * A piece that can move to a specific set of positions. It usually doesn't matter if there are
@@ -20,11 +22,37 @@ interface JumpingPiece extends Piece {
 
   Collection<int[]> getMoveOffsets();
 
+  /**
+   * Obtains the coordinate indexes this piece could jump to from its position, ignoring every other
+   * piece. Pieces with a precalculated table in {@link Geometry} should return it instead.
+   *
+   * @return The coordinate indexes of the destinations
+   */
+  default int[] getTargets() {
+    final var offsets = getMoveOffsets();
+    final var targets = new int[offsets.size()];
+    var count = 0;
+
+    for (var offset : offsets) {
+      final var destination = Geometry.step(getPosition().index(), offset[0], offset[1]);
+
+      if (destination != Position.NO_SQUARE) {
+        targets[count++] = destination;
+      }
+    }
+
+    return count == targets.length ? targets : Arrays.copyOf(targets, count);
+  }
+
   @Override
   default Collection<Coordinate> calculatePossibleDestinations(@NotNull final Board board) {
-    return getMoveOffsets().stream()
-        .map(offset -> getPosition().to(offset[0], offset[1]))
-        .flatMap(Optional::stream)
-        .collect(ImmutableList.toImmutableList());
+    final var targets = getTargets();
+    final var destinations = ImmutableList.<Coordinate>builderWithExpectedSize(targets.length);
+
+    for (var target : targets) {
+      destinations.add(Coordinate.of(target));
+    }
+
+    return destinations.build();
   }
 }
@@ -6,6 +6,7 @@
 package cl.vmardones.chess.engine.piece;
 
 import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Geometry;
 import cl.vmardones.chess.engine.move.Move;
 import cl.vmardones.chess.engine.piece.vector.Diagonal;
 import cl.vmardones.chess.engine.piece.vector.Horizontal;
@@ -55,6 +56,11 @@ public final class King implements JumpingPiece {
     return MOVE_OFFSETS;
   }
 
+  @Override
+  public int[] getTargets() {
+    return Geometry.kingTargets(position.index());
+  }
+
   private static Collection<int[]> calculateMoveOffsets() {
     return Stream.concat(
             Arrays.stream(Diagonal.values()),
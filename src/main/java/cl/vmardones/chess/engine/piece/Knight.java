@@ -6,6 +6,7 @@
 package cl.vmardones.chess.engine.piece;
 
 import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Geometry;
 import cl.vmardones.chess.engine.move.Move;
 import cl.vmardones.chess.engine.piece.vector.LShaped;
 import cl.vmardones.chess.engine.piece.vector.Vector;
@@ -48,6 +49,11 @@ public final class Knight implements JumpingPiece {
     return MOVE_OFFSETS;
   }
 
+  @Override
+  public int[] getTargets() {
+    return Geometry.knightTargets(position.index());
+  }
+
   private static Collection<int[]> calculateMoveOffsets() {
     return Arrays.stream(LShaped.values())
         .map(Vector::getVector)
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.piece;
+
+import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import java.util.Arrays;
+import lombok.Generated;
+
+/**
+ * Identifies a kind of piece (its type and its alliance) with a single small number. Codes go from
+ * 0 (white pawn) to 11 (black king), so they can be used directly as array indexes.
+ */
+public final class PieceCode {
+
+  /** The amount of different piece types. */
+  public static final int TYPES = Piece.PieceType.values().length;
+
+  /** The amount of different piece codes. */
+  public static final int COUNT = TYPES * Alliance.values().length;
+
+  /** The code used when there is no piece. */
+  public static final int NONE = -1;
+
+  private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+  private static final Alliance[] ALLIANCES = Alliance.values();
+
+  /* Symbols are looked up in tables, since FEN reads and writes one for every piece */
+  private static final char[] SYMBOLS = createSymbols();
+  private static final int[] CODES = createCodes();
+
+  @Generated
+  private PieceCode() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  public static int of(@NotNull final Alliance alliance, @NotNull final Piece.PieceType type) {
+    return alliance.ordinal() * TYPES + type.ordinal();
+  }
+
+  public static int of(@NotNull final Piece piece) {
+    return of(piece.getAlliance(), piece.getPieceType());
+  }
+
+  /**
+   * Obtains the code of a piece symbol, as used by FEN: uppercase letters are white pieces and
+   * lowercase letters are black pieces.
+   *
+   * @param symbol The piece symbol, like P or k
+   * @return The piece code, or {@link #NONE} if the symbol isn't a piece
+   */
+  public static int of(final char symbol) {
+    return symbol < CODES.length ? CODES[symbol] : NONE;
+  }
+
+  /**
+   * Obtains the FEN symbol of a piece code, the opposite of {@link #of(char)}.
+   *
+   * @param code The piece code
+   * @return The piece symbol, uppercase for white and lowercase for black
+   */
+  public static char toSymbol(final int code) {
+    return SYMBOLS[code];
+  }
+
+  public static Alliance alliance(final int code) {
+    return ALLIANCES[code / TYPES];
+  }
+
+  public static Piece.PieceType type(final int code) {
+    return PIECE_TYPES[code % TYPES];
+  }
+
+  /**
+   * Creates the piece object that corresponds to a code.
+   *
+   * @param code The piece code
+   * @param position The coordinate of the piece
+   * @param firstMove Whether the piece hasn't moved yet
+   * @return The new piece
+   */
+  public static Piece toPiece(
+      final int code, @NotNull final Coordinate position, final boolean firstMove) {
+    final var alliance = alliance(code);
+
+    return switch (type(code)) {
+      case PAWN -> new Pawn(position, alliance, firstMove);
+      case KNIGHT -> new Knight(position, alliance, firstMove);
+      case BISHOP -> new Bishop(position, alliance, firstMove);
+      case ROOK -> new Rook(position, alliance, firstMove);
+      case QUEEN -> new Queen(position, alliance, firstMove);
+      case KING -> new King(position, alliance, firstMove);
+    };
+  }
+
+  private static char[] createSymbols() {
+    final var symbols = new char[COUNT];
+
+    for (var code = 0; code < COUNT; code++) {
+      final var symbol = type(code).getPieceName().charAt(0);
+      symbols[code] = alliance(code) == Alliance.WHITE ? symbol : Character.toLowerCase(symbol);
+    }
+
+    return symbols;
+  }
+
+  private static int[] createCodes() {
+    final var codes = new int[128];
+    Arrays.fill(codes, NONE);
+
+    for (var code = 0; code < COUNT; code++) {
+      codes[SYMBOLS[code]] = code;
+    }
+
+    return codes;
+  }
+}
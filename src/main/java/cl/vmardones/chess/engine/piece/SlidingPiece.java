@@ -5,60 +5,34 @@
 
 package cl.vmardones.chess.engine.piece;
 
+import cl.vmardones.chess.engine.board.Attacks;
+import cl.vmardones.chess.engine.board.Bitboard;
 import cl.vmardones.chess.engine.board.Board;
 import cl.vmardones.chess.engine.board.Coordinate;
-import cl.vmardones.chess.engine.board.Tile;
 import com.google.common.collect.ImmutableList;
 import jakarta.validation.constraints.NotNull;
-import java.util.*;
-import java.util.stream.IntStream;
+import java.util.Collection;
 
+/**
+ * A piece that moves any amount of coordinates in a set of directions, until another piece gets in
+ * the way. It can capture the first enemy piece it finds.
+ */
 interface SlidingPiece extends Piece {
 
   Collection<int[]> getMoveVectors();
 
   @Override
   default Collection<Coordinate> calculatePossibleDestinations(@NotNull final Board board) {
-    return getMoveVectors().stream()
-        .map(vector -> calculateOffsets(vector, board))
-        .flatMap(Collection::stream)
-        .collect(ImmutableList.toImmutableList());
-  }
-
-  private Collection<Coordinate> calculateOffsets(final int[] vector, final Board board) {
-    final var tiles =
-        IntStream.range(1, Board.SIDE_LENGTH + 1)
-            .mapToObj(i -> getPosition().to(vector[0] * i, vector[1] * i))
-            .flatMap(Optional::stream)
-            .map(board::getTile)
-            .toList()
-            .listIterator();
-
-    return filterAccessible(tiles).stream()
-        .map(Tile::getCoordinate)
-        .collect(ImmutableList.toImmutableList());
-  }
-
-  // TODO: Replace this method with something more stream-friendly
-  private Collection<Tile> filterAccessible(final Iterator<Tile> tiles) {
-
-    final List<Tile> accessibleTiles = new ArrayList<>();
-
-    while (tiles.hasNext()) {
-      final var destination = tiles.next();
-      final var pieceAtDestination = destination.getPiece();
-
-      if (pieceAtDestination.isEmpty()) {
-        accessibleTiles.add(destination);
-      } else {
-        if (isEnemyOf(pieceAtDestination.get())) {
-          accessibleTiles.add(destination);
-        }
-
-        break;
-      }
+    final var attacks =
+        Attacks.of(getPieceType(), getPosition().index(), board.getOccupancy())
+            & ~board.getOccupancy(getAlliance());
+    final var destinations =
+        ImmutableList.<Coordinate>builderWithExpectedSize(Bitboard.count(attacks));
+
+    for (var remaining = attacks; remaining != 0; remaining = Bitboard.withoutFirst(remaining)) {
+      destinations.add(Coordinate.of(Bitboard.first(remaining)));
     }
 
-    return accessibleTiles;
+    return destinations.build();
   }
 }
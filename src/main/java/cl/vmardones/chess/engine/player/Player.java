@@ -5,18 +5,17 @@
 
 package cl.vmardones.chess.engine.player;
 
+import cl.vmardones.chess.engine.board.Bitboard;
 import cl.vmardones.chess.engine.board.Board;
 import cl.vmardones.chess.engine.board.Coordinate;
 import cl.vmardones.chess.engine.move.*;
 import cl.vmardones.chess.engine.piece.King;
 import cl.vmardones.chess.engine.piece.Piece;
-import cl.vmardones.chess.engine.piece.Rook;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
 import jakarta.validation.constraints.NotNull;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.function.Supplier;
 import lombok.Getter;
 import lombok.ToString;
 
@@ -31,30 +30,42 @@ public abstract class Player {
 
   @Getter protected final King king;
 
-  @Getter @ToString.Exclude protected final Collection<Move> legals;
-  @ToString.Exclude protected final Collection<Move> opponentLegals;
+  @ToString.Exclude private final Supplier<Collection<Move>> legals;
 
   private final boolean inCheck;
-  private Boolean noEscapeMoves;
 
-  protected Player(
-      final Board board,
-      final King king,
-      final Collection<Move> legals,
-      final Collection<Move> opponentLegals) {
+  protected Player(final Board board, final King king, final Collection<Move> legals) {
+    this(board, king, Suppliers.ofInstance(ImmutableList.copyOf(legals)));
+  }
+
+  /* The legals are only calculated the first time they are needed, usually only for the mover */
+  protected Player(final Board board, final King king, final Supplier<Collection<Move>> legals) {
     this.board = board;
-    this.king = king;
-    this.opponentLegals = opponentLegals;
+    this.king = findKing(board, king);
+    this.legals = Suppliers.memoize(() -> ImmutableList.copyOf(legals.get()));
 
-    this.legals = ImmutableList.copyOf(Iterables.concat(legals, calculateCastles(opponentLegals)));
-    inCheck = !Player.calculateAttacksOnTile(king.getPosition(), opponentLegals).isEmpty();
+    inCheck =
+        board.isSquareAttacked(this.king.getPosition(), this.king.getAlliance().getOpposite());
   }
 
-  protected static Collection<Move> calculateAttacksOnTile(
-      @NotNull final Coordinate kingPosition, @NotNull final Collection<Move> moves) {
-    return moves.stream()
-        .filter(move -> kingPosition == move.getDestination())
-        .collect(ImmutableList.toImmutableList());
+  /* The board keeps the initial king objects, so the king that is currently on the board is used */
+  private static King findKing(final Board board, final King king) {
+    final var kings = board.getBitboard(king.getAlliance(), Piece.PieceType.KING);
+
+    if (kings == Bitboard.EMPTY) {
+      return king;
+    }
+
+    return (King) board.getTile(Coordinate.of(Bitboard.first(kings))).getPiece().orElse(king);
+  }
+
+  /**
+   * Obtains the legal moves of the player, calculating them if they weren't yet.
+   *
+   * @return The legal moves
+   */
+  public Collection<Move> getLegals() {
+    return legals.get();
   }
 
   /**
@@ -64,7 +75,7 @@ public abstract class Player {
    * @return True if the move is legal
    */
   public boolean isLegal(final Move move) {
-    return legals.contains(move);
+    return getLegals().contains(move);
   }
 
   /**
@@ -86,15 +97,9 @@ public abstract class Player {
     return isInCheck() && hasNoEscapeMoves();
   }
 
+  /* Every move is legal, so the player has no escape if there are no moves at all */
   private boolean hasNoEscapeMoves() {
-    if (noEscapeMoves == null) {
-      noEscapeMoves =
-          legals.stream()
-              .map(move -> makeMove(this, move))
-              .noneMatch(transition -> transition.getMoveStatus().isDone());
-    }
-
-    return noEscapeMoves;
+    return getLegals().isEmpty();
   }
 
   /**
@@ -111,7 +116,7 @@ public abstract class Player {
     return false;
   }
 
-  public MoveTransition makeMove(@NotNull final Player currentPlayer, @NotNull final Move move) {
+  public MoveTransition makeMove(@NotNull final Move move) {
     if (move.isNull()) {
       return new MoveTransition(board, move, MoveStatus.NULL);
     }
@@ -120,13 +125,6 @@ public abstract class Player {
       return new MoveTransition(board, move, MoveStatus.ILLEGAL);
     }
 
-    final Collection<Move> kingAttacks =
-        Player.calculateAttacksOnTile(currentPlayer.getKing().getPosition(), opponentLegals);
-
-    if (!kingAttacks.isEmpty()) {
-      return new MoveTransition(board, move, MoveStatus.LEAVES_OPPONENT_IN_CHECK);
-    }
-
     return new MoveTransition(move.execute(), move, MoveStatus.DONE);
   }
 
@@ -143,78 +141,4 @@ public abstract class Player {
    * @return The player's alliance
    */
   public abstract Alliance getAlliance();
-
-  // TODO: Refactor this method, maybe use combinator pattern
-  protected Collection<Move> calculateCastles(@NotNull final Collection<Move> opponentLegals) {
-
-    final List<Move> castles = new ArrayList<>();
-
-    if (!king.isFirstMove() || isInCheck() || king.getPosition().getColumn() != 'e') {
-      return ImmutableList.copyOf(castles);
-    }
-
-    final var kingPosition = king.getPosition();
-
-    if (isKingSideCastlePossible(kingPosition, opponentLegals)) {
-      final var rook = (Rook) board.getTile(kingPosition.right(3).get()).getPiece().get();
-      final var kingDestination = kingPosition.right(2).get();
-      final var rookDestination = kingPosition.right(1).get();
-
-      if (rook.isFirstMove()) {
-        castles.add(new KingSideCastleMove(board, king, kingDestination, rook, rookDestination));
-      }
-    }
-
-    if (isQueenSideCastlePossible(kingPosition, opponentLegals)) {
-      final var rook = (Rook) board.getTile(kingPosition.right(3).get()).getPiece().get();
-      final var kingDestination = kingPosition.left(2).get();
-      final var rookDestination = kingPosition.left(1).get();
-
-      if (rook.isFirstMove()) {
-        castles.add(new QueenSideCastleMove(board, king, kingDestination, rook, rookDestination));
-      }
-    }
-
-    return ImmutableList.copyOf(castles);
-  }
-
-  private boolean isKingSideCastlePossible(
-      final Coordinate kingPosition, final Collection<Move> opponentLegals) {
-    return isTileFree(kingPosition, 1)
-        && isTileFree(kingPosition, 2)
-        && isTileRook(kingPosition, 3)
-        && isUnreachableByEnemy(kingPosition, 1, opponentLegals)
-        && isUnreachableByEnemy(kingPosition, 2, opponentLegals);
-  }
-
-  private boolean isQueenSideCastlePossible(
-      final Coordinate kingPosition, final Collection<Move> opponentLegals) {
-    return isTileFree(kingPosition, -1)
-        && isTileFree(kingPosition, -2)
-        && isTileFree(kingPosition, -3)
-        && isTileRook(kingPosition, -4)
-        && isUnreachableByEnemy(kingPosition, -1, opponentLegals)
-        && isUnreachableByEnemy(kingPosition, -2, opponentLegals)
-        && isUnreachableByEnemy(kingPosition, -3, opponentLegals);
-  }
-
-  private boolean isTileFree(final Coordinate kingPosition, final int offset) {
-    final var destination = kingPosition.right(offset);
-
-    return destination.isPresent() && board.containsNothing(destination.get());
-  }
-
-  private boolean isUnreachableByEnemy(
-      final Coordinate kingPosition, final int offset, final Collection<Move> opponentLegals) {
-    final var destination = kingPosition.right(offset);
-
-    return destination.isPresent()
-        && Player.calculateAttacksOnTile(destination.get(), opponentLegals).isEmpty();
-  }
-
-  private boolean isTileRook(final Coordinate kingPosition, final int offset) {
-    final var destination = kingPosition.right(offset);
-
-    return destination.isPresent() && board.contains(destination.get(), Piece.PieceType.ROOK);
-  }
 }
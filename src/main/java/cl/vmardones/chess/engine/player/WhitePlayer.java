@@ -10,16 +10,17 @@ import cl.vmardones.chess.engine.move.Move;
 import cl.vmardones.chess.engine.piece.King;
 import cl.vmardones.chess.engine.piece.Piece;
 import java.util.Collection;
+import java.util.function.Supplier;
 
 /** The player that uses the white pieces. */
 public class WhitePlayer extends Player {
 
-  public WhitePlayer(
-      final Board board,
-      final King king,
-      final Collection<Move> legals,
-      final Collection<Move> opponentMoves) {
-    super(board, king, legals, opponentMoves);
+  public WhitePlayer(final Board board, final King king, final Collection<Move> legals) {
+    super(board, king, legals);
+  }
+
+  public WhitePlayer(final Board board, final King king, final Supplier<Collection<Move>> legals) {
+    super(board, king, legals);
   }
 
   @Override
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Bitboard;
+import cl.vmardones.chess.engine.board.PieceSquareTables;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Static evaluation of positions, in centipawns. A position is scored by its {@link
+ * PieceSquareTables}: the middlegame and endgame sums are blended by the game phase, so pieces
+ * move towards their endgame squares as material comes off the board. The {@link PawnStructure}
+ * terms are added to both sums before blending them.
+ *
+ * <p>The sums are kept up to date by the position while moves are made and unmade, and the pawn
+ * structure can be cached in a {@link PawnTable}, so evaluating rarely visits any piece. {@link
+ * #evaluateFromScratch(Position)} calculates the same score the slow way, to check the fast one.
+ */
+public final class Evaluation {
+
+  /* Indexed by piece type ordinal. Kings can't be captured, so they aren't counted */
+  private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+  @Generated
+  private Evaluation() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /**
+   * Obtains the plain material value of a piece, used to compare captures.
+   *
+   * @param pieceType The piece type
+   * @return The value, in centipawns
+   */
+  public static int pieceValue(@NotNull final Piece.PieceType pieceType) {
+    return PIECE_VALUES[pieceType.ordinal()];
+  }
+
+  /**
+   * Evaluates a position from the point of view of its move maker.
+   *
+   * @param position The position to evaluate
+   * @return The score, positive if the move maker is better
+   */
+  public static int evaluate(@NotNull final Position position) {
+    return evaluate(position, PawnStructure.evaluate(position));
+  }
+
+  /**
+   * Evaluates a position like {@link #evaluate(Position)}, taking the pawn structure from a cache.
+   *
+   * @param position The position to evaluate
+   * @param pawnTable The cache of pawn structure scores
+   * @return The score, positive if the move maker is better
+   */
+  public static int evaluate(@NotNull final Position position, @NotNull final PawnTable pawnTable) {
+    return evaluate(position, pawnTable.evaluate(position));
+  }
+
+  /**
+   * Evaluates a position like {@link #evaluate(Position)}, but adding up every piece again instead
+   * of using the sums kept by the position.
+   *
+   * @param position The position to evaluate
+   * @return The score, positive if the move maker is better
+   */
+  public static int evaluateFromScratch(@NotNull final Position position) {
+    var middlegame = 0;
+    var endgame = 0;
+    var phase = 0;
+
+    for (var occupied = position.getOccupancy();
+        occupied != 0;
+        occupied = Bitboard.withoutFirst(occupied)) {
+      final var index = Bitboard.first(occupied);
+      final var code = position.getPieceCode(index);
+
+      middlegame += PieceSquareTables.middlegame(code, index);
+      endgame += PieceSquareTables.endgame(code, index);
+      phase += PieceSquareTables.phase(code);
+    }
+
+    return fromMoveMaker(position, middlegame, endgame, phase, PawnStructure.evaluate(position));
+  }
+
+  private static int evaluate(final Position position, final int pawns) {
+    return fromMoveMaker(
+        position,
+        position.getMiddlegameScore(),
+        position.getEndgameScore(),
+        position.getPhase(),
+        pawns);
+  }
+
+  private static int fromMoveMaker(
+      final Position position,
+      final int middlegame,
+      final int endgame,
+      final int phase,
+      final int pawns) {
+    final var score =
+        PieceSquareTables.taper(
+            middlegame + PawnStructure.middlegame(pawns),
+            endgame + PawnStructure.endgame(pawns),
+            phase);
+
+    return position.getMoveMaker() == Alliance.WHITE ? score : -score;
+  }
+}
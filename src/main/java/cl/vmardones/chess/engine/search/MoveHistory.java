@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.player.Alliance;
+import java.util.Arrays;
+
+/**
+ * What a search learned about quiet moves that caused cutoffs, used to order the quiet moves of
+ * later nodes. Quiet moves can't be ordered by what they capture, so they are ordered by how well
+ * they did elsewhere in the tree:
+ *
+ * <ul>
+ *   <li>Killers: the last two quiet moves that caused a cutoff on the same ply, which are often
+ *       good in sibling nodes too.
+ *   <li>Counter-moves: the last quiet move that caused a cutoff right after each opponent move,
+ *       indexed by its source and destination.
+ *   <li>History: a score for every side, source and destination, raised when a quiet move causes a
+ *       cutoff and lowered for the quiet moves searched before it without causing one.
+ * </ul>
+ */
+final class MoveHistory {
+
+  /** History scores stay between minus and plus this value. */
+  static final int MAX_SCORE = 1 << 14;
+
+  private static final int KILLERS_PER_PLY = 2;
+  private static final int SQUARE_PAIRS = Board.MAX_TILES * Board.MAX_TILES;
+
+  private final int[][] killers = new int[Search.MAX_DEPTH + 1][KILLERS_PER_PLY];
+  private final int[] counterMoves = new int[SQUARE_PAIRS];
+  private final int[] history = new int[Alliance.values().length * SQUARE_PAIRS];
+
+  /**
+   * Obtains a killer move of a ply.
+   *
+   * @param ply The ply
+   * @param slot 0 for the most recent killer, 1 for the previous one
+   * @return The packed move, or {@link PackedMove#NONE}
+   */
+  int killer(final int ply, final int slot) {
+    return killers[ply][slot];
+  }
+
+  /**
+   * Obtains the quiet move that last refuted a move.
+   *
+   * @param previousMove The packed move of the opponent
+   * @return The packed move, or {@link PackedMove#NONE}
+   */
+  int counterMove(final int previousMove) {
+    return previousMove == PackedMove.NONE ? PackedMove.NONE : counterMoves[squares(previousMove)];
+  }
+
+  /**
+   * Obtains the history score of a quiet move.
+   *
+   * @param position The position where the move is made
+   * @param move The packed move
+   * @return The score, between -{@link #MAX_SCORE} and {@link #MAX_SCORE}
+   */
+  int score(final Position position, final int move) {
+    return history[index(position, move)];
+  }
+
+  /**
+   * Records a quiet move that caused a cutoff.
+   *
+   * @param position The position where the move was made
+   * @param ply The ply of the position
+   * @param move The packed move that caused the cutoff
+   * @param failed The quiet moves searched before it, which didn't cause one
+   * @param depth The remaining depth of the node, deeper cutoffs count more
+   */
+  void update(
+      final Position position,
+      final int ply,
+      final int move,
+      final MoveList failed,
+      final int depth) {
+    if (killers[ply][0] != move) {
+      killers[ply][1] = killers[ply][0];
+      killers[ply][0] = move;
+    }
+
+    final var previousMove = position.getLastMove();
+
+    if (previousMove != PackedMove.NONE) {
+      counterMoves[squares(previousMove)] = move;
+    }
+
+    final var bonus = Math.min(depth * depth, MAX_SCORE);
+
+    adjust(index(position, move), bonus);
+
+    for (var i = 0; i < failed.size(); i++) {
+      adjust(index(position, failed.get(i)), -bonus);
+    }
+  }
+
+  /** Forgets the killers and counter-moves, and halves the history of previous searches. */
+  void newSearch() {
+    for (var plyKillers : killers) {
+      Arrays.fill(plyKillers, PackedMove.NONE);
+    }
+
+    Arrays.fill(counterMoves, PackedMove.NONE);
+
+    for (var i = 0; i < history.length; i++) {
+      history[i] /= 2;
+    }
+  }
+
+  /* Scores change less the closer they are to the limit, so they never leave the range */
+  private void adjust(final int index, final int bonus) {
+    history[index] += bonus - history[index] * Math.abs(bonus) / MAX_SCORE;
+  }
+
+  private static int squares(final int move) {
+    return PackedMove.source(move) * Board.MAX_TILES + PackedMove.destination(move);
+  }
+
+  private static int index(final Position position, final int move) {
+    return position.getMoveMaker().ordinal() * SQUARE_PAIRS + squares(move);
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.piece.Piece;
+import java.util.Arrays;
+
+/**
+ * Hands out the legal moves of a node one at a time, best first, so cutoffs happen as early as
+ * possible. The moves come in stages:
+ *
+ * <ol>
+ *   <li>The hash move, the best move stored in the transposition table.
+ *   <li>Captures that don't lose material by {@link StaticExchange static exchange evaluation},
+ *       and queen promotions, most valuable victim first and least valuable attacker first among
+ *       equal victims (MVV-LVA).
+ *   <li>The killers of the ply, and the counter-move of the opponent's last move.
+ *   <li>The other quiet moves, by history score.
+ *   <li>Captures that lose material, by MVV-LVA.
+ *   <li>Underpromotions, which are almost never good.
+ * </ol>
+ *
+ * <p>The hash move is returned before the other moves are scored, so nodes cut off by it skip the
+ * work. The rest are sorted lazily, by picking the best remaining move on each call: after an early
+ * cutoff, most of the list is never sorted. A picker is reused by every node of its ply.
+ */
+final class MovePicker {
+
+  /* Every stage scores its moves within its own band, above the bands of later stages */
+  private static final int CAPTURE_SCORE = 1 << 20;
+  private static final int KILLER_SCORE = 1 << 18;
+  private static final int COUNTER_MOVE_SCORE = KILLER_SCORE - 2;
+  private static final int LOSING_CAPTURE_SCORE = -(1 << 19);
+  private static final int UNDERPROMOTION_SCORE = -CAPTURE_SCORE;
+
+  private static final int PIECE_TYPES = Piece.PieceType.values().length;
+
+  private static final int HASH_STAGE = 0;
+  private static final int SCORE_STAGE = 1;
+  private static final int PICK_STAGE = 2;
+
+  private final MoveList moves = new MoveList();
+
+  /* Scratch space of the static exchange evaluation, so scoring captures doesn't allocate */
+  private final int[] gains = new int[StaticExchange.MAX_CAPTURES];
+
+  private int[] scores = new int[MoveList.DEFAULT_CAPACITY];
+
+  private Position position;
+  private MoveHistory history;
+  private int ply;
+  private int hashMove;
+  private int stage;
+  private int next;
+  private int lastScore;
+
+  /**
+   * Generates the legal moves of a node.
+   *
+   * @param position The position of the node
+   * @param ply The ply of the node
+   * @param hashMove The best move stored for the position, or {@link PackedMove#NONE}
+   * @param history The killers, counter-moves and history of the search
+   */
+  void init(
+      final Position position, final int ply, final int hashMove, final MoveHistory history) {
+    this.position = position;
+    this.ply = ply;
+    this.history = history;
+
+    MoveGenerator.generateLegals(position, moves);
+
+    /* A move stored for another position with the same key wouldn't be legal here */
+    this.hashMove = moves.contains(hashMove) ? hashMove : PackedMove.NONE;
+    stage = this.hashMove == PackedMove.NONE ? SCORE_STAGE : HASH_STAGE;
+    next = 0;
+  }
+
+  /**
+   * Generates the captures and queen promotions of a node, for the quiescence search.
+   *
+   * @param position The position of the node
+   * @param ply The ply of the node
+   * @param history The killers, counter-moves and history of the search
+   */
+  void initNoisy(final Position position, final int ply, final MoveHistory history) {
+    init(position, ply, PackedMove.NONE, history);
+
+    for (var i = moves.size() - 1; i >= 0; i--) {
+      final var move = moves.get(i);
+
+      if (isQuiet(move) || !PackedMove.isCapture(move) && isUnderpromotion(move)) {
+        moves.removeAt(i);
+      }
+    }
+  }
+
+  /**
+   * Hands out moves that were already ordered, like the root moves ordered by the previous
+   * iteration.
+   *
+   * @param ordered The moves, best first
+   */
+  void init(final MoveList ordered) {
+    moves.clear();
+
+    for (var i = 0; i < ordered.size(); i++) {
+      moves.add(ordered.get(i));
+    }
+
+    ensureCapacity();
+
+    for (var i = 0; i < moves.size(); i++) {
+      scores[i] = -i;
+    }
+
+    stage = PICK_STAGE;
+    next = 0;
+  }
+
+  /**
+   * Obtains the amount of legal moves of the node.
+   *
+   * @return The amount of moves
+   */
+  int size() {
+    return moves.size();
+  }
+
+  /**
+   * Obtains the next best move.
+   *
+   * @return The packed move, or {@link PackedMove#NONE} if every move was returned
+   */
+  int next() {
+    if (stage == HASH_STAGE) {
+      stage = SCORE_STAGE;
+      lastScore = Integer.MAX_VALUE;
+      return hashMove;
+    }
+
+    if (stage == SCORE_STAGE) {
+      score();
+      stage = PICK_STAGE;
+    }
+
+    if (next == moves.size()) {
+      return PackedMove.NONE;
+    }
+
+    var best = next;
+
+    for (var i = next + 1; i < moves.size(); i++) {
+      if (scores[i] > scores[best]) {
+        best = i;
+      }
+    }
+
+    moves.swap(next, best);
+    final var score = scores[next];
+    scores[next] = scores[best];
+    scores[best] = score;
+    lastScore = scores[next];
+
+    return moves.get(next++);
+  }
+
+  /**
+   * Checks if the last returned move is expected to lose material: a capture with a negative static
+   * exchange, or an underpromotion. Every move after it is expected to lose too.
+   *
+   * @return True if the move is expected to lose material
+   */
+  boolean isLosing() {
+    /* Both stages score their moves below every history score */
+    return lastScore < -MoveHistory.MAX_SCORE;
+  }
+
+  /**
+   * Checks if a move is quiet, which means the history tables can order it.
+   *
+   * @param move The packed move
+   * @return True if the move doesn't capture or promote
+   */
+  static boolean isQuiet(final int move) {
+    return !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+  }
+
+  private void score() {
+    /* The hash move was already returned, so it goes before the moves left to pick */
+    if (hashMove != PackedMove.NONE) {
+      for (var i = 0; i < moves.size(); i++) {
+        if (moves.get(i) == hashMove) {
+          moves.swap(0, i);
+          next = 1;
+          break;
+        }
+      }
+    }
+
+    ensureCapacity();
+
+    final var firstKiller = history.killer(ply, 0);
+    final var secondKiller = history.killer(ply, 1);
+    final var counterMove = history.counterMove(position.getLastMove());
+
+    for (var i = next; i < moves.size(); i++) {
+      final var move = moves.get(i);
+
+      if (!isQuiet(move)) {
+        scores[i] = scoreNoisy(move);
+      } else if (move == firstKiller) {
+        scores[i] = KILLER_SCORE;
+      } else if (move == secondKiller) {
+        scores[i] = KILLER_SCORE - 1;
+      } else if (move == counterMove) {
+        scores[i] = COUNTER_MOVE_SCORE;
+      } else {
+        scores[i] = history.score(position, move);
+      }
+    }
+  }
+
+  private int scoreNoisy(final int move) {
+    final var capture = PackedMove.isCapture(move);
+
+    if (!capture && isUnderpromotion(move)) {
+      return UNDERPROMOTION_SCORE + PackedMove.promotion(move).ordinal();
+    }
+
+    final var victim = capture ? PackedMove.capturedType(move).ordinal() + 1 : 0;
+    final var promoted = PackedMove.promotion(move) == Piece.PieceType.QUEEN ? PIECE_TYPES : 0;
+    final var mvvLva = (victim + promoted) * PIECE_TYPES - PackedMove.pieceType(move).ordinal();
+
+    if (capture && StaticExchange.see(position, move, gains) < 0) {
+      return LOSING_CAPTURE_SCORE + mvvLva;
+    }
+
+    return CAPTURE_SCORE + mvvLva;
+  }
+
+  private static boolean isUnderpromotion(final int move) {
+    return PackedMove.isPromotion(move) && PackedMove.promotion(move) != Piece.PieceType.QUEEN;
+  }
+
+  private void ensureCapacity() {
+    if (scores.length < moves.size()) {
+      scores = Arrays.copyOf(scores, moves.size());
+    }
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Position;
+import jakarta.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A search on many threads that share a {@link TranspositionTable}, known as Lazy SMP.
+ *
+ * <p>The main thread runs a normal {@link Search}, while every helper thread searches its own copy
+ * of the same position, without reporting anything. The threads never talk to each other: helpers
+ * are only useful because they fill the shared table with results the main thread finds later.
+ * Half of the helpers start one ply deeper, so the threads don't all search the same depth at the
+ * same time.
+ *
+ * <p>The main thread owns the limits and the result. Helpers only stop at the deadline or when the
+ * main thread finishes, and don't count towards the node budget.
+ */
+public final class ParallelSearch {
+
+  private final TranspositionTable table;
+  private final Search main;
+  private final Search[] helpers;
+  private final ExecutorService executor;
+
+  /* Set by prepare(), so the next search keeps the stop requests made since then */
+  private volatile boolean prepared;
+
+  /**
+   * Creates a parallel search.
+   *
+   * @param threads The amount of threads, including the one that calls {@link #search}
+   * @param table The transposition table shared by every thread
+   */
+  public ParallelSearch(final int threads, @NotNull final TranspositionTable table) {
+    this(threads, table, Search.DEFAULT_PAWN_HASH_SIZE);
+  }
+
+  /**
+   * Creates a parallel search, choosing the size of the pawn tables.
+   *
+   * @param threads The amount of threads, including the one that calls {@link #search}
+   * @param table The transposition table shared by every thread
+   * @param pawnHashSize The size of the pawn table of each thread, in MB
+   */
+  public ParallelSearch(
+      final int threads, @NotNull final TranspositionTable table, final int pawnHashSize) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("The search needs at least 1 thread");
+    }
+
+    this.table = table;
+    main = new Search(table, pawnHashSize);
+    helpers = new Search[threads - 1];
+
+    for (var i = 0; i < helpers.length; i++) {
+      helpers[i] = new Search(table, pawnHashSize);
+    }
+
+    executor =
+        helpers.length == 0
+            ? null
+            : Executors.newFixedThreadPool(
+                helpers.length,
+                runnable -> {
+                  final var thread = new Thread(runnable, "search-helper");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+  }
+
+  /**
+   * Searches a position on every thread, increasing the depth until a limit is reached.
+   *
+   * @param position The position to search, which is restored before returning
+   * @param limits When to stop searching
+   * @param listener Receives the result of every depth completed by the main thread, with the nodes
+   *     of every thread
+   * @return The result of the deepest depth completed by the main thread
+   */
+  public SearchInfo search(
+      @NotNull final Position position,
+      @NotNull final SearchLimits limits,
+      @NotNull final Consumer<SearchInfo> listener) {
+    return run(position, limits, null, listener);
+  }
+
+  /**
+   * Searches a position on every thread with the time given by a game clock. Only the main thread
+   * asks the time manager whether to start another depth, the helpers stop when it finishes.
+   *
+   * @param position The position to search, which is restored before returning
+   * @param limits Other limits of the search
+   * @param timeManager Decides when to stop searching
+   * @param listener Receives the result of every depth completed by the main thread, with the nodes
+   *     of every thread
+   * @return The result of the deepest depth completed by the main thread
+   */
+  public SearchInfo search(
+      @NotNull final Position position,
+      @NotNull final SearchLimits limits,
+      @NotNull final TimeManager timeManager,
+      @NotNull final Consumer<SearchInfo> listener) {
+    return run(position, timeManager.start(limits), timeManager, listener);
+  }
+
+  /**
+   * Searches a position on every thread until a limit is reached, without reporting progress.
+   *
+   * @param position The position to search, which is restored before returning
+   * @param limits When to stop searching
+   * @return The result of the deepest depth completed by the main thread
+   */
+  public SearchInfo search(@NotNull final Position position, @NotNull final SearchLimits limits) {
+    return search(position, limits, info -> {});
+  }
+
+  /**
+   * Clears the stop requests and the nodes of the last search, before handing the next search to
+   * another thread. A {@link #stop()} made after this call is kept, even if the other thread hasn't
+   * started searching yet.
+   */
+  public void prepare() {
+    reset();
+    prepared = true;
+  }
+
+  /** Asks the current search to stop as soon as possible. It can be called from any thread. */
+  public void stop() {
+    main.stop();
+
+    for (var helper : helpers) {
+      helper.stop();
+    }
+  }
+
+  /**
+   * Obtains the amount of nodes visited by every thread in the current or last search. While
+   * searching, the count of the helpers is approximate.
+   *
+   * @return The amount of nodes
+   */
+  public long getNodes() {
+    var nodes = main.getNodes();
+
+    for (var helper : helpers) {
+      nodes += helper.getNodes();
+    }
+
+    return nodes;
+  }
+
+  /**
+   * Obtains the amount of threads used by this search.
+   *
+   * @return The amount of threads, including the main one
+   */
+  public int getThreads() {
+    return helpers.length + 1;
+  }
+
+  public TranspositionTable getTable() {
+    return table;
+  }
+
+  public SearchFeatures getFeatures() {
+    return main.getFeatures();
+  }
+
+  /**
+   * Chooses the selective search techniques of the next searches, on every thread.
+   *
+   * @param features The techniques to use
+   */
+  public void setFeatures(@NotNull final SearchFeatures features) {
+    main.setFeatures(features);
+
+    for (var helper : helpers) {
+      helper.setFeatures(features);
+    }
+  }
+
+  /**
+   * Obtains the pawn table of the main thread. Every thread has its own, but they all see similar
+   * positions.
+   *
+   * @return The pawn table of the main thread
+   */
+  public PawnTable getPawnTable() {
+    return main.getPawnTable();
+  }
+
+  /** Shuts down the helper threads of this search. */
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private SearchInfo run(
+      final Position position,
+      final SearchLimits limits,
+      final TimeManager timeManager,
+      final Consumer<SearchInfo> listener) {
+    if (!prepared) {
+      reset();
+    }
+
+    prepared = false;
+    table.newSearch();
+
+    final var helperLimits = SearchLimits.depth(limits.depth()).withDeadline(limits.deadline());
+    final var tasks = new ArrayList<Future<?>>(helpers.length);
+
+    for (var i = 0; i < helpers.length; i++) {
+      final var helper = helpers[i];
+      final var copy = position.copy();
+      final var firstDepth = 1 + i % 2;
+
+      tasks.add(
+          executor.submit(() -> helper.iterate(copy, helperLimits, info -> {}, firstDepth, null)));
+    }
+
+    final SearchInfo result;
+
+    try {
+      result =
+          main.iterate(
+              position, limits, info -> listener.accept(withAllNodes(info)), 1, timeManager);
+    } finally {
+      for (var helper : helpers) {
+        helper.stop();
+      }
+
+      for (var task : tasks) {
+        await(task);
+      }
+    }
+
+    return withAllNodes(result);
+  }
+
+  private void reset() {
+    main.reset();
+
+    for (var helper : helpers) {
+      helper.reset();
+    }
+  }
+
+  private SearchInfo withAllNodes(final SearchInfo info) {
+    return new SearchInfo(info.depth(), info.score(), getNodes(), info.nanos(), info.pv());
+  }
+
+  private static void await(final Future<?> task) {
+    try {
+      task.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException("A helper search failed", e.getCause());
+    }
+  }
+}
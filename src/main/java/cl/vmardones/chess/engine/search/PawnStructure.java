@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Attacks;
+import cl.vmardones.chess.engine.board.Bitboard;
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * The pawn structure terms of the evaluation: passed, doubled, isolated and backward pawns, and the
+ * shelter pawns give to their king. They only depend on where the pawns are, so a {@link
+ * PawnTable} can cache them by the pawn key of the position. Shelter depends on the column of the
+ * king too, so it's calculated for every column the king could stand on.
+ *
+ * <p>Scores are packed in an int, with the middlegame score in the upper half and the endgame score
+ * in the lower half, so both are added at once.
+ */
+public final class PawnStructure {
+
+  private static final int DOUBLED = pack(-10, -25);
+  private static final int ISOLATED = pack(-5, -15);
+  private static final int BACKWARD = pack(-9, -20);
+
+  /* Indexed by the row of the pawn, counted from its back rank */
+  private static final int[] PASSED = {
+    0, pack(5, 10), pack(10, 15), pack(15, 25), pack(25, 45), pack(45, 75), pack(70, 120), 0
+  };
+
+  /* Indexed by the row of the nearest pawn to the back rank, or 0 if the column has no pawns */
+  private static final int[] SHELTER = {-36, 0, -11, -24, -30, -33, -36, -36};
+
+  private static final long[] COLUMNS = new long[Board.SIDE_LENGTH];
+  private static final long[] ADJACENT_COLUMNS = new long[Board.SIDE_LENGTH];
+  private static final long[][] FORWARD = new long[2][Board.MAX_TILES];
+  private static final long[][] PASSED_SPANS = new long[2][Board.MAX_TILES];
+  private static final long[][] SUPPORTERS = new long[2][Board.MAX_TILES];
+
+  static {
+    for (var index = 0; index < Board.MAX_TILES; index++) {
+      COLUMNS[index % Board.SIDE_LENGTH] |= Bitboard.of(index);
+    }
+
+    for (var column = 0; column < Board.SIDE_LENGTH; column++) {
+      ADJACENT_COLUMNS[column] =
+          (column > 0 ? COLUMNS[column - 1] : 0)
+              | (column < Board.SIDE_LENGTH - 1 ? COLUMNS[column + 1] : 0);
+    }
+
+    for (var alliance : Alliance.values()) {
+      for (var index = 0; index < Board.MAX_TILES; index++) {
+        /* White pawns move towards lower rows, black pawns towards higher ones */
+        final var row = index / Board.SIDE_LENGTH;
+        final var ahead =
+            alliance == Alliance.WHITE
+                ? (1L << row * Board.SIDE_LENGTH) - 1
+                : row == Board.SIDE_LENGTH - 1 ? 0 : -1L << (row + 1) * Board.SIDE_LENGTH;
+        final var column = index % Board.SIDE_LENGTH;
+        final var side = alliance.ordinal();
+
+        FORWARD[side][index] = COLUMNS[column] & ahead;
+        PASSED_SPANS[side][index] = (COLUMNS[column] | ADJACENT_COLUMNS[column]) & ahead;
+        SUPPORTERS[side][index] = ADJACENT_COLUMNS[column] & ~ahead;
+      }
+    }
+  }
+
+  @Generated
+  private PawnStructure() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /* Packing and unpacking */
+
+  public static int pack(final int middlegame, final int endgame) {
+    return (middlegame << Short.SIZE) + endgame;
+  }
+
+  /* The endgame half is signed, so it borrows from the middlegame half when negative */
+  public static int middlegame(final int score) {
+    return (score + (1 << (Short.SIZE - 1))) >> Short.SIZE;
+  }
+
+  public static int endgame(final int score) {
+    return (short) score;
+  }
+
+  /* Evaluation terms */
+
+  /**
+   * Evaluates the pawn structure of a position from scratch, without any cache.
+   *
+   * @param position The position
+   * @return The packed score, positive if white is better
+   */
+  public static int evaluate(@NotNull final Position position) {
+    final var white = position.getBitboard(Alliance.WHITE, Piece.PieceType.PAWN);
+    final var black = position.getBitboard(Alliance.BLACK, Piece.PieceType.PAWN);
+
+    return structure(Alliance.WHITE, white, black)
+        - structure(Alliance.BLACK, black, white)
+        + shelter(Alliance.WHITE, white, kingColumn(position, Alliance.WHITE))
+        - shelter(Alliance.BLACK, black, kingColumn(position, Alliance.BLACK));
+  }
+
+  /**
+   * Evaluates the passed, doubled, isolated and backward pawns of one side.
+   *
+   * @param alliance The side to evaluate
+   * @param own The pawns of the side
+   * @param enemy The pawns of the other side
+   * @return The packed score, positive if the pawns are good for the side
+   */
+  public static int structure(@NotNull final Alliance alliance, final long own, final long enemy) {
+    final var side = alliance.ordinal();
+    var score = 0;
+
+    for (var pawns = own; pawns != 0; pawns = Bitboard.withoutFirst(pawns)) {
+      final var index = Bitboard.first(pawns);
+      final var doubled = (FORWARD[side][index] & own) != 0;
+
+      if (doubled) {
+        score += DOUBLED;
+      } else if ((PASSED_SPANS[side][index] & enemy) == 0) {
+        /* Only the front pawn of a column can be passed */
+        score += PASSED[row(alliance, index)];
+      }
+
+      if ((ADJACENT_COLUMNS[index % Board.SIDE_LENGTH] & own) == 0) {
+        score += ISOLATED;
+      } else if (isBackward(alliance, index, own, enemy)) {
+        score += BACKWARD;
+      }
+    }
+
+    return score;
+  }
+
+  /**
+   * Evaluates the shelter the pawns of one side give to their king: the column of the king and the
+   * columns next to it should have pawns close to the back rank.
+   *
+   * @param alliance The side to evaluate
+   * @param own The pawns of the side
+   * @param kingColumn The column of the king, from 0 (a) to 7 (h)
+   * @return The packed score, which only has a middlegame part
+   */
+  public static int shelter(
+      @NotNull final Alliance alliance, final long own, final int kingColumn) {
+    var score = 0;
+
+    for (var column = Math.max(kingColumn - 1, 0);
+        column <= Math.min(kingColumn + 1, Board.SIDE_LENGTH - 1);
+        column++) {
+      final var pawns = own & COLUMNS[column];
+
+      if (pawns == 0) {
+        score += SHELTER[0];
+      } else {
+        /* The nearest pawn to the white back rank has the highest index */
+        final var nearest =
+            alliance == Alliance.WHITE
+                ? Long.SIZE - 1 - Long.numberOfLeadingZeros(pawns)
+                : Bitboard.first(pawns);
+        score += SHELTER[row(alliance, nearest)];
+      }
+    }
+
+    return pack(score, 0);
+  }
+
+  /**
+   * Obtains the column of the king of one side.
+   *
+   * @param position The position
+   * @param alliance The side of the king
+   * @return The column of the king, from 0 (a) to 7 (h)
+   */
+  public static int kingColumn(@NotNull final Position position, @NotNull final Alliance alliance) {
+    return Bitboard.first(position.getBitboard(alliance, Piece.PieceType.KING)) % Board.SIDE_LENGTH;
+  }
+
+  /* A pawn that can't be supported by a neighbour, and can't advance without being captured */
+  private static boolean isBackward(
+      final Alliance alliance, final int index, final long own, final long enemy) {
+    if ((SUPPORTERS[alliance.ordinal()][index] & own) != 0) {
+      return false;
+    }
+
+    final var stop = index - Board.SIDE_LENGTH * alliance.getDirection();
+
+    return stop >= 0 && stop < Board.MAX_TILES && (Attacks.pawn(alliance, stop) & enemy) != 0;
+  }
+
+  private static int row(final Alliance alliance, final int index) {
+    final var row = index / Board.SIDE_LENGTH;
+
+    return alliance == Alliance.WHITE ? Board.SIDE_LENGTH - 1 - row : row;
+  }
+}
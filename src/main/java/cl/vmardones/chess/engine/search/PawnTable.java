@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of {@link PawnStructure} scores, indexed by the pawn key of a position. The
+ * pawn structure changes on few moves, so most nodes of a search find their scores already
+ * calculated.
+ *
+ * <p>Every entry keeps the scores of each side apart: the structure score, and the shelter score
+ * for every column the king could stand on, so moving the king doesn't miss the cache. A new pawn
+ * structure always replaces the old one in its entry.
+ *
+ * <p>The table counts its probes and hits, to choose a size that fits the workload. Unlike the
+ * {@link TranspositionTable}, it must be used by one thread at a time.
+ */
+public final class PawnTable {
+
+  private static final long BYTES_PER_MB = 1L << 20;
+
+  /* A filled flag, then the structure score and shelter scores of each side */
+  private static final int SIDE_INTS = 1 + Board.SIDE_LENGTH;
+  private static final int ENTRY_INTS = 1 + SIDE_INTS * Alliance.values().length;
+  private static final int ENTRY_BYTES = Long.BYTES + ENTRY_INTS * Integer.BYTES;
+
+  private final long[] keys;
+  private final int[] scores;
+  private final int mask;
+
+  private long probes;
+  private long hits;
+
+  /**
+   * Creates a table.
+   *
+   * @param megabytes The size of the table, rounded down so it has a power of two entries
+   */
+  public PawnTable(final int megabytes) {
+    final var entries =
+        (int) Math.max(Long.highestOneBit(Math.max(megabytes, 1) * BYTES_PER_MB / ENTRY_BYTES), 1);
+
+    keys = new long[entries];
+    scores = new int[entries * ENTRY_INTS];
+    mask = entries - 1;
+  }
+
+  /**
+   * Evaluates the pawn structure of a position, calculating it only if it isn't cached.
+   *
+   * @param position The position
+   * @return The packed score, the same as {@link PawnStructure#evaluate(Position)}
+   */
+  public int evaluate(@NotNull final Position position) {
+    final var key = position.getPawnKey();
+    final var slot = (int) key & mask;
+    final var base = slot * ENTRY_INTS;
+
+    probes++;
+
+    /* The flag tells a filled entry from an empty one, since a position without pawns has key 0 */
+    if (keys[slot] == key && scores[base] != 0) {
+      hits++;
+    } else {
+      fill(position, key, slot, base);
+    }
+
+    final var white = base + 1;
+    final var black = white + SIDE_INTS;
+
+    return scores[white]
+        - scores[black]
+        + scores[white + 1 + PawnStructure.kingColumn(position, Alliance.WHITE)]
+        - scores[black + 1 + PawnStructure.kingColumn(position, Alliance.BLACK)];
+  }
+
+  /** Empties the table and resets its statistics. */
+  public void clear() {
+    Arrays.fill(keys, 0);
+    Arrays.fill(scores, 0);
+    probes = 0;
+    hits = 0;
+  }
+
+  /**
+   * Obtains the amount of entries of the table.
+   *
+   * @return The amount of entries, a power of two
+   */
+  public int getSize() {
+    return keys.length;
+  }
+
+  /**
+   * Obtains the amount of positions evaluated with this table, since it was created or cleared.
+   *
+   * @return The amount of probes
+   */
+  public long getProbes() {
+    return probes;
+  }
+
+  /**
+   * Obtains the amount of positions whose pawn structure was already cached.
+   *
+   * @return The amount of hits
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Obtains the share of probes that found their pawn structure cached.
+   *
+   * @return The hit rate, from 0 to 1, or 0 if there were no probes
+   */
+  public double getHitRate() {
+    return probes == 0 ? 0 : (double) hits / probes;
+  }
+
+  private void fill(final Position position, final long key, final int slot, final int base) {
+    keys[slot] = key;
+    scores[base] = 1;
+
+    final var white = position.getBitboard(Alliance.WHITE, Piece.PieceType.PAWN);
+    final var black = position.getBitboard(Alliance.BLACK, Piece.PieceType.PAWN);
+
+    fillSide(base + 1, Alliance.WHITE, white, black);
+    fillSide(base + 1 + SIDE_INTS, Alliance.BLACK, black, white);
+  }
+
+  private void fillSide(
+      final int start, final Alliance alliance, final long own, final long enemy) {
+    scores[start] = PawnStructure.structure(alliance, own, enemy);
+
+    for (var column = 0; column < Board.SIDE_LENGTH; column++) {
+      scores[start + 1 + column] = PawnStructure.shelter(alliance, own, column);
+    }
+  }
+}
@@ -0,0 +1,756 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.piece.Piece;
+import jakarta.validation.constraints.NotNull;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A negamax alpha-beta search, with iterative deepening and principal variation search (PVS).
+ *
+ * <p>Each depth is searched completely before starting the next one, and the best move of a depth
+ * is searched first on the next one. The first move of every node is searched with the full
+ * window, and the rest with a null window that only proves they aren't better; the few that are
+ * get searched again with the full window. When the depth runs out, a quiescence search keeps
+ * searching captures that don't lose material, so positions aren't evaluated in the middle of an
+ * exchange.
+ *
+ * <p>The search is selective: null-move pruning, late move reductions, futility pruning and
+ * aspiration windows spend less effort on moves that are unlikely to matter. Each technique can be
+ * switched off with {@link SearchFeatures}, to measure what it gains.
+ *
+ * <p>Results are cached in a {@link TranspositionTable}, which can be shared with other searches.
+ * Cached results cut off nodes that were already searched deep enough, and their best moves are
+ * searched first otherwise. The other moves are ordered by a {@link MovePicker}: captures first,
+ * then quiet moves by what the {@link MoveHistory} learned from earlier cutoffs. Every search has
+ * its own {@link PawnTable}, so evaluating doesn't contend with other threads.
+ *
+ * <p>The search runs on a mutable {@link Position}, making and unmaking moves in place. Limits are
+ * checked cooperatively while visiting nodes, so a search never takes much longer than its deadline
+ * or node budget. A search can also be stopped from another thread with {@link #stop()}. An
+ * instance must be used by one thread at a time, but it can be reused for many searches.
+ */
+public final class Search {
+
+  /** The deepest ply the search can reach. */
+  public static final int MAX_DEPTH = 127;
+
+  /** The score of mating on the current ply. Mating on later plies gives lower scores. */
+  public static final int MATE = 32_000;
+
+  /** Scores at least this high (or low) are mates. */
+  public static final int MATE_BOUND = MATE - MAX_DEPTH - 1;
+
+  public static final int DRAW = 0;
+
+  /** The default size of the pawn table of every search, in MB. */
+  public static final int DEFAULT_PAWN_HASH_SIZE = 1;
+
+  private static final int INFINITY = MATE + 1;
+
+  /* The clock and stop requests are checked every 1024 nodes, the node budget on every node */
+  private static final int CHECK_MASK = 1023;
+
+  private static final int FIFTY_MOVE_PLIES = 100;
+
+  private static final int DEFAULT_HASH_SIZE = 16;
+
+  private static final int NULL_MOVE_MIN_DEPTH = 3;
+  private static final int NULL_MOVE_REDUCTION = 3;
+
+  /* Late moves are reduced by ln(depth) * ln(move number) / LMR_DIVISOR plies */
+  private static final int LMR_MIN_DEPTH = 3;
+  private static final int LMR_MIN_MOVES = 3;
+  private static final double LMR_DIVISOR = 2.25;
+  private static final int[][] REDUCTIONS = createReductions();
+
+  private static final int REVERSE_FUTILITY_MAX_DEPTH = 6;
+  private static final int REVERSE_FUTILITY_MARGIN = 80;
+  private static final int FUTILITY_MAX_DEPTH = 3;
+  private static final int FUTILITY_MARGIN = 110;
+
+  private static final int ASPIRATION_MIN_DEPTH = 4;
+  private static final int ASPIRATION_WINDOW = 25;
+
+  private final MoveList rootMoves = new MoveList();
+  private final MovePicker[] pickers = new MovePicker[MAX_DEPTH + 1];
+  private final MoveList[] quietsSearched = MoveList.perPly(MAX_DEPTH + 1);
+  private final MoveHistory history = new MoveHistory();
+  private final int[][] pv = new int[MAX_DEPTH + 1][MAX_DEPTH + 1];
+  private final int[] pvLength = new int[MAX_DEPTH + 1];
+
+  private final TranspositionTable table;
+  private final PawnTable pawnTable;
+
+  private volatile boolean stopRequested;
+
+  /* Set by prepare(), so the next search keeps the stop requests made since then */
+  private volatile boolean prepared;
+
+  private SearchFeatures features = SearchFeatures.all();
+
+  private Position position;
+  private SearchLimits limits;
+  private long nodes;
+  private boolean aborted;
+
+  /** Creates a search with its own transposition table, of {@value #DEFAULT_HASH_SIZE} MB. */
+  public Search() {
+    this(new TranspositionTable(DEFAULT_HASH_SIZE));
+  }
+
+  /**
+   * Creates a search that caches its results in a table.
+   *
+   * @param table The transposition table, which can be shared with other searches
+   */
+  public Search(@NotNull final TranspositionTable table) {
+    this(table, DEFAULT_PAWN_HASH_SIZE);
+  }
+
+  /**
+   * Creates a search that caches its results in a table, with its own pawn table.
+   *
+   * @param table The transposition table, which can be shared with other searches
+   * @param pawnHashSize The size of the pawn table, in MB
+   */
+  public Search(@NotNull final TranspositionTable table, final int pawnHashSize) {
+    this.table = table;
+    pawnTable = new PawnTable(pawnHashSize);
+
+    for (var i = 0; i < pickers.length; i++) {
+      pickers[i] = new MovePicker();
+    }
+  }
+
+  /**
+   * Searches a position, increasing the depth until a limit is reached.
+   *
+   * @param position The position to search, which is restored before returning
+   * @param limits When to stop searching
+   * @param listener Receives the result of every completed depth
+   * @return The result of the deepest completed depth. If not even the first depth was completed,
+   *     the first legal move is returned with depth 0
+   */
+  public SearchInfo search(
+      @NotNull final Position position,
+      @NotNull final SearchLimits limits,
+      @NotNull final Consumer<SearchInfo> listener) {
+    start();
+
+    return iterate(position, limits, listener, 1, null);
+  }
+
+  /**
+   * Searches a position with the time given by a game clock, increasing the depth until the time
+   * manager decides it's enough or another limit is reached.
+   *
+   * @param position The position to search, which is restored before returning
+   * @param limits Other limits of the search
+   * @param timeManager Decides when to stop searching
+   * @param listener Receives the result of every completed depth
+   * @return The result of the deepest completed depth
+   */
+  public SearchInfo search(
+      @NotNull final Position position,
+      @NotNull final SearchLimits limits,
+      @NotNull final TimeManager timeManager,
+      @NotNull final Consumer<SearchInfo> listener) {
+    start();
+
+    return iterate(position, timeManager.start(limits), listener, 1, timeManager);
+  }
+
+  /**
+   * Searches a position like {@link #search(Position, SearchLimits, Consumer)}, but without
+   * resetting stop requests or aging the table, which the caller does once for every thread.
+   *
+   * @param position The position to search, which is restored before returning
+   * @param limits When to stop searching
+   * @param listener Receives the result of every completed depth
+   * @param firstDepth The depth of the first iteration
+   * @param timeManager Decides after every depth whether to start another one, or null
+   * @return The result of the deepest completed depth
+   */
+  SearchInfo iterate(
+      final Position position,
+      final SearchLimits limits,
+      final Consumer<SearchInfo> listener,
+      final int firstDepth,
+      final TimeManager timeManager) {
+    final var start = System.nanoTime();
+
+    this.position = position;
+    this.limits = limits;
+    nodes = 0;
+    aborted = false;
+    history.newSearch();
+
+    MoveGenerator.generateLegals(position, rootMoves);
+
+    if (rootMoves.isEmpty()) {
+      final var score = MoveGenerator.isInCheck(position) ? -MATE : DRAW;
+      return new SearchInfo(0, score, 0, System.nanoTime() - start, new int[0]);
+    }
+
+    var result =
+        new SearchInfo(
+            0,
+            Evaluation.evaluate(position, pawnTable),
+            0,
+            System.nanoTime() - start,
+            new int[] {rootMoves.get(0)});
+
+    for (var depth = firstDepth; depth <= limits.depth(); depth++) {
+      final var score = searchRoot(depth, result.score());
+
+      if (aborted) {
+        break;
+      }
+
+      result =
+          new SearchInfo(
+              depth, score, nodes, System.nanoTime() - start, Arrays.copyOf(pv[0], pvLength[0]));
+      listener.accept(result);
+
+      moveToFront(rootMoves, result.bestMove());
+
+      /* Deeper searches can't find a faster mate */
+      if (result.isMate() && MATE - Math.abs(score) <= depth) {
+        break;
+      }
+
+      if (timeManager != null && timeManager.shouldStop(result)) {
+        break;
+      }
+    }
+
+    return result;
+  }
+
+  /*
+   * Searches the root with a narrow window around the score of the previous depth, which cuts off
+   * more nodes. A score outside the window is only a bound, so the window is widened on that side
+   * and the depth searched again.
+   */
+  private int searchRoot(final int depth, final int previousScore) {
+    if (!features.aspirationWindows()
+        || depth < ASPIRATION_MIN_DEPTH
+        || Math.abs(previousScore) >= MATE_BOUND) {
+      return negamax(depth, 0, -INFINITY, INFINITY);
+    }
+
+    var delta = ASPIRATION_WINDOW;
+    var alpha = Math.max(previousScore - delta, -INFINITY);
+    var beta = Math.min(previousScore + delta, INFINITY);
+
+    while (true) {
+      final var score = negamax(depth, 0, alpha, beta);
+
+      if (aborted) {
+        return score;
+      }
+
+      if (score <= alpha) {
+        alpha = Math.max(score - delta, -INFINITY);
+      } else if (score >= beta) {
+        beta = Math.min(score + delta, INFINITY);
+      } else {
+        return score;
+      }
+
+      delta *= 2;
+    }
+  }
+
+  /**
+   * Searches a position until a limit is reached, without reporting progress.
+   *
+   * @param position The position to search, which is restored before returning
+   * @param limits When to stop searching
+   * @return The result of the deepest completed depth
+   */
+  public SearchInfo search(@NotNull final Position position, @NotNull final SearchLimits limits) {
+    return search(position, limits, info -> {});
+  }
+
+  /**
+   * Finds the best move of the move maker of a board.
+   *
+   * @param board The board to search
+   * @param limits When to stop searching
+   * @return The best move, or null if the move maker has no legal moves
+   */
+  public Move findBestMove(@NotNull final Board board, @NotNull final SearchLimits limits) {
+    final var bestMove = search(Position.of(board), limits).bestMove();
+
+    return bestMove == PackedMove.NONE ? null : PackedMove.toMove(bestMove, board);
+  }
+
+  /**
+   * Finds the best move of the move maker of a board, with the time given by a game clock.
+   *
+   * @param board The board to search
+   * @param timeManager Decides when to stop searching
+   * @return The best move, or null if the move maker has no legal moves
+   */
+  public Move findBestMove(@NotNull final Board board, @NotNull final TimeManager timeManager) {
+    final var bestMove =
+        search(Position.of(board), SearchLimits.infinite(), timeManager, info -> {}).bestMove();
+
+    return bestMove == PackedMove.NONE ? null : PackedMove.toMove(bestMove, board);
+  }
+
+  /** Asks the current search to stop as soon as possible. It can be called from any thread. */
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /**
+   * Clears the stop requests and the nodes of the last search, before handing the next search to
+   * another thread. A {@link #stop()} made after this call is kept, even if the other thread hasn't
+   * started searching yet.
+   */
+  public void prepare() {
+    reset();
+    prepared = true;
+  }
+
+  /*
+   * Clears the stop requests, and the nodes of the last search so they aren't counted again before
+   * the new one starts. It must run before the search is handed to another thread, otherwise it can
+   * clear a stop() made in between
+   */
+  void reset() {
+    stopRequested = false;
+    nodes = 0;
+  }
+
+  private void start() {
+    if (!prepared) {
+      stopRequested = false;
+    }
+
+    prepared = false;
+    table.newSearch();
+  }
+
+  /**
+   * Obtains the amount of nodes visited by the current or last search.
+   *
+   * @return The amount of nodes
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Scores a position by searching its captures until no capture is worth making, without any depth
+   * or time limit.
+   *
+   * @param position The position to search, which is restored before returning
+   * @return The score, positive if the move maker is better
+   */
+  public int quiesce(@NotNull final Position position) {
+    this.position = position;
+    limits = SearchLimits.infinite();
+    nodes = 0;
+    aborted = false;
+
+    return quiescence(0, -INFINITY, INFINITY);
+  }
+
+  public TranspositionTable getTable() {
+    return table;
+  }
+
+  public PawnTable getPawnTable() {
+    return pawnTable;
+  }
+
+  public SearchFeatures getFeatures() {
+    return features;
+  }
+
+  /**
+   * Chooses the selective search techniques of the next searches.
+   *
+   * @param features The techniques to use
+   */
+  public void setFeatures(@NotNull final SearchFeatures features) {
+    this.features = features;
+  }
+
+  private int negamax(final int depth, final int ply, final int alpha, final int beta) {
+    if (depth <= 0) {
+      return quiescence(ply, alpha, beta);
+    }
+
+    pvLength[ply] = ply;
+
+    if (!aborted && (++nodes >= limits.nodes() || (nodes & CHECK_MASK) == 0 && isOutOfTime())) {
+      aborted = true;
+    }
+
+    if (aborted) {
+      return DRAW;
+    }
+
+    if (ply > 0 && isDraw()) {
+      return DRAW;
+    }
+
+    if (ply >= MAX_DEPTH) {
+      return Evaluation.evaluate(position, pawnTable);
+    }
+
+    final var key = position.getZobristKey();
+    final var entry = table.probe(key);
+
+    /* Cutoffs aren't taken on the principal variation, to keep it whole */
+    if (entry != TranspositionTable.NONE
+        && beta - alpha == 1
+        && TranspositionTable.depth(entry) >= depth) {
+      final var score = fromTable(TranspositionTable.score(entry), ply);
+      final var bound = TranspositionTable.bound(entry);
+
+      if (bound == TranspositionTable.EXACT
+          || bound == TranspositionTable.LOWER_BOUND && score >= beta
+          || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+        return score;
+      }
+    }
+
+    final var inCheck = MoveGenerator.isInCheck(position);
+    final var pvNode = beta - alpha > 1;
+    final var staticEval = pvNode || inCheck ? -INFINITY : Evaluation.evaluate(position, pawnTable);
+
+    if (!pvNode && !inCheck && ply > 0 && Math.abs(beta) < MATE_BOUND) {
+      /* The evaluation is so far above beta that losing some of it wouldn't matter */
+      if (features.futility()
+          && depth <= REVERSE_FUTILITY_MAX_DEPTH
+          && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+        return staticEval;
+      }
+
+      if (features.nullMove()
+          && depth >= NULL_MOVE_MIN_DEPTH
+          && staticEval >= beta
+          && position.getLastMove() != PackedMove.NONE
+          && hasPieces(position)) {
+        final var score = searchNullMove(depth, ply, beta);
+
+        if (aborted) {
+          return DRAW;
+        }
+
+        if (score >= beta) {
+          /* Mates found after passing aren't proven */
+          return score >= MATE_BOUND ? beta : score;
+        }
+      }
+    }
+
+    final var picker = pickers[ply];
+
+    if (ply == 0) {
+      picker.init(rootMoves);
+    } else {
+      picker.init(position, ply, TranspositionTable.move(entry), history);
+    }
+
+    if (picker.size() == 0) {
+      return inCheck ? -MATE + ply : DRAW;
+    }
+
+    final var canPruneQuiets =
+        features.futility()
+            && !pvNode
+            && !inCheck
+            && depth <= FUTILITY_MAX_DEPTH
+            && alpha > -MATE_BOUND
+            && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+    final var quiets = quietsSearched[ply];
+    quiets.clear();
+
+    var lowerBound = alpha;
+    var bestScore = -INFINITY;
+    var bestMove = PackedMove.NONE;
+    var searched = 0;
+
+    for (var move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+      final var quiet = MovePicker.isQuiet(move);
+
+      position.makeMove(move);
+
+      final var givesCheck = MoveGenerator.isInCheck(position);
+
+      /* Near the leaves, a quiet move can't make up for an evaluation far below alpha */
+      if (canPruneQuiets && searched > 0 && quiet && !givesCheck) {
+        position.unmakeMove();
+        bestScore = Math.max(bestScore, staticEval + FUTILITY_MARGIN * depth);
+        continue;
+      }
+
+      var score = 0;
+
+      if (searched++ == 0) {
+        score = -negamax(depth - 1, ply + 1, -beta, -lowerBound);
+      } else {
+        final var reduction =
+            features.lateMoveReductions() && quiet && !inCheck && !givesCheck
+                ? reduction(depth, searched, pvNode)
+                : 0;
+
+        score = -negamax(depth - 1 - reduction, ply + 1, -lowerBound - 1, -lowerBound);
+
+        /* A reduced move that beats alpha is searched again with the full depth */
+        if (reduction > 0 && score > lowerBound) {
+          score = -negamax(depth - 1, ply + 1, -lowerBound - 1, -lowerBound);
+        }
+
+        if (score > lowerBound && score < beta) {
+          score = -negamax(depth - 1, ply + 1, -beta, -lowerBound);
+        }
+      }
+
+      position.unmakeMove();
+
+      if (aborted) {
+        return DRAW;
+      }
+
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = move;
+
+        if (score > lowerBound) {
+          lowerBound = score;
+          updatePv(ply, move);
+
+          if (score >= beta) {
+            if (quiet) {
+              history.update(position, ply, move, quiets, depth);
+            }
+
+            break;
+          }
+        }
+      }
+
+      if (quiet) {
+        quiets.add(move);
+      }
+    }
+
+    final int bound;
+
+    if (bestScore >= beta) {
+      bound = TranspositionTable.LOWER_BOUND;
+    } else if (bestScore > alpha) {
+      bound = TranspositionTable.EXACT;
+    } else {
+      bound = TranspositionTable.UPPER_BOUND;
+      bestMove = PackedMove.NONE;
+    }
+
+    table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+
+    return bestScore;
+  }
+
+  /*
+   * Searches captures until the position is quiet, so it isn't evaluated in the middle of an
+   * exchange. The side to move can also stand pat, keeping the static evaluation, unless it's in
+   * check and every evasion must be searched.
+   */
+  private int quiescence(final int ply, final int alpha, final int beta) {
+    pvLength[ply] = ply;
+
+    if (!aborted && (++nodes >= limits.nodes() || (nodes & CHECK_MASK) == 0 && isOutOfTime())) {
+      aborted = true;
+    }
+
+    if (aborted || ply > 0 && isDraw()) {
+      return DRAW;
+    }
+
+    if (ply >= MAX_DEPTH) {
+      return Evaluation.evaluate(position, pawnTable);
+    }
+
+    final var inCheck = MoveGenerator.isInCheck(position);
+    final var picker = pickers[ply];
+
+    var lowerBound = alpha;
+    var bestScore = -INFINITY;
+
+    if (inCheck) {
+      picker.init(position, ply, PackedMove.NONE, history);
+
+      if (picker.size() == 0) {
+        return -MATE + ply;
+      }
+    } else {
+      bestScore = Evaluation.evaluate(position, pawnTable);
+
+      if (bestScore >= beta) {
+        return bestScore;
+      }
+
+      lowerBound = Math.max(lowerBound, bestScore);
+      picker.initNoisy(position, ply, history);
+    }
+
+    for (var move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+      /* Captures that lose material by SEE come last, and aren't worth searching */
+      if (!inCheck && picker.isLosing()) {
+        break;
+      }
+
+      position.makeMove(move);
+      final var score = -quiescence(ply + 1, -beta, -lowerBound);
+      position.unmakeMove();
+
+      if (aborted) {
+        return DRAW;
+      }
+
+      if (score > bestScore) {
+        bestScore = score;
+
+        if (score > lowerBound) {
+          lowerBound = score;
+          updatePv(ply, move);
+
+          if (score >= beta) {
+            break;
+          }
+        }
+      }
+    }
+
+    return bestScore;
+  }
+
+  /* Mate scores are stored relative to the node, since the same node can be found on other plies */
+  private static int toTable(final int score, final int ply) {
+    if (score >= MATE_BOUND) {
+      return score + ply;
+    }
+
+    return score <= -MATE_BOUND ? score - ply : score;
+  }
+
+  private static int fromTable(final int score, final int ply) {
+    if (score >= MATE_BOUND) {
+      return score - ply;
+    }
+
+    return score <= -MATE_BOUND ? score + ply : score;
+  }
+
+  /*
+   * Passes the turn and searches with less depth. If the opponent still can't get below beta after
+   * a free move, a real move would most likely fail high too.
+   */
+  private int searchNullMove(final int depth, final int ply, final int beta) {
+    final var reduction = NULL_MOVE_REDUCTION + depth / 4;
+
+    position.makeNullMove();
+    final var score = -negamax(depth - 1 - reduction, ply + 1, -beta, -beta + 1);
+    position.unmakeMove();
+
+    return score;
+  }
+
+  /* In pawn endings, passing is often better than any move (zugzwang), so null moves would lie */
+  private static boolean hasPieces(final Position position) {
+    final var alliance = position.getMoveMaker();
+    final var pawnsAndKing =
+        position.getBitboard(alliance, Piece.PieceType.PAWN)
+            | position.getBitboard(alliance, Piece.PieceType.KING);
+
+    return (position.getOccupancy(alliance) & ~pawnsAndKing) != 0;
+  }
+
+  private static int reduction(final int depth, final int moveNumber, final boolean pvNode) {
+    if (depth < LMR_MIN_DEPTH || moveNumber <= LMR_MIN_MOVES) {
+      return 0;
+    }
+
+    final var reduction =
+        REDUCTIONS[Math.min(depth, MAX_DEPTH)][Math.min(moveNumber, MoveList.DEFAULT_CAPACITY - 1)];
+
+    /* Never drop into the quiescence search directly, and reduce the principal variation less */
+    return Math.max(Math.min(reduction - (pvNode ? 1 : 0), depth - 2), 0);
+  }
+
+  private static int[][] createReductions() {
+    final var reductions = new int[MAX_DEPTH + 1][MoveList.DEFAULT_CAPACITY];
+
+    for (var depth = 1; depth <= MAX_DEPTH; depth++) {
+      for (var moveNumber = 1; moveNumber < MoveList.DEFAULT_CAPACITY; moveNumber++) {
+        reductions[depth][moveNumber] =
+            (int) (Math.log(depth) * Math.log(moveNumber) / LMR_DIVISOR);
+      }
+    }
+
+    return reductions;
+  }
+
+  private boolean isOutOfTime() {
+    return stopRequested || System.nanoTime() >= limits.deadline();
+  }
+
+  /* Repetitions are only checked since the last capture or pawn move, which can't be undone */
+  private boolean isDraw() {
+    final var halfmoveClock = position.getHalfmoveClock();
+
+    if (halfmoveClock >= FIFTY_MOVE_PLIES) {
+      return true;
+    }
+
+    final var key = position.getZobristKey();
+    final var ply = position.getPly();
+    final var plies = Math.min(halfmoveClock, ply);
+
+    for (var back = 4; back <= plies; back += 2) {
+      if (position.getZobristKey(ply - back) == key) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private void updatePv(final int ply, final int move) {
+    pv[ply][ply] = move;
+    System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+    pvLength[ply] = pvLength[ply + 1];
+  }
+
+  private static void moveToFront(final MoveList moves, final int move) {
+    for (var i = 0; i < moves.size(); i++) {
+      if (moves.get(i) == move) {
+        for (var j = i; j > 0; j--) {
+          moves.swap(j, j - 1);
+        }
+
+        return;
+      }
+    }
+  }
+}
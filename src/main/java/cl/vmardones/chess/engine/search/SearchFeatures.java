@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+/**
+ * Which selective search techniques are used. They all make the search reach deeper in the same
+ * time, at the risk of missing something, so each one can be switched off to compare the nodes and
+ * results of a search with and without it.
+ *
+ * @param nullMove Whether null-move pruning is used: when passing the turn still fails high, the
+ *     node is pruned. It's never tried when the move maker only has pawns, where passing would be
+ *     better than any move (zugzwang)
+ * @param lateMoveReductions Whether quiet moves ordered late are searched with less depth, unless
+ *     they prove to be better than expected
+ * @param futility Whether nodes whose evaluation is far above beta are pruned (reverse futility),
+ *     and quiet moves that can't bring the evaluation up to alpha are skipped near the leaves
+ * @param aspirationWindows Whether every depth is searched with a narrow window around the score
+ *     of the previous depth, widening it when the score falls outside
+ */
+public record SearchFeatures(
+    boolean nullMove, boolean lateMoveReductions, boolean futility, boolean aspirationWindows) {
+
+  /**
+   * Enables every technique, the default of every search.
+   *
+   * @return The features
+   */
+  public static SearchFeatures all() {
+    return new SearchFeatures(true, true, true, true);
+  }
+
+  /**
+   * Disables every technique, for a plain alpha-beta search.
+   *
+   * @return The features
+   */
+  public static SearchFeatures none() {
+    return new SearchFeatures(false, false, false, false);
+  }
+
+  public SearchFeatures withNullMove(final boolean enabled) {
+    return new SearchFeatures(enabled, lateMoveReductions, futility, aspirationWindows);
+  }
+
+  public SearchFeatures withLateMoveReductions(final boolean enabled) {
+    return new SearchFeatures(nullMove, enabled, futility, aspirationWindows);
+  }
+
+  public SearchFeatures withFutility(final boolean enabled) {
+    return new SearchFeatures(nullMove, lateMoveReductions, enabled, aspirationWindows);
+  }
+
+  public SearchFeatures withAspirationWindows(final boolean enabled) {
+    return new SearchFeatures(nullMove, lateMoveReductions, futility, enabled);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.move.PackedMove;
+import java.util.Arrays;
+
+/**
+ * The result of a completed search depth.
+ *
+ * @param depth The depth that was completed, in plies
+ * @param score The score of the position for the move maker, in centipawns, or a mate score
+ * @param nodes The nodes visited since the search started
+ * @param nanos The time since the search started, in nanoseconds
+ * @param pv The principal variation, the line both sides are expected to play, as packed moves
+ */
+public record SearchInfo(int depth, int score, long nodes, long nanos, int[] pv) {
+
+  private static final double NANOS_PER_SECOND = 1e9;
+  private static final long NANOS_PER_MILLI = 1_000_000;
+
+  /**
+   * Obtains the best move found, the first move of the principal variation.
+   *
+   * @return The packed move, or {@link PackedMove#NONE} if the move maker has no legal moves
+   */
+  public int bestMove() {
+    return pv.length == 0 ? PackedMove.NONE : pv[0];
+  }
+
+  public long nodesPerSecond() {
+    return (long) (nodes * NANOS_PER_SECOND / Math.max(nanos, 1));
+  }
+
+  public boolean isMate() {
+    return Math.abs(score) >= Search.MATE_BOUND;
+  }
+
+  /**
+   * Obtains the amount of moves (not plies) until mate.
+   *
+   * @return The moves until the move maker mates, or a negative amount if the move maker is mated
+   */
+  public int mateDistance() {
+    return score > 0 ? (Search.MATE - score + 1) / 2 : -(Search.MATE + score) / 2;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    return other instanceof SearchInfo info
+        && depth == info.depth
+        && score == info.score
+        && nodes == info.nodes
+        && nanos == info.nanos
+        && Arrays.equals(pv, info.pv);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(new long[] {depth, score, nodes, nanos}) + Arrays.hashCode(pv);
+  }
+
+  /**
+   * Describes this result the way the UCI protocol reports it, like "depth 6 score cp 35 nodes
+   * 12000 nps 600000 time 20 pv e2e4 e7e5".
+   *
+   * @return The description
+   */
+  @Override
+  public String toString() {
+    final var builder = new StringBuilder(64 + 5 * pv.length);
+
+    builder.append("depth ").append(depth);
+    builder.append(isMate() ? " score mate " + mateDistance() : " score cp " + score);
+    builder.append(" nodes ").append(nodes);
+    builder.append(" nps ").append(nodesPerSecond());
+    builder.append(" time ").append(nanos / NANOS_PER_MILLI);
+    builder.append(" pv");
+
+    for (var move : pv) {
+      builder.append(' ').append(PackedMove.toString(move));
+    }
+
+    return builder.toString();
+  }
+}
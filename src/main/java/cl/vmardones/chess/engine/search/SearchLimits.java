@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * When a search must stop. The search stops at the first limit it reaches, and reports the result
+ * of the last depth it completed.
+ *
+ * @param depth The maximum depth, in plies
+ * @param nodes The maximum amount of visited nodes
+ * @param deadline The {@link System#nanoTime()} value when the search must stop
+ */
+public record SearchLimits(int depth, long nodes, long deadline) {
+
+  private static final long UNLIMITED = Long.MAX_VALUE;
+
+  /**
+   * Creates limits that only stop the search at a depth.
+   *
+   * @param depth The maximum depth, in plies
+   * @return The limits
+   */
+  public static SearchLimits depth(final int depth) {
+    return new SearchLimits(Math.min(depth, Search.MAX_DEPTH), UNLIMITED, UNLIMITED);
+  }
+
+  /**
+   * Creates limits that only stop the search on request, or when it reaches the maximum depth.
+   *
+   * @return The limits
+   */
+  public static SearchLimits infinite() {
+    return depth(Search.MAX_DEPTH);
+  }
+
+  public SearchLimits withDepth(final int maxDepth) {
+    return new SearchLimits(Math.min(maxDepth, Search.MAX_DEPTH), nodes, deadline);
+  }
+
+  public SearchLimits withNodes(final long maxNodes) {
+    return new SearchLimits(depth, maxNodes, deadline);
+  }
+
+  public SearchLimits withDeadline(final long nanoTime) {
+    return new SearchLimits(depth, nodes, nanoTime);
+  }
+
+  /**
+   * Adds a deadline that is a fixed amount of time from now.
+   *
+   * @param time The time the search can take
+   * @return The new limits
+   */
+  public SearchLimits withTime(@NotNull final Duration time) {
+    return withDeadline(System.nanoTime() + time.toNanos());
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.board.Attacks;
+import cl.vmardones.chess.engine.board.Bitboard;
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import jakarta.validation.constraints.NotNull;
+import lombok.Generated;
+
+/**
+ * Static exchange evaluation (SEE): the material won or lost by a move, assuming both sides keep
+ * recapturing on its destination with their least valuable attacker, and stop when recapturing
+ * would lose material. Nothing is made on the position, the exchange is resolved with attack sets.
+ *
+ * <p>Removing an attacker from the board can uncover a slider behind it, like a rook behind a
+ * queen on the same file. Those x-ray attackers join the exchange as soon as they are uncovered.
+ */
+public final class StaticExchange {
+
+  /* Kings are worth more than everything else together, so capturing with them comes last */
+  private static final int KING_VALUE = 20_000;
+
+  /* Every capture of an exchange removes a piece, so it can't be longer than this */
+  static final int MAX_CAPTURES = 32;
+
+  private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+  @Generated
+  private StaticExchange() {
+    throw new UnsupportedOperationException("You cannot instantiate me!");
+  }
+
+  /**
+   * Evaluates the exchange started by a move.
+   *
+   * @param position The position before the move
+   * @param move The packed move, usually a capture
+   * @return The material won by the move maker, in centipawns, negative if the move loses material
+   */
+  public static int see(@NotNull final Position position, final int move) {
+    return see(position, move, new int[MAX_CAPTURES]);
+  }
+
+  /**
+   * Evaluates the exchange started by a move, reusing a buffer so searches don't allocate.
+   *
+   * @param position The position before the move
+   * @param move The packed move, usually a capture
+   * @param gains Where the gain of every capture is kept, with room for {@link #MAX_CAPTURES}
+   * @return The material won by the move maker, in centipawns, negative if the move loses material
+   */
+  static int see(final Position position, final int move, final int[] gains) {
+    if (PackedMove.isCastle(move)) {
+      return 0;
+    }
+
+    final var source = PackedMove.source(move);
+    final var destination = PackedMove.destination(move);
+
+    var occupied = position.getOccupancy() & ~Bitboard.of(source);
+    var onSquare = value(PackedMove.pieceType(move));
+
+    gains[0] = PackedMove.isCapture(move) ? value(PackedMove.capturedType(move)) : 0;
+
+    if (PackedMove.flags(move) == PackedMove.EN_PASSANT) {
+      occupied &= ~Bitboard.of(enPassantVictim(position, destination));
+    }
+
+    if (PackedMove.isPromotion(move)) {
+      final var promotionGain = value(PackedMove.promotion(move)) - value(Piece.PieceType.PAWN);
+      gains[0] += promotionGain;
+      onSquare += promotionGain;
+    }
+
+    var attackers =
+        (Attacks.attackers(position, destination, Alliance.WHITE, occupied)
+                | Attacks.attackers(position, destination, Alliance.BLACK, occupied))
+            & occupied;
+    var side = position.getMoveMaker().getOpposite();
+    var captures = 0;
+
+    while (captures + 1 < MAX_CAPTURES) {
+      final var sideAttackers = attackers & position.getOccupancy(side);
+
+      if (sideAttackers == Bitboard.EMPTY) {
+        break;
+      }
+
+      final var attacker = leastValuable(position, side, sideAttackers);
+      final var square = Bitboard.first(position.getBitboard(side, attacker) & sideAttackers);
+
+      /* A king can only recapture if nothing else defends the square */
+      if (attacker == Piece.PieceType.KING
+          && (attackers & position.getOccupancy(side.getOpposite())) != Bitboard.EMPTY) {
+        break;
+      }
+
+      captures++;
+      gains[captures] = onSquare - gains[captures - 1];
+      onSquare = value(attacker);
+
+      occupied &= ~Bitboard.of(square);
+      attackers = (attackers | xrays(position, destination, occupied)) & occupied;
+      side = side.getOpposite();
+    }
+
+    /* Each side can stop recapturing when it would lose material */
+    while (captures > 0) {
+      gains[captures - 1] = -Math.max(-gains[captures - 1], gains[captures]);
+      captures--;
+    }
+
+    return gains[0];
+  }
+
+  /**
+   * Obtains the value of a piece, as used by the exchange evaluation.
+   *
+   * @param pieceType The piece type
+   * @return The value, in centipawns
+   */
+  public static int value(@NotNull final Piece.PieceType pieceType) {
+    return pieceType == Piece.PieceType.KING ? KING_VALUE : Evaluation.pieceValue(pieceType);
+  }
+
+  private static Piece.PieceType leastValuable(
+      final Position position, final Alliance side, final long attackers) {
+    for (var pieceType : PIECE_TYPES) {
+      if ((position.getBitboard(side, pieceType) & attackers) != Bitboard.EMPTY) {
+        return pieceType;
+      }
+    }
+
+    throw new IllegalStateException("There are no attackers");
+  }
+
+  /* Sliders behind the pieces that already captured, which now see the square */
+  private static long xrays(final Position position, final int square, final long occupied) {
+    final var queens = bothSides(position, Piece.PieceType.QUEEN);
+    final var diagonals = bothSides(position, Piece.PieceType.BISHOP) | queens;
+    final var lines = bothSides(position, Piece.PieceType.ROOK) | queens;
+
+    return Attacks.bishop(square, occupied) & diagonals | Attacks.rook(square, occupied) & lines;
+  }
+
+  private static long bothSides(final Position position, final Piece.PieceType pieceType) {
+    return position.getBitboard(Alliance.WHITE, pieceType)
+        | position.getBitboard(Alliance.BLACK, pieceType);
+  }
+
+  private static int enPassantVictim(final Position position, final int destination) {
+    return position.getMoveMaker() == Alliance.WHITE
+        ? destination + Board.SIDE_LENGTH
+        : destination - Board.SIDE_LENGTH;
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Splits the time left on a game clock between the remaining moves. Every search gets two limits:
+ *
+ * <ul>
+ *   <li>The soft limit, after which no new depth is started. It's extended while the best move
+ *       keeps changing between depths, or when the score drops, since the search hasn't settled
+ *       yet.
+ *   <li>The hard limit, when the search is aborted even in the middle of a depth. It never uses
+ *       more than a part of the clock, so the engine can't lose on time.
+ * </ul>
+ *
+ * <p>The soft limit is only checked between depths. The hard limit becomes the deadline of the
+ * {@link SearchLimits}, which the search polls together with its stop flag every few thousand
+ * nodes, so the clock isn't read on every node.
+ *
+ * <p>A manager is created for every move, and must be used by one search at a time.
+ */
+public final class TimeManager {
+
+  /* Games without moves to go are assumed to last this many more moves */
+  private static final int DEFAULT_MOVES_TO_GO = 30;
+  private static final int MAX_MOVES_TO_GO = 50;
+
+  /* Kept aside on every move, for the time spent outside the search */
+  private static final long OVERHEAD = Duration.ofMillis(30).toNanos();
+
+  private static final int INCREMENT_PERCENT = 75;
+  private static final int HARD_LIMIT_RATIO = 4;
+  private static final int MAX_CLOCK_PERCENT = 75;
+
+  /* Every best move change adds this much to the soft limit, halving on every stable depth */
+  private static final double INSTABILITY_WEIGHT = 0.5;
+  private static final double MAX_EXTENSION = 2.5;
+  private static final int SCORE_DROP = 30;
+  private static final double SCORE_DROP_EXTENSION = 1.5;
+
+  private final long softLimit;
+  private final long hardLimit;
+
+  private long start;
+  private SearchInfo previous;
+  private double instability;
+  private double extension = 1;
+
+  /**
+   * Creates a manager for the next move.
+   *
+   * @param remaining The time left on the clock of the move maker
+   * @param increment The time added to the clock after every move
+   * @param movesToGo The moves to make before the clock gets more time, or 0 if it never does
+   */
+  public TimeManager(
+      @NotNull final Duration remaining, @NotNull final Duration increment, final int movesToGo) {
+    final var available = Math.max(remaining.toNanos() - OVERHEAD, 0);
+    final var moves = movesToGo > 0 ? Math.min(movesToGo, MAX_MOVES_TO_GO) : DEFAULT_MOVES_TO_GO;
+    final var share = available / moves + increment.toNanos() * INCREMENT_PERCENT / 100;
+
+    hardLimit = Math.min(share * HARD_LIMIT_RATIO, available * MAX_CLOCK_PERCENT / 100);
+    softLimit = Math.min(share, hardLimit);
+  }
+
+  /**
+   * Obtains the time after which no new depth is started, before any extension.
+   *
+   * @return The soft limit
+   */
+  public Duration getSoftLimit() {
+    return Duration.ofNanos(softLimit);
+  }
+
+  /**
+   * Obtains the time after which the search is aborted.
+   *
+   * @return The hard limit
+   */
+  public Duration getHardLimit() {
+    return Duration.ofNanos(hardLimit);
+  }
+
+  /**
+   * Starts the clock of a search.
+   *
+   * @param limits Other limits of the search
+   * @return The same limits, also stopping the search at the hard limit
+   */
+  public SearchLimits start(@NotNull final SearchLimits limits) {
+    start = System.nanoTime();
+    previous = null;
+    instability = 0;
+    extension = 1;
+
+    return limits.withDeadline(Math.min(limits.deadline(), start + hardLimit));
+  }
+
+  /**
+   * Checks if the search should stop after completing a depth, learning from its result whether
+   * the search needs more time.
+   *
+   * @param info The result of the depth
+   * @return True if the search shouldn't start another depth
+   */
+  public boolean shouldStop(@NotNull final SearchInfo info) {
+    if (previous != null) {
+      instability *= INSTABILITY_WEIGHT;
+
+      if (info.bestMove() != previous.bestMove()) {
+        instability += INSTABILITY_WEIGHT;
+      }
+
+      var factor = 1 + instability;
+
+      if (previous.score() - info.score() >= SCORE_DROP) {
+        factor *= SCORE_DROP_EXTENSION;
+      }
+
+      extension = Math.min(factor, MAX_EXTENSION);
+    }
+
+    previous = info;
+
+    return System.nanoTime() - start >= getExtendedSoftLimit();
+  }
+
+  /* The soft limit after the extensions of the last depth, never beyond the hard limit */
+  long getExtendedSoftLimit() {
+    return Math.min((long) (softLimit * extension), hardLimit);
+  }
+}
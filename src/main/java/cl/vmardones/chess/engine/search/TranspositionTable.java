@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import cl.vmardones.chess.engine.move.PackedMove;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * A fixed-size hash table of search results, indexed by Zobrist key, shared by every search
+ * thread.
+ *
+ * <p>Each entry is two longs: the data, and the key XORed with the data. Entries are written and
+ * read without locks, so two threads can write the same entry at once and mix their halves, but a
+ * mixed entry no longer matches its key and is treated as missing. The data packs the best move,
+ * score, depth, bound type and age of the search that wrote it, and can be unpacked with the
+ * static methods of this class.
+ *
+ * <p>Entries are grouped in buckets of two. A new result replaces the entry with the same key, or
+ * else the least valuable one: the shallowest, preferring entries left by older searches. Calling
+ * {@link #newSearch()} before every search ages the whole table at once, so it stays useful across
+ * the moves of a game without being cleared.
+ *
+ * <p>The table can live on the Java heap or off-heap, in direct buffers that aren't moved or
+ * scanned by the garbage collector.
+ */
+public final class TranspositionTable {
+
+  /** The value returned by {@link #probe(long)} when the key isn't stored. */
+  public static final long NONE = 0;
+
+  /** The score is an upper bound: every move failed low. */
+  public static final int UPPER_BOUND = 1;
+
+  /** The score is a lower bound: a move failed high. */
+  public static final int LOWER_BOUND = 2;
+
+  /** The score is exact. */
+  public static final int EXACT = 3;
+
+  private static final int ENTRY_LONGS = 2;
+  private static final int BUCKET_ENTRIES = 2;
+  private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+  private static final long BYTES_PER_MB = 1L << 20;
+
+  /* Direct buffers can't hold more than 2 GB, so big tables are split in 1 GB segments */
+  private static final int SEGMENT_BITS = 27;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+  private static final int MOVE_BITS = 25;
+  private static final int SCORE_SHIFT = MOVE_BITS;
+  private static final int DEPTH_SHIFT = SCORE_SHIFT + Short.SIZE;
+  private static final int BOUND_SHIFT = DEPTH_SHIFT + 7;
+  private static final int AGE_SHIFT = BOUND_SHIFT + 2;
+  private static final int AGE_MASK = 0x3F;
+
+  /* Each search an entry is older counts like this many plies less of depth when replacing */
+  private static final int AGE_PENALTY = 8;
+
+  private static final int HASHFULL_SAMPLE = 1000;
+
+  private final LongBuffer[] segments;
+  private final long buckets;
+  private final long bucketMask;
+  private int age;
+
+  /**
+   * Creates a table on the Java heap.
+   *
+   * @param megabytes The size of the table, rounded down to a power of two
+   */
+  public TranspositionTable(final int megabytes) {
+    this(megabytes, false);
+  }
+
+  /**
+   * Creates a table.
+   *
+   * @param megabytes The size of the table, rounded down to a power of two
+   * @param offHeap Whether the table is allocated in direct buffers, outside the Java heap
+   */
+  public TranspositionTable(final int megabytes, final boolean offHeap) {
+    final var longs = Long.highestOneBit(Math.max(megabytes, 1) * BYTES_PER_MB / Long.BYTES);
+    final var segmentLongs = (int) Math.min(longs, 1L << SEGMENT_BITS);
+
+    segments = new LongBuffer[(int) (longs / segmentLongs)];
+
+    for (var i = 0; i < segments.length; i++) {
+      segments[i] =
+          offHeap
+              ? ByteBuffer.allocateDirect(segmentLongs * Long.BYTES)
+                  .order(ByteOrder.nativeOrder())
+                  .asLongBuffer()
+              : LongBuffer.wrap(new long[segmentLongs]);
+    }
+
+    buckets = longs / BUCKET_LONGS;
+    bucketMask = buckets - 1;
+  }
+
+  /* Packing and unpacking */
+
+  public static int move(final long entry) {
+    return (int) (entry & ((1L << MOVE_BITS) - 1));
+  }
+
+  public static int score(final long entry) {
+    return (short) (entry >>> SCORE_SHIFT);
+  }
+
+  public static int depth(final long entry) {
+    return (int) (entry >>> DEPTH_SHIFT & 0x7F);
+  }
+
+  public static int bound(final long entry) {
+    return (int) (entry >>> BOUND_SHIFT & 0x3);
+  }
+
+  private static int age(final long entry) {
+    return (int) (entry >>> AGE_SHIFT & AGE_MASK);
+  }
+
+  /* Table operations */
+
+  /**
+   * Looks up a position.
+   *
+   * @param key The Zobrist key of the position
+   * @return The packed entry, or {@link #NONE} if the position isn't stored
+   */
+  public long probe(final long key) {
+    final var bucket = (key & bucketMask) * BUCKET_LONGS;
+
+    for (var i = 0; i < BUCKET_LONGS; i += ENTRY_LONGS) {
+      final var data = get(bucket + i + 1);
+
+      if ((get(bucket + i) ^ data) == key && data != NONE) {
+        return data;
+      }
+    }
+
+    return NONE;
+  }
+
+  /**
+   * Stores the result of searching a position.
+   *
+   * @param key The Zobrist key of the position
+   * @param move The best packed move, or {@link PackedMove#NONE}
+   * @param score The score, between {@link Short#MIN_VALUE} and {@link Short#MAX_VALUE}
+   * @param depth The depth of the search, between 0 and 127
+   * @param bound {@link #UPPER_BOUND}, {@link #LOWER_BOUND} or {@link #EXACT}
+   */
+  public void store(
+      final long key, final int move, final int score, final int depth, final int bound) {
+    final var bucket = (key & bucketMask) * BUCKET_LONGS;
+
+    var replaced = bucket;
+    var lowestValue = Integer.MAX_VALUE;
+
+    for (var i = 0; i < BUCKET_LONGS; i += ENTRY_LONGS) {
+      final var data = get(bucket + i + 1);
+
+      if ((get(bucket + i) ^ data) == key) {
+        replaced = bucket + i;
+
+        /* Keep the best move of a previous search if this one didn't find any */
+        if (move == PackedMove.NONE && move(data) != PackedMove.NONE) {
+          put(replaced, key, pack(move(data), score, depth, bound));
+          return;
+        }
+
+        break;
+      }
+
+      final var value = depth(data) - AGE_PENALTY * ((age - age(data)) & AGE_MASK);
+
+      if (value < lowestValue) {
+        lowestValue = value;
+        replaced = bucket + i;
+      }
+    }
+
+    put(replaced, key, pack(move, score, depth, bound));
+  }
+
+  /** Starts a new search, making every stored entry older. */
+  public void newSearch() {
+    age = (age + 1) & AGE_MASK;
+  }
+
+  /** Removes every entry. */
+  public void clear() {
+    for (var segment : segments) {
+      for (var i = 0; i < segment.capacity(); i++) {
+        segment.put(i, 0);
+      }
+    }
+
+    age = 0;
+  }
+
+  /**
+   * Estimates how full the table is with entries of the current search, by sampling the first
+   * entries.
+   *
+   * @return The amount of used entries per thousand
+   */
+  public int hashfull() {
+    final var sampled = Math.min(HASHFULL_SAMPLE, capacity());
+    var used = 0;
+
+    for (var i = 0; i < sampled; i++) {
+      final var data = get(i * ENTRY_LONGS + 1);
+
+      if (data != NONE && age(data) == age) {
+        used++;
+      }
+    }
+
+    return (int) (used * HASHFULL_SAMPLE / sampled);
+  }
+
+  /**
+   * Obtains the amount of entries the table can hold.
+   *
+   * @return The amount of entries
+   */
+  public long capacity() {
+    return buckets * BUCKET_ENTRIES;
+  }
+
+  private long pack(final int move, final int score, final int depth, final int bound) {
+    return move
+        | (score & 0xFFFFL) << SCORE_SHIFT
+        | (long) depth << DEPTH_SHIFT
+        | (long) bound << BOUND_SHIFT
+        | (long) age << AGE_SHIFT;
+  }
+
+  private long get(final long index) {
+    return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & SEGMENT_MASK));
+  }
+
+  private void put(final long index, final long key, final long data) {
+    final var segment = segments[(int) (index >>> SEGMENT_BITS)];
+    final var offset = (int) (index & SEGMENT_MASK);
+
+    segment.put(offset, key ^ data);
+    segment.put(offset + 1, data);
+  }
+}
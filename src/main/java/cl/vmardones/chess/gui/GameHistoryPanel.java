@@ -5,7 +5,6 @@
 
 package cl.vmardones.chess.gui;
 
-import cl.vmardones.chess.engine.player.Player;
 import java.awt.*;
 import java.util.List;
 import java.util.Vector;
@@ -43,18 +42,16 @@ class GameHistoryPanel extends JPanel {
     return centeredRenderer;
   }
 
-  void redo(final Player currentPlayer, final MoveLog moveLog) {
+  void redo(final MoveLog moveLog) {
 
     final var lastMove = moveLog.getLastMove();
 
     if (lastMove.isPresent()) {
-      final var moveText = lastMove.get().toString();
+      final var moveText = moveLog.getNotation(moveLog.size() - 1);
 
       switch (lastMove.get().getPiece().getAlliance()) {
-        case WHITE -> model.setValueAt(
-            moveText + checkmateHash(currentPlayer), model.getLastRowIndex() + 1, 0);
-        case BLACK -> model.setValueAt(
-            moveText + checkmateHash(currentPlayer), model.getLastRowIndex(), 1);
+        case WHITE -> model.setValueAt(moveText, model.getLastRowIndex() + 1, 0);
+        case BLACK -> model.setValueAt(moveText, model.getLastRowIndex(), 1);
       }
     }
 
@@ -62,16 +59,6 @@ class GameHistoryPanel extends JPanel {
     vertical.setValue(vertical.getMaximum());
   }
 
-  private String checkmateHash(final Player currentPlayer) {
-    if (currentPlayer.isInCheckmate()) {
-      return "#";
-    } else if (currentPlayer.isInCheck()) {
-      return "+";
-    }
-
-    return "";
-  }
-
   private static class DataModel extends DefaultTableModel {
 
     private DataModel() {
@@ -18,10 +18,13 @@ class MoveLog {
 
   @Getter private final List<Move> moves = new ArrayList<>();
 
+  private final List<String> notations = new ArrayList<>();
+
   private Move lastMove;
 
-  void add(final Move move) {
+  void add(final Move move, final String notation) {
     moves.add(move);
+    notations.add(notation);
     lastMove = move;
   }
 
@@ -31,14 +34,28 @@ class MoveLog {
 
   void clear() {
     moves.clear();
+    notations.clear();
   }
 
   Move remove(final int index) {
+    notations.remove(index);
     return moves.remove(index);
   }
 
   boolean remove(final Move move) {
-    return moves.remove(move);
+    final var index = moves.indexOf(move);
+
+    if (index < 0) {
+      return false;
+    }
+
+    remove(index);
+    return true;
+  }
+
+  /* The move in SAN, written before it was made */
+  String getNotation(final int index) {
+    return notations.get(index);
   }
 
   Optional<Move> getLastMove() {
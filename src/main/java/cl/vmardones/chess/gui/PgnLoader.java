@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.gui;
+
+import cl.vmardones.chess.pgn.PgnReader;
+import cl.vmardones.chess.pgn.PgnStats;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import javax.swing.*;
+import lombok.extern.slf4j.Slf4j;
+
+/* Reads a PGN file away from the event dispatch thread, since files can have millions of games */
+@Slf4j
+class PgnLoader extends SwingWorker<PgnStats, Void> {
+
+  private static final String TITLE = "Load PGN file";
+
+  private final Component parent;
+  private final Path path;
+
+  PgnLoader(final Component parent, final Path path) {
+    this.parent = parent;
+    this.path = path;
+  }
+
+  @Override
+  protected PgnStats doInBackground() throws IOException {
+    return PgnReader.read(path, game -> {});
+  }
+
+  @Override
+  protected void done() {
+    try {
+      final var stats = get();
+
+      log.debug("Read {} from {}", stats, path);
+      JOptionPane.showMessageDialog(parent, "Read " + stats, TITLE, JOptionPane.PLAIN_MESSAGE);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ExecutionException e) {
+      log.warn("Could not read the PGN file {}", path, e.getCause());
+      JOptionPane.showMessageDialog(
+          parent, "Could not read " + path.getFileName(), TITLE, JOptionPane.ERROR_MESSAGE);
+    }
+  }
+}
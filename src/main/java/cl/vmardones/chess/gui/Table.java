@@ -9,10 +9,13 @@ import static java.awt.Frame.MAXIMIZED_BOTH;
 import static java.awt.Frame.NORMAL;
 
 import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Position;
 import cl.vmardones.chess.engine.board.Tile;
 import cl.vmardones.chess.engine.game.Game;
 import cl.vmardones.chess.engine.move.Move;
 import cl.vmardones.chess.engine.move.MoveTransition;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.move.San;
 import cl.vmardones.chess.engine.piece.Piece;
 import cl.vmardones.chess.io.FontLoader;
 import com.formdev.flatlaf.FlatDarkLaf;
@@ -22,6 +25,7 @@ import java.awt.*;
 import java.awt.event.WindowStateListener;
 import java.util.List;
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -138,7 +142,7 @@ public class Table {
     final var fileMenu = new JMenu("File");
 
     final var openPGN = new JMenuItem("Load PGN file");
-    openPGN.addActionListener(e -> log.debug("Open PGN file!"));
+    openPGN.addActionListener(e -> loadPgn());
     fileMenu.add(openPGN);
 
     final var exit = new JMenuItem("Exit");
@@ -148,6 +152,15 @@ public class Table {
     return fileMenu;
   }
 
+  private void loadPgn() {
+    final var chooser = new JFileChooser();
+    chooser.setFileFilter(new FileNameExtensionFilter("PGN files", "pgn"));
+
+    if (chooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION) {
+      new PgnLoader(gameFrame, chooser.getSelectedFile().toPath()).execute();
+    }
+  }
+
   private JMenu createPreferencesMenu() {
     final var preferencesMenu = new JMenu("Preferences");
 
@@ -181,13 +194,18 @@ public class Table {
   }
 
   void update() {
-    gameHistoryPanel.redo(game.getCurrentPlayer(), moveLog);
+    gameHistoryPanel.redo(moveLog);
     takenPiecesPanel.redo(moveLog);
     boardPanel.drawBoard(game.getBoard());
   }
 
-  void addToLog(final Move move) {
-    moveLog.add(move);
+  void addToLog(final Move move, final String notation) {
+    moveLog.add(move, notation);
+  }
+
+  /* Must be called before the move is made, since SAN depends on the position it's made from */
+  String toNotation(final Move move) {
+    return San.toString(Position.of(game.getBoard()), PackedMove.of(move));
   }
 
   Tile getTileAt(final Coordinate coordinate) {
@@ -123,11 +123,12 @@ class TilePanel extends JPanel {
     log.debug("Is there a move that can get to the destination? {}", move.isPresent());
 
     if (move.isPresent()) {
+      final var notation = table.toNotation(move.get());
       final var moveTransition = table.makeMove(move.get());
 
       if (moveTransition.getMoveStatus().isDone()) {
         table.getGame().createNextTurn(move.get());
-        table.addToLog(move.get());
+        table.addToLog(move.get(), notation);
       }
     }
 
@@ -174,7 +175,11 @@ class TilePanel extends JPanel {
       return Collections.emptyList();
     }
 
-    return table.getSelectedPiece().calculateLegals(board);
+    final var source = table.getSelectedPiece().getPosition();
+
+    return table.getGame().getCurrentPlayer().getLegals().stream()
+        .filter(move -> move.getSource().equals(source))
+        .toList();
   }
 
   private boolean isOpponentPieceSelected() {
@@ -21,6 +21,11 @@ public final class Chess {
   }
 
   public static void main(final String... args) {
-    new CommandLine(new MainCommand()).execute(args);
+    final var exitCode = new CommandLine(new MainCommand()).execute(args);
+
+    // The GUI keeps running after its command returns, so only failures end the program here
+    if (exitCode != 0) {
+      System.exit(exitCode);
+    }
   }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+/**
+ * The hashes of the games imported so far, shared by every import thread.
+ *
+ * <p>Hashes are kept in open addressing tables of primitive longs, using 16 to 32 bytes per game
+ * instead of a boxed long and a map entry, so millions of games fit in a few dozen MB. The set is
+ * split in stripes, chosen by the highest bits of the hash, each with its own lock, so threads
+ * rarely wait for each other.
+ */
+final class GameHashSet {
+
+  private static final int STRIPE_BITS = 6;
+  private static final int INITIAL_CAPACITY = 1 << 10;
+
+  private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+  GameHashSet() {
+    for (var i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Adds a hash to the set.
+   *
+   * @param hash The hash of a game
+   * @return True if the hash wasn't in the set
+   */
+  boolean add(final long hash) {
+    // Zero marks the empty slots
+    final var key = hash == 0 ? 1 : hash;
+
+    return stripes[(int) (key >>> Long.SIZE - STRIPE_BITS)].add(key);
+  }
+
+  long size() {
+    var size = 0L;
+
+    for (var stripe : stripes) {
+      size += stripe.size();
+    }
+
+    return size;
+  }
+
+  private static final class Stripe {
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int size;
+
+    synchronized boolean add(final long key) {
+      if (!insert(keys, key)) {
+        return false;
+      }
+
+      size++;
+
+      // Kept at most half full, so probes stay short
+      if (size * 2 > keys.length) {
+        final var grown = new long[keys.length * 2];
+
+        for (var stored : keys) {
+          if (stored != 0) {
+            insert(grown, stored);
+          }
+        }
+
+        keys = grown;
+      }
+
+      return true;
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    private static boolean insert(final long[] table, final long key) {
+      final var mask = table.length - 1;
+
+      for (var index = (int) key & mask; ; index = index + 1 & mask) {
+        if (table[index] == key) {
+          return false;
+        }
+
+        if (table[index] == 0) {
+          table[index] = key;
+          return true;
+        }
+      }
+    }
+  }
+}
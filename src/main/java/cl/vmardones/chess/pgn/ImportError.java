@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+/**
+ * A game of a PGN file that couldn't be replayed.
+ *
+ * @param offset Where the game starts, in bytes from the start of the file
+ * @param ply The amount of moves replayed before the error
+ * @param reason What went wrong, like an illegal or ambiguous move
+ */
+public record ImportError(long offset, int ply, String reason) {
+
+  @Override
+  public String toString() {
+    return "Game at byte %d, ply %d: %s".formatted(offset, ply, reason);
+  }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+/**
+ * The outcome of importing a PGN file.
+ *
+ * @param read The games and bytes read, and the time it took to read and replay them
+ * @param imported The amount of valid games that weren't duplicates
+ * @param duplicates The amount of valid games with the same moves as an imported game
+ * @param invalid The amount of games with an invalid starting position or move
+ */
+public record ImportStats(PgnStats read, long imported, long duplicates, long invalid) {
+
+  @Override
+  public String toString() {
+    return "%s; %d imported, %d duplicates, %d invalid"
+        .formatted(read, imported, duplicates, invalid);
+  }
+}
@@ -0,0 +1,15 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+/**
+ * A game of a PGN file whose moves were all resolved to legal moves.
+ *
+ * @param game The game as read from the file
+ * @param moves The moves of the main line, as packed moves
+ * @param hash The hash of the starting position and the move sequence, used to find duplicates
+ */
+public record ImportedGame(PgnGame game, int[] moves, long hash) {}
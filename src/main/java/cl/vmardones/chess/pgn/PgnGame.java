@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A game read from a PGN file.
+ *
+ * @param offset Where the game starts, in bytes from the start of the file
+ * @param tags The tag pairs, in the order of the file
+ * @param moves The moves of the main line, in SAN
+ * @param comments The comments of the main line
+ * @param variations The variations of the main line
+ * @param result The game termination marker: 1-0, 0-1, 1/2-1/2 or *
+ */
+public record PgnGame(
+    long offset,
+    Map<String, String> tags,
+    List<String> moves,
+    List<Comment> comments,
+    List<Variation> variations,
+    String result) {
+
+  /**
+   * Obtains the value of a tag.
+   *
+   * @param name The tag name, like White or Date
+   * @return The tag value, or ? if the game doesn't have the tag, as PGN does for unknown values
+   */
+  public String tag(final String name) {
+    return tags.getOrDefault(name, "?");
+  }
+
+  /**
+   * A comment of the main line.
+   *
+   * @param ply The amount of main line moves before the comment
+   * @param text The comment, without braces
+   */
+  public record Comment(int ply, String text) {}
+
+  /**
+   * An alternative to a move of the main line.
+   *
+   * @param ply The amount of main line moves before the first move of the variation
+   * @param text The moves of the variation, which can include comments, NAGs and nested variations
+   */
+  public record Variation(int ply, String text) {}
+}
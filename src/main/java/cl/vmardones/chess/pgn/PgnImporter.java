@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.InvalidFenException;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.InvalidSanException;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.San;
+import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Replays the games of PGN files, checking that every move is legal and skipping duplicated games.
+ *
+ * <p>The file is read on the calling thread, and its games are replayed in batches by worker
+ * threads. The queue of batches is bounded: when the workers fall behind, the reading thread
+ * replays a batch itself, so memory stays bounded whatever the size of the file.
+ *
+ * <p>Moves are replayed on a mutable {@link Position}, matching their SAN against the legal moves
+ * of every ply, so the board model and its players are never built. Games from the standard
+ * position reuse the same position, unmaking their moves after the replay.
+ *
+ * <p>Two games are duplicates when they have the same starting position and moves, whatever their
+ * tags. Only one of them is imported, but since batches are replayed in parallel, it's not always
+ * the first one read.
+ */
+public final class PgnImporter {
+
+  private static final int BATCH_SIZE = 256;
+  private static final int BATCHES_PER_THREAD = 2;
+
+  /* Mixes a move into the hash of the moves before it, so the order of the moves matters */
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private final ThreadPoolExecutor pool;
+
+  /**
+   * Creates an importer.
+   *
+   * @param threads The amount of threads that replay games in parallel
+   */
+  public PgnImporter(final int threads) {
+    pool =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * BATCHES_PER_THREAD),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Imports every game of a file. The consumers are called from many threads at once, in no
+   * particular order, so they must be thread-safe.
+   *
+   * @param path The path of the file
+   * @param games What to do with every valid game that isn't a duplicate
+   * @param errors What to do with every invalid game
+   * @return The amount of games read, imported, duplicated and invalid, and the time it took
+   * @throws IOException If the file can't be read
+   */
+  public ImportStats importFile(
+      @NotNull final Path path,
+      @NotNull final Consumer<ImportedGame> games,
+      @NotNull final Consumer<ImportError> errors)
+      throws IOException {
+    final var start = System.nanoTime();
+    final var job = new Job(games, errors);
+
+    try (final var reader = PgnReader.open(path)) {
+      var batch = new ArrayList<PgnGame>(BATCH_SIZE);
+
+      for (var game = reader.next(); game.isPresent(); game = reader.next()) {
+        batch.add(game.get());
+
+        if (batch.size() == BATCH_SIZE) {
+          job.submit(pool, batch);
+          batch = new ArrayList<>(BATCH_SIZE);
+        }
+      }
+
+      job.submit(pool, batch);
+      job.await();
+
+      final var read =
+          new PgnStats(reader.getGamesRead(), reader.getBytesRead(), System.nanoTime() - start);
+
+      return new ImportStats(read, job.imported.sum(), job.duplicates.sum(), job.invalid.sum());
+    }
+  }
+
+  /** Shuts down the threads of this importer. */
+  public void close() {
+    pool.shutdown();
+  }
+
+  /**
+   * Calculates the hash of a game, which identifies it among the games of a database.
+   *
+   * @param start The Zobrist key of the starting position
+   * @param moves The packed moves of the game
+   * @return The hash of the position and the move sequence
+   */
+  public static long hash(final long start, @NotNull final int[] moves) {
+    var hash = start;
+
+    for (var move : moves) {
+      hash = mix(hash, move);
+    }
+
+    return hash;
+  }
+
+  private static long mix(final long hash, final int move) {
+    final var mixed = (hash ^ move) * HASH_MULTIPLIER;
+
+    return mixed ^ mixed >>> Integer.SIZE;
+  }
+
+  /* The state of a single import, shared by its batches */
+  private static final class Job {
+
+    private final Consumer<ImportedGame> games;
+    private final Consumer<ImportError> errors;
+    private final GameHashSet hashes = new GameHashSet();
+    private final Phaser pending = new Phaser(1);
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private final LongAdder imported = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+
+    private Job(final Consumer<ImportedGame> games, final Consumer<ImportError> errors) {
+      this.games = games;
+      this.errors = errors;
+    }
+
+    private void submit(final ThreadPoolExecutor pool, final List<PgnGame> batch) {
+      if (batch.isEmpty()) {
+        return;
+      }
+
+      pending.register();
+
+      pool.execute(
+          () -> {
+            try {
+              replay(batch);
+            } catch (final RuntimeException e) {
+              failure.compareAndSet(null, e);
+            } finally {
+              pending.arriveAndDeregister();
+            }
+          });
+    }
+
+    /* Waits for every batch, failing if any of them did */
+    private void await() {
+      pending.arriveAndAwaitAdvance();
+
+      if (failure.get() != null) {
+        throw new IllegalStateException("The import failed", failure.get());
+      }
+    }
+
+    private void replay(final List<PgnGame> batch) {
+      final var standard = Fen.parse(Fen.STANDARD);
+      final var legals = new MoveList();
+
+      for (var game : batch) {
+        final var fen = game.tags().get("FEN");
+
+        if (fen == null) {
+          replay(game, standard, legals);
+          continue;
+        }
+
+        try {
+          replay(game, Fen.parse(fen), legals);
+        } catch (final InvalidFenException e) {
+          reject(game, 0, e.getMessage());
+        }
+      }
+    }
+
+    private void replay(final PgnGame game, final Position position, final MoveList legals) {
+      final var sans = game.moves();
+      final var moves = new int[sans.size()];
+      var hash = position.getZobristKey();
+
+      try {
+        for (var ply = 0; ply < moves.length; ply++) {
+          try {
+            moves[ply] = San.parse(position, sans.get(ply), legals);
+          } catch (final InvalidSanException e) {
+            reject(game, ply, e.getMessage());
+            return;
+          }
+
+          position.makeMove(moves[ply]);
+          hash = mix(hash, moves[ply]);
+        }
+      } finally {
+        while (position.getPly() > 0) {
+          position.unmakeMove();
+        }
+      }
+
+      if (!hashes.add(hash)) {
+        duplicates.increment();
+        return;
+      }
+
+      imported.increment();
+      games.accept(new ImportedGame(game, moves, hash));
+    }
+
+    private void reject(final PgnGame game, final int ply, final String reason) {
+      invalid.increment();
+      errors.accept(new ImportError(game.offset(), ply, reason));
+    }
+  }
+}
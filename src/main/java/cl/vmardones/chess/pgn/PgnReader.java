@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import jakarta.validation.constraints.NotNull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads the games of a PGN file one at a time, so files of any size can be read with the memory of
+ * a single game. The bytes are read through an NIO channel into a fixed buffer, never loading the
+ * whole file.
+ *
+ * <p>A game ends at its result, or when the tags of the next game start. Numeric annotation glyphs
+ * of the main line are skipped, while those inside variations are kept in their text.
+ */
+public final class PgnReader implements Closeable {
+
+  private static final String UNKNOWN_RESULT = "*";
+
+  private final PgnTokenizer tokenizer;
+  private final StringBuilder variation = new StringBuilder();
+  private PgnToken pending;
+  private long gamesRead;
+
+  /**
+   * Creates a reader of the games of a channel, which is closed with the reader.
+   *
+   * @param channel The channel with the PGN text, in UTF-8
+   */
+  public PgnReader(@NotNull final ReadableByteChannel channel) {
+    this(channel, PgnTokenizer.DEFAULT_BUFFER_SIZE);
+  }
+
+  /* The buffer size can be reduced by tests, so tokens cross the buffer boundaries */
+  PgnReader(final ReadableByteChannel channel, final int bufferSize) {
+    tokenizer = new PgnTokenizer(channel, bufferSize);
+  }
+
+  /**
+   * Opens a PGN file.
+   *
+   * @param path The path of the file
+   * @return The reader of its games
+   * @throws IOException If the file can't be opened
+   */
+  public static PgnReader open(@NotNull final Path path) throws IOException {
+    return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+  }
+
+  /**
+   * Reads every game of a file, measuring how fast it was read.
+   *
+   * @param path The path of the file
+   * @param consumer What to do with every game
+   * @return The amount of games and bytes read, and the time it took
+   * @throws IOException If the file can't be read
+   */
+  public static PgnStats read(@NotNull final Path path, @NotNull final Consumer<PgnGame> consumer)
+      throws IOException {
+    final var start = System.nanoTime();
+
+    try (final var reader = open(path)) {
+      for (var game = reader.next(); game.isPresent(); game = reader.next()) {
+        consumer.accept(game.get());
+      }
+
+      return new PgnStats(reader.getGamesRead(), reader.getBytesRead(), System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Reads the next game.
+   *
+   * @return The game, or an empty optional if there are no more games
+   * @throws IOException If the input can't be read
+   */
+  public Optional<PgnGame> next() throws IOException {
+    var token = nextToken();
+
+    if (token == PgnToken.END) {
+      return Optional.empty();
+    }
+
+    final var offset = tokenizer.getTokenOffset();
+    final var tags = new LinkedHashMap<String, String>();
+    final var moves = new ArrayList<String>();
+    final var comments = new ArrayList<PgnGame.Comment>();
+    final var variations = new ArrayList<PgnGame.Variation>();
+    String result = null;
+
+    while (token != PgnToken.END && result == null) {
+      if (token == PgnToken.TAG && !moves.isEmpty()) {
+        // The tags of the next game, after a game without result
+        pending = token;
+        break;
+      }
+
+      switch (token) {
+        case TAG -> tags.put(tokenizer.getTagName(), tokenizer.getText());
+        case MOVE -> moves.add(tokenizer.getText());
+        case COMMENT -> comments.add(new PgnGame.Comment(moves.size(), tokenizer.getText()));
+        case VARIATION_START -> readVariation(moves.size() - 1, variations);
+        case RESULT -> result = tokenizer.getText();
+        default -> {
+          // NAGs and unmatched parentheses of the main line are skipped
+        }
+      }
+
+      if (result == null) {
+        token = nextToken();
+      }
+    }
+
+    gamesRead++;
+
+    return Optional.of(
+        new PgnGame(
+            offset,
+            ImmutableMap.copyOf(tags),
+            ImmutableList.copyOf(moves),
+            ImmutableList.copyOf(comments),
+            ImmutableList.copyOf(variations),
+            result == null ? tags.getOrDefault("Result", UNKNOWN_RESULT) : result));
+  }
+
+  public long getGamesRead() {
+    return gamesRead;
+  }
+
+  public long getBytesRead() {
+    return tokenizer.getOffset();
+  }
+
+  @Override
+  public void close() throws IOException {
+    tokenizer.close();
+  }
+
+  /* The token left by the last game or variation, or else the next one of the input */
+  private PgnToken nextToken() throws IOException {
+    final var token = pending == null ? tokenizer.next() : pending;
+    pending = null;
+
+    return token;
+  }
+
+  /* Reads a variation and its nested variations as text, after its opening parenthesis */
+  private void readVariation(final int ply, final List<PgnGame.Variation> variations)
+      throws IOException {
+    variation.setLength(0);
+    var depth = 1;
+
+    while (depth > 0) {
+      final var token = tokenizer.next();
+
+      switch (token) {
+        case VARIATION_START -> {
+          depth++;
+          separate().append('(');
+        }
+        case VARIATION_END -> {
+          depth--;
+
+          if (depth > 0) {
+            variation.append(')');
+          }
+        }
+        case MOVE -> separate().append(tokenizer.getText());
+        case COMMENT -> separate().append('{').append(tokenizer.getText()).append('}');
+        case NAG -> separate().append('$').append(tokenizer.getText());
+        default -> {
+          // A broken variation, ended by a tag, a result or the end of the input
+          pending = token;
+          depth = 0;
+        }
+      }
+    }
+
+    variations.add(new PgnGame.Variation(Math.max(ply, 0), variation.toString()));
+  }
+
+  private StringBuilder separate() {
+    final var length = variation.length();
+
+    return length == 0 || variation.charAt(length - 1) == '(' ? variation : variation.append(' ');
+  }
+}
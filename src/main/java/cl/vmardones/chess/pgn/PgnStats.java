@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+/**
+ * How fast a PGN file was read.
+ *
+ * @param games The amount of games read
+ * @param bytes The size of the file, in bytes
+ * @param nanos The time it took, in nanoseconds
+ */
+public record PgnStats(long games, long bytes, long nanos) {
+
+  private static final double NANOS_PER_SECOND = 1e9;
+  private static final double BYTES_PER_MEGABYTE = 1e6;
+
+  public double megabytesPerSecond() {
+    return bytes / BYTES_PER_MEGABYTE / seconds();
+  }
+
+  public double gamesPerSecond() {
+    return games / seconds();
+  }
+
+  @Override
+  public String toString() {
+    return "%d games (%.1f MB) in %.3f s: %.1f MB/s, %.0f games/s"
+        .formatted(
+            games,
+            bytes / BYTES_PER_MEGABYTE,
+            nanos / NANOS_PER_SECOND,
+            megabytesPerSecond(),
+            gamesPerSecond());
+  }
+
+  private double seconds() {
+    return Math.max(nanos, 1) / NANOS_PER_SECOND;
+  }
+}
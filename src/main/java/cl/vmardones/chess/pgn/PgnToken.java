@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+/** The kinds of tokens found in a PGN file. Move numbers are skipped by the tokenizer. */
+enum PgnToken {
+  /** A tag pair, like [Event "Casual game"]. */
+  TAG,
+  /** A move in SAN, without its annotation suffixes (! and ?). */
+  MOVE,
+  /** A brace comment, or the rest of a line after a semicolon. */
+  COMMENT,
+  /** A numeric annotation glyph, like $1, stored without the dollar sign. */
+  NAG,
+  /** The opening parenthesis of a variation. */
+  VARIATION_START,
+  /** The closing parenthesis of a variation. */
+  VARIATION_END,
+  /** The game termination marker: 1-0, 0-1, 1/2-1/2 or *. */
+  RESULT,
+  /** The end of the input. */
+  END
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits the bytes of a PGN file into tokens. The file is read through a fixed buffer, so only the
+ * current token is kept in memory, no matter how big the file is.
+ *
+ * <p>The tokenizer never fails on malformed input: unknown characters are skipped, and an
+ * unterminated comment or tag ends at the end of the input. Tokens longer than {@link
+ * #MAX_TOKEN_LENGTH} bytes are truncated.
+ */
+final class PgnTokenizer implements Closeable {
+
+  static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+  static final int MAX_TOKEN_LENGTH = 1 << 16;
+
+  private static final int END = -1;
+  private static final int INITIAL_TOKEN_LENGTH = 256;
+
+  private static final byte[] WHITE_WINS = "1-0".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] BLACK_WINS = "0-1".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] DRAW = "1/2-1/2".getBytes(StandardCharsets.US_ASCII);
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer;
+  private final byte[] bytes;
+  private int position;
+  private int limit;
+  private long bufferOffset;
+  private int last = '\n';
+
+  private byte[] token = new byte[INITIAL_TOKEN_LENGTH];
+  private int length;
+  private String tagName;
+  private long tokenOffset;
+
+  PgnTokenizer(final ReadableByteChannel channel, final int bufferSize) {
+    this.channel = channel;
+    buffer = ByteBuffer.allocate(bufferSize);
+    bytes = buffer.array();
+  }
+
+  /**
+   * Reads the next token.
+   *
+   * @return The kind of token, or {@link PgnToken#END} at the end of the input
+   * @throws IOException If the input can't be read
+   */
+  PgnToken next() throws IOException {
+    tokenOffset = -1;
+
+    while (true) {
+      final var lineStart = last == '\n';
+      final var offset = getOffset();
+      length = 0;
+
+      final var next = read();
+
+      // Skipped move numbers and escaped lines belong to the token that follows them
+      if (tokenOffset < 0 && next > ' ') {
+        tokenOffset = offset;
+      }
+
+      final var kind =
+          switch (next) {
+            case END -> PgnToken.END;
+            case '[' -> readTag();
+            case '{' -> readComment('}');
+            case ';' -> readComment('\n');
+            case '(' -> PgnToken.VARIATION_START;
+            case ')' -> PgnToken.VARIATION_END;
+            case '$' -> readNag();
+            case '*' -> readSymbol(next);
+            case '%' -> lineStart ? skipLine() : null;
+            default -> isSymbolStart(next) ? readSymbol(next) : null;
+          };
+
+      if (kind != null) {
+        return kind;
+      }
+    }
+  }
+
+  /* The text of the last token: a tag value, a move, a comment, a NAG number or a result */
+  String getText() {
+    return new String(token, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /* The name of the last tag */
+  String getTagName() {
+    return tagName;
+  }
+
+  /* Where the last token starts, in bytes from the start of the input */
+  long getTokenOffset() {
+    return tokenOffset;
+  }
+
+  /* The amount of bytes read so far */
+  long getOffset() {
+    return bufferOffset + position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /* Moves, move numbers and results. Returns null for move numbers, which are skipped */
+  private PgnToken readSymbol(final int first) throws IOException {
+    append(first);
+    var digits = isDigit(first);
+
+    while (isSymbolPart(peek())) {
+      final var next = read();
+      digits &= isDigit(next);
+      append(next);
+    }
+
+    if (digits) {
+      while (peek() == '.') {
+        read();
+      }
+
+      return null;
+    }
+
+    return isResult() ? PgnToken.RESULT : PgnToken.MOVE;
+  }
+
+  /* [Name "Value"], where the value can escape quotes and backslashes */
+  private PgnToken readTag() throws IOException {
+    skipSpaces();
+
+    while (isSymbolPart(peek())) {
+      append(read());
+    }
+
+    tagName = getText();
+    length = 0;
+    skipSpaces();
+
+    if (peek() == '"') {
+      read();
+
+      for (var next = read(); next != END && next != '"'; next = read()) {
+        append(next == '\\' && (peek() == '"' || peek() == '\\') ? read() : next);
+      }
+    }
+
+    while (peek() != END && read() != ']') {
+      // Skip anything between the value and the closing bracket
+    }
+
+    return PgnToken.TAG;
+  }
+
+  /* Comments are trimmed, since most files pad them with spaces */
+  private PgnToken readComment(final int terminator) throws IOException {
+    skipSpaces();
+
+    for (var next = read(); next != END && next != terminator; next = read()) {
+      append(next);
+    }
+
+    while (length > 0 && token[length - 1] <= ' ' && token[length - 1] >= 0) {
+      length--;
+    }
+
+    return PgnToken.COMMENT;
+  }
+
+  private PgnToken readNag() throws IOException {
+    while (isDigit(peek())) {
+      append(read());
+    }
+
+    return PgnToken.NAG;
+  }
+
+  /* Lines starting with % are ignored */
+  private PgnToken skipLine() throws IOException {
+    for (var next = read(); next != END && next != '\n'; next = read()) {
+      // Skip the whole line
+    }
+
+    return null;
+  }
+
+  private void skipSpaces() throws IOException {
+    while (peek() == ' ' || peek() == '\t') {
+      read();
+    }
+  }
+
+  private boolean isResult() {
+    return switch (length) {
+      case 1 -> token[0] == '*';
+      case 3 -> Arrays.equals(token, 0, length, WHITE_WINS, 0, length)
+          || Arrays.equals(token, 0, length, BLACK_WINS, 0, length);
+      case 7 -> Arrays.equals(token, 0, length, DRAW, 0, length);
+      default -> false;
+    };
+  }
+
+  private void append(final int next) {
+    if (length == token.length) {
+      if (length == MAX_TOKEN_LENGTH) {
+        return;
+      }
+
+      token = Arrays.copyOf(token, Math.min(length * 2, MAX_TOKEN_LENGTH));
+    }
+
+    token[length++] = (byte) next;
+  }
+
+  private int peek() throws IOException {
+    if (position == limit && !fill()) {
+      return END;
+    }
+
+    return bytes[position] & 0xFF;
+  }
+
+  private int read() throws IOException {
+    final var next = peek();
+
+    if (next != END) {
+      position++;
+      last = next;
+    }
+
+    return next;
+  }
+
+  private boolean fill() throws IOException {
+    bufferOffset += limit;
+    position = 0;
+    limit = 0;
+    buffer.clear();
+
+    final var read = channel.read(buffer);
+
+    if (read <= 0) {
+      return false;
+    }
+
+    limit = read;
+    return true;
+  }
+
+  private static boolean isDigit(final int next) {
+    return next >= '0' && next <= '9';
+  }
+
+  private static boolean isSymbolStart(final int next) {
+    return isDigit(next) || next >= 'a' && next <= 'z' || next >= 'A' && next <= 'Z';
+  }
+
+  /* Letters, digits and the characters of SAN and results: _ + # = : - / */
+  private static boolean isSymbolPart(final int next) {
+    return isSymbolStart(next)
+        || next == '_'
+        || next == '+'
+        || next == '#'
+        || next == '='
+        || next == ':'
+        || next == '-'
+        || next == '/';
+  }
+}
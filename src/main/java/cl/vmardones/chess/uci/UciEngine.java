@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.uci;
+
+import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.InvalidCoordinateException;
+import cl.vmardones.chess.engine.board.InvalidFenException;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.player.Alliance;
+import cl.vmardones.chess.engine.search.ParallelSearch;
+import cl.vmardones.chess.engine.search.Search;
+import cl.vmardones.chess.engine.search.SearchInfo;
+import cl.vmardones.chess.engine.search.SearchLimits;
+import cl.vmardones.chess.engine.search.TimeManager;
+import cl.vmardones.chess.engine.search.TranspositionTable;
+import jakarta.validation.constraints.NotNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Speaks the Universal Chess Interface (UCI), so the engine can be driven by a GUI or a tournament
+ * manager without opening the Swing window.
+ *
+ * <p>Supported commands are uci, isready, setoption (Hash and Threads), ucinewgame, position
+ * (startpos or fen, with moves), go (depth, nodes, movetime, wtime/btime with winc/binc and
+ * movestogo, infinite, ponder), stop, ponderhit and quit. Unknown commands are ignored, as the
+ * protocol requires.
+ *
+ * <p>Searches run on a dedicated thread, so stop and isready are answered while searching. After
+ * go infinite or go ponder, the best move is only sent after stop or ponderhit, even if the search
+ * ends before, like when it finds a mate. A ponder search uses the limits of its go command. Moves
+ * of the position command are applied to a mutable {@link Position}, matching them against the
+ * legal moves of every ply, so the old board model is never built.
+ */
+public final class UciEngine {
+
+  private static final String NAME = "Teal Chess";
+  private static final String AUTHOR = "Víctor Mardones";
+
+  private static final int DEFAULT_HASH_SIZE = 16;
+  private static final int MAX_HASH_SIZE = 4096;
+  private static final int MAX_THREADS = 256;
+
+  private final BufferedReader input;
+  private final PrintStream output;
+  private final MoveList legals = new MoveList();
+  private final ExecutorService searchThread =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            final var thread = new Thread(runnable, "uci-search");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private int hashSize = DEFAULT_HASH_SIZE;
+  private int threads = 1;
+  private ParallelSearch search = createSearch();
+  private Position position = Fen.parse(Fen.STANDARD);
+  private Future<?> pending;
+  private CountDownLatch bestMoveRelease = new CountDownLatch(0);
+
+  /**
+   * Creates an engine that reads commands from an input and writes its answers to an output.
+   *
+   * @param input Where the commands come from, one per line
+   * @param output Where the answers go
+   */
+  public UciEngine(@NotNull final Reader input, @NotNull final PrintStream output) {
+    this.input = new BufferedReader(input);
+    this.output = output;
+  }
+
+  /**
+   * Answers commands until the quit command, or the end of the input. The engine can't be used
+   * after that.
+   */
+  public void run() {
+    try {
+      String line;
+
+      while ((line = input.readLine()) != null && execute(line)) {
+        // Every command is handled by execute()
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      quit();
+    }
+  }
+
+  /**
+   * Executes a single command.
+   *
+   * @param command The command, with its arguments
+   * @return False if the command was quit, true otherwise
+   */
+  public boolean execute(@NotNull final String command) {
+    final var tokens = command.trim().split("\\s+");
+
+    switch (tokens[0]) {
+      case "uci" -> identify();
+      case "isready" -> output.println("readyok");
+      case "setoption" -> setOption(tokens);
+      case "ucinewgame" -> newGame();
+      case "position" -> setPosition(tokens);
+      case "go" -> go(tokens);
+      case "stop" -> stop();
+      case "ponderhit" -> bestMoveRelease.countDown();
+      case "quit" -> {
+        quit();
+        return false;
+      }
+      default -> {
+        // Unknown commands are ignored
+      }
+    }
+
+    return true;
+  }
+
+  /* Waits for the current search, used by tests to read its whole output */
+  void awaitSearch() {
+    if (pending == null) {
+      return;
+    }
+
+    try {
+      pending.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException("The search failed", e.getCause());
+    }
+
+    pending = null;
+  }
+
+  /* The thread where searches run, used by tests */
+  ExecutorService getSearchThread() {
+    return searchThread;
+  }
+
+  /* The search of the next go command, used by tests */
+  ParallelSearch getSearch() {
+    return search;
+  }
+
+  /* The position of the next search, used by tests */
+  Position getPosition() {
+    return position;
+  }
+
+  private void identify() {
+    output.println("id name " + NAME);
+    output.println("id author " + AUTHOR);
+    output.printf(
+        "option name Hash type spin default %d min 1 max %d%n", DEFAULT_HASH_SIZE, MAX_HASH_SIZE);
+    output.printf("option name Threads type spin default 1 min 1 max %d%n", MAX_THREADS);
+    output.println("uciok");
+  }
+
+  /* setoption name <name> value <value>, where only Hash and Threads are known */
+  private void setOption(final String[] tokens) {
+    if (tokens.length < 5
+        || !tokens[1].equals("name")
+        || !tokens[3].equals("value")
+        || !tokens[2].equals("Hash") && !tokens[2].equals("Threads")) {
+      return;
+    }
+
+    final int value;
+
+    try {
+      value = Math.max(Integer.parseInt(tokens[4]), 1);
+    } catch (final NumberFormatException e) {
+      output.println("info string Invalid option value " + tokens[4]);
+      return;
+    }
+
+    if (tokens[2].equals("Hash")) {
+      hashSize = Math.min(value, MAX_HASH_SIZE);
+    } else {
+      threads = Math.min(value, MAX_THREADS);
+    }
+
+    awaitSearch();
+    search.close();
+    search = createSearch();
+  }
+
+  private void newGame() {
+    awaitSearch();
+    search.getTable().clear();
+    position = Fen.parse(Fen.STANDARD);
+  }
+
+  /* position (startpos | fen <fields>) [moves <moves>] */
+  private void setPosition(final String[] tokens) {
+    awaitSearch();
+
+    var index = 1;
+    final Position next;
+
+    try {
+      if (tokens.length > 1 && tokens[1].equals("startpos")) {
+        next = Fen.parse(Fen.STANDARD);
+        index = 2;
+      } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+        final var fen = new StringBuilder();
+
+        for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+          fen.append(tokens[index]).append(' ');
+        }
+
+        next = Fen.parse(fen.toString().trim());
+      } else {
+        return;
+      }
+    } catch (final InvalidFenException e) {
+      output.println("info string " + e.getMessage());
+      return;
+    }
+
+    if (index < tokens.length && tokens[index].equals("moves")) {
+      for (index++; index < tokens.length; index++) {
+        final var move = parseMove(next, tokens[index]);
+
+        if (move == PackedMove.NONE) {
+          output.println("info string Illegal move " + tokens[index]);
+          return;
+        }
+
+        next.makeMove(move);
+      }
+    }
+
+    position = next;
+  }
+
+  /* Finds a move in long algebraic notation among the legal moves, or returns NONE */
+  private int parseMove(final Position current, final String text) {
+    if (text.length() < 4 || text.length() > 5) {
+      return PackedMove.NONE;
+    }
+
+    final int source;
+    final int destination;
+
+    try {
+      source = Coordinate.of(text.substring(0, 2)).index();
+      destination = Coordinate.of(text.substring(2, 4)).index();
+    } catch (final InvalidCoordinateException e) {
+      return PackedMove.NONE;
+    }
+
+    final var promotion = text.length() == 5 ? Character.toUpperCase(text.charAt(4)) : 0;
+
+    MoveGenerator.generateLegals(current, legals);
+
+    for (var i = 0; i < legals.size(); i++) {
+      final var move = legals.get(i);
+
+      if (PackedMove.source(move) == source
+          && PackedMove.destination(move) == destination
+          && (PackedMove.isPromotion(move)
+              ? PackedMove.promotion(move).getPieceName().charAt(0) == promotion
+              : promotion == 0)) {
+        return move;
+      }
+    }
+
+    return PackedMove.NONE;
+  }
+
+  private void go(final String[] tokens) {
+    awaitSearch();
+
+    var limits = SearchLimits.infinite();
+    var whiteTime = -1L;
+    var blackTime = -1L;
+    var whiteIncrement = 0L;
+    var blackIncrement = 0L;
+    var movesToGo = 0;
+    var waitForStop = false;
+
+    try {
+      for (var i = 1; i < tokens.length; i++) {
+        final var value = i + 1 < tokens.length ? tokens[i + 1] : "";
+
+        switch (tokens[i]) {
+          case "depth" -> limits = limits.withDepth(Integer.parseInt(value));
+          case "nodes" -> limits = limits.withNodes(Long.parseLong(value));
+          case "movetime" -> limits = limits.withTime(Duration.ofMillis(parseTime(value)));
+          case "wtime" -> whiteTime = parseTime(value);
+          case "btime" -> blackTime = parseTime(value);
+          case "winc" -> whiteIncrement = parseTime(value);
+          case "binc" -> blackIncrement = parseTime(value);
+          case "movestogo" -> movesToGo = Integer.parseInt(value);
+          case "infinite", "ponder" -> waitForStop = true;
+          default -> {
+            // Values of the other arguments, and unknown arguments
+          }
+        }
+      }
+    } catch (final NumberFormatException e) {
+      output.println("info string Invalid go argument " + e.getMessage());
+      return;
+    }
+
+    final var white = position.getMoveMaker() == Alliance.WHITE;
+    final var remaining = white ? whiteTime : blackTime;
+    final var timeManager =
+        remaining < 0
+            ? null
+            : new TimeManager(
+                Duration.ofMillis(remaining),
+                Duration.ofMillis(white ? whiteIncrement : blackIncrement),
+                movesToGo);
+
+    startSearch(position, limits, timeManager, waitForStop);
+  }
+
+  private void startSearch(
+      final Position searched,
+      final SearchLimits limits,
+      final TimeManager timeManager,
+      final boolean waitForStop) {
+    final var current = search;
+    final var release = new CountDownLatch(waitForStop ? 1 : 0);
+    bestMoveRelease = release;
+    // Before submitting, so a stop that arrives before the search thread starts isn't cleared
+    current.prepare();
+
+    pending =
+        searchThread.submit(
+            () -> {
+              final var result =
+                  timeManager == null
+                      ? current.search(searched, limits, this::report)
+                      : current.search(searched, limits, timeManager, this::report);
+
+              release.await();
+              output.println("bestmove " + PackedMove.toString(result.bestMove()));
+              return null;
+            });
+  }
+
+  private void report(final SearchInfo info) {
+    output.println("info " + info);
+  }
+
+  private void stop() {
+    search.stop();
+    bestMoveRelease.countDown();
+    awaitSearch();
+  }
+
+  private void quit() {
+    stop();
+    search.close();
+    searchThread.shutdownNow();
+  }
+
+  private ParallelSearch createSearch() {
+    return new ParallelSearch(
+        threads, new TranspositionTable(hashSize), Search.DEFAULT_PAWN_HASH_SIZE);
+  }
+
+  /* Clocks can run below zero in some GUIs, which is treated as no time left */
+  private static long parseTime(final String text) {
+    return Math.max(Long.parseLong(text), 0);
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.pgn.ImportedGame;
+import cl.vmardones.chess.pgn.PgnImporter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ArchiveTest {
+
+  private static final String GAMES =
+      """
+      [White "Scholar"]
+      [Black "Victim"]
+      [Result "1-0"]
+
+      1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+      [Event "Castles and en passant"]
+
+      1. e4 d5 2. e5 f5 3. exf6 e6 4. Nf3 Bd6 5. Bc4 Ne7 6. O-O O-O 1/2-1/2
+
+      [White "Víctor"]
+      [FEN "4k3/1P6/8/8/8/8/8/4K3 w - - 0 1"]
+
+      1. b8=N Kf7 2. Nc6 *
+      """;
+
+  @TempDir Path directory;
+
+  Map<Long, ImportedGame> imported = new ConcurrentHashMap<>();
+
+  @Test
+  void games() throws IOException {
+    var reader = ArchiveReader.open(writeArchive(GAMES));
+
+    assertThat(reader.size()).isEqualTo(3);
+
+    for (var id = 0; id < reader.size(); id++) {
+      var game = reader.get(id);
+      var expected = imported.get(game.hash());
+
+      assertThat(game.tags()).isEqualTo(expected.game().tags());
+      assertThat(game.result()).isEqualTo(expected.game().result());
+      assertThat(game.plies()).isEqualTo(expected.moves().length);
+      assertThat(game.moves()).isEqualTo(expected.moves());
+    }
+  }
+
+  @Test
+  void replay() throws IOException {
+    var reader = ArchiveReader.open(writeArchive(GAMES));
+
+    for (var id = 0; id < reader.size(); id++) {
+      var game = reader.get(id);
+      var position = Fen.parse(game.tags().getOrDefault("FEN", Fen.STANDARD));
+      var plies = new int[1];
+
+      for (var move : game.moves()) {
+        position.makeMove(move);
+      }
+
+      var board = game.replay((before, move) -> plies[0]++);
+
+      assertThat(plies[0]).isEqualTo(game.plies());
+      assertThat(placement(Position.of(board))).isEqualTo(placement(position));
+    }
+  }
+
+  @Test
+  void emptyArchive() throws IOException {
+    var reader = ArchiveReader.open(writeArchive(""));
+
+    assertThat(reader.size()).isZero();
+  }
+
+  @Test
+  void unknownId() throws IOException {
+    var reader = ArchiveReader.open(writeArchive(GAMES));
+
+    assertThatThrownBy(() -> reader.get(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> reader.get(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void notAnArchive() throws IOException {
+    var path = directory.resolve("games.pgn");
+    Files.writeString(path, GAMES);
+    Files.writeString(ArchiveFormat.indexOf(path), GAMES);
+
+    assertThatThrownBy(() -> ArchiveReader.open(path))
+        .isInstanceOf(InvalidArchiveException.class)
+        .hasMessageContaining("Not an archive");
+  }
+
+  @Test
+  void missingIndex() throws IOException {
+    var path = writeArchive(GAMES);
+    Files.delete(ArchiveFormat.indexOf(path));
+
+    assertThatThrownBy(() -> ArchiveReader.open(path)).isInstanceOf(NoSuchFileException.class);
+  }
+
+  @ParameterizedTest
+  @EnumSource(PerftReference.class)
+  void moveIndexes(PerftReference reference) {
+    var position = Fen.parse(reference.getFen());
+    var moves = new MoveList();
+    var legals = new MoveList();
+    var keys = new int[MoveList.DEFAULT_CAPACITY];
+    var indexes = new HashSet<Integer>();
+    MoveGenerator.generateLegals(position, moves);
+
+    for (var i = 0; i < moves.size(); i++) {
+      var index = ArchiveFormat.encode(position, moves.get(i), legals);
+
+      assertThat(index).isBetween(0, moves.size() - 1);
+      assertThat(ArchiveFormat.decode(position, index, legals, keys)).isEqualTo(moves.get(i));
+      indexes.add(index);
+    }
+
+    assertThat(indexes).hasSize(moves.size());
+  }
+
+  private Path writeArchive(String games) throws IOException {
+    var pgn = directory.resolve("games.pgn");
+    var archive = directory.resolve("games.chga");
+    Files.writeString(pgn, games);
+    var importer = new PgnImporter(2);
+
+    try (var writer = ArchiveWriter.create(archive)) {
+      importer.importFile(
+          pgn,
+          game -> {
+            imported.put(game.hash(), game);
+            writer.accept(game);
+          },
+          error -> {});
+    } finally {
+      importer.close();
+    }
+
+    return archive;
+  }
+
+  private static String placement(Position position) {
+    return Fen.toString(position).split(" ")[0];
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cl.vmardones.chess.engine.piece.*;
+import cl.vmardones.chess.engine.player.Alliance;
+import org.junit.jupiter.api.Test;
+
+class AttacksTest {
+
+  BoardService boardService = new BoardService();
+
+  @Test
+  void knight() {
+    assertThat(Attacks.knight(index("a1"))).isEqualTo(bits("b3", "c2"));
+    assertThat(Bitboard.count(Attacks.knight(index("d4")))).isEqualTo(8);
+  }
+
+  @Test
+  void king() {
+    assertThat(Attacks.king(index("h8"))).isEqualTo(bits("g8", "g7", "h7"));
+  }
+
+  @Test
+  void pawn() {
+    assertThat(Attacks.pawn(Alliance.WHITE, index("e4"))).isEqualTo(bits("d5", "f5"));
+    assertThat(Attacks.pawn(Alliance.BLACK, index("a5"))).isEqualTo(bits("b4"));
+  }
+
+  @Test
+  void slidersStopAtBlockers() {
+    var occupied = bits("d6", "f4");
+
+    assertThat(Attacks.rook(index("d4"), occupied))
+        .isEqualTo(bits("d5", "d6", "d3", "d2", "d1", "a4", "b4", "c4", "e4", "f4"));
+    assertThat(Attacks.queen(index("a1"), Bitboard.EMPTY))
+        .isEqualTo(Attacks.rook(index("a1"), 0) | Attacks.bishop(index("a1"), 0));
+  }
+
+  @Test
+  void pawnHasNoAllianceFreeAttacks() {
+    assertThatThrownBy(() -> Attacks.of(Piece.PieceType.PAWN, 0, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void standardBoard() {
+    var board = boardService.createStandardBoard();
+
+    assertThat(board.isSquareAttacked(Coordinate.of("f3"), Alliance.WHITE)).isTrue();
+    assertThat(board.isSquareAttacked(Coordinate.of("e4"), Alliance.WHITE)).isFalse();
+    assertThat(board.isSquareAttacked(Coordinate.of("e4"), Alliance.BLACK)).isFalse();
+    assertThat(board.getAttacks(Alliance.WHITE) & Bitboard.of(index("a3"))).isNotZero();
+    assertThat(Bitboard.count(board.getAttacks(Alliance.BLACK) & ~board.getOccupancy()))
+        .isEqualTo(8);
+  }
+
+  @Test
+  void sameAsOpponentMoves() {
+    var whiteKing = new King(Coordinate.of("g1"), Alliance.WHITE);
+    var blackKing = new King(Coordinate.of("e8"), Alliance.BLACK);
+    var board =
+        Board.builder(whiteKing, blackKing)
+            .piece(whiteKing)
+            .piece(blackKing)
+            .piece(new Queen(Coordinate.of("d4"), Alliance.BLACK))
+            .piece(new Knight(Coordinate.of("c6"), Alliance.BLACK))
+            .piece(new Pawn(Coordinate.of("f2"), Alliance.WHITE))
+            .build();
+
+    var destinations = Bitboard.EMPTY;
+
+    for (var move : boardService.calculateLegals(board, board.getBlackPieces())) {
+      destinations |= Bitboard.of(move.getDestination().index());
+    }
+
+    for (var index = 0; index < Board.MAX_TILES; index++) {
+      if (Bitboard.contains(board.getOccupancy(Alliance.BLACK), index)) {
+        continue;
+      }
+
+      assertThat(board.isSquareAttacked(Coordinate.of(index), Alliance.BLACK))
+          .as(Coordinate.of(index).toString())
+          .isEqualTo(Bitboard.contains(destinations, index));
+    }
+  }
+
+  private int index(String coordinate) {
+    return Coordinate.of(coordinate).index();
+  }
+
+  private long bits(String... coordinates) {
+    var bitboard = Bitboard.EMPTY;
+
+    for (var coordinate : coordinates) {
+      bitboard |= Bitboard.of(index(coordinate));
+    }
+
+    return bitboard;
+  }
+}
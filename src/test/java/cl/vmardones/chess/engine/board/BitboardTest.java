@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BitboardTest {
+
+  @Test
+  void of() {
+    assertThat(Bitboard.of(Coordinate.of("a8"))).isEqualTo(1L);
+    assertThat(Bitboard.of(Coordinate.of("h1"))).isEqualTo(Long.MIN_VALUE);
+  }
+
+  @Test
+  void contains() {
+    var bitboard = Bitboard.of(Coordinate.of("e4")) | Bitboard.of(Coordinate.of("d5"));
+
+    assertThat(Bitboard.contains(bitboard, Coordinate.of("e4").index())).isTrue();
+    assertThat(Bitboard.contains(bitboard, Coordinate.of("e5").index())).isFalse();
+  }
+
+  @Test
+  void count() {
+    assertThat(Bitboard.count(0xFFL)).isEqualTo(8);
+  }
+
+  @Test
+  void iterate() {
+    var bitboard = Bitboard.of(Coordinate.of("c7")) | Bitboard.of(Coordinate.of("b2"));
+
+    assertThat(Bitboard.first(bitboard)).isEqualTo(Coordinate.of("c7").index());
+    assertThat(Bitboard.first(Bitboard.withoutFirst(bitboard)))
+        .isEqualTo(Coordinate.of("b2").index());
+    assertThat(Bitboard.withoutFirst(Bitboard.withoutFirst(bitboard))).isEqualTo(Bitboard.EMPTY);
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.move.PawnJump;
+import cl.vmardones.chess.engine.piece.*;
+import java.util.*;
+import java.util.stream.IntStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BoardDifferentialTest {
+
+  static final int PLIES = 80;
+
+  BoardService boardService = new BoardService();
+
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 5, 8, 13, 21, 34})
+  void sameMoveSequence(long seed) {
+    var random = new Random(seed);
+    var board = boardService.createStandardBoard();
+    var expected = toTileList(board);
+
+    for (var ply = 0; ply < PLIES; ply++) {
+      var moves = List.copyOf(boardService.calculateLegals(board, board.getMoveMaker()));
+
+      if (moves.isEmpty()) {
+        break;
+      }
+
+      var move = moves.get(random.nextInt(moves.size()));
+
+      board = move.execute();
+      expected = execute(expected, move);
+
+      assertSameBoard(board, expected);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w KQkq - 0 1",
+        "r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R b KQkq - 0 1"
+      })
+  void castles(String fen) {
+    var board = boardService.createBoard(fen);
+    var castles =
+        boardService.calculateLegals(board, board.getMoveMaker()).stream()
+            .filter(Move::isCastling)
+            .toList();
+
+    assertThat(castles).hasSize(2);
+
+    for (var castle : castles) {
+      assertSameBoard(castle.execute(), execute(toTileList(board), castle));
+    }
+  }
+
+  private static TileListBoard toTileList(Board board) {
+    var builder =
+        TileListBoard.builder(board.getWhiteKing(), board.getBlackKing())
+            .enPassantPawn(board.getEnPassantPawn());
+    board.getWhitePieces().forEach(builder::piece);
+    board.getBlackPieces().forEach(builder::piece);
+
+    return builder.build();
+  }
+
+  /* The moves of the board model, made the way they were made on the tile list */
+  private static TileListBoard execute(TileListBoard board, Move move) {
+    var piece = board.getTile(move.getSource()).getPiece().orElseThrow();
+    var moved = moved(piece, move.getDestination());
+    var builder = board.nextTurnBuilder().withoutPiece(piece);
+
+    if (move.isCapturing()) {
+      var position = move.getCapturedPiece().getPosition();
+      builder.withoutPiece(board.getTile(position).getPiece().orElseThrow());
+    }
+
+    if (move.isCastling()) {
+      var kingSide = move.getDestination().getColumn() == 'g';
+      var rank = move.getDestination().getRank();
+      var rookSource = Coordinate.of((kingSide ? "h" : "a") + rank);
+      var rook = board.getTile(rookSource).getPiece().orElseThrow();
+
+      builder
+          .withoutPiece(rook)
+          .piece(new Rook(Coordinate.of((kingSide ? "f" : "d") + rank), rook.getAlliance(), false));
+    }
+
+    builder.piece(moved);
+
+    if (move instanceof PawnJump) {
+      builder.enPassantPawn((Pawn) moved);
+    }
+
+    return builder.build();
+  }
+
+  private static Piece moved(Piece piece, Coordinate destination) {
+    var alliance = piece.getAlliance();
+
+    return switch (piece.getPieceType()) {
+      case PAWN -> new Pawn(destination, alliance, false);
+      case KNIGHT -> new Knight(destination, alliance, false);
+      case BISHOP -> new Bishop(destination, alliance, false);
+      case ROOK -> new Rook(destination, alliance, false);
+      case QUEEN -> new Queen(destination, alliance, false);
+      case KING -> new King(destination, alliance, false);
+    };
+  }
+
+  private void assertSameBoard(Board board, TileListBoard expected) {
+    IntStream.range(Board.MIN_TILES, Board.MAX_TILES)
+        .mapToObj(Coordinate::of)
+        .forEach(
+            coordinate -> {
+              assertThat(board.getTile(coordinate))
+                  .hasToString(expected.getTile(coordinate).toString());
+              assertThat(board.containsNothing(coordinate))
+                  .isEqualTo(expected.containsNothing(coordinate));
+
+              for (var pieceType : Piece.PieceType.values()) {
+                assertThat(board.contains(coordinate, pieceType))
+                    .isEqualTo(expected.contains(coordinate, pieceType));
+              }
+            });
+
+    assertThat(describe(board.getWhitePieces()))
+        .containsExactlyElementsOf(describe(expected.getWhitePieces()));
+    assertThat(describe(board.getBlackPieces()))
+        .containsExactlyElementsOf(describe(expected.getBlackPieces()));
+    assertThat(board.getWhiteKing()).isSameAs(expected.getWhiteKing());
+    assertThat(board.getBlackKing()).isSameAs(expected.getBlackKing());
+    assertThat(describe(board.getEnPassantPawn()))
+        .isEqualTo(describe(expected.getEnPassantPawn()));
+  }
+
+  private List<String> describe(Collection<Piece> pieces) {
+    return pieces.stream().map(this::describe).toList();
+  }
+
+  private String describe(Piece piece) {
+    if (piece == null) {
+      return "none";
+    }
+
+    return piece.getAlliance()
+        + piece.toSingleChar()
+        + piece.getPosition()
+        + (piece.isFirstMove() ? "" : "'");
+  }
+}
@@ -9,6 +9,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import cl.vmardones.chess.engine.move.Move;
 import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
 import java.util.Collection;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +49,16 @@ class BoardServiceTest {
         .contains("\n");
   }
 
+  @Test
+  void createBoard() {
+    var board = boardService.createBoard("4k3/8/8/3pP3/8/8/8/4K2R w K d6 0 1");
+
+    assertThat(board.getMoveMaker()).isEqualTo(Alliance.WHITE);
+    assertThat(board.getCastlingRights()).isEqualTo(CastlingRights.WHITE_KING_SIDE);
+    assertThat(board.getEnPassantPawn()).isNotNull();
+    assertThat(board.getEnPassantPawn().getPosition()).isEqualTo(Coordinate.of("d5"));
+  }
+
   @Test
   void calculateLegals() {
     pieces = List.of(piece1, piece2);
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
 import cl.vmardones.chess.engine.piece.King;
+import cl.vmardones.chess.engine.piece.Knight;
 import cl.vmardones.chess.engine.piece.Pawn;
 import cl.vmardones.chess.engine.piece.Piece;
 import cl.vmardones.chess.engine.player.Alliance;
@@ -41,6 +42,7 @@ class BoardTest {
   @Test
   void contains() {
     when(piece.getPosition()).thenReturn(Coordinate.of("e2"));
+    when(piece.getAlliance()).thenReturn(Alliance.BLACK);
     when(piece.getPieceType()).thenReturn(Piece.PieceType.BISHOP);
 
     var board = builder.piece(piece).build();
@@ -68,6 +70,7 @@ class BoardTest {
   void piece() {
     when(piece.getPosition()).thenReturn(Coordinate.of("d7"));
     when(piece.getAlliance()).thenReturn(Alliance.WHITE);
+    when(piece.getPieceType()).thenReturn(Piece.PieceType.KNIGHT);
 
     var board = builder.piece(piece).build();
 
@@ -76,6 +79,8 @@ class BoardTest {
 
   @Test
   void withoutPiece() {
+    when(piece.getPosition()).thenReturn(Coordinate.of("d7"));
+
     var board = builder.withoutPiece(piece).build();
 
     assertThat(board.getWhitePieces()).isEmpty();
@@ -85,7 +90,9 @@ class BoardTest {
   void withoutPieceItHadBefore() {
     when(piece.getPosition()).thenReturn(Coordinate.of("d7"));
     when(piece.getAlliance()).thenReturn(Alliance.WHITE);
+    when(piece.getPieceType()).thenReturn(Piece.PieceType.KNIGHT);
 
+    var emptyBoard = Board.builder(whiteKing, blackKing).build();
     var board = builder.piece(piece).build();
     var nextTurnBoard = board.nextTurnBuilder().withoutPiece(piece).build();
 
@@ -95,6 +102,8 @@ class BoardTest {
 
   @Test
   void enPassantPawn() {
+    when(enPassantPawn.getPosition()).thenReturn(Coordinate.of("e4"));
+
     var board = builder.enPassantPawn(enPassantPawn).build();
 
     assertThat(board.getEnPassantPawn()).isEqualTo(enPassantPawn);
@@ -102,10 +111,65 @@ class BoardTest {
 
   @Test
   void noEnPassantPawnNextTurn() {
+    when(enPassantPawn.getPosition()).thenReturn(Coordinate.of("e4"));
+
     var board = builder.enPassantPawn(enPassantPawn).build();
     var nextTurnBoard = board.nextTurnBuilder().build();
 
     assertThat(board.getEnPassantPawn()).isEqualTo(enPassantPawn);
     assertThat(nextTurnBoard.getEnPassantPawn()).isNull();
   }
+
+  @Test
+  void zobristKey() {
+    when(piece.getPosition()).thenReturn(Coordinate.of("e2"));
+    when(piece.getAlliance()).thenReturn(Alliance.WHITE);
+    when(piece.getPieceType()).thenReturn(Piece.PieceType.PAWN);
+
+    var emptyBoard = Board.builder(whiteKing, blackKing).build();
+    var board = builder.piece(piece).build();
+    var nextTurnBoard =
+        board.nextTurnBuilder().withoutPiece(piece).moveMaker(Alliance.WHITE).build();
+
+    assertThat(board.zobristKey()).isEqualTo(Zobrist.calculate(board)).isNotZero();
+    assertThat(nextTurnBoard.zobristKey()).isEqualTo(emptyBoard.zobristKey());
+    assertThat(nextTurnBoard).isEqualTo(emptyBoard).isNotEqualTo(board);
+  }
+
+  @Test
+  void moveMaker() {
+    var board = builder.build();
+    var nextTurnBoard = board.nextTurnBuilder().build();
+
+    assertThat(board.getMoveMaker()).isEqualTo(Alliance.WHITE);
+    assertThat(nextTurnBoard.getMoveMaker()).isEqualTo(Alliance.BLACK);
+  }
+
+  @Test
+  void bitboards() {
+    when(piece.getPosition()).thenReturn(Coordinate.of("c3"));
+    when(piece.getAlliance()).thenReturn(Alliance.BLACK);
+    when(piece.getPieceType()).thenReturn(Piece.PieceType.ROOK);
+
+    var board = builder.piece(piece).build();
+
+    assertThat(board.getBitboard(Alliance.BLACK, Piece.PieceType.ROOK))
+        .isEqualTo(Bitboard.of(Coordinate.of("c3")));
+    assertThat(board.getBitboard(Alliance.WHITE, Piece.PieceType.ROOK)).isEqualTo(Bitboard.EMPTY);
+    assertThat(board.getOccupancy(Alliance.BLACK)).isEqualTo(Bitboard.of(Coordinate.of("c3")));
+    assertThat(board.getOccupancy()).isEqualTo(Bitboard.of(Coordinate.of("c3")));
+  }
+
+  @Test
+  void replacePiece() {
+    var other = new Knight(Coordinate.of("c3"), Alliance.WHITE);
+    when(piece.getPosition()).thenReturn(Coordinate.of("c3"));
+    when(piece.getAlliance()).thenReturn(Alliance.BLACK);
+    when(piece.getPieceType()).thenReturn(Piece.PieceType.ROOK);
+
+    var board = builder.piece(piece).piece(other).build();
+
+    assertThat(board.getOccupancy(Alliance.BLACK)).isEqualTo(Bitboard.EMPTY);
+    assertThat(board.getWhitePieces()).containsExactly(other);
+  }
 }
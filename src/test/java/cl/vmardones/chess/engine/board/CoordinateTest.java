@@ -118,6 +118,12 @@ class CoordinateTest {
     assertThat(Coordinate.of("b1").to(-2, 1)).isEmpty();
   }
 
+  @Test
+  void toFarOutside() {
+    assertThat(Coordinate.of("a1").to(8, 0)).isEmpty();
+    assertThat(Coordinate.of("h8").to(-9, 0)).isEmpty();
+  }
+
   @Test
   void up() {
     assertThat(Coordinate.of("a1").up(2)).isPresent();
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.piece.PieceCode;
+import cl.vmardones.chess.engine.player.Alliance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FenTest {
+
+  @Test
+  void standardPosition() {
+    var position = Fen.parse(Fen.STANDARD);
+    var expected = Position.of(new BoardService().createStandardBoard());
+
+    assertThat(position.getZobristKey()).isEqualTo(expected.getZobristKey());
+    assertThat(position.getZobristKey()).isEqualTo(Zobrist.calculate(position));
+    assertThat(position.getCastlingRights()).isEqualTo(CastlingRights.ALL);
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.WHITE);
+  }
+
+  @Test
+  void allFields() {
+    var position = Fen.parse("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 4 3");
+
+    assertThat(position.getEnPassantTarget()).isEqualTo(Coordinate.of("f6").index());
+    assertThat(position.getCastlingRights())
+        .isEqualTo(CastlingRights.WHITE_KING_SIDE | CastlingRights.BLACK_QUEEN_SIDE);
+    assertThat(position.getHalfmoveClock()).isEqualTo(4);
+    assertThat(position.getPieceCode(Coordinate.of("e5").index()))
+        .isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.PAWN));
+  }
+
+  @Test
+  void epdLine() {
+    var position = Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - bm Kd7; id \"test\";");
+
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.BLACK);
+    assertThat(position.getHalfmoveClock()).isZero();
+  }
+
+  @Test
+  void fullmoveNumber() {
+    var position = Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - 12 40");
+
+    assertThat(position.getFullmoveNumber()).isEqualTo(40);
+
+    position.makeMove(Coordinate.of("e8"), Coordinate.of("d8"));
+
+    assertThat(position.getFullmoveNumber()).isEqualTo(41);
+
+    position.makeMove(Coordinate.of("e1"), Coordinate.of("d1"));
+
+    assertThat(position.getFullmoveNumber()).isEqualTo(41);
+
+    position.unmakeMove();
+    position.unmakeMove();
+
+    assertThat(position.getFullmoveNumber()).isEqualTo(40);
+  }
+
+  @Test
+  void epdLineHasNoFullmoveNumber() {
+    assertThat(Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 3 id \"x\";").getFullmoveNumber()).isOne();
+  }
+
+  @ParameterizedTest
+  @EnumSource(PerftReference.class)
+  void writeReferencePositions(PerftReference reference) {
+    assertThat(Fen.toString(Fen.parse(reference.getFen()))).isEqualTo(reference.getFen());
+  }
+
+  @Test
+  void writeAfterMoves() {
+    var position = Fen.parse(Fen.STANDARD);
+
+    position.makeMove(Coordinate.of("e2"), Coordinate.of("e4"));
+    position.makeMove(Coordinate.of("c7"), Coordinate.of("c5"));
+
+    assertThat(Fen.toString(position))
+        .isEqualTo("rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2");
+
+    position.makeMove(Coordinate.of("g1"), Coordinate.of("f3"));
+
+    assertThat(Fen.toString(position))
+        .isEqualTo("rnbqkbnr/pp1ppppp/8/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2");
+  }
+
+  @Test
+  void writeAppends() {
+    var builder = new StringBuilder("fen ");
+
+    Fen.write(Fen.parse("8/8/8/8/8/8/8/K6k w - - 0 1"), builder);
+
+    assertThat(builder).hasToString("fen 8/8/8/8/8/8/8/K6k w - - 0 1");
+  }
+
+  @Test
+  void unavailableCastlingRights() {
+    var position = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w KQkq - 0 1");
+
+    assertThat(position.getCastlingRights()).isEqualTo(CastlingRights.WHITE_QUEEN_SIDE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "8/8/8/8/8/8/8/8 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3",
+        "4k3/8/8/8/8/8/8/4K3 x - - 0 1",
+        "4k3/8/8/8/8/8/8/4K4 w - - 0 1",
+        "4k3/8/8/8/8/8/8 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4X3 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w X - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w - e4 0 1"
+      })
+  void invalidFen(String fen) {
+    assertThatThrownBy(() -> Fen.parse(fen)).isInstanceOf(InvalidFenException.class);
+  }
+}
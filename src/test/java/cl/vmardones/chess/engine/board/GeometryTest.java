@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class GeometryTest {
+
+  @Test
+  void step() {
+    assertThat(Geometry.step(index("b2"), 1, 1)).isEqualTo(index("c3"));
+    assertThat(Geometry.step(index("h1"), -7, 7)).isEqualTo(index("a8"));
+  }
+
+  @Test
+  void stepOutside() {
+    assertThat(Geometry.step(index("b1"), -2, 1)).isEqualTo(Position.NO_SQUARE);
+    assertThat(Geometry.step(index("a1"), 8, 0)).isEqualTo(Position.NO_SQUARE);
+    assertThat(Geometry.step(index("a1"), 0, -1)).isEqualTo(Position.NO_SQUARE);
+  }
+
+  @Test
+  void knightTargets() {
+    assertThat(names(Geometry.knightTargets(index("a1")))).containsExactlyInAnyOrder("b3", "c2");
+    assertThat(Geometry.knightTargets(index("e4"))).hasSize(8);
+  }
+
+  @Test
+  void kingTargets() {
+    assertThat(names(Geometry.kingTargets(index("h8"))))
+        .containsExactlyInAnyOrder("g8", "g7", "h7");
+    assertThat(Geometry.kingTargets(index("d5"))).hasSize(8);
+  }
+
+  @Test
+  void ray() {
+    assertThat(names(Geometry.ray(index("c3"), 1, 1)))
+        .containsExactly("d4", "e5", "f6", "g7", "h8");
+    assertThat(Geometry.ray(index("a5"), -1, 0)).isEmpty();
+    assertThat(Geometry.ray(index("a5"), 0, 0)).isEmpty();
+  }
+
+  @Test
+  void between() {
+    assertThat(Geometry.between(index("a1"), index("a4")))
+        .isEqualTo(Bitboard.of(index("a2")) | Bitboard.of(index("a3")));
+    assertThat(Geometry.between(index("a1"), index("b3"))).isZero();
+  }
+
+  @Test
+  void line() {
+    assertThat(Geometry.line(index("b2"), index("d4")))
+        .isEqualTo(Geometry.line(index("a1"), index("h8")));
+    assertThat(Bitboard.count(Geometry.line(index("b2"), index("d4")))).isEqualTo(8);
+    assertThat(Geometry.line(index("a1"), index("b3"))).isZero();
+  }
+
+  @Test
+  void distance() {
+    assertThat(Geometry.distance(index("a1"), index("h8"))).isEqualTo(7);
+    assertThat(Geometry.distance(index("e4"), index("f6"))).isEqualTo(2);
+    assertThat(Geometry.manhattanDistance(index("e4"), index("f6"))).isEqualTo(3);
+  }
+
+  private int index(String coordinate) {
+    return Coordinate.of(coordinate).index();
+  }
+
+  private String[] names(int[] squares) {
+    return Arrays.stream(squares)
+        .mapToObj(square -> Coordinate.of(square).toString())
+        .toArray(String[]::new);
+  }
+}
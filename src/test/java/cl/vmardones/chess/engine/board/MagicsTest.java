@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class MagicsTest {
+
+  static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
+  static final int[][] BISHOP_DIRECTIONS = {{-1, 1}, {1, 1}, {-1, -1}, {1, -1}};
+
+  @Test
+  void magicNumbers() {
+    assertThat(Magics.getMagicNumbers()).hasSize(2 * Board.MAX_TILES).doesNotContain(0L);
+  }
+
+  @Test
+  void rookMatchesRays() {
+    var random = new SplittableRandom(1);
+
+    for (var square = 0; square < Board.MAX_TILES; square++) {
+      for (var i = 0; i < 100; i++) {
+        var occupied = random.nextLong() & random.nextLong();
+
+        assertThat(Magics.ROOK.attacks(square, occupied))
+            .isEqualTo(walk(square, ROOK_DIRECTIONS, occupied));
+      }
+    }
+  }
+
+  @Test
+  void bishopMatchesRays() {
+    var random = new SplittableRandom(2);
+
+    for (var square = 0; square < Board.MAX_TILES; square++) {
+      for (var i = 0; i < 100; i++) {
+        var occupied = random.nextLong() & random.nextLong();
+
+        assertThat(Magics.BISHOP.attacks(square, occupied))
+            .isEqualTo(walk(square, BISHOP_DIRECTIONS, occupied));
+      }
+    }
+  }
+
+  @Test
+  void emptyBoard() {
+    assertThat(Bitboard.count(Magics.ROOK.attacks(Coordinate.of("d4").index(), 0))).isEqualTo(14);
+    assertThat(Bitboard.count(Magics.BISHOP.attacks(Coordinate.of("a1").index(), -1L)))
+        .isEqualTo(1);
+  }
+
+  private long walk(int square, int[][] directions, long occupied) {
+    var attacks = Bitboard.EMPTY;
+
+    for (var direction : directions) {
+      for (var current : Geometry.ray(square, direction[0], direction[1])) {
+        attacks |= Bitboard.of(current);
+
+        if (Bitboard.contains(occupied, current)) {
+          break;
+        }
+      }
+    }
+
+    return attacks;
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.piece.*;
+import cl.vmardones.chess.engine.player.Alliance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PositionTest {
+
+  BoardService boardService = new BoardService();
+  Position position;
+
+  @BeforeEach
+  void setUp() {
+    position = Position.of(boardService.createStandardBoard());
+  }
+
+  @Test
+  void standardPosition() {
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.WHITE);
+    assertThat(position.getCastlingRights()).isEqualTo(CastlingRights.ALL);
+    assertThat(position.getEnPassantTarget()).isEqualTo(Position.NO_SQUARE);
+    assertThat(Bitboard.count(position.getOccupancy())).isEqualTo(32);
+    assertThat(pieceAt("e1")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.KING));
+  }
+
+  @Test
+  void makeMove() {
+    position.makeMove(Coordinate.of("g1"), Coordinate.of("f3"));
+
+    assertThat(pieceAt("g1")).isEqualTo(PieceCode.NONE);
+    assertThat(pieceAt("f3")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.KNIGHT));
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.BLACK);
+    assertThat(position.getHalfmoveClock()).isEqualTo(1);
+    assertThat(position.getPly()).isEqualTo(1);
+  }
+
+  @Test
+  void pawnJump() {
+    position.makeMove(Coordinate.of("e2"), Coordinate.of("e4"));
+
+    assertThat(position.getEnPassantTarget()).isEqualTo(Coordinate.of("e3").index());
+    assertThat(position.getHalfmoveClock()).isZero();
+  }
+
+  @Test
+  void unmakeMove() {
+    var before = boardService.prettyPrint(position.toBoard());
+
+    play("e2e4", "d7d5", "e4d5", "d8d5", "b1c3", "d5a5");
+    for (var i = 0; i < 6; i++) {
+      position.unmakeMove();
+    }
+
+    assertThat(boardService.prettyPrint(position.toBoard())).isEqualTo(before);
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.WHITE);
+    assertThat(position.getCastlingRights()).isEqualTo(CastlingRights.ALL);
+    assertThat(position.getEnPassantTarget()).isEqualTo(Position.NO_SQUARE);
+    assertThat(position.getPly()).isZero();
+  }
+
+  @Test
+  void unmakeWithoutMoves() {
+    assertThatThrownBy(() -> position.unmakeMove()).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void moveWrongPiece() {
+    assertThatThrownBy(() -> position.makeMove(Coordinate.of("e7"), Coordinate.of("e5")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("e7");
+  }
+
+  @Test
+  void capture() {
+    play("e2e4", "d7d5", "e4d5");
+
+    assertThat(pieceAt("d5")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.PAWN));
+    assertThat(Bitboard.count(position.getOccupancy(Alliance.BLACK))).isEqualTo(15);
+
+    position.unmakeMove();
+
+    assertThat(pieceAt("d5")).isEqualTo(PieceCode.of(Alliance.BLACK, Piece.PieceType.PAWN));
+    assertThat(pieceAt("e4")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.PAWN));
+  }
+
+  @Test
+  void enPassant() {
+    play("e2e4", "a7a6", "e4e5", "d7d5", "e5d6");
+
+    assertThat(pieceAt("d5")).isEqualTo(PieceCode.NONE);
+    assertThat(pieceAt("d6")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.PAWN));
+
+    position.unmakeMove();
+
+    assertThat(pieceAt("d5")).isEqualTo(PieceCode.of(Alliance.BLACK, Piece.PieceType.PAWN));
+    assertThat(pieceAt("d6")).isEqualTo(PieceCode.NONE);
+    assertThat(position.getEnPassantTarget()).isEqualTo(Coordinate.of("d6").index());
+  }
+
+  @Test
+  void castle() {
+    play("e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "e1g1");
+
+    assertThat(pieceAt("g1")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.KING));
+    assertThat(pieceAt("f1")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.ROOK));
+    assertThat(pieceAt("h1")).isEqualTo(PieceCode.NONE);
+    assertThat(position.getCastlingRights())
+        .isEqualTo(CastlingRights.BLACK_KING_SIDE | CastlingRights.BLACK_QUEEN_SIDE);
+
+    position.unmakeMove();
+
+    assertThat(pieceAt("e1")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.KING));
+    assertThat(pieceAt("h1")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.ROOK));
+    assertThat(position.getCastlingRights()).isEqualTo(CastlingRights.ALL);
+  }
+
+  @Test
+  void rookMoveLosesCastlingRight() {
+    play("a2a4", "h7h5", "a1a3", "h8h6");
+
+    assertThat(position.getCastlingRights())
+        .isEqualTo(CastlingRights.WHITE_KING_SIDE | CastlingRights.BLACK_QUEEN_SIDE);
+  }
+
+  @Test
+  void promotion() {
+    play("h2h4", "g7g5", "h4g5", "f8g7", "g5g6", "g8f6", "g6g7", "a7a6");
+    position.makeMove(
+        position.createMove(
+            Coordinate.of("g7").index(), Coordinate.of("h8").index(), Piece.PieceType.KNIGHT));
+
+    assertThat(pieceAt("h8")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.KNIGHT));
+    assertThat(position.getCastlingRights() & CastlingRights.BLACK_KING_SIDE).isZero();
+
+    position.unmakeMove();
+
+    assertThat(pieceAt("g7")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.PAWN));
+    assertThat(pieceAt("h8")).isEqualTo(PieceCode.of(Alliance.BLACK, Piece.PieceType.ROOK));
+  }
+
+  @Test
+  void lastMove() {
+    assertThat(position.getLastMove()).isEqualTo(PackedMove.NONE);
+
+    play("b1c3");
+
+    assertThat(PackedMove.toString(position.getLastMove())).isEqualTo("b1c3");
+  }
+
+  @Test
+  void nullMove() {
+    play("e2e4");
+    var key = position.getZobristKey();
+
+    position.makeNullMove();
+
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.WHITE);
+    assertThat(position.getEnPassantTarget()).isEqualTo(Position.NO_SQUARE);
+    assertThat(position.getLastMove()).isEqualTo(PackedMove.NONE);
+    assertThat(position.getZobristKey()).isEqualTo(Zobrist.calculate(position));
+
+    position.unmakeMove();
+
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.BLACK);
+    assertThat(position.getEnPassantTarget()).isEqualTo(Coordinate.of("e3").index());
+    assertThat(position.getZobristKey()).isEqualTo(key);
+    assertThat(PackedMove.toString(position.getLastMove())).isEqualTo("e2e4");
+  }
+
+  @Test
+  void toBoard() {
+    play("e2e4", "c7c5");
+
+    var board = position.toBoard();
+
+    assertThat(board.getMoveMaker()).isEqualTo(Alliance.WHITE);
+    assertThat(board.contains(Coordinate.of("e4"), Piece.PieceType.PAWN)).isTrue();
+    assertThat(board.containsNothing(Coordinate.of("c7"))).isTrue();
+    assertThat(board.getEnPassantPawn().getPosition()).isEqualTo(Coordinate.of("c5"));
+    assertThat(board.getWhiteKing().isFirstMove()).isTrue();
+    assertThat(Position.of(board).getCastlingRights()).isEqualTo(CastlingRights.ALL);
+  }
+
+  @Test
+  void copy() {
+    var copy = position.copy();
+    copy.makeMove(Coordinate.of("d2"), Coordinate.of("d4"));
+
+    assertThat(pieceAt("d2")).isEqualTo(PieceCode.of(Alliance.WHITE, Piece.PieceType.PAWN));
+    assertThat(position.getMoveMaker()).isEqualTo(Alliance.WHITE);
+  }
+
+  @Test
+  void copyKeepsHistory() {
+    play("g1f3", "g8f6");
+    var key = position.getZobristKey(1);
+
+    var copy = position.copy();
+    copy.unmakeMove();
+
+    assertThat(copy.getPly()).isEqualTo(1);
+    assertThat(copy.getZobristKey()).isEqualTo(key);
+    assertThat(position.getPly()).isEqualTo(2);
+  }
+
+  private int pieceAt(String coordinate) {
+    return position.getPieceCode(Coordinate.of(coordinate).index());
+  }
+
+  private void play(String... moves) {
+    for (var move : moves) {
+      position.makeMove(Coordinate.of(move.substring(0, 2)), Coordinate.of(move.substring(2)));
+    }
+  }
+}
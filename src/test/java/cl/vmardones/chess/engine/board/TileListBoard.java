@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import cl.vmardones.chess.engine.piece.King;
+import cl.vmardones.chess.engine.piece.Pawn;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import com.google.common.collect.ImmutableList;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * The original board, a list of 64 tiles filled from a map of pieces by its builder. It's the board
+ * from before bitboards, without the logging, kept only as a reference implementation for checking
+ * {@link Board}.
+ */
+final class TileListBoard {
+
+  private final List<Tile> tiles;
+  private final Collection<Piece> whitePieces;
+  private final King whiteKing;
+  private final Collection<Piece> blackPieces;
+  private final King blackKing;
+  private final Pawn enPassantPawn;
+
+  private TileListBoard(final Builder builder) {
+    tiles = createTiles(builder);
+    whiteKing = builder.whiteKing;
+    whitePieces = calculateActivePieces(tiles, Alliance.WHITE);
+    blackKing = builder.blackKing;
+    blackPieces = calculateActivePieces(tiles, Alliance.BLACK);
+    enPassantPawn = builder.enPassantPawn;
+  }
+
+  private List<Tile> createTiles(final Builder builder) {
+    return IntStream.range(Board.MIN_TILES, Board.MAX_TILES)
+        .mapToObj(Coordinate::of)
+        .map(coordinate -> Tile.create(coordinate, builder.boardConfig.get(coordinate)))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private Collection<Piece> calculateActivePieces(
+      final List<Tile> gameBoard, final Alliance alliance) {
+    return gameBoard.stream()
+        .map(Tile::getPiece)
+        .flatMap(Optional::stream)
+        .filter(piece -> piece.getAlliance() == alliance)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  Tile getTile(final Coordinate coordinate) {
+    return tiles.get(coordinate.index());
+  }
+
+  boolean contains(final Coordinate coordinate, final Piece.PieceType pieceType) {
+    final var piece = getTile(coordinate).getPiece();
+
+    return piece.isPresent() && piece.get().getPieceType() == pieceType;
+  }
+
+  boolean containsNothing(final Coordinate coordinate) {
+    return getTile(coordinate).getPiece().isEmpty();
+  }
+
+  Collection<Piece> getWhitePieces() {
+    return whitePieces;
+  }
+
+  King getWhiteKing() {
+    return whiteKing;
+  }
+
+  Collection<Piece> getBlackPieces() {
+    return blackPieces;
+  }
+
+  King getBlackKing() {
+    return blackKing;
+  }
+
+  Pawn getEnPassantPawn() {
+    return enPassantPawn;
+  }
+
+  static Builder builder(final King whiteKing, final King blackKing) {
+    return new Builder(whiteKing, blackKing);
+  }
+
+  Builder nextTurnBuilder() {
+    return new Builder(this);
+  }
+
+  static final class Builder {
+
+    private final Map<Coordinate, Piece> boardConfig = new HashMap<>();
+    private final King whiteKing;
+    private final King blackKing;
+    private Pawn enPassantPawn;
+
+    private Builder(final King whiteKing, final King blackKing) {
+      this.whiteKing = whiteKing;
+      this.blackKing = blackKing;
+    }
+
+    private Builder(final TileListBoard board) {
+      whiteKing = board.whiteKing;
+      blackKing = board.blackKing;
+
+      board.getWhitePieces().forEach(this::piece);
+      board.getBlackPieces().forEach(this::piece);
+    }
+
+    Builder piece(final Piece piece) {
+      boardConfig.put(piece.getPosition(), piece);
+      return this;
+    }
+
+    Builder withoutPiece(final Piece piece) {
+      boardConfig.remove(piece.getPosition(), piece);
+      return this;
+    }
+
+    Builder enPassantPawn(final Pawn pawn) {
+      enPassantPawn = pawn;
+      return this;
+    }
+
+    TileListBoard build() {
+      return new TileListBoard(this);
+    }
+  }
+}
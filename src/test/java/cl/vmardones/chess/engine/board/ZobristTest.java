@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ZobristTest {
+
+  static final int PLIES = 80;
+
+  BoardService boardService = new BoardService();
+
+  @Test
+  void standardBoard() {
+    var board = boardService.createStandardBoard();
+
+    assertThat(board.zobristKey())
+        .isEqualTo(Zobrist.calculate(board))
+        .isEqualTo(Position.of(board).getZobristKey());
+  }
+
+  @Test
+  void moveMaker() {
+    var board = boardService.createStandardBoard();
+    var blackBoard = board.nextTurnBuilder().build();
+
+    assertThat(blackBoard.zobristKey())
+        .isEqualTo(board.zobristKey() ^ Zobrist.moveMaker(Alliance.BLACK));
+    assertThat(blackBoard).isNotEqualTo(board);
+  }
+
+  @Test
+  void transposition() {
+    var first = Position.of(boardService.createStandardBoard());
+    makeMoves(first, "g1", "f3", "b8", "c6", "b1", "c3", "g8", "f6");
+
+    var second = Position.of(boardService.createStandardBoard());
+    makeMoves(second, "b1", "c3", "g8", "f6", "g1", "f3", "b8", "c6");
+
+    assertThat(first.getZobristKey()).isEqualTo(second.getZobristKey());
+    assertThat(first.toBoard()).isEqualTo(second.toBoard()).hasSameHashCodeAs(second.toBoard());
+  }
+
+  @Test
+  void castlingRights() {
+    var position = Position.of(boardService.createStandardBoard());
+    makeMoves(position, "g1", "f3", "g8", "f6", "h1", "g1", "h8", "g8", "g1", "h1", "g8", "h8");
+
+    var standard = Position.of(boardService.createStandardBoard());
+
+    assertThat(position.getZobristKey()).isNotEqualTo(standard.getZobristKey());
+    assertThat(position.toBoard()).isNotEqualTo(standard.toBoard());
+  }
+
+  @Test
+  void enPassant() {
+    var position = Position.of(boardService.createStandardBoard());
+    makeMoves(position, "e2", "e4");
+
+    var board = position.toBoard();
+    var withoutEnPassant = board.nextTurnBuilder().moveMaker(Alliance.BLACK).build();
+
+    assertThat(board.zobristKey()).isEqualTo(position.getZobristKey());
+    assertThat(withoutEnPassant.zobristKey())
+        .isEqualTo(board.zobristKey() ^ Zobrist.enPassant(position.getEnPassantTarget()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 5, 8, 13})
+  void incrementalBoardKey(long seed) {
+    var random = new Random(seed);
+    var board = boardService.createStandardBoard();
+
+    for (var ply = 0; ply < PLIES; ply++) {
+      var pieces =
+          board.getMoveMaker() == Alliance.WHITE ? board.getWhitePieces() : board.getBlackPieces();
+      var moves =
+          boardService.calculateLegals(board, pieces).stream()
+              .filter(
+                  move ->
+                      !move.isCapturing()
+                          || move.getCapturedPiece().getPieceType() != Piece.PieceType.KING)
+              .toList();
+
+      if (moves.isEmpty()) {
+        break;
+      }
+
+      board = moves.get(random.nextInt(moves.size())).execute();
+
+      assertThat(board.zobristKey())
+          .isEqualTo(Zobrist.calculate(board))
+          .isEqualTo(Position.of(board).getZobristKey());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 5, 8, 13})
+  void incrementalPositionKey(long seed) {
+    var random = new Random(seed);
+    var position = Position.of(boardService.createStandardBoard());
+    var initialKey = position.getZobristKey();
+    var moves = new MoveList();
+
+    for (var ply = 0; ply < PLIES; ply++) {
+      MoveGenerator.generatePseudoLegals(position, moves);
+      var move = moves.get(random.nextInt(moves.size()));
+      position.makeMove(move);
+
+      if (MoveGenerator.leftKingInCheck(position)) {
+        position.unmakeMove();
+        continue;
+      }
+
+      assertThat(position.getZobristKey()).isEqualTo(Zobrist.calculate(position));
+      assertThat(position.getZobristKey(position.getPly() - 1))
+          .isNotEqualTo(position.getZobristKey());
+    }
+
+    while (position.getPly() > 0) {
+      position.unmakeMove();
+      assertThat(position.getZobristKey()).isEqualTo(Zobrist.calculate(position));
+    }
+
+    assertThat(position.getZobristKey()).isEqualTo(initialKey);
+  }
+
+  @Test
+  void pawnKeyIgnoresOtherPieces() {
+    var position = Position.of(boardService.createStandardBoard());
+    var initialKey = position.getPawnKey();
+
+    makeMoves(position, "g1", "f3", "b8", "c6");
+
+    assertThat(position.getPawnKey()).isEqualTo(initialKey);
+
+    makeMoves(position, "e2", "e4");
+
+    assertThat(position.getPawnKey()).isNotEqualTo(initialKey);
+    assertThat(Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1").getPawnKey()).isZero();
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 5, 8, 13})
+  void incrementalPawnKey(long seed) {
+    var random = new Random(seed);
+    var position = Position.of(boardService.createStandardBoard());
+    var initialKey = position.getPawnKey();
+    var moves = new MoveList();
+
+    for (var ply = 0; ply < PLIES; ply++) {
+      MoveGenerator.generateLegals(position, moves);
+
+      if (moves.isEmpty()) {
+        break;
+      }
+
+      position.makeMove(moves.get(random.nextInt(moves.size())));
+      assertThat(position.getPawnKey()).isEqualTo(Zobrist.calculatePawns(position));
+    }
+
+    while (position.getPly() > 0) {
+      position.unmakeMove();
+      assertThat(position.getPawnKey()).isEqualTo(Zobrist.calculatePawns(position));
+    }
+
+    assertThat(position.getPawnKey()).isEqualTo(initialKey);
+  }
+
+  private void makeMoves(Position position, String... coordinates) {
+    for (var i = 0; i < coordinates.length; i += 2) {
+      position.makeMove(Coordinate.of(coordinates[i]), Coordinate.of(coordinates[i + 1]));
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.BoardService;
+import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.piece.*;
+import cl.vmardones.chess.engine.player.Alliance;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MoveGeneratorTest {
+
+  Position position;
+  MoveList[] moves = MoveList.perPly(8);
+
+  @BeforeEach
+  void setUp() {
+    position = Position.of(new BoardService().createStandardBoard());
+  }
+
+  @Test
+  void standardPosition() {
+    MoveGenerator.generatePseudoLegals(position, moves[0]);
+
+    assertThat(moves[0].size()).isEqualTo(20);
+  }
+
+  @Test
+  void perft() {
+    assertThat(perft(1, 0)).isEqualTo(20);
+    assertThat(perft(2, 0)).isEqualTo(400);
+    assertThat(perft(3, 0)).isEqualTo(8902);
+    assertThat(perft(4, 0)).isEqualTo(197281);
+  }
+
+  @Test
+  void castles() {
+    for (var move : new String[] {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6"}) {
+      position.makeMove(Coordinate.of(move.substring(0, 2)), Coordinate.of(move.substring(2)));
+    }
+
+    MoveGenerator.generatePseudoLegals(position, moves[0]);
+
+    assertThat(moves[0].toString()).contains("e1g1");
+  }
+
+  @Test
+  void enPassant() {
+    for (var move : new String[] {"e2e4", "a7a6", "e4e5", "d7d5"}) {
+      position.makeMove(Coordinate.of(move.substring(0, 2)), Coordinate.of(move.substring(2)));
+    }
+
+    MoveGenerator.generatePseudoLegals(position, moves[0]);
+
+    assertThat(moves[0].toString()).contains("e5d6");
+  }
+
+  @Test
+  void legalPerft() {
+    assertThat(legalPerft(1, 0)).isEqualTo(20);
+    assertThat(legalPerft(3, 0)).isEqualTo(8902);
+    assertThat(legalPerft(4, 0)).isEqualTo(197281);
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 5, 8, 13, 21, 34, 55, 89})
+  void legalsMatchVerifiedPseudoLegals(long seed) {
+    var random = new Random(seed);
+    var legals = new MoveList();
+
+    for (var ply = 0; ply < 200; ply++) {
+      MoveGenerator.generateLegals(position, legals);
+      var expected = verifiedPseudoLegals();
+
+      assertThat(sorted(legals)).as(moves[0].toString()).isEqualTo(expected);
+
+      if (legals.isEmpty()) {
+        break;
+      }
+
+      position.makeMove(legals.get(random.nextInt(legals.size())));
+    }
+  }
+
+  @Test
+  void doubleCheck() {
+    var whiteKing = new King(Coordinate.of("e1"), Alliance.WHITE);
+    var blackKing = new King(Coordinate.of("h8"), Alliance.BLACK);
+    var board =
+        Board.builder(whiteKing, blackKing)
+            .piece(whiteKing)
+            .piece(blackKing)
+            .piece(new Queen(Coordinate.of("d4"), Alliance.WHITE))
+            .piece(new Rook(Coordinate.of("e8"), Alliance.BLACK))
+            .piece(new Knight(Coordinate.of("d3"), Alliance.BLACK))
+            .build();
+    position = Position.of(board);
+
+    MoveGenerator.generateLegals(position, moves[0]);
+
+    assertThat(MoveGenerator.isInCheck(position)).isTrue();
+    assertThat(moves[0].toString()).isEqualTo("[e1d2, e1d1, e1f1]");
+  }
+
+  @Test
+  void enPassantDiscoveringCheck() {
+    var whiteKing = new King(Coordinate.of("a5"), Alliance.WHITE);
+    var blackKing = new King(Coordinate.of("e8"), Alliance.BLACK);
+    var board =
+        Board.builder(whiteKing, blackKing)
+            .piece(whiteKing)
+            .piece(blackKing)
+            .piece(new Pawn(Coordinate.of("b5"), Alliance.WHITE, false))
+            .piece(new Pawn(Coordinate.of("c7"), Alliance.BLACK))
+            .piece(new Rook(Coordinate.of("h5"), Alliance.BLACK))
+            .moveMaker(Alliance.BLACK)
+            .build();
+    position = Position.of(board);
+    position.makeMove(Coordinate.of("c7"), Coordinate.of("c5"));
+
+    MoveGenerator.generateLegals(position, moves[0]);
+
+    assertThat(position.getEnPassantTarget()).isEqualTo(Coordinate.of("c6").index());
+    assertThat(moves[0].toString()).doesNotContain("b5c6");
+  }
+
+  private List<Integer> verifiedPseudoLegals() {
+    var list = moves[0];
+    MoveGenerator.generatePseudoLegals(position, list);
+
+    var legals = new ArrayList<Integer>();
+
+    for (var i = 0; i < list.size(); i++) {
+      position.makeMove(list.get(i));
+
+      if (!MoveGenerator.leftKingInCheck(position)) {
+        legals.add(list.get(i));
+      }
+
+      position.unmakeMove();
+    }
+
+    Collections.sort(legals);
+    return legals;
+  }
+
+  private List<Integer> sorted(MoveList list) {
+    var result = new ArrayList<Integer>();
+
+    for (var i = 0; i < list.size(); i++) {
+      result.add(list.get(i));
+    }
+
+    Collections.sort(result);
+    return result;
+  }
+
+  private long legalPerft(int depth, int ply) {
+    var list = moves[ply];
+    MoveGenerator.generateLegals(position, list);
+
+    if (depth == 1) {
+      return list.size();
+    }
+
+    var nodes = 0L;
+
+    for (var i = 0; i < list.size(); i++) {
+      position.makeMove(list.get(i));
+      nodes += legalPerft(depth - 1, ply + 1);
+      position.unmakeMove();
+    }
+
+    return nodes;
+  }
+
+  private long perft(int depth, int ply) {
+    var list = moves[ply];
+    MoveGenerator.generatePseudoLegals(position, list);
+
+    var nodes = 0L;
+
+    for (var i = 0; i < list.size(); i++) {
+      position.makeMove(list.get(i));
+
+      if (!MoveGenerator.leftKingInCheck(position)) {
+        nodes += depth == 1 ? 1 : perft(depth - 1, ply + 1);
+      }
+
+      position.unmakeMove();
+    }
+
+    return nodes;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MoveListTest {
+
+  MoveList moves;
+
+  @BeforeEach
+  void setUp() {
+    moves = new MoveList(2);
+  }
+
+  @Test
+  void add() {
+    moves.add(10);
+    moves.add(20);
+    moves.add(30);
+
+    assertThat(moves.size()).isEqualTo(3);
+    assertThat(moves.get(2)).isEqualTo(30);
+    assertThat(moves.contains(20)).isTrue();
+    assertThat(moves.contains(40)).isFalse();
+  }
+
+  @Test
+  void clear() {
+    moves.add(10);
+    moves.clear();
+
+    assertThat(moves.isEmpty()).isTrue();
+  }
+
+  @Test
+  void swap() {
+    moves.add(10);
+    moves.add(20);
+    moves.swap(0, 1);
+
+    assertThat(moves.get(0)).isEqualTo(20);
+    assertThat(moves.get(1)).isEqualTo(10);
+  }
+
+  @Test
+  void removeAt() {
+    moves.add(10);
+    moves.add(20);
+    moves.add(30);
+    moves.removeAt(0);
+
+    assertThat(moves.size()).isEqualTo(2);
+    assertThat(moves.get(0)).isEqualTo(30);
+  }
+
+  @Test
+  void perPly() {
+    var lists = MoveList.perPly(4);
+
+    assertThat(lists).hasSize(4).doesNotContainNull();
+    assertThat(lists[0]).isNotSameAs(lists[1]);
+  }
+}
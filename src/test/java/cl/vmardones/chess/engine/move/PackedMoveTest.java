@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.BoardService;
+import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.piece.Piece;
+import org.junit.jupiter.api.Test;
+
+class PackedMoveTest {
+
+  @Test
+  void quiet() {
+    var move =
+        PackedMove.of(index("g1"), index("f3"), PackedMove.QUIET, Piece.PieceType.KNIGHT, null);
+
+    assertThat(PackedMove.source(move)).isEqualTo(index("g1"));
+    assertThat(PackedMove.destination(move)).isEqualTo(index("f3"));
+    assertThat(PackedMove.flags(move)).isEqualTo(PackedMove.QUIET);
+    assertThat(PackedMove.pieceType(move)).isEqualTo(Piece.PieceType.KNIGHT);
+    assertThat(PackedMove.capturedType(move)).isNull();
+    assertThat(PackedMove.promotion(move)).isNull();
+    assertThat(PackedMove.isCapture(move)).isFalse();
+    assertThat(move).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void capture() {
+    var move =
+        PackedMove.of(
+            index("e4"),
+            index("d5"),
+            PackedMove.CAPTURE,
+            Piece.PieceType.PAWN,
+            Piece.PieceType.QUEEN);
+
+    assertThat(PackedMove.isCapture(move)).isTrue();
+    assertThat(PackedMove.capturedType(move)).isEqualTo(Piece.PieceType.QUEEN);
+  }
+
+  @Test
+  void promotion() {
+    var move =
+        PackedMove.promotion(
+            index("b7"), index("a8"), Piece.PieceType.KNIGHT, Piece.PieceType.ROOK);
+
+    assertThat(PackedMove.isPromotion(move)).isTrue();
+    assertThat(PackedMove.isCapture(move)).isTrue();
+    assertThat(PackedMove.promotion(move)).isEqualTo(Piece.PieceType.KNIGHT);
+    assertThat(PackedMove.capturedType(move)).isEqualTo(Piece.PieceType.ROOK);
+    assertThat(PackedMove.pieceType(move)).isEqualTo(Piece.PieceType.PAWN);
+  }
+
+  @Test
+  void castle() {
+    var move =
+        PackedMove.of(
+            index("e8"), index("c8"), PackedMove.QUEEN_CASTLE, Piece.PieceType.KING, null);
+
+    assertThat(PackedMove.isCastle(move)).isTrue();
+    assertThat(PackedMove.isCapture(move)).isFalse();
+  }
+
+  @Test
+  void asString() {
+    assertThat(PackedMove.toString(PackedMove.NONE)).isEqualTo("0000");
+    assertThat(
+            PackedMove.toString(
+                PackedMove.promotion(index("e7"), index("e8"), Piece.PieceType.QUEEN, null)))
+        .isEqualTo("e7e8q");
+  }
+
+  @Test
+  void adapters() {
+    var boardService = new BoardService();
+    var position = Position.of(boardService.createStandardBoard());
+    var moves = new MoveList();
+
+    for (var played : new String[] {"e2e4", "d7d5", "e4d5", "e7e5", "d5e6", "g8f6", "g1f3"}) {
+      assertRoundTrip(position, moves);
+      position.makeMove(Coordinate.of(played.substring(0, 2)), Coordinate.of(played.substring(2)));
+    }
+
+    assertRoundTrip(position, moves);
+  }
+
+  private void assertRoundTrip(Position position, MoveList moves) {
+    var board = position.toBoard();
+    MoveGenerator.generatePseudoLegals(position, moves);
+
+    for (var i = 0; i < moves.size(); i++) {
+      var move = PackedMove.toMove(moves.get(i), board);
+
+      assertThat(move.getSource()).isEqualTo(Coordinate.of(PackedMove.source(moves.get(i))));
+      assertThat(PackedMove.of(move)).isEqualTo(moves.get(i));
+    }
+  }
+
+  private int index(String coordinate) {
+    return Coordinate.of(coordinate).index();
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.move;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.piece.Piece;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SanTest {
+
+  MoveList legals = new MoveList();
+
+  @Test
+  void pawnPush() {
+    var move = parse(Fen.STANDARD, "e4");
+
+    assertThat(PackedMove.toString(move)).isEqualTo("e2e4");
+    assertThat(PackedMove.flags(move)).isEqualTo(PackedMove.DOUBLE_PUSH);
+  }
+
+  @Test
+  void pieceMove() {
+    assertThat(PackedMove.toString(parse(Fen.STANDARD, "Nf3"))).isEqualTo("g1f3");
+  }
+
+  @Test
+  void captures() {
+    var fen = "rnbqkbnr/ppp1pppp/8/3p4/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 0 2";
+
+    assertThat(PackedMove.toString(parse(fen, "exd5"))).isEqualTo("e4d5");
+    assertThat(PackedMove.toString(parse(fen, "exd5!?"))).isEqualTo("e4d5");
+  }
+
+  @Test
+  void enPassant() {
+    var move = parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "exd6");
+
+    assertThat(PackedMove.flags(move)).isEqualTo(PackedMove.EN_PASSANT);
+  }
+
+  @Test
+  void disambiguation() {
+    var fen = "4k3/8/8/8/8/8/4K3/R6R w - - 0 1";
+
+    assertThat(PackedMove.toString(parse(fen, "Rad1"))).isEqualTo("a1d1");
+    assertThat(PackedMove.toString(parse(fen, "Rhd1"))).isEqualTo("h1d1");
+    assertThat(PackedMove.toString(parse("4k3/8/8/N7/8/8/8/N3K3 w - - 0 1", "N1b3")))
+        .isEqualTo("a1b3");
+    assertThat(PackedMove.toString(parse("4k3/8/8/8/8/8/Q6Q/Q3K3 w - - 0 1", "Qa2b2")))
+        .isEqualTo("a2b2");
+  }
+
+  @Test
+  void ambiguous() {
+    assertThatThrownBy(() -> parse("4k3/8/8/8/8/8/4K3/R6R w - - 0 1", "Rd1"))
+        .isInstanceOf(InvalidSanException.class)
+        .hasMessageContaining("Ambiguous");
+  }
+
+  @Test
+  void illegal() {
+    assertThatThrownBy(() -> parse(Fen.STANDARD, "e5"))
+        .isInstanceOf(InvalidSanException.class)
+        .hasMessageContaining("Illegal");
+    assertThatThrownBy(() -> parse(Fen.STANDARD, "O-O"))
+        .isInstanceOf(InvalidSanException.class)
+        .hasMessageContaining("Illegal");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "e", "Xe4", "e9", "N@f3", "e4=", "+"})
+  void invalid(String san) {
+    assertThatThrownBy(() -> parse(Fen.STANDARD, san))
+        .isInstanceOf(InvalidSanException.class)
+        .hasMessageContaining("Invalid");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"O-O", "0-0", "O-O+"})
+  void kingSideCastle(String san) {
+    var move = parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", san);
+
+    assertThat(PackedMove.flags(move)).isEqualTo(PackedMove.KING_CASTLE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"O-O-O", "0-0-0", "O-O-O#"})
+  void queenSideCastle(String san) {
+    var move = parse("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", san);
+
+    assertThat(PackedMove.flags(move)).isEqualTo(PackedMove.QUEEN_CASTLE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"b8=N", "b8N", "b8=N+"})
+  void promotion(String san) {
+    var move = parse("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1", san);
+
+    assertThat(PackedMove.promotion(move)).isEqualTo(Piece.PieceType.KNIGHT);
+  }
+
+  @Test
+  void promotionRequiresPiece() {
+    assertThatThrownBy(() -> parse("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b8"))
+        .isInstanceOf(InvalidSanException.class);
+  }
+
+  @Test
+  void writeSimpleMoves() {
+    assertThat(write(Fen.STANDARD, "e2e4")).isEqualTo("e4");
+    assertThat(write(Fen.STANDARD, "g1f3")).isEqualTo("Nf3");
+  }
+
+  @Test
+  void writeCaptures() {
+    var fen = "rnbqkbnr/ppp1pppp/8/3p4/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 0 2";
+
+    assertThat(write(fen, "e4d5")).isEqualTo("exd5");
+    assertThat(write("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6")).isEqualTo("exd6");
+    assertThat(write("4k3/8/8/8/8/8/K7/R6r w - - 0 1", "a1h1")).isEqualTo("Rxh1");
+  }
+
+  @Test
+  void writeDisambiguation() {
+    assertThat(write("4k3/8/8/8/8/8/4K3/R6R w - - 0 1", "a1d1")).isEqualTo("Rad1");
+    assertThat(write("4k3/8/8/N7/8/8/8/N3K3 w - - 0 1", "a1b3")).isEqualTo("N1b3");
+    assertThat(write("4k3/8/8/8/8/8/Q6Q/Q3K3 w - - 0 1", "a2b2")).isEqualTo("Qa2b2");
+    assertThat(write("4k3/8/8/8/8/8/Q6Q/Q3K3 w - - 0 1", "h2g2")).isEqualTo("Qhg2");
+  }
+
+  @Test
+  void writeCastles() {
+    assertThat(write("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1g1")).isEqualTo("O-O");
+    assertThat(write("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", "e8c8")).isEqualTo("O-O-O");
+  }
+
+  @Test
+  void writePromotion() {
+    var fen = "4k3/1P6/8/8/8/8/8/4K3 w - - 0 1";
+
+    assertThat(write(fen, "b7b8n")).isEqualTo("b8=N");
+    assertThat(write(fen, "b7b8q")).isEqualTo("b8=Q+");
+  }
+
+  @Test
+  void writeCheckAndMate() {
+    var fen = "rnbqkbnr/ppppp2p/5p2/6p1/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3";
+
+    assertThat(write(fen, "d1h5")).isEqualTo("Qh5#");
+    assertThat(write(fen, "f1b5")).isEqualTo("Bb5");
+    assertThat(write("4k3/8/8/8/8/8/8/R3K3 w - - 0 1", "a1a8")).isEqualTo("Ra8+");
+  }
+
+  @Test
+  void writeRestoresPosition() {
+    var position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    var key = position.getZobristKey();
+    var move = San.parse(position, "Qxf6", legals);
+
+    San.write(position, move, legals, new StringBuilder());
+
+    assertThat(position.getZobristKey()).isEqualTo(key);
+    assertThat(position.getPly()).isZero();
+  }
+
+  @Test
+  void writeIllegal() {
+    var move = PackedMove.of(52, 28, PackedMove.QUIET, Piece.PieceType.PAWN, null);
+
+    assertThatThrownBy(() -> San.toString(Fen.parse(Fen.STANDARD), move))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("e2e5");
+  }
+
+  @ParameterizedTest
+  @EnumSource(PerftReference.class)
+  void roundTrip(PerftReference reference) {
+    var position = Fen.parse(reference.getFen());
+    var moves = new MoveList();
+    MoveGenerator.generateLegals(position, moves);
+    var builder = new StringBuilder();
+
+    for (var i = 0; i < moves.size(); i++) {
+      builder.setLength(0);
+      var san = San.write(position, moves.get(i), legals, builder).toString();
+
+      assertThat(San.parse(position, san, legals)).as(san).isEqualTo(moves.get(i));
+    }
+  }
+
+  private String write(String fen, String uci) {
+    var position = Fen.parse(fen);
+    MoveGenerator.generateLegals(position, legals);
+
+    for (var i = 0; i < legals.size(); i++) {
+      if (PackedMove.toString(legals.get(i)).equals(uci)) {
+        return San.toString(position, legals.get(i));
+      }
+    }
+
+    throw new AssertionError("No legal move " + uci);
+  }
+
+  private int parse(String fen, String san) {
+    return San.parse(Fen.parse(fen), san, legals);
+  }
+}
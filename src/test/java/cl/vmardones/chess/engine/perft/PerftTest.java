@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.perft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.MoveList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class PerftTest {
+
+  /* Deep enough to cover every special move, shallow enough to keep the tests fast */
+  static final long MAX_NODES = 1_000_000;
+
+  Perft perft;
+
+  @BeforeEach
+  void setUp() {
+    perft = new Perft(2, null);
+  }
+
+  @AfterEach
+  void tearDown() {
+    perft.close();
+  }
+
+  @ParameterizedTest
+  @EnumSource(PerftReference.class)
+  void referencePositions(PerftReference reference) {
+    var position = Fen.parse(reference.getFen());
+
+    for (var depth = 1;
+        depth <= reference.getMaxDepth() && reference.getNodes(depth) <= MAX_NODES;
+        depth++) {
+      assertThat(perft.count(position, depth))
+          .as("depth %d", depth)
+          .isEqualTo(reference.getNodes(depth));
+    }
+  }
+
+  @Test
+  void divide() {
+    var divisions = perft.divide(Fen.parse(Fen.STANDARD), 3);
+
+    assertThat(divisions).hasSize(20);
+    assertThat(divisions.stream().mapToLong(Division::nodes).sum()).isEqualTo(8902);
+    assertThat(divisions).extracting(Division::toString).contains("e2e4: 600");
+  }
+
+  @Test
+  void hashedCount() {
+    var table = new PerftTable(1);
+    var position = Fen.parse(PerftReference.KIWIPETE.getFen());
+
+    assertThat(Perft.count(position, 3, MoveList.perPly(3), table)).isEqualTo(97862);
+    assertThat(Perft.count(position, 3, MoveList.perPly(3), table)).isEqualTo(97862);
+  }
+
+  @Test
+  void sharedTable() {
+    var hashed = new Perft(4, new PerftTable(1));
+
+    try {
+      assertThat(hashed.count(Fen.parse(PerftReference.POSITION_3.getFen()), 5))
+          .isEqualTo(674624);
+    } finally {
+      hashed.close();
+    }
+  }
+
+  @Test
+  void tableEntries() {
+    var table = new PerftTable(1);
+    table.store(0x1234_5678_9ABCL, 4, 197281);
+
+    assertThat(table.probe(0x1234_5678_9ABCL, 4)).isEqualTo(197281);
+    assertThat(table.probe(0x1234_5678_9ABCL, 3)).isEqualTo(-1);
+    assertThat(table.probe(0x4321_5678_9ABCL, 4)).isEqualTo(-1);
+    assertThat(table.capacity()).isEqualTo(1 << 16);
+  }
+
+  @Test
+  void zeroDepth() {
+    assertThat(perft.count(Fen.parse(Fen.STANDARD), 0)).isEqualTo(1);
+  }
+}
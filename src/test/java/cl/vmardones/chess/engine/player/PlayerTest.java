@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.player;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Board;
+import cl.vmardones.chess.engine.board.BoardService;
+import cl.vmardones.chess.engine.board.Coordinate;
+import cl.vmardones.chess.engine.move.Move;
+import cl.vmardones.chess.engine.piece.*;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PlayerTest {
+
+  BoardService boardService = new BoardService();
+  King whiteKing;
+  King blackKing;
+  Board.BoardBuilder builder;
+
+  @BeforeEach
+  void setUp() {
+    whiteKing = new King(Coordinate.of("e1"), Alliance.WHITE);
+    blackKing = new King(Coordinate.of("e8"), Alliance.BLACK);
+    builder =
+        Board.builder(whiteKing, blackKing)
+            .piece(whiteKing)
+            .piece(blackKing)
+            .piece(new Rook(Coordinate.of("a1"), Alliance.WHITE))
+            .piece(new Rook(Coordinate.of("h1"), Alliance.WHITE));
+  }
+
+  @Test
+  void inCheck() {
+    var board = builder.piece(new Knight(Coordinate.of("d3"), Alliance.BLACK)).build();
+
+    assertThat(createWhitePlayer(board).isInCheck()).isTrue();
+  }
+
+  @Test
+  void notInCheck() {
+    var board = builder.piece(new Knight(Coordinate.of("d4"), Alliance.BLACK)).build();
+
+    assertThat(createWhitePlayer(board).isInCheck()).isFalse();
+  }
+
+  @Test
+  void castles() {
+    var board = builder.build();
+
+    assertThat(castles(createWhitePlayer(board))).containsExactlyInAnyOrder("e1g1", "e1c1");
+  }
+
+  @Test
+  void noCastlingThroughCheck() {
+    var board = builder.piece(new Rook(Coordinate.of("f8"), Alliance.BLACK)).build();
+
+    assertThat(castles(createWhitePlayer(board))).containsExactly("e1c1");
+  }
+
+  @Test
+  void queenSideCastleWithAttackedKnightTile() {
+    var board = builder.piece(new Rook(Coordinate.of("b8"), Alliance.BLACK)).build();
+
+    assertThat(castles(createWhitePlayer(board))).containsExactlyInAnyOrder("e1g1", "e1c1");
+  }
+
+  @Test
+  void noCastlingInCheck() {
+    var board = builder.piece(new Rook(Coordinate.of("e5"), Alliance.BLACK)).build();
+
+    assertThat(castles(createWhitePlayer(board))).isEmpty();
+  }
+
+  @Test
+  void checkmate() {
+    var board =
+        Board.builder(whiteKing, blackKing)
+            .piece(new King(Coordinate.of("a1"), Alliance.WHITE))
+            .piece(blackKing)
+            .piece(new Rook(Coordinate.of("a8"), Alliance.BLACK))
+            .piece(new Rook(Coordinate.of("b8"), Alliance.BLACK))
+            .build();
+
+    var player = createWhitePlayer(board);
+
+    assertThat(player.isInCheckmate()).isTrue();
+    assertThat(player.getLegals()).isEmpty();
+  }
+
+  @Test
+  void stalemate() {
+    var board =
+        Board.builder(whiteKing, blackKing)
+            .piece(new King(Coordinate.of("a1"), Alliance.WHITE))
+            .piece(blackKing)
+            .piece(new Queen(Coordinate.of("b3"), Alliance.BLACK))
+            .build();
+
+    var player = createWhitePlayer(board);
+
+    assertThat(player.inInStalemate()).isTrue();
+    assertThat(player.isInCheckmate()).isFalse();
+  }
+
+  @Test
+  void pinnedPieceCannotLeaveItsLine() {
+    var board =
+        builder
+            .piece(new Bishop(Coordinate.of("e2"), Alliance.WHITE))
+            .piece(new Rook(Coordinate.of("e7"), Alliance.BLACK))
+            .build();
+
+    var bishopMoves =
+        createWhitePlayer(board).getLegals().stream()
+            .filter(move -> move.getSource().equals(Coordinate.of("e2")));
+
+    assertThat(bishopMoves).isEmpty();
+  }
+
+  @Test
+  void legalsAreCalculatedOnce() {
+    var board = builder.build();
+    var calls = new AtomicInteger();
+
+    var player =
+        new BlackPlayer(
+            board,
+            board.getBlackKing(),
+            () -> {
+              calls.incrementAndGet();
+              return boardService.calculateLegals(board, Alliance.BLACK);
+            });
+
+    assertThat(calls).hasValue(0);
+    assertThat(player.getLegals()).isNotEmpty();
+    assertThat(player.isInCheckmate()).isFalse();
+    assertThat(calls).hasValue(1);
+  }
+
+  private Player createWhitePlayer(Board board) {
+    var legals = boardService.calculateLegals(board, Alliance.WHITE);
+
+    return new WhitePlayer(board, board.getWhiteKing(), legals);
+  }
+
+  private List<String> castles(Player player) {
+    return player.getLegals().stream()
+        .filter(Move::isCastling)
+        .map(move -> move.getSource().toString() + move.getDestination())
+        .toList();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.PieceSquareTables;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class EvaluationTest {
+
+  static final int PLIES = 200;
+
+  @Test
+  void initialPosition() {
+    var position = Fen.parse(Fen.STANDARD);
+
+    assertThat(Evaluation.evaluate(position)).isZero();
+    assertThat(position.getPhase()).isEqualTo(PieceSquareTables.MAX_PHASE);
+  }
+
+  @Test
+  void moveMakerPointOfView() {
+    var white = Fen.parse("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+    var black = Fen.parse("4k3/8/8/8/8/8/8/3QK3 b - - 0 1");
+
+    assertThat(Evaluation.evaluate(white)).isPositive().isEqualTo(-Evaluation.evaluate(black));
+  }
+
+  @Test
+  void mirroredPosition() {
+    var position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    var mirrored =
+        Fen.parse("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+
+    assertThat(Evaluation.evaluate(mirrored)).isEqualTo(Evaluation.evaluate(position));
+  }
+
+  @Test
+  void endgame() {
+    var position = Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+
+    var pawns = PawnStructure.evaluate(position);
+
+    assertThat(position.getPhase()).isZero();
+    assertThat(Evaluation.evaluate(position))
+        .isEqualTo(position.getEndgameScore() + PawnStructure.endgame(pawns));
+  }
+
+  @ParameterizedTest
+  @EnumSource(PerftReference.class)
+  void incrementalMatchesScratch(PerftReference reference) {
+    var position = Fen.parse(reference.getFen());
+
+    walk(position, 3, MoveList.perPly(3));
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 5, 8, 13})
+  void randomGames(long seed) {
+    var random = new Random(seed);
+    var position = Fen.parse(Fen.STANDARD);
+    var initial = Evaluation.evaluate(position);
+    var moves = new MoveList();
+
+    for (var ply = 0; ply < PLIES; ply++) {
+      MoveGenerator.generateLegals(position, moves);
+
+      if (moves.isEmpty()) {
+        break;
+      }
+
+      position.makeMove(moves.get(random.nextInt(moves.size())));
+
+      assertThat(Evaluation.evaluate(position)).isEqualTo(Evaluation.evaluateFromScratch(position));
+    }
+
+    while (position.getPly() > 0) {
+      position.unmakeMove();
+      assertThat(Evaluation.evaluate(position)).isEqualTo(Evaluation.evaluateFromScratch(position));
+    }
+
+    assertThat(Evaluation.evaluate(position)).isEqualTo(initial);
+    assertThat(position.getPhase()).isEqualTo(PieceSquareTables.MAX_PHASE);
+  }
+
+  private static void walk(Position position, int depth, MoveList[] lists) {
+    assertThat(Evaluation.evaluate(position)).isEqualTo(Evaluation.evaluateFromScratch(position));
+
+    if (depth == 0) {
+      return;
+    }
+
+    var moves = lists[depth - 1];
+    MoveGenerator.generateLegals(position, moves);
+
+    for (var i = 0; i < moves.size(); i++) {
+      var score = Evaluation.evaluate(position);
+
+      position.makeMove(moves.get(i));
+      walk(position, depth - 1, lists);
+      position.unmakeMove();
+
+      assertThat(Evaluation.evaluate(position)).isEqualTo(score);
+    }
+  }
+}
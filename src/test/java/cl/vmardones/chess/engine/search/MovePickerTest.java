@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MovePickerTest {
+
+  MovePicker picker = new MovePicker();
+  MoveHistory history = new MoveHistory();
+  Position position = Fen.parse(Fen.STANDARD);
+
+  @Test
+  void everyMoveOnce() {
+    var hashMove = move("e2e4");
+    picker.init(position, 0, hashMove, history);
+
+    var moves = pickAll();
+
+    assertThat(moves).hasSize(20).doesNotHaveDuplicates().startsWith(hashMove);
+    assertThat(picker.size()).isEqualTo(20);
+  }
+
+  @Test
+  void illegalHashMove() {
+    var kiwipete = Fen.parse(PerftReference.KIWIPETE.getFen());
+    var hashMove = find(kiwipete, "e2a6");
+    picker.init(position, 0, hashMove, history);
+
+    assertThat(pickAll()).hasSize(20).doesNotContain(hashMove);
+  }
+
+  @Test
+  void capturesByMvvLva() {
+    position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    picker.init(position, 0, PackedMove.NONE, history);
+
+    var moves = pickAll();
+    var captures = moves.stream().filter(PackedMove::isCapture).toList();
+    var winning =
+        captures.stream().filter(move -> StaticExchange.see(position, move) >= 0).toList();
+    var losing = captures.subList(winning.size(), captures.size());
+
+    assertThat(losing).isNotEmpty();
+    assertThat(moves)
+        .startsWith(winning.toArray(Integer[]::new))
+        .endsWith(losing.toArray(Integer[]::new));
+
+    for (var band : List.of(winning, losing)) {
+      assertThat(band)
+          .extracting(move -> PackedMove.capturedType(move).ordinal())
+          .isSortedAccordingTo((first, second) -> second - first);
+    }
+  }
+
+  @Test
+  void killers() {
+    history.update(position, 0, move("g1f3"), new MoveList(), 4);
+    history.update(position, 0, move("b1c3"), new MoveList(), 4);
+    picker.init(position, 0, PackedMove.NONE, history);
+
+    assertThat(pickAll()).startsWith(move("b1c3"), move("g1f3"));
+  }
+
+  @Test
+  void counterMove() {
+    position.makeMove(move("e2e4"));
+    history.update(position, 5, move("b8c6"), new MoveList(), 20);
+    position.unmakeMove();
+    position.makeMove(move("d2d4"));
+    history.update(position, 6, move("g8f6"), new MoveList(), 2);
+    picker.init(position, 1, PackedMove.NONE, history);
+
+    assertThat(pickAll()).startsWith(move("g8f6"), move("b8c6"));
+  }
+
+  @Test
+  void historyOrdersQuiets() {
+    var failed = new MoveList();
+    failed.add(move("d2d4"));
+
+    history.update(position, 5, move("e2e4"), failed, 8);
+    picker.init(position, 0, PackedMove.NONE, history);
+
+    var moves = pickAll();
+
+    assertThat(moves).startsWith(move("e2e4")).endsWith(move("d2d4"));
+  }
+
+  @Test
+  void historyStaysInRange() {
+    for (var i = 0; i < 1000; i++) {
+      history.update(position, 0, move("e2e4"), new MoveList(), Search.MAX_DEPTH);
+    }
+
+    assertThat(history.score(position, move("e2e4"))).isBetween(0, MoveHistory.MAX_SCORE);
+  }
+
+  @Test
+  void newSearchForgetsKillers() {
+    history.update(position, 0, move("g1f3"), new MoveList(), 4);
+    history.newSearch();
+
+    assertThat(history.killer(0, 0)).isEqualTo(PackedMove.NONE);
+    assertThat(history.score(position, move("g1f3"))).isPositive();
+  }
+
+  @Test
+  void underpromotionsLast() {
+    position = Fen.parse("8/P7/8/8/8/8/8/k6K w - - 0 1");
+    picker.init(position, 0, PackedMove.NONE, history);
+
+    var moves = pickAll();
+
+    assertThat(moves.get(0)).isEqualTo(move("a7a8q"));
+    assertThat(moves.subList(moves.size() - 3, moves.size()))
+        .allMatch(PackedMove::isPromotion)
+        .doesNotContain(move("a7a8q"));
+  }
+
+  @Test
+  void losingCapturesAfterQuiets() {
+    position = Fen.parse("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+    picker.init(position, 0, PackedMove.NONE, history);
+
+    var moves = pickAll();
+
+    assertThat(moves).endsWith(move("d1d5"));
+    assertThat(picker.isLosing()).isTrue();
+  }
+
+  @Test
+  void noisyOnly() {
+    position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    picker.initNoisy(position, 0, history);
+
+    assertThat(picker.next()).isEqualTo(move("e2a6"));
+    assertThat(picker.isLosing()).isFalse();
+    assertThat(pickAll()).hasSize(7).allMatch(PackedMove::isCapture);
+    assertThat(picker.isLosing()).isTrue();
+  }
+
+  @Test
+  void alreadyOrdered() {
+    var ordered = new MoveList();
+    ordered.add(move("h2h3"));
+    ordered.add(move("a2a3"));
+    ordered.add(move("e2e4"));
+    picker.init(ordered);
+
+    assertThat(pickAll()).containsExactly(move("h2h3"), move("a2a3"), move("e2e4"));
+  }
+
+  private List<Integer> pickAll() {
+    var moves = new ArrayList<Integer>();
+
+    for (var move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+      moves.add(move);
+    }
+
+    return moves;
+  }
+
+  private int move(String notation) {
+    return find(position, notation);
+  }
+
+  private static int find(Position position, String notation) {
+    var moves = new MoveList();
+    MoveGenerator.generateLegals(position, moves);
+
+    for (var i = 0; i < moves.size(); i++) {
+      if (PackedMove.toString(moves.get(i)).equals(notation)) {
+        return moves.get(i);
+      }
+    }
+
+    throw new IllegalArgumentException("Not a legal move: " + notation);
+  }
+}
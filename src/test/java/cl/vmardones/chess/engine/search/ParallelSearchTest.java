@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelSearchTest {
+
+  ParallelSearch search;
+
+  @BeforeEach
+  void setUp() {
+    search = new ParallelSearch(3, new TranspositionTable(4));
+  }
+
+  @AfterEach
+  void tearDown() {
+    search.close();
+  }
+
+  @Test
+  void mateInOne() {
+    var position = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+    var result = search.search(position, SearchLimits.depth(4));
+
+    assertThat(PackedMove.toString(result.bestMove())).isEqualTo("a1a8");
+    assertThat(result.mateDistance()).isEqualTo(1);
+  }
+
+  @Test
+  void mainThreadReports() {
+    var results = new ArrayList<SearchInfo>();
+    var position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    var key = position.getZobristKey();
+
+    var result = search.search(position, SearchLimits.depth(4), results::add);
+
+    assertThat(results).extracting(SearchInfo::depth).containsExactly(1, 2, 3, 4);
+    assertThat(result.depth()).isEqualTo(4);
+    assertThat(result.nodes()).isEqualTo(search.getNodes());
+    assertThat(position.getZobristKey()).isEqualTo(key);
+    assertThat(position.getPly()).isZero();
+  }
+
+  @Test
+  void deadline() {
+    var start = System.nanoTime();
+    var result =
+        search.search(
+            Fen.parse(Fen.STANDARD), SearchLimits.infinite().withTime(Duration.ofMillis(50)));
+
+    assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(1).toNanos());
+    assertThat(result.bestMove()).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void nodeBudgetStopsHelpers() {
+    var result = search.search(Fen.parse(Fen.STANDARD), SearchLimits.infinite().withNodes(5000));
+
+    assertThat(result.bestMove()).isNotEqualTo(PackedMove.NONE);
+    assertThat(search.getNodes()).isGreaterThanOrEqualTo(5000);
+  }
+
+  @Test
+  void reusable() {
+    var position = Fen.parse(Fen.STANDARD);
+
+    var first = search.search(position, SearchLimits.depth(3));
+    var second = search.search(position, SearchLimits.depth(3));
+
+    assertThat(second.depth()).isEqualTo(first.depth());
+    assertThat(second.bestMove()).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void stopAfterPrepare() {
+    search.prepare();
+    search.stop();
+
+    var start = System.nanoTime();
+    var result = search.search(Fen.parse(Fen.STANDARD), SearchLimits.infinite());
+
+    assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(1).toNanos());
+    assertThat(result.bestMove()).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void stopWithoutPrepareIsCleared() {
+    search.stop();
+
+    var result = search.search(Fen.parse(Fen.STANDARD), SearchLimits.depth(3));
+
+    assertThat(result.depth()).isEqualTo(3);
+  }
+
+  @Test
+  void singleThread() {
+    var single = new ParallelSearch(1, new TranspositionTable(1));
+    var reference = new Search(new TranspositionTable(1));
+    var position = Fen.parse(Fen.STANDARD);
+
+    try {
+      var result = single.search(position, SearchLimits.depth(4));
+      var expected = reference.search(position, SearchLimits.depth(4));
+
+      assertThat(single.getThreads()).isEqualTo(1);
+      assertThat(result.score()).isEqualTo(expected.score());
+      assertThat(result.nodes()).isEqualTo(expected.nodes());
+      assertThat(result.pv()).containsExactly(expected.pv());
+    } finally {
+      single.close();
+    }
+  }
+
+  @Test
+  void needsOneThread() {
+    var table = new TranspositionTable(1);
+
+    assertThatThrownBy(() -> new ParallelSearch(0, table))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
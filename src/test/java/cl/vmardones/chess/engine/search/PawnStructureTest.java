@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.piece.Piece;
+import cl.vmardones.chess.engine.player.Alliance;
+import org.junit.jupiter.api.Test;
+
+class PawnStructureTest {
+
+  @Test
+  void packing() {
+    var score = PawnStructure.pack(-36, 25) + PawnStructure.pack(10, -40);
+
+    assertThat(PawnStructure.middlegame(score)).isEqualTo(-26);
+    assertThat(PawnStructure.endgame(score)).isEqualTo(-15);
+  }
+
+  @Test
+  void initialPosition() {
+    assertThat(PawnStructure.evaluate(Fen.parse(Fen.STANDARD))).isZero();
+  }
+
+  @Test
+  void isolatedPassedPawn() {
+    assertThat(structure("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1", Alliance.WHITE))
+        .isEqualTo(PawnStructure.pack(20, 30));
+  }
+
+  @Test
+  void passedPawnsGainAsTheyAdvance() {
+    var fifthRank = structure("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1", Alliance.WHITE);
+    var seventhRank = structure("4k3/3P4/8/8/8/8/8/4K3 w - - 0 1", Alliance.WHITE);
+
+    assertThat(PawnStructure.endgame(seventhRank)).isGreaterThan(PawnStructure.endgame(fifthRank));
+  }
+
+  @Test
+  void doubledPawns() {
+    assertThat(structure("4k3/4p3/8/8/8/4P3/4P3/4K3 w - - 0 1", Alliance.WHITE))
+        .isEqualTo(PawnStructure.pack(-20, -55));
+  }
+
+  @Test
+  void backwardPawn() {
+    assertThat(structure("4k3/8/8/4p3/2P5/3P4/8/4K3 w - - 0 1", Alliance.WHITE))
+        .isEqualTo(PawnStructure.pack(6, 5));
+  }
+
+  @Test
+  void supportedPawnIsntBackward() {
+    assertThat(structure("4k3/8/8/2p5/4P3/8/3P4/4K3 w - - 0 1", Alliance.WHITE))
+        .isEqualTo(PawnStructure.pack(15, 25));
+  }
+
+  @Test
+  void blackPawns() {
+    assertThat(structure("4k3/8/8/8/3p4/8/8/4K3 w - - 0 1", Alliance.BLACK))
+        .isEqualTo(structure("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1", Alliance.WHITE));
+  }
+
+  @Test
+  void shelter() {
+    var position = Fen.parse("6k1/5p1p/6p1/8/8/8/5PPP/6K1 w - - 0 1");
+    var white = position.getBitboard(Alliance.WHITE, Piece.PieceType.PAWN);
+    var black = position.getBitboard(Alliance.BLACK, Piece.PieceType.PAWN);
+
+    assertThat(PawnStructure.shelter(Alliance.WHITE, white, 6)).isZero();
+    assertThat(PawnStructure.shelter(Alliance.BLACK, black, 6))
+        .isEqualTo(PawnStructure.pack(-11, 0));
+    assertThat(PawnStructure.shelter(Alliance.WHITE, white, 2))
+        .isEqualTo(PawnStructure.pack(-108, 0));
+  }
+
+  @Test
+  void mirroredPosition() {
+    var position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    var mirrored =
+        Fen.parse("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+
+    assertThat(PawnStructure.evaluate(mirrored)).isEqualTo(-PawnStructure.evaluate(position));
+  }
+
+  private static int structure(String fen, Alliance alliance) {
+    var position = Fen.parse(fen);
+
+    return PawnStructure.structure(
+        alliance,
+        position.getBitboard(alliance, Piece.PieceType.PAWN),
+        position.getBitboard(alliance.getOpposite(), Piece.PieceType.PAWN));
+  }
+}
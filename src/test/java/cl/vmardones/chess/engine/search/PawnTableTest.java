@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.board.Position;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class PawnTableTest {
+
+  PawnTable table = new PawnTable(1);
+
+  @Test
+  void size() {
+    assertThat(table.getSize()).isPositive();
+    assertThat(Integer.bitCount(table.getSize())).isOne();
+    assertThat(new PawnTable(2).getSize()).isEqualTo(table.getSize() * 2);
+  }
+
+  @Test
+  void hitRate() {
+    var position = Fen.parse(Fen.STANDARD);
+
+    assertThat(table.getHitRate()).isZero();
+
+    table.evaluate(position);
+    table.evaluate(position);
+
+    assertThat(table.getProbes()).isEqualTo(2);
+    assertThat(table.getHits()).isOne();
+    assertThat(table.getHitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  void kingMovesHit() {
+    var castled = Fen.parse("6k1/5ppp/8/8/8/8/5PPP/6K1 w - - 0 1");
+    var exposed = Fen.parse("6k1/5ppp/8/8/8/8/5PPP/2K5 w - - 0 1");
+
+    table.evaluate(castled);
+
+    assertThat(table.evaluate(exposed)).isEqualTo(PawnStructure.evaluate(exposed));
+    assertThat(table.getHits()).isOne();
+  }
+
+  @Test
+  void positionWithoutPawns() {
+    var position = Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+
+    assertThat(table.evaluate(position)).isEqualTo(PawnStructure.evaluate(position));
+    assertThat(table.getHits()).isZero();
+  }
+
+  @Test
+  void clear() {
+    var position = Fen.parse(Fen.STANDARD);
+    table.evaluate(position);
+
+    table.clear();
+    table.evaluate(position);
+
+    assertThat(table.getProbes()).isOne();
+    assertThat(table.getHits()).isZero();
+  }
+
+  @ParameterizedTest
+  @EnumSource(PerftReference.class)
+  void matchesUncached(PerftReference reference) {
+    var position = Fen.parse(reference.getFen());
+
+    walk(position, 3, MoveList.perPly(3));
+
+    assertThat(table.getHitRate()).isGreaterThan(0.5);
+  }
+
+  private void walk(Position position, int depth, MoveList[] lists) {
+    assertThat(table.evaluate(position)).isEqualTo(PawnStructure.evaluate(position));
+
+    if (depth == 0) {
+      return;
+    }
+
+    var moves = lists[depth - 1];
+    MoveGenerator.generateLegals(position, moves);
+
+    for (var i = 0; i < moves.size(); i++) {
+      position.makeMove(moves.get(i));
+      walk(position, depth - 1, lists);
+      position.unmakeMove();
+    }
+  }
+}
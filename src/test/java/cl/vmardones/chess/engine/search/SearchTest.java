@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.BoardService;
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SearchTest {
+
+  Search search = new Search();
+
+  @Test
+  void mateInOne() {
+    var result = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4);
+
+    assertThat(PackedMove.toString(result.bestMove())).isEqualTo("a1a8");
+    assertThat(result.isMate()).isTrue();
+    assertThat(result.mateDistance()).isEqualTo(1);
+  }
+
+  @Test
+  void winsMaterial() {
+    var result = search("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", 2);
+
+    assertThat(PackedMove.toString(result.bestMove())).isEqualTo("d2d5");
+    assertThat(result.score()).isPositive();
+  }
+
+  @Test
+  void avoidsDefendedPawn() {
+    var result = search("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", 1);
+
+    assertThat(PackedMove.toString(result.bestMove())).isNotEqualTo("d1d5");
+  }
+
+  @Test
+  void quiesce() {
+    var position = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+    var afterCapture = Fen.parse("4k3/8/8/3R4/8/8/8/4K3 b - - 0 1");
+
+    assertThat(search.quiesce(position)).isEqualTo(-Evaluation.evaluate(afterCapture));
+    assertThat(position.getPly()).isZero();
+  }
+
+  @Test
+  void checkmated() {
+    var result = search("7k/6Q1/6K1/8/8/8/8/8 b - - 0 1", 4);
+
+    assertThat(result.bestMove()).isEqualTo(PackedMove.NONE);
+    assertThat(result.score()).isEqualTo(-Search.MATE);
+  }
+
+  @Test
+  void stalemate() {
+    var result = search("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", 4);
+
+    assertThat(result.bestMove()).isEqualTo(PackedMove.NONE);
+    assertThat(result.score()).isEqualTo(Search.DRAW);
+  }
+
+  @Test
+  void iterativeDeepening() {
+    var results = new ArrayList<SearchInfo>();
+    var position = Fen.parse(Fen.STANDARD);
+    var key = position.getZobristKey();
+
+    search.search(position, SearchLimits.depth(4), results::add);
+
+    assertThat(results).extracting(SearchInfo::depth).containsExactly(1, 2, 3, 4);
+    assertThat(results.get(3).pv()).hasSize(4);
+    assertThat(results.get(3).toString()).startsWith("depth 4 score cp ").contains(" pv ");
+    assertThat(position.getZobristKey()).isEqualTo(key);
+    assertThat(position.getPly()).isZero();
+  }
+
+  @Test
+  void principalVariationIsLegal() {
+    var position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    var moves = new MoveList();
+
+    for (var move : search.search(position.copy(), SearchLimits.depth(4)).pv()) {
+      MoveGenerator.generateLegals(position, moves);
+      assertThat(moves.contains(move)).isTrue();
+      position.makeMove(move);
+    }
+  }
+
+  @Test
+  void nodeBudget() {
+    var result = search.search(Fen.parse(Fen.STANDARD), SearchLimits.infinite().withNodes(5000));
+
+    assertThat(search.getNodes()).isEqualTo(5000);
+    assertThat(result.nodes()).isLessThanOrEqualTo(5000);
+    assertThat(result.bestMove()).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void deadline() {
+    var start = System.nanoTime();
+    var result =
+        search.search(
+            Fen.parse(Fen.STANDARD), SearchLimits.infinite().withTime(Duration.ofMillis(50)));
+
+    assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(1).toNanos());
+    assertThat(result.bestMove()).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void timeManager() {
+    var timeManager = new TimeManager(Duration.ofSeconds(3), Duration.ZERO, 0);
+    var start = System.nanoTime();
+    var result =
+        search.search(Fen.parse(Fen.STANDARD), SearchLimits.infinite(), timeManager, info -> {});
+
+    assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(1).toNanos());
+    assertThat(result.depth()).isPositive();
+    assertThat(result.bestMove()).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void timeManagerKeepsOtherLimits() {
+    var timeManager = new TimeManager(Duration.ofMinutes(1), Duration.ZERO, 0);
+    var result =
+        search.search(Fen.parse(Fen.STANDARD), SearchLimits.depth(3), timeManager, info -> {});
+
+    assertThat(result.depth()).isEqualTo(3);
+  }
+
+  @Test
+  void tinyBudgetStillMoves() {
+    var result = search.search(Fen.parse(Fen.STANDARD), SearchLimits.infinite().withNodes(1));
+
+    assertThat(result.depth()).isZero();
+    assertThat(result.bestMove()).isNotEqualTo(PackedMove.NONE);
+  }
+
+  @Test
+  void findBestMove() {
+    var board = new BoardService().createStandardBoard();
+
+    assertThat(search.findBestMove(board, SearchLimits.depth(2))).isNotNull();
+  }
+
+  @Test
+  void findBestMoveOnTheClock() {
+    var board = new BoardService().createStandardBoard();
+    var timeManager = new TimeManager(Duration.ofSeconds(1), Duration.ZERO, 0);
+
+    assertThat(search.findBestMove(board, timeManager)).isNotNull();
+  }
+
+  @Test
+  void selectiveSearchSavesNodes() {
+    var fen = PerftReference.KIWIPETE.getFen();
+    var plain = new Search();
+    plain.setFeatures(SearchFeatures.none());
+
+    var selective = search(fen, 5);
+    var full = plain.search(Fen.parse(fen), SearchLimits.depth(5));
+
+    assertThat(selective.nodes()).isLessThan(full.nodes());
+  }
+
+  @ParameterizedTest
+  @MethodSource("singleFeatures")
+  void everyFeatureFindsMate(SearchFeatures features) {
+    search.setFeatures(features);
+
+    var result = search("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4", 4);
+
+    assertThat(PackedMove.toString(result.bestMove())).isEqualTo("h5f7");
+    assertThat(result.mateDistance()).isEqualTo(1);
+  }
+
+  @Test
+  void noNullMoveInPawnEndings() {
+    var fen = "8/8/3k4/3p4/3P4/3K4/8/8 w - - 0 1";
+    var withoutNullMove = new Search();
+    withoutNullMove.setFeatures(SearchFeatures.none());
+    search.setFeatures(SearchFeatures.none().withNullMove(true));
+
+    var expected = withoutNullMove.search(Fen.parse(fen), SearchLimits.depth(8));
+    var result = search(fen, 8);
+
+    assertThat(result.nodes()).isEqualTo(expected.nodes());
+    assertThat(result.score()).isEqualTo(expected.score());
+  }
+
+  @Test
+  void aspirationWindowsKeepScore() {
+    var fen = PerftReference.KIWIPETE.getFen();
+    var plain = new Search();
+    plain.setFeatures(SearchFeatures.none());
+    search.setFeatures(SearchFeatures.none().withAspirationWindows(true));
+
+    var expected = plain.search(Fen.parse(fen), SearchLimits.depth(5));
+    var result = search(fen, 5);
+
+    assertThat(result.score()).isEqualTo(expected.score());
+    assertThat(result.bestMove()).isEqualTo(expected.bestMove());
+  }
+
+  static Stream<SearchFeatures> singleFeatures() {
+    var none = SearchFeatures.none();
+
+    return Stream.of(
+        none,
+        none.withNullMove(true),
+        none.withLateMoveReductions(true),
+        none.withFutility(true),
+        none.withAspirationWindows(true),
+        SearchFeatures.all());
+  }
+
+  private SearchInfo search(String fen, int depth) {
+    return search.search(Fen.parse(fen), SearchLimits.depth(depth));
+  }
+}
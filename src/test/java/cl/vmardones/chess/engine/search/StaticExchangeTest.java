@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.MoveGenerator;
+import cl.vmardones.chess.engine.move.MoveList;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.perft.PerftReference;
+import cl.vmardones.chess.engine.piece.Piece;
+import org.junit.jupiter.api.Test;
+
+class StaticExchangeTest {
+
+  @Test
+  void undefendedCapture() {
+    assertThat(see("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5")).isEqualTo(100);
+  }
+
+  @Test
+  void defendedCapture() {
+    assertThat(see("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", "d1d5")).isEqualTo(100 - 900);
+  }
+
+  @Test
+  void equalTrade() {
+    assertThat(see("4k3/8/2p5/3n4/8/4N3/8/4K3 w - - 0 1", "e3d5")).isZero();
+  }
+
+  @Test
+  void xrayAttacker() {
+    assertThat(see("4k3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5")).isEqualTo(100);
+  }
+
+  @Test
+  void withoutXrayAttacker() {
+    assertThat(see("4k3/3r4/8/3p4/8/8/3R4/4K3 w - - 0 1", "d2d5")).isEqualTo(100 - 500);
+  }
+
+  @Test
+  void kingCantRecaptureDefendedPiece() {
+    assertThat(see("4k3/3p4/8/8/8/8/3R4/3RK3 w - - 0 1", "d2d7")).isEqualTo(100);
+    assertThat(see("4k3/3p4/8/8/8/8/3R4/4K3 w - - 0 1", "d2d7")).isEqualTo(100 - 500);
+  }
+
+  @Test
+  void enPassant() {
+    assertThat(see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6")).isEqualTo(100);
+  }
+
+  @Test
+  void promotion() {
+    assertThat(see("8/3P4/8/8/8/8/8/k6K w - - 0 1", "d7d8q")).isEqualTo(900 - 100);
+  }
+
+  @Test
+  void quietMoveToAttackedSquare() {
+    assertThat(see("4k3/8/2p5/8/8/4N3/8/4K3 w - - 0 1", "e3d5")).isEqualTo(-320);
+  }
+
+  @Test
+  void kingValue() {
+    assertThat(StaticExchange.value(Piece.PieceType.KING))
+        .isGreaterThan(StaticExchange.value(Piece.PieceType.QUEEN) * 8);
+  }
+
+  @Test
+  void reusedBuffer() {
+    var position = Fen.parse(PerftReference.KIWIPETE.getFen());
+    var moves = new MoveList();
+    var gains = new int[StaticExchange.MAX_CAPTURES];
+    MoveGenerator.generateLegals(position, moves);
+
+    for (var i = 0; i < moves.size(); i++) {
+      assertThat(StaticExchange.see(position, moves.get(i), gains))
+          .isEqualTo(StaticExchange.see(position, moves.get(i)));
+    }
+  }
+
+  private static int see(String fen, String notation) {
+    var position = Fen.parse(fen);
+    var moves = new MoveList();
+    MoveGenerator.generateLegals(position, moves);
+
+    for (var i = 0; i < moves.size(); i++) {
+      if (PackedMove.toString(moves.get(i)).equals(notation)) {
+        return StaticExchange.see(position, moves.get(i));
+      }
+    }
+
+    throw new IllegalArgumentException("Not a legal move: " + notation);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TimeManagerTest {
+
+  TimeManager timeManager = new TimeManager(Duration.ofMinutes(1), Duration.ZERO, 0);
+
+  @Test
+  void suddenDeath() {
+    var soft = timeManager.getSoftLimit();
+
+    assertThat(soft).isBetween(Duration.ofMillis(1000), Duration.ofMillis(3000));
+    assertThat(timeManager.getHardLimit()).isGreaterThan(soft);
+  }
+
+  @Test
+  void incrementAddsTime() {
+    var withIncrement = new TimeManager(Duration.ofMinutes(1), Duration.ofSeconds(2), 0);
+
+    assertThat(withIncrement.getSoftLimit()).isGreaterThan(timeManager.getSoftLimit());
+  }
+
+  @Test
+  void fewMovesToGo() {
+    var lastMove = new TimeManager(Duration.ofMinutes(1), Duration.ZERO, 1);
+
+    assertThat(lastMove.getSoftLimit()).isGreaterThan(timeManager.getSoftLimit());
+    assertThat(lastMove.getHardLimit()).isLessThan(Duration.ofMinutes(1));
+  }
+
+  @Test
+  void neverUsesTheWholeClock() {
+    var clock = Duration.ofMillis(100);
+    var shortOfTime = new TimeManager(clock, Duration.ofSeconds(10), 1);
+
+    assertThat(shortOfTime.getSoftLimit()).isLessThanOrEqualTo(shortOfTime.getHardLimit());
+    assertThat(shortOfTime.getHardLimit()).isLessThan(clock);
+  }
+
+  @Test
+  void noTimeLeft() {
+    var flagging = new TimeManager(Duration.ZERO, Duration.ZERO, 0);
+
+    assertThat(flagging.getSoftLimit()).isZero();
+    assertThat(flagging.getHardLimit()).isZero();
+  }
+
+  @Test
+  void hardLimitBecomesDeadline() {
+    var before = System.nanoTime();
+    var limits = timeManager.start(SearchLimits.depth(10).withNodes(1000));
+
+    assertThat(limits.depth()).isEqualTo(10);
+    assertThat(limits.nodes()).isEqualTo(1000);
+    assertThat(limits.deadline() - before)
+        .isGreaterThanOrEqualTo(timeManager.getHardLimit().toNanos());
+  }
+
+  @Test
+  void keepsEarlierDeadline() {
+    var limits = SearchLimits.infinite().withTime(Duration.ofMillis(10));
+
+    assertThat(timeManager.start(limits)).isEqualTo(limits);
+  }
+
+  @Test
+  void outOfTimeStops() {
+    var quick = new TimeManager(Duration.ZERO, Duration.ZERO, 0);
+    quick.start(SearchLimits.infinite());
+
+    assertThat(quick.shouldStop(info(1, 20, 1))).isTrue();
+  }
+
+  @Test
+  void stableSearchContinues() {
+    timeManager.start(SearchLimits.infinite());
+
+    assertThat(timeManager.shouldStop(info(1, 20, 1))).isFalse();
+    assertThat(timeManager.shouldStop(info(2, 20, 1))).isFalse();
+    assertThat(timeManager.getExtendedSoftLimit()).isEqualTo(timeManager.getSoftLimit().toNanos());
+  }
+
+  @Test
+  void unstableBestMoveExtends() {
+    timeManager.start(SearchLimits.infinite());
+    timeManager.shouldStop(info(1, 20, 1));
+    timeManager.shouldStop(info(2, 20, 2));
+
+    var extended = timeManager.getExtendedSoftLimit();
+
+    assertThat(extended).isGreaterThan(timeManager.getSoftLimit().toNanos());
+    assertThat(extended).isLessThanOrEqualTo(timeManager.getHardLimit().toNanos());
+
+    timeManager.shouldStop(info(3, 20, 2));
+
+    assertThat(timeManager.getExtendedSoftLimit()).isLessThan(extended);
+  }
+
+  @Test
+  void scoreDropExtends() {
+    timeManager.start(SearchLimits.infinite());
+    timeManager.shouldStop(info(1, 20, 1));
+    timeManager.shouldStop(info(2, -50, 1));
+
+    assertThat(timeManager.getExtendedSoftLimit())
+        .isGreaterThan(timeManager.getSoftLimit().toNanos());
+  }
+
+  @Test
+  void scoreRiseDoesntExtend() {
+    timeManager.start(SearchLimits.infinite());
+    timeManager.shouldStop(info(1, 20, 1));
+    timeManager.shouldStop(info(2, 90, 1));
+
+    assertThat(timeManager.getExtendedSoftLimit()).isEqualTo(timeManager.getSoftLimit().toNanos());
+  }
+
+  @Test
+  void startForgetsLastSearch() {
+    timeManager.start(SearchLimits.infinite());
+    timeManager.shouldStop(info(1, 20, 1));
+    timeManager.shouldStop(info(2, 20, 2));
+
+    timeManager.start(SearchLimits.infinite());
+
+    assertThat(timeManager.getExtendedSoftLimit()).isEqualTo(timeManager.getSoftLimit().toNanos());
+  }
+
+  private static SearchInfo info(int depth, int score, int bestMove) {
+    return new SearchInfo(depth, score, 0, 0, new int[] {bestMove});
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.PackedMove;
+import cl.vmardones.chess.engine.piece.Piece;
+import org.junit.jupiter.api.Test;
+
+class TranspositionTableTest {
+
+  static final int MOVE =
+      PackedMove.of(52, 36, PackedMove.DOUBLE_PUSH, Piece.PieceType.PAWN, null);
+
+  @Test
+  void capacity() {
+    assertThat(new TranspositionTable(1).capacity()).isEqualTo((1 << 20) / 16);
+    assertThat(new TranspositionTable(3).capacity()).isEqualTo((1 << 21) / 16);
+  }
+
+  @Test
+  void storeAndProbe() {
+    var table = new TranspositionTable(1);
+
+    table.store(0x1234_5678_9ABCL, MOVE, -250, 7, TranspositionTable.LOWER_BOUND);
+    var entry = table.probe(0x1234_5678_9ABCL);
+
+    assertThat(TranspositionTable.move(entry)).isEqualTo(MOVE);
+    assertThat(TranspositionTable.score(entry)).isEqualTo(-250);
+    assertThat(TranspositionTable.depth(entry)).isEqualTo(7);
+    assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.LOWER_BOUND);
+  }
+
+  @Test
+  void missingKey() {
+    var table = new TranspositionTable(1);
+
+    table.store(42, MOVE, 0, 1, TranspositionTable.EXACT);
+
+    assertThat(table.probe(43)).isEqualTo(TranspositionTable.NONE);
+    assertThat(table.probe(42 + table.capacity() / 2)).isEqualTo(TranspositionTable.NONE);
+  }
+
+  @Test
+  void offHeap() {
+    var table = new TranspositionTable(1, true);
+
+    table.store(-1L, MOVE, Search.MATE - 3, 127, TranspositionTable.EXACT);
+
+    assertThat(TranspositionTable.score(table.probe(-1L))).isEqualTo(Search.MATE - 3);
+    assertThat(TranspositionTable.depth(table.probe(-1L))).isEqualTo(127);
+  }
+
+  @Test
+  void keepsDeeperEntries() {
+    var table = new TranspositionTable(1);
+    var buckets = table.capacity() / 2;
+
+    table.store(5, MOVE, 0, 10, TranspositionTable.EXACT);
+    table.store(5 + buckets, MOVE, 0, 2, TranspositionTable.EXACT);
+    table.store(5 + 2 * buckets, MOVE, 0, 3, TranspositionTable.EXACT);
+
+    assertThat(table.probe(5)).isNotEqualTo(TranspositionTable.NONE);
+    assertThat(table.probe(5 + buckets)).isEqualTo(TranspositionTable.NONE);
+    assertThat(table.probe(5 + 2 * buckets)).isNotEqualTo(TranspositionTable.NONE);
+  }
+
+  @Test
+  void replacesOldEntries() {
+    var table = new TranspositionTable(1);
+    var buckets = table.capacity() / 2;
+
+    table.store(5, MOVE, 0, 10, TranspositionTable.EXACT);
+    table.store(5 + buckets, MOVE, 0, 9, TranspositionTable.EXACT);
+    table.newSearch();
+    table.store(5 + 2 * buckets, MOVE, 0, 1, TranspositionTable.EXACT);
+
+    assertThat(table.probe(5 + buckets)).isEqualTo(TranspositionTable.NONE);
+    assertThat(table.probe(5 + 2 * buckets)).isNotEqualTo(TranspositionTable.NONE);
+  }
+
+  @Test
+  void keepsBestMove() {
+    var table = new TranspositionTable(1);
+
+    table.store(9, MOVE, 30, 4, TranspositionTable.EXACT);
+    table.store(9, PackedMove.NONE, -10, 5, TranspositionTable.UPPER_BOUND);
+
+    assertThat(TranspositionTable.move(table.probe(9))).isEqualTo(MOVE);
+    assertThat(TranspositionTable.depth(table.probe(9))).isEqualTo(5);
+  }
+
+  @Test
+  void clear() {
+    var table = new TranspositionTable(1);
+
+    table.store(9, MOVE, 30, 4, TranspositionTable.EXACT);
+    table.clear();
+
+    assertThat(table.probe(9)).isEqualTo(TranspositionTable.NONE);
+  }
+
+  @Test
+  void hashfull() {
+    var table = new TranspositionTable(1);
+
+    assertThat(table.hashfull()).isZero();
+
+    new Search(table).search(Fen.parse(Fen.STANDARD), SearchLimits.depth(6));
+
+    assertThat(table.hashfull()).isPositive();
+  }
+
+  @Test
+  void sharedBySearches() {
+    var table = new TranspositionTable(8);
+    var first = new Search(table).search(Fen.parse(Fen.STANDARD), SearchLimits.depth(5));
+    var second = new Search(table).search(Fen.parse(Fen.STANDARD), SearchLimits.depth(5));
+
+    assertThat(second.nodes()).isLessThan(first.nodes());
+  }
+}
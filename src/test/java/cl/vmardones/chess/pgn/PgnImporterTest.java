@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import cl.vmardones.chess.engine.board.Fen;
+import cl.vmardones.chess.engine.move.PackedMove;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PgnImporterTest {
+
+  private static final String SCHOLARS_MATE = "1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0\n\n";
+  private static final String ROOKS = "4k3/8/8/8/8/8/4K3/R6R w - - 0 1";
+
+  private static final String GAMES =
+      "[White \"First\"]\n\n"
+          + SCHOLARS_MATE
+          + "[White \"Duplicate\"]\n\n"
+          + SCHOLARS_MATE
+          + "[White \"Illegal\"]\n\n1. e4 e5 2. Ke3 *\n\n"
+          + "[FEN \""
+          + ROOKS
+          + "\"]\n\n1. Rd1 *\n\n"
+          + "[FEN \""
+          + ROOKS
+          + "\"]\n\n1. Rad1 Kf7 *\n\n"
+          + "[FEN \"8/8/8 w - - 0 1\"]\n\n1. e4 *\n\n";
+
+  @TempDir Path directory;
+
+  PgnImporter importer = new PgnImporter(3);
+  ConcurrentLinkedQueue<ImportedGame> games = new ConcurrentLinkedQueue<>();
+  ConcurrentLinkedQueue<ImportError> errors = new ConcurrentLinkedQueue<>();
+
+  @AfterEach
+  void tearDown() {
+    importer.close();
+  }
+
+  @Test
+  void stats() throws IOException {
+    var stats = importFile(GAMES);
+
+    assertThat(stats.read().games()).isEqualTo(6);
+    assertThat(stats.imported()).isEqualTo(2);
+    assertThat(stats.duplicates()).isEqualTo(1);
+    assertThat(stats.invalid()).isEqualTo(3);
+  }
+
+  @Test
+  void moves() throws IOException {
+    importFile(GAMES);
+
+    var game = games.stream().filter(imported -> imported.game().tags().size() == 1).findFirst();
+
+    assertThat(game).isPresent();
+    assertThat(Arrays.stream(game.get().moves()).mapToObj(PackedMove::toString))
+        .containsExactly("e2e4", "e7e5", "f1c4", "b8c6", "d1h5", "g8f6", "h5f7");
+    assertThat(game.get().game().tag("White")).isEqualTo("First");
+  }
+
+  @Test
+  void hash() throws IOException {
+    importFile(GAMES);
+
+    for (var game : games) {
+      var fen = game.game().tags().getOrDefault("FEN", Fen.STANDARD);
+
+      assertThat(game.hash())
+          .isEqualTo(PgnImporter.hash(Fen.parse(fen).getZobristKey(), game.moves()));
+    }
+  }
+
+  @Test
+  void errors() throws IOException {
+    importFile(GAMES);
+
+    assertThat(errors)
+        .extracting(ImportError::offset, ImportError::ply)
+        .containsExactlyInAnyOrder(
+            tuple((long) GAMES.indexOf("[White \"Illegal"), 2),
+            tuple((long) GAMES.indexOf("[FEN"), 0),
+            tuple((long) GAMES.lastIndexOf("[FEN"), 0));
+    assertThat(errors)
+        .extracting(ImportError::reason)
+        .contains("Illegal move Ke3", "Ambiguous move Rd1");
+  }
+
+  @Test
+  void manyBatches() throws IOException {
+    var stats = importFile(GAMES.repeat(600));
+
+    assertThat(stats.read().games()).isEqualTo(3600);
+    assertThat(stats.imported()).isEqualTo(2);
+    assertThat(stats.duplicates()).isEqualTo(1798);
+    assertThat(stats.invalid()).isEqualTo(1800);
+    assertThat(errors).hasSize(1800);
+  }
+
+  private ImportStats importFile(String text) throws IOException {
+    var path = directory.resolve("games.pgn");
+    Files.writeString(path, text);
+
+    return importer.importFile(path, games::add, errors::add);
+  }
+}
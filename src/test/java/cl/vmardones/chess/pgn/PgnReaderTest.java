@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.pgn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PgnReaderTest {
+
+  private static final String GAMES =
+      """
+      [Event "Casual game"]
+      [White "Anderssen, Adolf"]
+      [Black "Kieseritzky, Lionel"]
+      [Result "1-0"]
+
+      1. e4 e5 2. f4 exf4 3. Bc4 Qh4+ { Black loses the right to castle } 4. Kf1 b5 $6
+      5. Bxb5 1-0
+
+      [Event "Other game"]
+      [Result "*"]
+
+      1. d4 d5 (1... Nf6 2. c4 (2. Nf3 g6) e6) 2. c4 *
+      """;
+
+  @TempDir Path directory;
+
+  @Test
+  void tags() throws IOException {
+    var game = readAll(GAMES).get(0);
+
+    assertThat(game.tags()).containsKeys("Event", "White", "Black", "Result");
+    assertThat(game.tag("White")).isEqualTo("Anderssen, Adolf");
+    assertThat(game.tag("Date")).isEqualTo("?");
+  }
+
+  @Test
+  void moves() throws IOException {
+    var game = readAll(GAMES).get(0);
+
+    assertThat(game.moves())
+        .containsExactly("e4", "e5", "f4", "exf4", "Bc4", "Qh4+", "Kf1", "b5", "Bxb5");
+    assertThat(game.result()).isEqualTo("1-0");
+  }
+
+  @Test
+  void comments() throws IOException {
+    var game = readAll(GAMES).get(0);
+
+    assertThat(game.comments())
+        .containsExactly(new PgnGame.Comment(6, "Black loses the right to castle"));
+  }
+
+  @Test
+  void variations() throws IOException {
+    var game = readAll(GAMES).get(1);
+
+    assertThat(game.moves()).containsExactly("d4", "d5", "c4");
+    assertThat(game.variations()).containsExactly(new PgnGame.Variation(1, "Nf6 c4 (Nf3 g6) e6"));
+    assertThat(game.result()).isEqualTo("*");
+  }
+
+  @Test
+  void offsets() throws IOException {
+    var games = readAll(GAMES);
+
+    assertThat(games).hasSize(2);
+    assertThat(games.get(0).offset()).isZero();
+    assertThat(games.get(1).offset()).isEqualTo(GAMES.indexOf("[Event \"Other"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 7, 64})
+  void smallBuffers(int bufferSize) throws IOException {
+    assertThat(readAll(GAMES, bufferSize)).isEqualTo(readAll(GAMES));
+  }
+
+  @Test
+  void gameWithoutResult() throws IOException {
+    var games = readAll("[Result \"0-1\"]\n1. f3 e5 2. g4\n[Event \"Next\"]\n1. e4 1-0");
+
+    assertThat(games).hasSize(2);
+    assertThat(games.get(0).moves()).containsExactly("f3", "e5", "g4");
+    assertThat(games.get(0).result()).isEqualTo("0-1");
+    assertThat(games.get(1).tag("Event")).isEqualTo("Next");
+  }
+
+  @Test
+  void escapes() throws IOException {
+    var game = readAll("[Event \"The \\\"Immortal\\\" game\"]\n% A comment line\n1. e4 *").get(0);
+
+    assertThat(game.tag("Event")).isEqualTo("The \"Immortal\" game");
+    assertThat(game.moves()).containsExactly("e4");
+  }
+
+  @Test
+  void annotations() throws IOException {
+    var game = readAll("1. e4! e5?! 2. Nf3 $1 ; Rest of line\n2... Nc6 1/2-1/2").get(0);
+
+    assertThat(game.moves()).containsExactly("e4", "e5", "Nf3", "Nc6");
+    assertThat(game.comments()).containsExactly(new PgnGame.Comment(3, "Rest of line"));
+    assertThat(game.result()).isEqualTo("1/2-1/2");
+    assertThat(game.offset()).isZero();
+  }
+
+  @Test
+  void unicode() throws IOException {
+    var game = readAll("[White \"Víctor\"]\n1. e4 { ¡Bien! } *").get(0);
+
+    assertThat(game.tag("White")).isEqualTo("Víctor");
+    assertThat(game.comments()).containsExactly(new PgnGame.Comment(1, "¡Bien!"));
+  }
+
+  @Test
+  void empty() throws IOException {
+    assertThat(readAll("")).isEmpty();
+    assertThat(readAll("\n\n  \n")).isEmpty();
+  }
+
+  @Test
+  void file() throws IOException {
+    var path = directory.resolve("games.pgn");
+    Files.writeString(path, GAMES.repeat(10));
+    var games = new ArrayList<PgnGame>();
+
+    var stats = PgnReader.read(path, games::add);
+
+    assertThat(games).hasSize(20);
+    assertThat(stats.games()).isEqualTo(20);
+    assertThat(stats.bytes()).isEqualTo(Files.size(path));
+  }
+
+  private static List<PgnGame> readAll(String text) throws IOException {
+    return readAll(text, PgnTokenizer.DEFAULT_BUFFER_SIZE);
+  }
+
+  private static List<PgnGame> readAll(String text, int bufferSize) throws IOException {
+    var input = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    var games = new ArrayList<PgnGame>();
+
+    try (var reader = new PgnReader(Channels.newChannel(input), bufferSize)) {
+      for (var game = reader.next(); game.isPresent(); game = reader.next()) {
+        games.add(game.get());
+      }
+    }
+
+    return games;
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2022  Víctor Mardones
+ * The full notice can be found at README.md in the root directory.
+ */
+
+package cl.vmardones.chess.uci;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cl.vmardones.chess.engine.board.Fen;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class UciEngineTest {
+
+  ByteArrayOutputStream output = new ByteArrayOutputStream();
+  UciEngine engine =
+      new UciEngine(new StringReader(""), new PrintStream(output, true, StandardCharsets.UTF_8));
+
+  @AfterEach
+  void quit() {
+    engine.execute("quit");
+  }
+
+  @Test
+  void identify() {
+    engine.execute("uci");
+
+    assertThat(output()).startsWith("id name ").contains("option name Hash").endsWith("uciok\n");
+  }
+
+  @Test
+  void isReady() {
+    engine.execute("isready");
+
+    assertThat(output()).isEqualTo("readyok\n");
+  }
+
+  @Test
+  void unknownCommand() {
+    assertThat(engine.execute("xboard")).isTrue();
+    assertThat(engine.execute("")).isTrue();
+    assertThat(output()).isEmpty();
+  }
+
+  @Test
+  void quitCommand() {
+    assertThat(engine.execute("quit")).isFalse();
+  }
+
+  @Test
+  void startPositionWithMoves() {
+    engine.execute("position startpos moves g1f3 g8f6");
+
+    var expected = Fen.parse("rnbqkb1r/pppppppp/5n2/8/8/5N2/PPPPPPPP/RNBQKB1R w KQkq - 2 2");
+
+    assertThat(engine.getPosition().getZobristKey()).isEqualTo(expected.getZobristKey());
+  }
+
+  @Test
+  void fenWithSpecialMoves() {
+    engine.execute("position fen r3k3/1P6/8/8/8/8/8/R3K2R w KQq - 0 1 moves e1g1 e8d7 b7a8q");
+
+    var expected = Fen.parse("Q7/3k4/8/8/8/8/8/R4RK1 b - - 0 2");
+
+    assertThat(engine.getPosition().getZobristKey()).isEqualTo(expected.getZobristKey());
+  }
+
+  @Test
+  void underpromotion() {
+    engine.execute("position fen 4k3/P7/8/8/8/8/8/4K3 w - - 0 1 moves a7a8n");
+
+    var expected = Fen.parse("N3k3/8/8/8/8/8/8/4K3 b - - 0 1");
+
+    assertThat(engine.getPosition().getZobristKey()).isEqualTo(expected.getZobristKey());
+  }
+
+  @Test
+  void illegalMove() {
+    engine.execute("position startpos moves e2e4");
+    engine.execute("position startpos moves e2e5");
+
+    assertThat(output()).isEqualTo("info string Illegal move e2e5\n");
+    assertThat(engine.getPosition().getZobristKey())
+        .isEqualTo(
+            Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1")
+                .getZobristKey());
+  }
+
+  @Test
+  void invalidFen() {
+    engine.execute("position fen 8/8/8 w - - 0 1");
+
+    assertThat(output()).startsWith("info string ");
+    assertThat(engine.getPosition().getZobristKey())
+        .isEqualTo(Fen.parse(Fen.STANDARD).getZobristKey());
+  }
+
+  @Test
+  void goDepth() {
+    engine.execute("position startpos");
+    engine.execute("go depth 3");
+    engine.awaitSearch();
+
+    assertThat(output()).contains("info depth 3 ").doesNotContain("info depth 4 ");
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  @Test
+  void goNodes() {
+    engine.execute("go nodes 1000");
+    engine.awaitSearch();
+
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  @Test
+  void goMoveTime() {
+    var start = System.nanoTime();
+    engine.execute("go movetime 50");
+    engine.awaitSearch();
+
+    assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  @Test
+  void goClock() {
+    engine.execute("position startpos moves e2e4");
+    engine.execute("go wtime 0 btime 3000 winc 0 binc 100");
+    engine.awaitSearch();
+
+    assertThat(output()).contains("info depth 1 ");
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  @Test
+  void stopInfiniteSearch() {
+    engine.execute("go infinite");
+    engine.execute("isready");
+    engine.execute("stop");
+
+    assertThat(output()).contains("readyok");
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  @Test
+  void infiniteSearchWaitsForStop() throws InterruptedException {
+    engine.execute("position startpos moves f2f3 e7e5 g2g4 d8h4");
+    engine.execute("go infinite");
+    // The search of a mated position ends at once, but the best move has to wait for stop
+    Thread.sleep(100);
+
+    assertThat(output()).doesNotContain("bestmove");
+
+    engine.execute("stop");
+
+    assertThat(lastLine()).isEqualTo("bestmove 0000");
+  }
+
+  @Test
+  @Timeout(10)
+  void ponderWaitsForPonderHit() throws InterruptedException {
+    engine.execute("go ponder depth 1");
+
+    while (!output().contains("info depth 1 ")) {
+      Thread.sleep(10);
+    }
+
+    Thread.sleep(100);
+
+    assertThat(output()).doesNotContain("bestmove");
+
+    engine.execute("ponderhit");
+    engine.awaitSearch();
+
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  @Test
+  @Timeout(10)
+  void stopBeforeSearchStarts() throws InterruptedException {
+    var blocked = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    engine
+        .getSearchThread()
+        .submit(
+            () -> {
+              blocked.countDown();
+              release.await();
+              return null;
+            });
+    blocked.await();
+
+    // Without the stop, the search would take longer than the timeout
+    engine.execute("go movetime 60000");
+    engine.getSearch().stop();
+    release.countDown();
+    engine.awaitSearch();
+
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  @Test
+  void mated() {
+    engine.execute("position startpos moves f2f3 e7e5 g2g4 d8h4");
+    engine.execute("go depth 3");
+    engine.awaitSearch();
+
+    assertThat(lastLine()).isEqualTo("bestmove 0000");
+  }
+
+  @Test
+  void setOptions() {
+    engine.execute("setoption name Hash value 1");
+    engine.execute("setoption name Threads value 2");
+    engine.execute("setoption name Ponder value true");
+    engine.execute("ucinewgame");
+    engine.execute("go depth 4");
+    engine.awaitSearch();
+
+    assertThat(output()).contains("info depth 4 ");
+    assertThat(lastLine()).startsWith("bestmove ");
+  }
+
+  private String output() {
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  private String lastLine() {
+    var lines = output().split("\n");
+
+    return lines[lines.length - 1];
+  }
+}